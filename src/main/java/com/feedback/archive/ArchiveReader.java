@@ -0,0 +1,352 @@
+package com.feedback.archive;
+
+import com.github.luben.zstd.Zstd;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the segment archive. Every segment file is memory-mapped once; a lookup
+ * walks the in-memory block index and decompresses only the blocks whose id range,
+ * time range and participant bloom filter can match. Recently used blocks are kept
+ * decompressed in a small LRU, so paging through one user's history doesn't
+ * decompress the same block again.
+ *
+ * If a crash left a record both in a segment and in the database, the database copy
+ * is the one callers see; within the segments, the newest segment wins. A segment that
+ * a rewrite has replaced is skipped as soon as its replacement is published, even if a
+ * crash kept it from being deleted (see {@link SegmentJournal}).
+ */
+@Component
+public class ArchiveReader {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveReader.class);
+
+    private static final String PREFIX = "segment-";
+    private static final int CACHED_BLOCKS = 64;
+
+    private final Path directory;
+    private final SegmentJournal journal;
+    private final Map<BlockKey, byte[]> blockCache = new LinkedHashMap<>(CACHED_BLOCKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BlockKey, byte[]> eldest) {
+            return size() > CACHED_BLOCKS;
+        }
+    };
+
+    // Oldest segment first; replaced as a whole when segments are added or removed
+    private volatile List<Segment> segments = List.of();
+
+    public ArchiveReader(@Value("${feedback.segments.dir:data/archive-segments}") String directory) {
+        this.directory = Paths.get(directory);
+        this.journal = new SegmentJournal(this.directory);
+        refresh();
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    SegmentJournal journal() {
+        return journal;
+    }
+
+    /** Re-read the segment directory, mapping new files and dropping removed ones */
+    public synchronized void refresh() {
+        Map<Path, Segment> known = new LinkedHashMap<>();
+        for (Segment segment : segments) {
+            known.put(segment.path, segment);
+        }
+        List<Segment> loaded = new ArrayList<>();
+        for (Path path : liveSegmentFiles()) {
+            Segment segment = known.get(path);
+            loaded.add(segment != null ? segment : open(path));
+        }
+        segments = List.copyOf(loaded);
+        synchronized (blockCache) {
+            blockCache.keySet().removeIf(key -> loaded.stream().noneMatch(segment -> segment.path.equals(key.path)));
+        }
+    }
+
+    /** Segment files in the directory, oldest first */
+    List<Path> segmentFiles() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SegmentFormat.EXTENSION);
+                    })
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list archive segments in " + directory, e);
+        }
+    }
+
+    /** Segment files in the directory that no published replacement supersedes, oldest first */
+    List<Path> liveSegmentFiles() {
+        List<Path> files = segmentFiles();
+        if (files.isEmpty()) {
+            return files;
+        }
+        Set<String> superseded = journal.superseded();
+        return files.stream().filter(path -> !superseded.contains(path.getFileName().toString())).toList();
+    }
+
+    /** Number the next segment file after the newest one present */
+    Path nextSegmentPath() {
+        List<Path> files = segmentFiles();
+        int next = 1;
+        if (!files.isEmpty()) {
+            String name = files.get(files.size() - 1).getFileName().toString();
+            next = Integer.parseInt(name.substring(PREFIX.length(), name.length() - SegmentFormat.EXTENSION.length())) + 1;
+        }
+        return directory.resolve(String.format("%s%08d%s", PREFIX, next, SegmentFormat.EXTENSION));
+    }
+
+    /** Segment files holding records created before the given time, oldest first */
+    List<Path> segmentsWithRecordsBefore(LocalDateTime time) {
+        long millis = SegmentFormat.toMillis(time);
+        return segments.stream()
+                .filter(segment -> segment.footer.recordCount() > 0 && segment.footer.minTime() < millis)
+                .map(Segment::path)
+                .toList();
+    }
+
+    /**
+     * Segment files an erasure of the user has to look at, oldest first: those with a
+     * block whose bloom filter may hold the user, and those with records created at or
+     * after {@code mentionsSince}, which may mention them by name. Files written before
+     * the filters covered action items are always included.
+     */
+    List<Path> segmentsForErasure(long userId, LocalDateTime mentionsSince) {
+        long millis = SegmentFormat.toMillis(mentionsSince);
+        return segments.stream()
+                .filter(segment -> segment.footer.recordCount() > 0)
+                .filter(segment -> segment.footer.version() < SegmentFormat.ACTION_ITEM_BLOOM_VERSION
+                        || segment.footer.maxTime() >= millis
+                        || segment.blocks.stream().anyMatch(block -> block.mayInvolve(userId)))
+                .map(Segment::path)
+                .toList();
+    }
+
+    /** Every record in one segment, decompressed without going through the block cache */
+    List<ArchiveRecord> readSegment(Path path) {
+        Segment segment = segments.stream().filter(s -> s.path.equals(path)).findFirst().orElseGet(() -> open(path));
+        List<ArchiveRecord> records = new ArrayList<>(segment.footer.recordCount());
+        for (SegmentFormat.BlockInfo info : segment.blocks) {
+            ByteBuffer in = ByteBuffer.wrap(decompress(segment, info));
+            while (in.hasRemaining()) {
+                records.add(SegmentFormat.readRecord(in, segment.footer.version()));
+            }
+        }
+        return records;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public long recordCount() {
+        return segments.stream().mapToLong(segment -> segment.footer.recordCount()).sum();
+    }
+
+    /** Public posts in the segments that are not near-duplicates, for the Wall of Appreciation totals */
+    public long publicPostCount() {
+        return segments.stream().mapToLong(segment -> segment.footer.publicCount()).sum();
+    }
+
+    /** Public posts created after the given time */
+    public long publicPostCountAfter(LocalDateTime after) {
+        return scan(after, null, null, record -> record.isWallPost() && record.createdAt().isAfter(after)).size();
+    }
+
+    public Optional<ArchiveRecord> findById(long id) {
+        List<Segment> current = segments;
+        for (int s = current.size() - 1; s >= 0; s--) {
+            Segment segment = current.get(s);
+            if (id < segment.footer.minId() || id > segment.footer.maxId()) {
+                continue;
+            }
+            int block = segment.blockFor(id);
+            if (block < 0) {
+                continue;
+            }
+            ByteBuffer in = ByteBuffer.wrap(block(segment, block));
+            while (in.hasRemaining()) {
+                ArchiveRecord record = SegmentFormat.readRecord(in, segment.footer.version());
+                if (record.id() == id) {
+                    return Optional.of(record);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Feedback the user received in [from, to); either bound may be null for open-ended */
+    public List<ArchiveRecord> findReceived(Long recipientId, LocalDateTime from, LocalDateTime to) {
+        return scan(from, to, recipientId, record -> recipientId.equals(record.recipientId()));
+    }
+
+    /** Feedback the user sent in [from, to); either bound may be null for open-ended */
+    public List<ArchiveRecord> findSent(Long senderId, LocalDateTime from, LocalDateTime to) {
+        return scan(from, to, senderId, record -> senderId.equals(record.senderId()));
+    }
+
+    /** All feedback in [from, to); either bound may be null for open-ended */
+    public List<ArchiveRecord> findBetween(LocalDateTime from, LocalDateTime to) {
+        return scan(from, to, null, record -> true);
+    }
+
+    /**
+     * Feedback in [from, to) counted per key, without keeping the records; records the
+     * key maps to null are left out. Either bound may be null for open-ended.
+     */
+    public <K> Map<K, Long> countBetween(LocalDateTime from, LocalDateTime to, Function<ArchiveRecord, K> key) {
+        // By id, so a record in more than one segment is counted under the newest one's key
+        Map<Long, K> keys = new HashMap<>();
+        visit(from, to, null, record -> keys.put(record.id(), key.apply(record)));
+        Map<K, Long> counts = new HashMap<>();
+        for (K k : keys.values()) {
+            if (k != null) {
+                counts.merge(k, 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private List<ArchiveRecord> scan(LocalDateTime from, LocalDateTime to, Long participantId,
+                                     Predicate<ArchiveRecord> filter) {
+        Map<Long, ArchiveRecord> found = new LinkedHashMap<>();
+        visit(from, to, participantId, record -> {
+            if (filter.test(record)) {
+                found.put(record.id(), record);
+            }
+        });
+        return new ArrayList<>(found.values());
+    }
+
+    // Oldest segment first, so a later visit of the same id comes from a newer segment
+    private void visit(LocalDateTime from, LocalDateTime to, Long participantId, Consumer<ArchiveRecord> visitor) {
+        long fromMillis = from != null ? SegmentFormat.toMillis(from) : Long.MIN_VALUE;
+        // "to" is exclusive; the index bounds are inclusive
+        long toMillis = to != null ? SegmentFormat.toMillis(to) - 1 : Long.MAX_VALUE;
+        for (Segment segment : segments) {
+            if (segment.footer.recordCount() == 0
+                    || segment.footer.maxTime() < fromMillis || segment.footer.minTime() > toMillis) {
+                continue;
+            }
+            for (int b = 0; b < segment.blocks.size(); b++) {
+                SegmentFormat.BlockInfo info = segment.blocks.get(b);
+                if (info.maxTime() < fromMillis || info.minTime() > toMillis
+                        || (participantId != null && !info.mayInvolve(participantId))) {
+                    continue;
+                }
+                ByteBuffer in = ByteBuffer.wrap(block(segment, b));
+                while (in.hasRemaining()) {
+                    ArchiveRecord record = SegmentFormat.readRecord(in, segment.footer.version());
+                    long time = SegmentFormat.toMillis(record.createdAt());
+                    if (time >= fromMillis && time <= toMillis) {
+                        visitor.accept(record);
+                    }
+                }
+            }
+        }
+    }
+
+    private byte[] block(Segment segment, int index) {
+        BlockKey key = new BlockKey(segment.path, index);
+        synchronized (blockCache) {
+            byte[] cached = blockCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] raw = decompress(segment, segment.blocks.get(index));
+        synchronized (blockCache) {
+            blockCache.put(key, raw);
+        }
+        return raw;
+    }
+
+    private static byte[] decompress(Segment segment, SegmentFormat.BlockInfo info) {
+        byte[] compressed = new byte[info.compressedLength()];
+        segment.data.get((int) info.offset(), compressed);
+        return Zstd.decompress(compressed, info.rawLength());
+    }
+
+    private static Segment open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SegmentFormat.FOOTER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Archive segment " + path + " has an unexpected size of " + size);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            SegmentFormat.Footer footer = SegmentFormat.Footer.readFrom(
+                    data.slice((int) size - SegmentFormat.FOOTER_SIZE, SegmentFormat.FOOTER_SIZE));
+            ByteBuffer index = data.slice((int) footer.indexOffset(),
+                    footer.blockCount() * SegmentFormat.BLOCK_INFO_SIZE);
+            List<SegmentFormat.BlockInfo> blocks = new ArrayList<>(footer.blockCount());
+            for (int i = 0; i < footer.blockCount(); i++) {
+                blocks.add(SegmentFormat.BlockInfo.readFrom(index));
+            }
+            log.debug("Mapped archive segment {}: {} records in {} blocks", path.getFileName(),
+                    footer.recordCount(), footer.blockCount());
+            return new Segment(path, data, footer, List.copyOf(blocks));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open archive segment " + path, e);
+        }
+    }
+
+    private record Segment(Path path, MappedByteBuffer data, SegmentFormat.Footer footer,
+                           List<SegmentFormat.BlockInfo> blocks) {
+
+        /** Index of the block whose id range holds the id, or -1 */
+        int blockFor(long id) {
+            int low = 0;
+            int high = blocks.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                SegmentFormat.BlockInfo block = blocks.get(mid);
+                if (id < block.firstId()) {
+                    high = mid - 1;
+                } else if (id > block.lastId()) {
+                    low = mid + 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private record BlockKey(Path path, int index) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.feedback.archive;
+
+import com.feedback.model.ActionItem;
+import com.feedback.model.ActionItemStatus;
+import com.feedback.model.ArchivedFeedback;
+import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.Priority;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One piece of feedback as stored in a segment file, with its action items inline.
+ * Users are kept as ids only; segments outlive any particular view of the user table.
+ */
+public record ArchiveRecord(long id,
+                            Long senderId,
+                            Long recipientId,
+                            String content,
+                            LocalDateTime createdAt,
+                            PrivacyLevel privacyLevel,
+                            String category,
+                            boolean read,
+                            FeedbackStatus status,
+                            Long templateVersionId,
+                            Byte sentiment,
+                            Long duplicateOfId,
+                            List<ActionItemRecord> actionItems) {
+    
+    public record ActionItemRecord(long id,
+                                   Long assignedToId,
+                                   Long createdById,
+                                   String title,
+                                   String description,
+                                   LocalDate dueDate,
+                                   LocalDateTime createdAt,
+                                   LocalDateTime completedAt,
+                                   ActionItemStatus status,
+                                   Priority priority) {
+        
+        static ActionItemRecord of(ActionItem item) {
+            return new ActionItemRecord(item.getId(), idOf(item.getAssignedTo()), idOf(item.getCreatedBy()),
+                    item.getTitle(), item.getDescription(), item.getDueDate(), item.getCreatedAt(),
+                    item.getCompletedAt(), item.getStatus(), item.getPriority());
+        }
+    }
+    
+    static ArchiveRecord of(Feedback feedback, List<ActionItem> actionItems) {
+        return new ArchiveRecord(feedback.getId(), idOf(feedback.getSender()), idOf(feedback.getRecipient()),
+                feedback.getContent(), feedback.getCreatedAt(), feedback.getPrivacyLevel(), feedback.getCategory(),
+                feedback.isRead(), feedback.getStatus(), feedback.getTemplateVersionId(), feedback.getSentiment(),
+                feedback.getDuplicateOfId(), actionItems.stream().map(ActionItemRecord::of).toList());
+    }
+    
+    static ArchiveRecord of(ArchivedFeedback feedback) {
+        return new ArchiveRecord(feedback.getId(), idOf(feedback.getSender()), idOf(feedback.getRecipient()),
+                feedback.getContent(), feedback.getCreatedAt(), feedback.getPrivacyLevel(), feedback.getCategory(),
+                feedback.isRead(), feedback.getStatus(), feedback.getTemplateVersionId(), feedback.getSentiment(),
+                feedback.getDuplicateOfId(), List.of());
+    }
+    
+    /** Whether the user sent or received this feedback */
+    public boolean involves(Long userId) {
+        return userId.equals(senderId) || userId.equals(recipientId);
+    }
+    
+    /** Public and not a near-duplicate, so it counts towards the Wall of Appreciation */
+    public boolean isWallPost() {
+        return privacyLevel == PrivacyLevel.PUBLIC && duplicateOfId == null;
+    }
+    
+    /**
+     * A detached, read-only {@link Feedback} for views, with users resolved from the
+     * given map; null if the sender or recipient is no longer there
+     */
+    public Feedback toFeedback(Map<Long, User> users) {
+        User sender = senderId != null ? users.get(senderId) : null;
+        User recipient = recipientId != null ? users.get(recipientId) : null;
+        if ((senderId != null && sender == null) || (recipientId != null && recipient == null)) {
+            return null;
+        }
+        Feedback feedback = new Feedback();
+        feedback.setId(id);
+        feedback.setSender(sender);
+        feedback.setRecipient(recipient);
+        feedback.setContent(content);
+        feedback.setCreatedAt(createdAt);
+        feedback.setPrivacyLevel(privacyLevel);
+        feedback.setCategory(category);
+        feedback.setRead(read);
+        feedback.setStatus(status);
+        feedback.setTemplateVersionId(templateVersionId);
+        feedback.setSentiment(sentiment);
+        feedback.setDuplicateOfId(duplicateOfId);
+        feedback.setArchived(true);
+        return feedback;
+    }
+    
+    private static Long idOf(User user) {
+        return user != null ? user.getId() : null;
+    }
+}
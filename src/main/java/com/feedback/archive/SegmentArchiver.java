@@ -0,0 +1,335 @@
+package com.feedback.archive;
+
+import com.feedback.model.ActionItem;
+import com.feedback.model.ActionItemStatus;
+import com.feedback.model.ArchivedFeedback;
+import com.feedback.model.Feedback;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Moves feedback past the segment horizon out of the database into compressed segment
+ * files. Each batch is one transaction that writes one segment and then deletes what
+ * it wrote: rows from {@code feedback_archive}, and hot feedback that never made it
+ * there because of action items, once those are all completed (the items go into the
+ * segment with it).
+ *
+ * The segment is on disk before the deletes commit. If the transaction then fails,
+ * the rows exist in both places until the next run, and readers prefer the database.
+ */
+@Component
+public class SegmentArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentArchiver.class);
+
+    private final FeedbackRepository feedbackRepository;
+    private final ArchivedFeedbackRepository archivedFeedbackRepository;
+    private final ActionItemRepository actionItemRepository;
+    private final ArchiveReader archiveReader;
+    private final TransactionTemplate transactionTemplate;
+    private final SegmentWriter writer;
+    private final int horizonDays;
+    private final int recordsPerSegment;
+    private final long batchPauseMillis;
+
+    private volatile boolean stopped;
+
+    @Autowired
+    public SegmentArchiver(FeedbackRepository feedbackRepository,
+                           ArchivedFeedbackRepository archivedFeedbackRepository,
+                           ActionItemRepository actionItemRepository,
+                           ArchiveReader archiveReader,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${feedback.segments.horizon-days:1095}") int horizonDays,
+                           @Value("${feedback.segments.records-per-segment:10000}") int recordsPerSegment,
+                           @Value("${feedback.segments.block-size-bytes:65536}") int blockSize,
+                           @Value("${feedback.segments.compression-level:6}") int compressionLevel,
+                           @Value("${feedback.segments.batch-pause-ms:500}") long batchPauseMillis) {
+        this.feedbackRepository = feedbackRepository;
+        this.archivedFeedbackRepository = archivedFeedbackRepository;
+        this.actionItemRepository = actionItemRepository;
+        this.archiveReader = archiveReader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writer = new SegmentWriter(blockSize, compressionLevel);
+        this.horizonDays = horizonDays;
+        this.recordsPerSegment = recordsPerSegment;
+        this.batchPauseMillis = batchPauseMillis;
+    }
+
+    @Scheduled(initialDelayString = "${feedback.segments.interval-ms:86400000}",
+               fixedDelayString = "${feedback.segments.interval-ms:86400000}")
+    public void archiveOnSchedule() {
+        try {
+            archive();
+        } catch (Exception e) {
+            log.warn("Segment archiving stopped early: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Write everything currently past the horizon to new segments
+     *
+     * @return number of feedback records written
+     */
+    public synchronized int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(horizonDays);
+        long started = System.nanoTime();
+        int written = 0;
+        int segments = 0;
+        try {
+            recover();
+            while (!stopped) {
+                Integer count = transactionTemplate.execute(status -> writeSegment(cutoff));
+                if (count == 0) {
+                    break;
+                }
+                written += count;
+                segments++;
+                if (!pause()) {
+                    break;
+                }
+            }
+        } finally {
+            archiveReader.refresh();
+        }
+        if (written > 0) {
+            log.info("Wrote {} feedback records older than {} to {} archive segments, {} ms", written,
+                    cutoff.toLocalDate(), segments, (System.nanoTime() - started) / 1_000_000);
+        }
+        return written;
+    }
+
+    private int writeSegment(LocalDateTime cutoff) {
+        List<ArchivedFeedback> archived = archivedFeedbackRepository.findByCreatedAtBeforeOrderById(cutoff,
+                PageRequest.of(0, recordsPerSegment));
+        int room = recordsPerSegment - archived.size();
+        List<Long> hotIds = room > 0
+                ? feedbackRepository.findSegmentableIds(cutoff, ActionItemStatus.COMPLETED, PageRequest.of(0, room))
+                : List.of();
+        if (archived.isEmpty() && hotIds.isEmpty()) {
+            return 0;
+        }
+
+        List<ArchiveRecord> records = new ArrayList<>(archived.size() + hotIds.size());
+        for (ArchivedFeedback row : archived) {
+            records.add(ArchiveRecord.of(row));
+        }
+        if (!hotIds.isEmpty()) {
+            Map<Long, List<ActionItem>> items = new HashMap<>();
+            for (ActionItem item : actionItemRepository.findByFeedbackIdIn(hotIds)) {
+                items.computeIfAbsent(item.getFeedback().getId(), id -> new ArrayList<>()).add(item);
+            }
+            for (Feedback feedback : feedbackRepository.findAllById(hotIds)) {
+                records.add(ArchiveRecord.of(feedback, items.getOrDefault(feedback.getId(), List.of())));
+            }
+        }
+
+        Path target = nextSegment();
+        writer.write(target, records);
+        if (!archived.isEmpty()) {
+            archivedFeedbackRepository.deleteByIdIn(archived.stream().map(ArchivedFeedback::getId).toList());
+        }
+        if (!hotIds.isEmpty()) {
+            actionItemRepository.deleteByFeedbackIdIn(hotIds);
+            feedbackRepository.deleteByIdIn(hotIds);
+        }
+        log.debug("Archive segment {}: {} records", target.getFileName(), records.size());
+        return records.size();
+    }
+
+    /**
+     * Remove matching records from the segments. Only segments with records created
+     * before {@code before} are looked at.
+     *
+     * @return ids of the records removed
+     */
+    public synchronized List<Long> purge(LocalDateTime before, Predicate<ArchiveRecord> expired) {
+        recover();
+        List<Long> removed = new ArrayList<>();
+        rewrite(archiveReader.segmentsWithRecordsBefore(before), record -> {
+            if (expired.test(record)) {
+                removed.add(record.id());
+                return null;
+            }
+            return record;
+        });
+        return removed;
+    }
+
+    /**
+     * Apply a change to every record in every segment; returning null drops the record
+     *
+     * @return number of records changed or dropped
+     */
+    public synchronized int rewrite(UnaryOperator<ArchiveRecord> change) {
+        recover();
+        return rewrite(archiveReader.liveSegmentFiles(), change);
+    }
+
+    /**
+     * Apply an erasure of the user to the segments that may need it (see
+     * {@link ArchiveReader#segmentsForErasure}); returning null drops the record
+     *
+     * @return number of records changed or dropped
+     */
+    public synchronized int rewriteForErasure(Long userId, LocalDateTime mentionsSince,
+                                              UnaryOperator<ArchiveRecord> change) {
+        recover();
+        return rewrite(archiveReader.segmentsForErasure(userId, mentionsSince), change);
+    }
+
+    /**
+     * Segments are immutable, so each one with a changed record is written again under a
+     * new name and swapped for the old file (see {@link #replace}); a segment left with no
+     * records is just deleted.
+     */
+    private int rewrite(List<Path> paths, UnaryOperator<ArchiveRecord> change) {
+        int changed = 0;
+        try {
+            for (Path path : paths) {
+                if (stopped) {
+                    break;
+                }
+                List<ArchiveRecord> kept = new ArrayList<>();
+                int changedHere = 0;
+                for (ArchiveRecord record : archiveReader.readSegment(path)) {
+                    ArchiveRecord result = change.apply(record);
+                    if (result != null) {
+                        kept.add(result);
+                    }
+                    if (result == null || !result.equals(record)) {
+                        changedHere++;
+                    }
+                }
+                if (changedHere == 0) {
+                    continue;
+                }
+                replace(path, kept);
+                changed += changedHere;
+            }
+        } finally {
+            archiveReader.refresh();
+        }
+        return changed;
+    }
+
+    /**
+     * Swap a segment for a new one holding the given records, atomically for readers: the
+     * swap is journaled, then the new file is published, which commits it, and only then
+     * is the old file deleted and the entry dropped. A crash at any point leaves either
+     * the old segment or the new one live, never both and never neither.
+     */
+    private void replace(Path old, List<ArchiveRecord> records) {
+        if (records.isEmpty()) {
+            delete(old);
+            return;
+        }
+        SegmentJournal journal = archiveReader.journal();
+        Path target = nextSegment();
+        Path temp = writer.writeUnpublished(target, records);
+        journal.put(old, target);
+        writer.publish(temp, target);
+        delete(old);
+        journal.remove(old);
+    }
+
+    /**
+     * Settle swaps a crash interrupted: one whose new segment was published is finished
+     * by deleting the old file, one whose new segment never was is dropped, along with
+     * any half-written segment. Must run before anything new is written, so a fresh
+     * file can't take the number of an unpublished replacement and hide the segment it
+     * was meant to replace.
+     */
+    private void recover() {
+        SegmentJournal journal = archiveReader.journal();
+        Path directory = archiveReader.directory();
+        journal.read().forEach((replaced, replacement) -> {
+            Path old = directory.resolve(replaced);
+            Path target = directory.resolve(replacement);
+            if (Files.exists(target)) {
+                log.info("Finishing interrupted swap of archive segment {} for {}", replaced, replacement);
+                deleteIfExists(old);
+            } else {
+                log.info("Discarding interrupted rewrite of archive segment {}", replaced);
+                deleteIfExists(SegmentWriter.temporaryFor(target));
+            }
+            journal.remove(old);
+        });
+        // Segments whose write was cut short, by a rewrite or by archiving
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(path -> path.getFileName().toString().endsWith(SegmentFormat.EXTENSION + ".tmp"))
+                     .forEach(SegmentArchiver::deleteIfExists);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not list " + directory, e);
+            }
+        }
+    }
+
+    private static void deleteIfExists(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete " + path, e);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete archive segment " + path, e);
+        }
+    }
+
+    private Path nextSegment() {
+        try {
+            Files.createDirectories(archiveReader.directory());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create " + archiveReader.directory(), e);
+        }
+        return archiveReader.nextSegmentPath();
+    }
+
+    private boolean pause() {
+        if (batchPauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+}
@@ -0,0 +1,255 @@
+package com.feedback.archive;
+
+import com.feedback.model.ActionItemStatus;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.Priority;
+import com.feedback.model.PrivacyLevel;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout of an archive segment file. All numbers are big-endian.
+ *
+ * <pre>
+ * block 0 .. block n-1   Zstandard-compressed runs of records, ordered by feedback id
+ * index                  one {@link BlockInfo} per block
+ * footer                 {@link #FOOTER_SIZE} bytes, see {@link Footer}
+ * </pre>
+ *
+ * The index is sparse: per block it has the id and time range and a small bloom
+ * filter over the user ids in it (sender, recipient, and the assignee and creator of
+ * each action item), so a lookup decompresses only the blocks that can contain a match. Times are stored as epoch millis of the local date-time read
+ * as UTC, which round-trips {@link LocalDateTime} exactly to the millisecond.
+ *
+ * The footer carries the format version its file was written with. Version 2 added
+ * sentiment and duplicate-of to each record; version 1 files are still read, with both
+ * left null. Version 3 added action item users to the bloom filter; the record layout
+ * is that of version 2. New files are always written in the current version.
+ */
+final class SegmentFormat {
+
+    static final int MAGIC = 0x46534731; // "FSG1"
+    static final int VERSION = 3;
+    // First version whose bloom filters also cover action item users
+    static final int ACTION_ITEM_BLOOM_VERSION = 3;
+    static final String EXTENSION = ".fseg";
+
+    static final int BLOOM_WORDS = 8; // 512 bits per block
+    static final int BLOCK_INFO_SIZE = 8 + 4 + 4 + 4 + 8 + 8 + 8 + 8 + BLOOM_WORDS * 8;
+    static final int FOOTER_SIZE = 4 + 4 + 4 + 4 + 4 + 8 + 8 + 8 + 8 + 8;
+
+    private static final long NONE = Long.MIN_VALUE;
+    private static final short NO_SENTIMENT = Short.MIN_VALUE;
+
+    private SegmentFormat() {
+    }
+
+    /** Where a block sits in the file and what it can contain */
+    record BlockInfo(long offset, int compressedLength, int rawLength, int recordCount,
+                     long firstId, long lastId, long minTime, long maxTime, long[] bloom) {
+
+        boolean mayInvolve(long userId) {
+            return bloomContains(bloom, userId);
+        }
+
+        void writeTo(ByteBuffer out) {
+            out.putLong(offset).putInt(compressedLength).putInt(rawLength).putInt(recordCount)
+               .putLong(firstId).putLong(lastId).putLong(minTime).putLong(maxTime);
+            for (long word : bloom) {
+                out.putLong(word);
+            }
+        }
+
+        static BlockInfo readFrom(ByteBuffer in) {
+            long offset = in.getLong();
+            int compressedLength = in.getInt();
+            int rawLength = in.getInt();
+            int recordCount = in.getInt();
+            long firstId = in.getLong();
+            long lastId = in.getLong();
+            long minTime = in.getLong();
+            long maxTime = in.getLong();
+            long[] bloom = new long[BLOOM_WORDS];
+            for (int i = 0; i < BLOOM_WORDS; i++) {
+                bloom[i] = in.getLong();
+            }
+            return new BlockInfo(offset, compressedLength, rawLength, recordCount,
+                    firstId, lastId, minTime, maxTime, bloom);
+        }
+    }
+
+    /**
+     * Segment-wide totals, read first so the index can be located. {@code publicCount}
+     * counts wall posts only, see {@link ArchiveRecord#isWallPost()}.
+     */
+    record Footer(int version, int recordCount, int blockCount, int publicCount, long minId, long maxId,
+                  long minTime, long maxTime, long indexOffset) {
+
+        void writeTo(ByteBuffer out) {
+            out.putInt(MAGIC).putInt(version).putInt(recordCount).putInt(blockCount).putInt(publicCount)
+               .putLong(minId).putLong(maxId).putLong(minTime).putLong(maxTime).putLong(indexOffset);
+        }
+
+        static Footer readFrom(ByteBuffer in) {
+            int magic = in.getInt();
+            int version = in.getInt();
+            if (magic != MAGIC || version < 1 || version > VERSION) {
+                throw new IllegalStateException("Not an archive segment (magic " + Integer.toHexString(magic)
+                        + ", version " + version + ")");
+            }
+            return new Footer(version, in.getInt(), in.getInt(), in.getInt(), in.getLong(), in.getLong(),
+                    in.getLong(), in.getLong(), in.getLong());
+        }
+    }
+
+    static void bloomAdd(long[] bloom, Long userId) {
+        if (userId != null) {
+            long hash = mix(userId);
+            int bits = BLOOM_WORDS * 64;
+            set(bloom, (int) Math.floorMod(hash, (long) bits));
+            set(bloom, (int) Math.floorMod(hash >>> 32, (long) bits));
+        }
+    }
+
+    static boolean bloomContains(long[] bloom, long userId) {
+        long hash = mix(userId);
+        int bits = BLOOM_WORDS * 64;
+        return isSet(bloom, (int) Math.floorMod(hash, (long) bits))
+                && isSet(bloom, (int) Math.floorMod(hash >>> 32, (long) bits));
+    }
+
+    private static void set(long[] bloom, int bit) {
+        bloom[bit >>> 6] |= 1L << (bit & 63);
+    }
+
+    private static boolean isSet(long[] bloom, int bit) {
+        return (bloom[bit >>> 6] & (1L << (bit & 63))) != 0;
+    }
+
+    // splitmix64 finaliser; ids are sequential, so they need spreading before use as bit positions
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    static long toMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : NONE;
+    }
+
+    static LocalDateTime fromMillis(long millis) {
+        return millis != NONE
+                ? LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * 1_000_000,
+                        ZoneOffset.UTC)
+                : null;
+    }
+
+    static void writeRecord(DataOutputStream out, ArchiveRecord record) throws IOException {
+        out.writeLong(record.id());
+        writeId(out, record.senderId());
+        writeId(out, record.recipientId());
+        writeString(out, record.content());
+        out.writeLong(toMillis(record.createdAt()));
+        writeString(out, record.privacyLevel() != null ? record.privacyLevel().name() : null);
+        writeString(out, record.category());
+        out.writeBoolean(record.read());
+        out.writeShort(record.status() != null ? record.status().getCode() : -1);
+        writeId(out, record.templateVersionId());
+        out.writeShort(record.sentiment() != null ? record.sentiment() : NO_SENTIMENT);
+        writeId(out, record.duplicateOfId());
+        out.writeInt(record.actionItems().size());
+        for (ArchiveRecord.ActionItemRecord item : record.actionItems()) {
+            out.writeLong(item.id());
+            writeId(out, item.assignedToId());
+            writeId(out, item.createdById());
+            writeString(out, item.title());
+            writeString(out, item.description());
+            out.writeLong(item.dueDate() != null ? item.dueDate().toEpochDay() : NONE);
+            out.writeLong(toMillis(item.createdAt()));
+            out.writeLong(toMillis(item.completedAt()));
+            out.writeShort(item.status() != null ? item.status().getCode() : -1);
+            out.writeShort(item.priority() != null ? item.priority().getCode() : -1);
+        }
+    }
+
+    /** Read one record written in the given format version */
+    static ArchiveRecord readRecord(ByteBuffer in, int version) {
+        long id = in.getLong();
+        Long senderId = readId(in);
+        Long recipientId = readId(in);
+        String content = readString(in);
+        LocalDateTime createdAt = fromMillis(in.getLong());
+        String privacy = readString(in);
+        String category = readString(in);
+        boolean read = in.get() != 0;
+        short status = in.getShort();
+        Long templateVersionId = readId(in);
+        Byte sentiment = null;
+        Long duplicateOfId = null;
+        if (version >= 2) {
+            short score = in.getShort();
+            sentiment = score != NO_SENTIMENT ? (byte) score : null;
+            duplicateOfId = readId(in);
+        }
+        int itemCount = in.getInt();
+        List<ArchiveRecord.ActionItemRecord> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            long itemId = in.getLong();
+            Long assignedToId = readId(in);
+            Long createdById = readId(in);
+            String title = readString(in);
+            String description = readString(in);
+            long dueDay = in.getLong();
+            LocalDateTime itemCreated = fromMillis(in.getLong());
+            LocalDateTime completed = fromMillis(in.getLong());
+            short itemStatus = in.getShort();
+            short priority = in.getShort();
+            items.add(new ArchiveRecord.ActionItemRecord(itemId, assignedToId, createdById, title, description,
+                    dueDay != NONE ? LocalDate.ofEpochDay(dueDay) : null, itemCreated, completed,
+                    itemStatus >= 0 ? ActionItemStatus.fromCode(itemStatus) : null,
+                    priority >= 0 ? Priority.fromCode(priority) : null));
+        }
+        return new ArchiveRecord(id, senderId, recipientId, content, createdAt,
+                privacy != null ? PrivacyLevel.valueOf(privacy) : null, category, read,
+                status >= 0 ? FeedbackStatus.fromCode(status) : null, templateVersionId, sentiment, duplicateOfId,
+                List.copyOf(items));
+    }
+
+    private static void writeId(DataOutputStream out, Long id) throws IOException {
+        out.writeLong(id != null ? id : NONE);
+    }
+
+    private static Long readId(ByteBuffer in) {
+        long id = in.getLong();
+        return id != NONE ? id : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
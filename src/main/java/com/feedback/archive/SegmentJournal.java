@@ -0,0 +1,127 @@
+package com.feedback.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which segment file replaces which while a rewrite swaps them. One line per swap in
+ * progress, {@code <replaced> <replacement>}, in {@value #FILE_NAME} next to the segments.
+ *
+ * A swap is recorded before its replacement is published, and the replacement's rename
+ * is what commits it: from then on readers skip the replaced file, whether or not it
+ * has been deleted yet. If the process dies before the rename, the replaced file is
+ * still the live one. {@link SegmentArchiver} finishes or discards leftover entries
+ * before it writes anything new.
+ *
+ * The file is small and always rewritten whole, under a temporary name, so it is never
+ * seen half-written.
+ */
+final class SegmentJournal {
+
+    static final String FILE_NAME = "segments.journal";
+
+    private final Path directory;
+    private final Path file;
+
+    SegmentJournal(Path directory) {
+        this.directory = directory;
+        this.file = directory.resolve(FILE_NAME);
+    }
+
+    /** Replaced file name to replacement file name, for every swap in progress */
+    Map<String, String> read() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] names = line.strip().split(" ");
+                if (names.length == 2) {
+                    entries.put(names[0], names[1]);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+        return entries;
+    }
+
+    /** Names of files that a published replacement has taken over from */
+    Set<String> superseded() {
+        Set<String> names = new HashSet<>();
+        read().forEach((replaced, replacement) -> {
+            if (Files.exists(directory.resolve(replacement))) {
+                names.add(replaced);
+            }
+        });
+        return names;
+    }
+
+    void put(Path replaced, Path replacement) {
+        Map<String, String> entries = read();
+        entries.put(replaced.getFileName().toString(), replacement.getFileName().toString());
+        write(entries);
+    }
+
+    void remove(Path replaced) {
+        Map<String, String> entries = read();
+        if (entries.remove(replaced.getFileName().toString()) != null) {
+            write(entries);
+        }
+    }
+
+    private void write(Map<String, String> entries) {
+        if (entries.isEmpty()) {
+            try {
+                Files.deleteIfExists(file);
+                syncDirectory(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not clear " + file, e);
+            }
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        entries.forEach((replaced, replacement) -> text.append(replaced).append(' ').append(replacement).append('\n'));
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + temp, e);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not publish " + file, e);
+        }
+    }
+
+    /**
+     * Force the directory's entries to disk, so a rename or delete is durable before the
+     * next step depends on it. Not every platform can open a directory; there it's a no-op.
+     */
+    static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories can't be opened for syncing here; the rename is as durable as the platform makes it
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.feedback.archive;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes one immutable segment file. Records are sorted by id, packed into blocks of
+ * roughly {@code blockSize} raw bytes and compressed one block at a time.
+ *
+ * The file is written under a temporary name, forced to disk and then renamed, so a
+ * reader never sees a half-written segment.
+ */
+final class SegmentWriter {
+
+    private final int blockSize;
+    private final int compressionLevel;
+
+    SegmentWriter(int blockSize, int compressionLevel) {
+        this.blockSize = blockSize;
+        this.compressionLevel = compressionLevel;
+    }
+
+    void write(Path target, List<ArchiveRecord> records) {
+        publish(writeUnpublished(target, records), target);
+    }
+
+    /**
+     * Write the segment under a temporary name next to the target, forced to disk but not
+     * yet visible to readers
+     *
+     * @return the temporary file, for {@link #publish}
+     */
+    Path writeUnpublished(Path target, List<ArchiveRecord> records) {
+        List<ArchiveRecord> sorted = new ArrayList<>(records);
+        sorted.sort(Comparator.comparingLong(ArchiveRecord::id));
+        Path temp = temporaryFor(target);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeTo(channel, sorted);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive segment " + target, e);
+        }
+        return temp;
+    }
+
+    /** Rename a segment written by {@link #writeUnpublished} to its real name */
+    void publish(Path temp, Path target) {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not publish archive segment " + target, e);
+        }
+        SegmentJournal.syncDirectory(target.getParent());
+    }
+
+    static Path temporaryFor(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    private void writeTo(FileChannel channel, List<ArchiveRecord> records) throws IOException {
+        List<SegmentFormat.BlockInfo> blocks = new ArrayList<>();
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(blockSize + blockSize / 4);
+        DataOutputStream out = new DataOutputStream(raw);
+        BlockStats stats = new BlockStats();
+        long offset = 0;
+        int publicCount = 0;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+
+        for (ArchiveRecord record : records) {
+            SegmentFormat.writeRecord(out, record);
+            stats.add(record);
+            if (record.isWallPost()) {
+                publicCount++;
+            }
+            long time = SegmentFormat.toMillis(record.createdAt());
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+            if (raw.size() >= blockSize) {
+                offset += flushBlock(channel, raw, stats, offset, blocks);
+                stats = new BlockStats();
+            }
+        }
+        if (raw.size() > 0) {
+            offset += flushBlock(channel, raw, stats, offset, blocks);
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(blocks.size() * SegmentFormat.BLOCK_INFO_SIZE + SegmentFormat.FOOTER_SIZE);
+        for (SegmentFormat.BlockInfo block : blocks) {
+            block.writeTo(index);
+        }
+        boolean empty = records.isEmpty();
+        new SegmentFormat.Footer(SegmentFormat.VERSION, records.size(), blocks.size(), publicCount,
+                empty ? 0 : records.get(0).id(), empty ? 0 : records.get(records.size() - 1).id(),
+                empty ? 0 : minTime, empty ? 0 : maxTime, offset).writeTo(index);
+        index.flip();
+        writeFully(channel, index);
+    }
+
+    private int flushBlock(FileChannel channel, ByteArrayOutputStream raw, BlockStats stats, long offset,
+                           List<SegmentFormat.BlockInfo> blocks) throws IOException {
+        byte[] bytes = raw.toByteArray();
+        byte[] compressed = Zstd.compress(bytes, compressionLevel);
+        writeFully(channel, ByteBuffer.wrap(compressed));
+        blocks.add(new SegmentFormat.BlockInfo(offset, compressed.length, bytes.length, stats.count,
+                stats.firstId, stats.lastId, stats.minTime, stats.maxTime, stats.bloom));
+        raw.reset();
+        return compressed.length;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static final class BlockStats {
+        int count;
+        long firstId;
+        long lastId;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        final long[] bloom = new long[SegmentFormat.BLOOM_WORDS];
+
+        void add(ArchiveRecord record) {
+            if (count++ == 0) {
+                firstId = record.id();
+            }
+            lastId = record.id();
+            long time = SegmentFormat.toMillis(record.createdAt());
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+            SegmentFormat.bloomAdd(bloom, record.senderId());
+            SegmentFormat.bloomAdd(bloom, record.recipientId());
+            for (ArchiveRecord.ActionItemRecord item : record.actionItems()) {
+                SegmentFormat.bloomAdd(bloom, item.assignedToId());
+                SegmentFormat.bloomAdd(bloom, item.createdById());
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.feedback.config;
 
 import com.feedback.model.User;
 import com.feedback.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -17,26 +19,23 @@ import java.util.Optional;
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private static final Logger log = LoggerFactory.getLogger(CustomUserDetailsService.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        System.out.println("CustomUserDetailsService: Loading user by email: " + email);
-        
         Optional<User> userOptional = userRepository.findByEmail(email);
         
         if (userOptional.isEmpty()) {
-            System.out.println("CustomUserDetailsService: User not found: " + email);
+            log.info("User not found: {}", LogMasking.email(email));
             throw new UsernameNotFoundException("User not found: " + email);
         }
         
         User user = userOptional.get();
-        System.out.println("CustomUserDetailsService: User found: " + user.getFullName() + 
-                          ", Active: " + user.isActive() + ", Role: " + user.getRole().getName());
-        
         if (!user.isActive()) {
-            System.out.println("CustomUserDetailsService: User is inactive: " + email);
+            log.info("User {} is inactive", user.getId());
             throw new UsernameNotFoundException("User is inactive: " + email);
         }
         
@@ -48,8 +47,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         String roleAuthority = "ROLE_" + user.getRole().getName();
         GrantedAuthority authority = new SimpleGrantedAuthority(roleAuthority);
         
-        System.out.println("CustomUserDetailsService: Returning UserDetails for: " + 
-                          user.getFullName() + " with authority: " + roleAuthority);
+        log.debug("Loaded user {} with authority {}", user.getId(), roleAuthority);
         
         // Return Spring Security UserDetails implementation
         return new CustomUserDetails(user, Collections.singletonList(authority));
@@ -0,0 +1,24 @@
+package com.feedback.config;
+
+/**
+ * Masks personal data before it goes into a log line. Login attempts are logged at info
+ * and often for addresses that don't belong to anyone, so the raw value is never
+ * written; the masked form still lets support match a report to a log entry.
+ */
+public final class LogMasking {
+
+    private LogMasking() {
+    }
+
+    /** {@code jane.doe@example.com} becomes {@code j***@example.com} */
+    public static String email(String email) {
+        if (email == null || email.isBlank()) {
+            return String.valueOf(email);
+        }
+        int at = email.lastIndexOf('@');
+        if (at <= 0) {
+            return email.charAt(0) + "***";
+        }
+        return email.charAt(0) + "***" + email.substring(at);
+    }
+}
@@ -3,18 +3,32 @@ package com.feedback.config;
 import com.feedback.ui.views.login.LoginView;
 import com.vaadin.flow.spring.security.VaadinWebSecurity;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig extends VaadinWebSecurity {
+    
+    private final Environment environment;
+    
+    public SecurityConfig(Environment environment) {
+        this.environment = environment;
+    }
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         System.out.println("Configuring Spring Security for Vaadin...");
         
-        // IMPORTANT: Call super.configure(http) FIRST to set up Vaadin security
+        // Actuator is served only on the management port (management.server.port), which is
+        // for infrastructure such as Prometheus and is kept off the public network. It serves
+        // nothing else, so it is open; the app port has no actuator endpoints at all.
+        // Registered before Vaadin's rules so they aren't caught by its catch-all.
+        http.authorizeHttpRequests(auth -> auth.requestMatchers(managementPort()).permitAll());
+        
+        // IMPORTANT: Call super.configure(http) before the remaining setup to set up Vaadin security
         super.configure(http);
         
         // Set the login view
@@ -33,6 +47,13 @@ public class SecurityConfig extends VaadinWebSecurity {
         System.out.println("Spring Security configuration completed");
     }
     
+    // Requests that came in on the management server's connector; Spring Boot publishes
+    // its port once it has started
+    private RequestMatcher managementPort() {
+        return request -> String.valueOf(request.getLocalPort())
+                .equals(environment.getProperty("local.management.port"));
+    }
+    
     @org.springframework.context.annotation.Bean
     public org.springframework.security.core.session.SessionRegistry sessionRegistry() {
         return new org.springframework.security.core.session.SessionRegistryImpl();
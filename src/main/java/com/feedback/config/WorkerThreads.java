@@ -0,0 +1,35 @@
+package com.feedback.config;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the application's own worker pools, following
+ * {@code spring.threads.virtual.enabled} like Tomcat and the Spring task executors do.
+ * In the virtual-threads profile the pools keep their size and queue, which still bound
+ * how much work runs at once, but a worker blocked on JDBC no longer holds a platform
+ * thread.
+ */
+public final class WorkerThreads {
+    
+    private WorkerThreads() {
+    }
+    
+    /**
+     * @param namePrefix   thread names are the prefix followed by a counter
+     * @param virtual      the value of {@code spring.threads.virtual.enabled}; needs JDK 21
+     */
+    public static ThreadFactory factory(String namePrefix, boolean virtual) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
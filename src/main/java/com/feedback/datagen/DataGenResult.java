@@ -0,0 +1,19 @@
+package com.feedback.datagen;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Id ranges of the rows one generator run inserted. Ids are contiguous per table.
+ */
+public record DataGenResult(long firstUserId, int users, long firstFeedbackId, long feedback,
+                            long actionItems, String password, long elapsedMillis) {
+    
+    public List<Long> userIds() {
+        return LongStream.range(firstUserId, firstUserId + users).boxed().toList();
+    }
+    
+    public long totalRows() {
+        return users + feedback + actionItems;
+    }
+}
@@ -0,0 +1,39 @@
+package com.feedback.datagen;
+
+import java.time.LocalDate;
+
+/**
+ * What the synthetic data generator should produce. The same spec against the same
+ * starting database always produces the same rows.
+ *
+ * @param seed random seed; every distribution below is drawn from it
+ * @param departments departments to add
+ * @param users users to add, arranged in a management tree under one top manager
+ * @param feedback feedback rows to add
+ * @param actionItems action items to add, each attached to one of the new feedback rows
+ * @param historyDays how far back the feedback history reaches from {@code anchor}
+ * @param anchor the "today" all dates are relative to
+ * @param password plain-text password shared by every generated user
+ * @param batchSize rows per JDBC batch (and per transaction)
+ */
+public record DataGenSpec(long seed, int departments, int users, long feedback, long actionItems,
+                          int historyDays, LocalDate anchor, String password, int batchSize) {
+    
+    public DataGenSpec {
+        if (departments < 1 || users < departments + 1) {
+            throw new IllegalArgumentException("Need at least one department and more users than departments");
+        }
+        if (feedback < 0 || actionItems < 0 || actionItems > feedback) {
+            throw new IllegalArgumentException("Action items must be between 0 and the feedback count");
+        }
+        if (historyDays < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("History days and batch size must be positive");
+        }
+    }
+    
+    /** Small data set for benchmarks and load tests */
+    public static DataGenSpec small(long seed, int users) {
+        return new DataGenSpec(seed, Math.max(1, Math.min(10, users / 20)), users, users * 20L, users * 4L,
+                365, LocalDate.now(), "datagen", 1000);
+    }
+}
@@ -0,0 +1,406 @@
+package com.feedback.datagen;
+
+import com.feedback.model.ActionItemStatus;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.Priority;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.model.Role;
+import com.feedback.repository.RoleRepository;
+import com.feedback.service.ActivityCounterReconciler;
+import com.feedback.service.UserDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the database with a realistic, reproducible data set for performance work:
+ * departments of skewed size, a multi-level management tree, users whose feedback
+ * activity follows a Zipf distribution, and action items whose status and due dates
+ * depend on their age.
+ *
+ * Rows go in through JDBC batches with ids assigned here, so foreign keys can be set
+ * without reading anything back and 10M rows load in minutes. Each phase draws from
+ * its own stream derived from the seed, so changing e.g. the feedback count leaves the
+ * generated users unchanged.
+ */
+@Component
+public class SyntheticDataGenerator {
+    
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+    
+    private static final String[] DEPARTMENT_NAMES = {
+        "Engineering", "Sales", "Marketing", "Finance", "Operations", "Support", "Product",
+        "Legal", "People", "Research", "Design", "Data", "Security", "Facilities", "Procurement"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Aarav", "Maya", "Liam", "Sofia", "Noah", "Priya", "Ethan", "Chloe", "Lucas", "Amara",
+        "Mateo", "Hana", "Oliver", "Zara", "Elijah", "Mei", "James", "Leila", "Arjun", "Nora",
+        "Kai", "Ingrid", "Omar", "Freya", "Diego", "Yuki", "Samuel", "Aisha", "Felix", "Elena"
+    };
+    private static final String[] LAST_NAMES = {
+        "Sharma", "Garcia", "Smith", "Nguyen", "Müller", "Okafor", "Kim", "Rossi", "Silva", "Cohen",
+        "Patel", "Johansson", "Tanaka", "Dubois", "Kowalski", "Haddad", "Brown", "Novak", "Reyes", "Singh"
+    };
+    // Same categories the feedback form offers, most common first
+    private static final String[] CATEGORIES = {
+        "Teamwork", "Communication", "Performance", "Technical Skills", "Collaboration",
+        "Leadership", "Project Management", "Innovation", "Other"
+    };
+    private static final String[] OPENINGS = {
+        "Thanks for", "I really appreciated", "Great job on", "I noticed", "It would help if you kept up",
+        "Well done with", "I'd like to call out", "Could we talk about"
+    };
+    private static final String[] SUBJECTS = {
+        "the release planning", "how you handled the customer escalation", "the design review",
+        "mentoring the new hires", "the quarterly report", "your code reviews", "the incident follow-up",
+        "the onboarding docs", "running the retro", "the migration work", "the demo last week"
+    };
+    private static final String[] CLOSINGS = {
+        "It made a real difference for the team.", "Let's keep this going next quarter.",
+        "Happy to pair on the next one.", "The clarity helped everyone move faster.",
+        "A few more check-ins along the way would help.", "Looking forward to seeing what's next."
+    };
+    
+    private static final String USER_SQL = "INSERT INTO users (id, username, first_name, last_name, email, password, " +
+            "is_active, last_login, created_at, manager_id, department_id, role_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] USER_TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.BOOLEAN, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT, Types.BIGINT, Types.BIGINT};
+    private static final String FEEDBACK_SQL = "INSERT INTO feedback (id, sender_id, recipient_id, content, created_at, " +
+            "privacy_level, category, is_read, status, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final int[] FEEDBACK_TYPES = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP,
+            Types.VARCHAR, Types.VARCHAR, Types.BOOLEAN, Types.SMALLINT};
+    private static final String ACTION_ITEM_SQL = "INSERT INTO action_item (id, feedback_id, assigned_to_id, created_by_id, " +
+            "title, description, due_date, created_at, completed_at, status, priority, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final int[] ACTION_ITEM_TYPES = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR,
+            Types.VARCHAR, Types.DATE, Types.TIMESTAMP, Types.TIMESTAMP, Types.SMALLINT, Types.SMALLINT};
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserDirectory userDirectory;
+    private final ActivityCounterReconciler activityCounterReconciler;
+    
+    @Autowired
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  RoleRepository roleRepository,
+                                  PasswordEncoder passwordEncoder,
+                                  UserDirectory userDirectory,
+                                  ActivityCounterReconciler activityCounterReconciler) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userDirectory = userDirectory;
+        this.activityCounterReconciler = activityCounterReconciler;
+    }
+    
+    /**
+     * Generate the data set. Expects roles to exist (the default data initialisation
+     * creates them); existing rows are left alone and new ids start after them.
+     */
+    public synchronized DataGenResult generate(DataGenSpec spec) {
+        long start = System.currentTimeMillis();
+        log.info("Generating synthetic data: {}", spec);
+        
+        long firstDepartmentId = nextId("department");
+        long firstUserId = nextId("users");
+        long firstFeedbackId = nextId("feedback");
+        long firstActionItemId = nextId("action_item");
+        
+        insertDepartments(spec, firstDepartmentId);
+        Organisation org = insertUsers(spec, firstDepartmentId, firstUserId);
+        long actionItems = insertFeedback(spec, org, firstUserId, firstFeedbackId, firstActionItemId);
+        
+        restartIdentity("department", firstDepartmentId + spec.departments());
+        restartIdentity("users", firstUserId + spec.users());
+        restartIdentity("feedback", firstFeedbackId + spec.feedback());
+        restartIdentity("action_item", firstActionItemId + actionItems);
+        
+        // In-memory views of the data were built at startup; bring them up to date
+        userDirectory.load();
+        activityCounterReconciler.reconcile();
+        
+        DataGenResult result = new DataGenResult(firstUserId, spec.users(), firstFeedbackId, spec.feedback(),
+                actionItems, spec.password(), System.currentTimeMillis() - start);
+        log.info("Generated {} rows in {} ms ({} departments, {} users, {} feedback, {} action items)",
+                result.totalRows() + spec.departments(), result.elapsedMillis(), spec.departments(), spec.users(),
+                spec.feedback(), actionItems);
+        return result;
+    }
+    
+    private void insertDepartments(DataGenSpec spec, long firstId) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int d = 0; d < spec.departments(); d++) {
+            String base = DEPARTMENT_NAMES[d % DEPARTMENT_NAMES.length];
+            String name = d < DEPARTMENT_NAMES.length ? base : base + " " + (d / DEPARTMENT_NAMES.length + 1);
+            rows.add(new Object[] {firstId + d, name + " (" + (firstId + d) + ")", "Generated department"});
+        }
+        flush("INSERT INTO department (id, name, description) VALUES (?, ?, ?)",
+                new int[] {Types.BIGINT, Types.VARCHAR, Types.VARCHAR}, rows);
+    }
+    
+    /**
+     * User 0 runs the company and manages every department head. Inside a department,
+     * members are laid out as a tree with a per-department span of control (4-9 reports),
+     * so larger departments get more management levels.
+     */
+    private Organisation insertUsers(DataGenSpec spec, long firstDepartmentId, long firstUserId) {
+        SplittableRandom random = new SplittableRandom(spec.seed() ^ 0x5EED_0001L);
+        long managerRoleId = roleId(Role.MANAGER);
+        long employeeRoleId = roleId(Role.EMPLOYEE);
+        String passwordHash = passwordEncoder.encode(spec.password());
+        LocalDateTime now = spec.anchor().atStartOfDay();
+        
+        Organisation org = new Organisation(spec.users(), spec.departments());
+        ZipfSampler departmentSizes = new ZipfSampler(spec.departments(), 0.8);
+        int members = spec.users() - 1;
+        int assigned = 0;
+        for (int d = 0; d < spec.departments(); d++) {
+            int size = Math.max(1, (int) Math.floor(departmentSizes.weight(d) * members));
+            org.departmentSize[d] = Math.min(size, members - assigned - (spec.departments() - d - 1));
+            assigned += org.departmentSize[d];
+        }
+        org.departmentSize[0] += members - assigned;
+        
+        List<Object[]> rows = new ArrayList<>(spec.batchSize());
+        rows.add(userRow(spec, 0, firstUserId, passwordHash, null, firstDepartmentId, managerRoleId, random, now));
+        org.manager[0] = -1;
+        int index = 1;
+        for (int d = 0; d < spec.departments(); d++) {
+            int size = org.departmentSize[d];
+            int span = 4 + random.nextInt(6);
+            org.departmentStart[d] = index;
+            for (int k = 0; k < size; k++, index++) {
+                int manager = k == 0 ? 0 : org.departmentStart[d] + (k - 1) / span;
+                boolean hasReports = (long) k * span + 1 < size;
+                org.department[index] = d;
+                org.manager[index] = manager;
+                rows.add(userRow(spec, index, firstUserId, passwordHash, firstUserId + manager, firstDepartmentId + d,
+                        hasReports ? managerRoleId : employeeRoleId, random, now));
+                if (rows.size() == spec.batchSize()) {
+                    flush(USER_SQL, USER_TYPES, rows);
+                }
+            }
+        }
+        flush(USER_SQL, USER_TYPES, rows);
+        return org;
+    }
+    
+    private Object[] userRow(DataGenSpec spec, int index, long firstUserId, String passwordHash, Long managerId,
+                             long departmentId, long roleId, SplittableRandom random, LocalDateTime now) {
+        long id = firstUserId + index;
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        // The id keeps emails unique when the generator runs more than once
+        String handle = (first + "." + last).toLowerCase() + "." + id;
+        boolean active = index == 0 || random.nextDouble() >= 0.03;
+        LocalDateTime createdAt = now.minusDays(random.nextInt(Math.max(1, spec.historyDays() * 2)));
+        LocalDateTime lastLogin = active && random.nextDouble() < 0.9
+                ? now.minusMinutes(random.nextInt(60 * 24 * 30)) : null;
+        return new Object[] {id, handle, first, last, handle + "@example.com", passwordHash, active, lastLogin,
+                createdAt, managerId, departmentId, roleId};
+    }
+    
+    /**
+     * A few people give (and a few receive) most of the feedback, a good share of it
+     * stays inside the sender's department, and volume grows over time so recent weeks
+     * are busier than old ones. Action items are spread evenly across the feedback.
+     */
+    private long insertFeedback(DataGenSpec spec, Organisation org, long firstUserId, long firstFeedbackId,
+                                long firstActionItemId) {
+        SplittableRandom random = new SplittableRandom(spec.seed() ^ 0x5EED_0002L);
+        int users = spec.users();
+        int[] senders = shuffledIndexes(users, new SplittableRandom(spec.seed() ^ 0x5EED_0003L));
+        int[] recipients = shuffledIndexes(users, new SplittableRandom(spec.seed() ^ 0x5EED_0004L));
+        ZipfSampler senderRank = new ZipfSampler(users, 0.8);
+        ZipfSampler recipientRank = new ZipfSampler(users, 0.7);
+        ZipfSampler category = new ZipfSampler(CATEGORIES.length, 1.0);
+        LocalDateTime now = spec.anchor().atStartOfDay();
+        long historyMinutes = spec.historyDays() * 24L * 60;
+        double actionItemRatio = spec.feedback() == 0 ? 0 : (double) spec.actionItems() / spec.feedback();
+        
+        List<Object[]> feedbackRows = new ArrayList<>(spec.batchSize());
+        List<Object[]> actionItemRows = new ArrayList<>(spec.batchSize());
+        long actionItems = 0;
+        for (long i = 0; i < spec.feedback(); i++) {
+            int sender = senders[senderRank.sample(random)];
+            int recipient = random.nextDouble() < 0.45
+                    ? org.departmentStart[org.department[sender]] + random.nextInt(org.departmentSize[org.department[sender]])
+                    : recipients[recipientRank.sample(random)];
+            if (recipient == sender) {
+                recipient = (recipient + 1) % users;
+            }
+            // Arrival density grows linearly over the history window
+            double position = Math.sqrt((i + random.nextDouble()) / spec.feedback());
+            LocalDateTime createdAt = now.minusMinutes((long) ((1 - position) * historyMinutes));
+            long ageDays = (long) ((1 - position) * spec.historyDays());
+            long feedbackId = firstFeedbackId + i;
+            
+            feedbackRows.add(new Object[] {feedbackId, firstUserId + sender, firstUserId + recipient, content(random),
+                    createdAt, privacyLevel(random).name(), CATEGORIES[category.sample(random)],
+                    random.nextDouble() < readProbability(ageDays), feedbackStatus(random, ageDays).getCode()});
+            
+            if ((long) ((i + 1) * actionItemRatio) > (long) (i * actionItemRatio)) {
+                int creator = org.manager[recipient] >= 0 && random.nextBoolean() ? org.manager[recipient] : sender;
+                actionItemRows.add(actionItemRow(firstActionItemId + actionItems, feedbackId, firstUserId + recipient,
+                        firstUserId + creator, createdAt, spec.anchor(), random));
+                actionItems++;
+            }
+            
+            if (feedbackRows.size() == spec.batchSize() || actionItemRows.size() == spec.batchSize()) {
+                flush(feedbackRows, actionItemRows);
+            }
+            if ((i + 1) % 1_000_000 == 0) {
+                log.info("... {} feedback rows written", i + 1);
+            }
+        }
+        flush(feedbackRows, actionItemRows);
+        return actionItems;
+    }
+    
+    private Object[] actionItemRow(long id, long feedbackId, long assigneeId, long creatorId,
+                                   LocalDateTime feedbackCreatedAt, LocalDate today, SplittableRandom random) {
+        LocalDateTime createdAt = feedbackCreatedAt.plusHours(random.nextInt(72));
+        if (createdAt.toLocalDate().isAfter(today)) {
+            createdAt = feedbackCreatedAt;
+        }
+        LocalDate dueDate = createdAt.toLocalDate().plusDays(7 + random.nextInt(54));
+        boolean overdue = dueDate.isBefore(today);
+        double roll = random.nextDouble();
+        ActionItemStatus status;
+        if (overdue) {
+            status = roll < 0.60 ? ActionItemStatus.COMPLETED : roll < 0.68 ? ActionItemStatus.CANCELLED
+                    : roll < 0.85 ? ActionItemStatus.OPEN : ActionItemStatus.IN_PROGRESS;
+        } else {
+            status = roll < 0.45 ? ActionItemStatus.OPEN : roll < 0.80 ? ActionItemStatus.IN_PROGRESS
+                    : roll < 0.97 ? ActionItemStatus.COMPLETED : ActionItemStatus.CANCELLED;
+        }
+        LocalDateTime completedAt = null;
+        if (status == ActionItemStatus.COMPLETED) {
+            // Mostly on time, some a little late
+            long window = Duration.between(createdAt, dueDate.plusDays(10).atStartOfDay()).toHours();
+            completedAt = createdAt.plusHours(1 + random.nextLong(Math.max(1, window)));
+            if (completedAt.toLocalDate().isAfter(today)) {
+                completedAt = today.atStartOfDay();
+            }
+        }
+        double priorityRoll = random.nextDouble();
+        Priority priority = priorityRoll < 0.30 ? Priority.LOW : priorityRoll < 0.80 ? Priority.MEDIUM : Priority.HIGH;
+        String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+        return new Object[] {id, feedbackId, assigneeId, creatorId, "Follow up on " + subject,
+                "Agreed next steps after feedback about " + subject + ".", dueDate, createdAt, completedAt,
+                status.getCode(), priority.getCode()};
+    }
+    
+    private static String content(SplittableRandom random) {
+        return OPENINGS[random.nextInt(OPENINGS.length)] + " " + SUBJECTS[random.nextInt(SUBJECTS.length)] + ". "
+                + CLOSINGS[random.nextInt(CLOSINGS.length)];
+    }
+    
+    private static PrivacyLevel privacyLevel(SplittableRandom random) {
+        double roll = random.nextDouble();
+        return roll < 0.55 ? PrivacyLevel.PRIVATE : roll < 0.80 ? PrivacyLevel.DEPARTMENT
+                : roll < 0.95 ? PrivacyLevel.PUBLIC : PrivacyLevel.ANONYMOUS;
+    }
+    
+    private static double readProbability(long ageDays) {
+        return ageDays < 2 ? 0.4 : ageDays < 14 ? 0.8 : 0.97;
+    }
+    
+    private static FeedbackStatus feedbackStatus(SplittableRandom random, long ageDays) {
+        double roll = random.nextDouble();
+        if (ageDays < 7) {
+            return roll < 0.70 ? FeedbackStatus.OPEN : roll < 0.90 ? FeedbackStatus.ACKNOWLEDGED : FeedbackStatus.IN_PROGRESS;
+        }
+        return roll < 0.15 ? FeedbackStatus.OPEN : roll < 0.40 ? FeedbackStatus.ACKNOWLEDGED
+                : roll < 0.55 ? FeedbackStatus.IN_PROGRESS : FeedbackStatus.COMPLETED;
+    }
+    
+    private static int[] shuffledIndexes(int n, SplittableRandom random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+    
+    // Feedback goes first so the action items' foreign keys resolve
+    private void flush(List<Object[]> feedbackRows, List<Object[]> actionItemRows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!feedbackRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(FEEDBACK_SQL, feedbackRows, FEEDBACK_TYPES);
+            }
+            if (!actionItemRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(ACTION_ITEM_SQL, actionItemRows, ACTION_ITEM_TYPES);
+            }
+        });
+        feedbackRows.clear();
+        actionItemRows.clear();
+    }
+    
+    private void flush(String sql, int[] types, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows, types));
+        rows.clear();
+    }
+    
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+    
+    // MySQL moves AUTO_INCREMENT past explicit ids by itself; H2's identity does not
+    private void restartIdentity(String table, long nextId) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (product != null && product.startsWith("H2")) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId);
+        }
+    }
+    
+    private long roleId(String name) {
+        return roleRepository.findByName(name)
+                .orElseThrow(() -> new IllegalStateException("Role " + name + " missing; initialise default data first"))
+                .getId();
+    }
+    
+    /** Where each generated user sits, by index (0 = top manager) */
+    private static final class Organisation {
+        final int[] department;
+        final int[] manager;
+        final int[] departmentStart;
+        final int[] departmentSize;
+        
+        Organisation(int users, int departments) {
+            department = new int[users];
+            manager = new int[users];
+            departmentStart = new int[departments];
+            departmentSize = new int[departments];
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.feedback.datagen;
+
+import com.feedback.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Generates a synthetic data set at startup when the "datagen" profile is active,
+ * sized by the feedback.datagen.* properties (see application-datagen.properties):
+ *
+ *   mvn spring-boot:run -Dspring-boot.run.profiles=datagen \
+ *       -Dspring-boot.run.arguments="--feedback.datagen.users=200000 --feedback.datagen.feedback=10000000"
+ */
+@Component
+@Profile("datagen")
+public class SyntheticDataRunner implements CommandLineRunner {
+    
+    private final SyntheticDataGenerator generator;
+    private final UserService userService;
+    private final DataGenSpec spec;
+    
+    @Autowired
+    public SyntheticDataRunner(SyntheticDataGenerator generator,
+                               UserService userService,
+                               @Value("${feedback.datagen.seed:42}") long seed,
+                               @Value("${feedback.datagen.departments:12}") int departments,
+                               @Value("${feedback.datagen.users:5000}") int users,
+                               @Value("${feedback.datagen.feedback:200000}") long feedback,
+                               @Value("${feedback.datagen.action-items:40000}") long actionItems,
+                               @Value("${feedback.datagen.history-days:730}") int historyDays,
+                               @Value("${feedback.datagen.anchor-date:}") String anchorDate,
+                               @Value("${feedback.datagen.password:datagen}") String password,
+                               @Value("${feedback.datagen.batch-size:2000}") int batchSize) {
+        this.generator = generator;
+        this.userService = userService;
+        LocalDate anchor = anchorDate.isBlank() ? LocalDate.now() : LocalDate.parse(anchorDate);
+        this.spec = new DataGenSpec(seed, departments, users, feedback, actionItems, historyDays, anchor,
+                password, batchSize);
+    }
+    
+    @Override
+    public void run(String... args) {
+        // Roles must exist first; this is a no-op when the default data is already there
+        userService.initializeDefaultData();
+        generator.generate(spec);
+    }
+}
@@ -0,0 +1,44 @@
+package com.feedback.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks 0..n-1 with probability proportional to 1/(rank+1)^exponent, so a few
+ * ranks get most of the draws. Uses a precomputed CDF and binary search, which is
+ * fine for the sizes we generate (a million ranks is 8 MB).
+ */
+public final class ZipfSampler {
+    
+    private final double[] cdf;
+    
+    public ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cdf = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= total;
+        }
+    }
+    
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cdf.length - 1);
+    }
+    
+    /** Share of all draws that land on this rank */
+    public double weight(int rank) {
+        return rank == 0 ? cdf[0] : cdf[rank] - cdf[rank - 1];
+    }
+    
+    public int size() {
+        return cdf.length;
+    }
+}
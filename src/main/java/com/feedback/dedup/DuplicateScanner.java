@@ -0,0 +1,126 @@
+package com.feedback.dedup;
+
+import com.feedback.repository.FeedbackRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Walks the free-form feedback in id order, flags each row that nearly repeats an
+ * earlier one of the same sender and adds the rest to the {@link NearDuplicateIndex}.
+ * One short transaction per batch, with a pause in between.
+ *
+ * The first run after startup goes through the whole table, which also fills the index
+ * (it ends up holding the newest feedback). Later runs only look at rows added since,
+ * such as rows inserted without going through {@code FeedbackService}.
+ */
+@Component
+public class DuplicateScanner {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateScanner.class);
+
+    private final FeedbackRepository feedbackRepository;
+    private final NearDuplicateIndex index;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long batchPauseMillis;
+
+    // Highest id looked at so far
+    private long scannedUpTo;
+    private volatile boolean stopped;
+
+    @Autowired
+    public DuplicateScanner(FeedbackRepository feedbackRepository,
+                            NearDuplicateIndex index,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${feedback.dedup.scan.batch-size:1000}") int batchSize,
+                            @Value("${feedback.dedup.scan.batch-pause-ms:100}") long batchPauseMillis) {
+        this.feedbackRepository = feedbackRepository;
+        this.index = index;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+    }
+
+    @Scheduled(initialDelayString = "${feedback.dedup.scan.initial-delay-ms:30000}",
+               fixedDelayString = "${feedback.dedup.scan.interval-ms:3600000}")
+    public void scanOnSchedule() {
+        try {
+            scan();
+        } catch (Exception e) {
+            log.warn("Duplicate scan stopped early: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Scan the rows added since the last run
+     *
+     * @return number of rows flagged as duplicates
+     */
+    public synchronized long scan() {
+        long started = System.nanoTime();
+        long scanned = 0;
+        long flagged = 0;
+        while (!stopped) {
+            long[] batch = transactionTemplate.execute(status -> scanBatch());
+            // Only moved on once the batch's flags are committed, so a failed batch is scanned again
+            scannedUpTo = batch[2];
+            scanned += batch[0];
+            flagged += batch[1];
+            if (batch[0] < batchSize || !pause()) {
+                break;
+            }
+        }
+        if (scanned > 0) {
+            log.info("Duplicate scan looked at {} feedback and flagged {} near-duplicates, {} ms, index holds {}",
+                    scanned, flagged, (System.nanoTime() - started) / 1_000_000, index.size());
+        }
+        return flagged;
+    }
+
+    /** @return rows scanned, rows flagged and the last id scanned */
+    private long[] scanBatch() {
+        List<FeedbackRepository.SenderContent> rows =
+                feedbackRepository.findUnflaggedContent(scannedUpTo, PageRequest.of(0, batchSize));
+        int flagged = 0;
+        long lastId = scannedUpTo;
+        for (FeedbackRepository.SenderContent row : rows) {
+            short[] signature = MinHasher.signature(row.getContent());
+            Long original = index.findOriginal(signature, row.getSenderId(), row.getId());
+            if (original != null) {
+                flagged += feedbackRepository.markDuplicate(row.getId(), original);
+            } else {
+                index.add(row.getId(), row.getSenderId(), signature);
+            }
+            lastId = row.getId();
+        }
+        return new long[] {rows.size(), flagged, lastId};
+    }
+
+    private boolean pause() {
+        if (batchPauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+}
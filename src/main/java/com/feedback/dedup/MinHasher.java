@@ -0,0 +1,106 @@
+package com.feedback.dedup;
+
+import java.util.Arrays;
+
+/**
+ * MinHash signatures of feedback text. The text is normalised (lower case, letters and
+ * digits only, single spaces) and cut into overlapping {@link #SHINGLE_LENGTH}-character
+ * shingles; the signature holds, for each of {@link #HASHES} hash functions, the
+ * smallest hash over all shingles. The share of equal positions in two signatures
+ * estimates the Jaccard similarity of their shingle sets.
+ *
+ * Only the low 16 bits of each minimum are kept. Two unrelated values collide once in
+ * 65536, which barely moves the estimate and halves the memory of the index.
+ */
+public final class MinHasher {
+
+    static final int HASHES = 64;
+    static final int SHINGLE_LENGTH = 5;
+
+    private MinHasher() {
+    }
+
+    /** The signature, or null if the text has no letters or digits at all */
+    public static short[] signature(String text) {
+        if (text == null) {
+            return null;
+        }
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        int[] minimums = new int[HASHES];
+        Arrays.fill(minimums, Integer.MAX_VALUE);
+        int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long hash = shingleHash(normalized, start, Math.min(normalized.length(), start + SHINGLE_LENGTH));
+            // Kirsch-Mitzenmacher: HASHES hash functions out of two halves of one 64-bit hash
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                int value = mix32(h1 + i * h2);
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+        short[] signature = new short[HASHES];
+        for (int i = 0; i < HASHES; i++) {
+            signature[i] = (short) minimums[i];
+        }
+        return signature;
+    }
+
+    /** Estimated Jaccard similarity, 0 to 1 */
+    public static double similarity(short[] a, short[] b) {
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / HASHES;
+    }
+
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static long shingleHash(String text, int from, int to) {
+        // FNV-1a, finished with the SplitMix64 mixer
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix64(hash);
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,259 @@
+package com.feedback.dedup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory LSH index of {@link MinHasher} signatures for finding feedback a sender
+ * already wrote in nearly the same words.
+ *
+ * The index keeps the newest {@code max-entries} feedback in a ring: when it is full,
+ * the oldest entry's slot is reused. Each signature is cut into {@link #BANDS} bands of
+ * {@link #ROWS} values; the band values and the sender are hashed into one key per band,
+ * and each band has a fixed-size, 4-way set-associative table from key to slot. Two
+ * texts become candidates when any band matches, which happens for nearly every pair
+ * above ~0.8 similarity and rarely below ~0.4; candidates are then checked against the
+ * configured similarity on the full signatures.
+ *
+ * Nothing is allocated per entry, so memory stays at about 150 bytes per entry for the
+ * ring and 64 bytes for the band tables. A table entry whose slot was freed, or reused
+ * by an entry that hashes to another set, is simply treated as free; a full set
+ * overwrites one of its entries, which only costs recall on that one band.
+ */
+@Component
+public class NearDuplicateIndex {
+
+    static final int BANDS = 16;
+    static final int ROWS = MinHasher.HASHES / BANDS;
+    private static final int WAYS = 4;
+
+    private final int capacity;
+    private final double threshold;
+    private final long[] feedbackIds;
+    private final long[] senderIds;
+    private final short[] signatures;
+    // Per band: WAYS consecutive entries per set, each holding slot + 1 (0 is empty)
+    private final int[][] bandTables;
+    private final int setMask;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int nextSlot;
+    private int size;
+    private int evictions;
+
+    @Autowired
+    public NearDuplicateIndex(MeterRegistry meterRegistry,
+                              @Value("${feedback.dedup.max-entries:100000}") int capacity,
+                              @Value("${feedback.dedup.similarity:0.8}") double threshold) {
+        this.capacity = capacity;
+        this.threshold = threshold;
+        this.feedbackIds = new long[capacity];
+        this.senderIds = new long[capacity];
+        this.signatures = new short[capacity * MinHasher.HASHES];
+        int sets = Math.max(1, Integer.highestOneBit(Math.max(1, capacity - 1)) * 2 / WAYS);
+        this.setMask = sets - 1;
+        this.bandTables = new int[BANDS][sets * WAYS];
+        Gauge.builder("feedback.dedup.entries", this, NearDuplicateIndex::size)
+             .description("Feedback fingerprints held by the near-duplicate index")
+             .register(meterRegistry);
+    }
+
+    /** Whether the sender already wrote feedback that is nearly the same as this text */
+    public boolean isNearDuplicate(String content, Long senderId) {
+        return findOriginal(MinHasher.signature(content), senderId, Long.MAX_VALUE) != null;
+    }
+
+    /**
+     * The most similar earlier feedback of the sender, if any is at or above the
+     * similarity threshold
+     *
+     * @param beforeId only consider feedback with a smaller id
+     */
+    public Long findOriginal(short[] signature, Long senderId, long beforeId) {
+        if (signature == null || senderId == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int slot = bestMatch(signature, senderId, beforeId);
+            return slot >= 0 ? feedbackIds[slot] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Index feedback, replacing the oldest entry when full; no-op if it is already indexed */
+    public void add(long feedbackId, Long senderId, short[] signature) {
+        if (signature == null || senderId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (contains(feedbackId, senderId, signature)) {
+                return;
+            }
+            int slot = nextSlot;
+            nextSlot = (nextSlot + 1) % capacity;
+            if (feedbackIds[slot] != 0) {
+                evictions++;
+            } else {
+                size++;
+            }
+            feedbackIds[slot] = feedbackId;
+            senderIds[slot] = senderId;
+            System.arraycopy(signature, 0, signatures, slot * MinHasher.HASHES, MinHasher.HASHES);
+            for (int band = 0; band < BANDS; band++) {
+                long key = bandKey(signature, 0, band, senderId);
+                int[] table = bandTables[band];
+                int set = (int) key & setMask;
+                int free = -1;
+                for (int way = 0; way < WAYS && free < 0; way++) {
+                    int entry = table[set * WAYS + way] - 1;
+                    if (entry < 0 || entry == slot || isStale(entry, band, set)) {
+                        free = way;
+                    }
+                }
+                // All ways hold live entries: overwrite one, picked by the key's top bits
+                table[set * WAYS + (free >= 0 ? free : (int) (key >>> 62))] = slot + 1;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** {@link #add} once the current transaction commits, or right away outside one */
+    public void addAfterCommit(long feedbackId, Long senderId, short[] signature) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(feedbackId, senderId, signature);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(feedbackId, senderId, signature);
+            }
+        });
+    }
+
+    /**
+     * Drop every fingerprint of the sender, e.g. when the user is erased. The freed slots
+     * are refilled as the ring comes round to them, and band entries pointing at them
+     * count as free.
+     *
+     * @return number of entries removed
+     */
+    public int remove(Long senderId) {
+        if (senderId == null) {
+            return 0;
+        }
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                if (feedbackIds[slot] != 0 && senderIds[slot] == senderId) {
+                    feedbackIds[slot] = 0;
+                    senderIds[slot] = 0;
+                    Arrays.fill(signatures, slot * MinHasher.HASHES, (slot + 1) * MinHasher.HASHES, (short) 0);
+                    removed++;
+                }
+            }
+            size -= removed;
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Entries dropped to make room since startup */
+    public int evictions() {
+        lock.readLock().lock();
+        try {
+            return evictions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int bestMatch(short[] signature, long senderId, long beforeId) {
+        int best = -1;
+        double bestSimilarity = threshold;
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signature, 0, band, senderId);
+            int[] table = bandTables[band];
+            int set = (int) key & setMask;
+            for (int way = 0; way < WAYS; way++) {
+                int slot = table[set * WAYS + way] - 1;
+                if (slot < 0 || slot == best || feedbackIds[slot] >= beforeId || senderIds[slot] != senderId
+                        || bandKeyOf(slot, band) != key) {
+                    continue;
+                }
+                double similarity = similarity(signature, slot);
+                if (similarity >= bestSimilarity) {
+                    best = slot;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+        return best;
+    }
+
+    // The slot was freed, or reused by an entry whose band key belongs to another set
+    private boolean isStale(int slot, int band, int set) {
+        return feedbackIds[slot] == 0 || ((int) bandKeyOf(slot, band) & setMask) != set;
+    }
+
+    private boolean contains(long feedbackId, long senderId, short[] signature) {
+        long key = bandKey(signature, 0, 0, senderId);
+        int[] table = bandTables[0];
+        int set = (int) key & setMask;
+        for (int way = 0; way < WAYS; way++) {
+            int slot = table[set * WAYS + way] - 1;
+            if (slot >= 0 && feedbackIds[slot] == feedbackId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double similarity(short[] signature, int slot) {
+        int offset = slot * MinHasher.HASHES;
+        int equal = 0;
+        for (int i = 0; i < MinHasher.HASHES; i++) {
+            if (signatures[offset + i] == signature[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / MinHasher.HASHES;
+    }
+
+    private long bandKeyOf(int slot, int band) {
+        return bandKey(signatures, slot * MinHasher.HASHES, band, senderIds[slot]);
+    }
+
+    /** The band's four 16-bit values packed into a long, mixed with the band and the sender */
+    private static long bandKey(short[] values, int offset, int band, long senderId) {
+        long packed = 0;
+        for (int row = 0; row < ROWS; row++) {
+            packed = (packed << 16) | (values[offset + band * ROWS + row] & 0xffff);
+        }
+        return MinHasher.mix64(packed ^ MinHasher.mix64(senderId * BANDS + band));
+    }
+}
@@ -1,10 +1,15 @@
 package com.feedback.model;
 
+import com.feedback.model.converter.ActionItemStatusConverter;
+import com.feedback.model.converter.PriorityConverter;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_action_item_assignee_status", columnList = "assigned_to_id, status")
+})
 public class ActionItem {
     
     @Id
@@ -31,9 +36,15 @@ public class ActionItem {
     
     private LocalDateTime completedAt;
     
-    private String status = "Open"; // Open, In Progress, Completed, Cancelled
+    @Convert(converter = ActionItemStatusConverter.class)
+    private ActionItemStatus status = ActionItemStatus.OPEN;
     
-    private String priority = "Medium"; // Low, Medium, High
+    @Convert(converter = PriorityConverter.class)
+    private Priority priority = Priority.MEDIUM;
+    
+    // Optimistic lock so concurrent status edits can't silently overwrite each other
+    @Version
+    private Long version;
     
     // Getters and Setters
     public Long getId() {
@@ -108,21 +119,29 @@ public class ActionItem {
         this.completedAt = completedAt;
     }
 
-    public String getStatus() {
+    public ActionItemStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(ActionItemStatus status) {
         this.status = status;
     }
 
-    public String getPriority() {
+    public Priority getPriority() {
         return priority;
     }
 
-    public void setPriority(String priority) {
+    public void setPriority(Priority priority) {
         this.priority = priority;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
     
     @PrePersist
     protected void onCreate() {
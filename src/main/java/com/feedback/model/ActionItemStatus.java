@@ -0,0 +1,71 @@
+package com.feedback.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle of an action item, stored by its numeric code.
+ */
+public enum ActionItemStatus {
+    OPEN((short) 0, "Open"),
+    IN_PROGRESS((short) 1, "In Progress"),
+    COMPLETED((short) 2, "Completed"),
+    CANCELLED((short) 3, "Cancelled");
+    
+    private static final ActionItemStatus[] BY_CODE = new ActionItemStatus[values().length];
+    
+    static {
+        for (ActionItemStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+    
+    private final short code;
+    private final String displayName;
+    
+    ActionItemStatus(short code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+    
+    public short getCode() {
+        return code;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Statuses this one may move to. Staying in the same status is always allowed.
+     */
+    public Set<ActionItemStatus> allowedTransitions() {
+        switch (this) {
+            case OPEN:
+                return EnumSet.of(OPEN, IN_PROGRESS, COMPLETED, CANCELLED);
+            case IN_PROGRESS:
+                return EnumSet.of(IN_PROGRESS, OPEN, COMPLETED, CANCELLED);
+            case COMPLETED:
+                return EnumSet.of(COMPLETED, IN_PROGRESS);
+            case CANCELLED:
+                return EnumSet.of(CANCELLED, OPEN);
+            default:
+                return EnumSet.of(this);
+        }
+    }
+    
+    public boolean canTransitionTo(ActionItemStatus target) {
+        return target != null && allowedTransitions().contains(target);
+    }
+    
+    public boolean isClosed() {
+        return this == COMPLETED || this == CANCELLED;
+    }
+    
+    public static ActionItemStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown action item status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,132 @@
+package com.feedback.model;
+
+import com.feedback.model.converter.FeedbackStatusConverter;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold-tier copy of a {@link Feedback} row, moved here by the archiver once it is past
+ * the hot horizon. Keeps the original id so links from answers still resolve. Rows are
+ * read-only; callers get them as {@link Feedback} through {@link #toFeedback()}.
+ */
+@Entity
+@Immutable
+@Table(name = "feedback_archive", indexes = {
+    @Index(name = "idx_archive_recipient_created", columnList = "recipient_id, created_at"),
+    @Index(name = "idx_archive_sender_created", columnList = "sender_id, created_at"),
+    @Index(name = "idx_archive_privacy_created", columnList = "privacy_level, created_at"),
+    @Index(name = "idx_archive_created", columnList = "created_at"),
+    @Index(name = "idx_archive_sentiment", columnList = "sentiment, id")
+})
+public class ArchivedFeedback {
+    
+    @Id
+    private Long id;
+    
+    @ManyToOne
+    private User sender;
+    
+    @ManyToOne
+    private User recipient;
+    
+    @Column(length = 1000)
+    private String content;
+    
+    private LocalDateTime createdAt;
+    
+    @Enumerated(EnumType.STRING)
+    private PrivacyLevel privacyLevel;
+    
+    private String category;
+    
+    private boolean isRead;
+    
+    @Convert(converter = FeedbackStatusConverter.class)
+    private FeedbackStatus status;
+    
+    @Column(name = "template_version_id")
+    private Long templateVersionId;
+    
+    private Byte sentiment;
+    
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+    
+    private LocalDateTime archivedAt;
+    
+    protected ArchivedFeedback() {
+    }
+    
+    /** A detached, read-only {@link Feedback} for views that list both tiers together */
+    public Feedback toFeedback() {
+        Feedback feedback = new Feedback();
+        feedback.setId(id);
+        feedback.setSender(sender);
+        feedback.setRecipient(recipient);
+        feedback.setContent(content);
+        feedback.setCreatedAt(createdAt);
+        feedback.setPrivacyLevel(privacyLevel);
+        feedback.setCategory(category);
+        feedback.setRead(isRead);
+        feedback.setStatus(status);
+        feedback.setTemplateVersionId(templateVersionId);
+        feedback.setSentiment(sentiment);
+        feedback.setDuplicateOfId(duplicateOfId);
+        feedback.setArchived(true);
+        return feedback;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public User getSender() {
+        return sender;
+    }
+    
+    public User getRecipient() {
+        return recipient;
+    }
+    
+    public String getContent() {
+        return content;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public PrivacyLevel getPrivacyLevel() {
+        return privacyLevel;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public boolean isRead() {
+        return isRead;
+    }
+    
+    public FeedbackStatus getStatus() {
+        return status;
+    }
+    
+    public Long getTemplateVersionId() {
+        return templateVersionId;
+    }
+    
+    public Byte getSentiment() {
+        return sentiment;
+    }
+    
+    public Long getDuplicateOfId() {
+        return duplicateOfId;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -1,9 +1,20 @@
 package com.feedback.model;
 
+import com.feedback.model.converter.FeedbackStatusConverter;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_feedback_recipient_read", columnList = "recipient_id, is_read"),
+    @Index(name = "idx_feedback_status", columnList = "status"),
+    // The archiver scans for rows past the hot horizon
+    @Index(name = "idx_feedback_created", columnList = "created_at"),
+    // The retention purge scans each privacy level oldest first
+    @Index(name = "idx_feedback_privacy_created", columnList = "privacy_level, created_at"),
+    // The sentiment backfill walks the rows that have no score yet
+    @Index(name = "idx_feedback_sentiment", columnList = "sentiment, id")
+})
 public class Feedback {
     
     @Id
@@ -29,7 +40,30 @@ public class Feedback {
     private boolean isRead;
     
     // MVP fields - we'll expand these in Phase 2
-    private String status = "Open"; // Open, Acknowledged, In Progress, Completed
+    @Convert(converter = FeedbackStatusConverter.class)
+    private FeedbackStatus status = FeedbackStatus.OPEN;
+    
+    // Template version the author filled in, if any (see FeedbackTemplateVersion)
+    @Column(name = "template_version_id")
+    private Long templateVersionId;
+    
+    // Content sentiment from -100 to 100, null until scored. Only the sentiment writer
+    // sets it, so saving an entity never overwrites a score with a stale value
+    @Column(insertable = false, updatable = false)
+    private Byte sentiment;
+    
+    // Earlier feedback of the same sender that this one nearly repeats (see NearDuplicateIndex).
+    // Set when saved or by the duplicate scan, never by later entity updates
+    @Column(name = "duplicate_of_id", updatable = false)
+    private Long duplicateOfId;
+    
+    // Optimistic lock so concurrent status edits can't silently overwrite each other
+    @Version
+    private Long version;
+    
+    // Set on copies loaded from feedback_archive; those are read-only
+    @Transient
+    private boolean archived;
     
     // Getters and Setters
     public Long getId() {
@@ -96,13 +130,53 @@ public class Feedback {
         isRead = read;
     }
 
-    public String getStatus() {
+    public FeedbackStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(FeedbackStatus status) {
         this.status = status;
     }
+
+    public Long getTemplateVersionId() {
+        return templateVersionId;
+    }
+
+    public void setTemplateVersionId(Long templateVersionId) {
+        this.templateVersionId = templateVersionId;
+    }
+
+    public Byte getSentiment() {
+        return sentiment;
+    }
+
+    public void setSentiment(Byte sentiment) {
+        this.sentiment = sentiment;
+    }
+
+    public Long getDuplicateOfId() {
+        return duplicateOfId;
+    }
+
+    public void setDuplicateOfId(Long duplicateOfId) {
+        this.duplicateOfId = duplicateOfId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
     
     @PrePersist
     protected void onCreate() {
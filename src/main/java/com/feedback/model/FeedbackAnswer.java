@@ -0,0 +1,129 @@
+package com.feedback.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One answer to one question of a template-based piece of feedback. Besides the
+ * feedback and question it carries the recipient's department and manager and the
+ * answer time, copied at write time, so per-question analytics are grouped scans over
+ * a single index instead of joins through feedback and users.
+ */
+@Entity
+@Table(indexes = {
+    @Index(name = "idx_answer_feedback", columnList = "feedback_id"),
+    // Covers the rating aggregates: version and period seek, then the group-by columns
+    @Index(name = "idx_answer_question_stats",
+           columnList = "template_version_id, answered_at, question_index, department_id, manager_id, rating")
+})
+public class FeedbackAnswer {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "feedback_id", nullable = false)
+    private Long feedbackId;
+    
+    @Column(name = "template_version_id", nullable = false)
+    private Long templateVersionId;
+    
+    // Position of the question in the template version, from 0
+    @Column(name = "question_index", nullable = false)
+    private int questionIndex;
+    
+    @Column(length = 2000)
+    private String text;
+    
+    // Numeric answer (1-5, 0-10 or 1/0 for yes/no); null for free-text questions
+    private Short rating;
+    
+    @Column(name = "department_id")
+    private Long departmentId;
+    
+    // Recipient's direct manager; rollups up the manager chain start from here
+    @Column(name = "manager_id")
+    private Long managerId;
+    
+    @Column(name = "answered_at", nullable = false)
+    private LocalDateTime answeredAt;
+    
+    public FeedbackAnswer() {
+    }
+    
+    public FeedbackAnswer(Long templateVersionId, int questionIndex, String text, Short rating) {
+        this.templateVersionId = templateVersionId;
+        this.questionIndex = questionIndex;
+        this.text = text;
+        this.rating = rating;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getFeedbackId() {
+        return feedbackId;
+    }
+    
+    public void setFeedbackId(Long feedbackId) {
+        this.feedbackId = feedbackId;
+    }
+    
+    public Long getTemplateVersionId() {
+        return templateVersionId;
+    }
+    
+    public void setTemplateVersionId(Long templateVersionId) {
+        this.templateVersionId = templateVersionId;
+    }
+    
+    public int getQuestionIndex() {
+        return questionIndex;
+    }
+    
+    public void setQuestionIndex(int questionIndex) {
+        this.questionIndex = questionIndex;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    public void setText(String text) {
+        this.text = text;
+    }
+    
+    public Short getRating() {
+        return rating;
+    }
+    
+    public void setRating(Short rating) {
+        this.rating = rating;
+    }
+    
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+    
+    public void setDepartmentId(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+    
+    public Long getManagerId() {
+        return managerId;
+    }
+    
+    public void setManagerId(Long managerId) {
+        this.managerId = managerId;
+    }
+    
+    public LocalDateTime getAnsweredAt() {
+        return answeredAt;
+    }
+    
+    public void setAnsweredAt(LocalDateTime answeredAt) {
+        this.answeredAt = answeredAt;
+    }
+}
@@ -0,0 +1,70 @@
+package com.feedback.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle of a feedback item. Each constant carries a stable numeric code that is
+ * what actually gets stored, so constants can be reordered or added without
+ * rewriting existing rows.
+ */
+public enum FeedbackStatus {
+    OPEN((short) 0, "Open"),
+    ACKNOWLEDGED((short) 1, "Acknowledged"),
+    IN_PROGRESS((short) 2, "In Progress"),
+    COMPLETED((short) 3, "Completed");
+    
+    private static final FeedbackStatus[] BY_CODE = new FeedbackStatus[values().length];
+    
+    static {
+        for (FeedbackStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+    
+    private final short code;
+    private final String displayName;
+    
+    FeedbackStatus(short code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+    
+    public short getCode() {
+        return code;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Statuses this one may move to. Staying in the same status is always allowed.
+     */
+    public Set<FeedbackStatus> allowedTransitions() {
+        switch (this) {
+            case OPEN:
+                return EnumSet.of(OPEN, ACKNOWLEDGED, IN_PROGRESS, COMPLETED);
+            case ACKNOWLEDGED:
+                return EnumSet.of(ACKNOWLEDGED, IN_PROGRESS, COMPLETED);
+            case IN_PROGRESS:
+                return EnumSet.of(IN_PROGRESS, ACKNOWLEDGED, COMPLETED);
+            case COMPLETED:
+                // Allow re-opening work that turned out not to be finished
+                return EnumSet.of(COMPLETED, IN_PROGRESS);
+            default:
+                return EnumSet.of(this);
+        }
+    }
+    
+    public boolean canTransitionTo(FeedbackStatus target) {
+        return target != null && allowedTransitions().contains(target);
+    }
+    
+    public static FeedbackStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown feedback status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -4,6 +4,12 @@ import jakarta.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * A template as managed in the template screen: its current name and details, whether
+ * it is offered to users, and which immutable {@link FeedbackTemplateVersion} is the
+ * published one. Questions live on the versions; {@link #setQuestions} only stages
+ * new questions for the next version.
+ */
 @Entity
 public class FeedbackTemplate {
     
@@ -17,10 +23,11 @@ public class FeedbackTemplate {
     @Column(length = 500)
     private String instructions;
     
-    @ElementCollection
-    @CollectionTable(name = "template_questions", joinColumns = @JoinColumn(name = "template_id"))
-    @Column(name = "question", length = 500)
-    private List<String> questions = new ArrayList<>();
+    @ManyToOne
+    private FeedbackTemplateVersion currentVersion;
+    
+    @Transient
+    private List<TemplateQuestion> draftQuestions;
     
     private boolean isActive = true;
     
@@ -57,12 +64,25 @@ public class FeedbackTemplate {
         this.instructions = instructions;
     }
 
-    public List<String> getQuestions() {
-        return questions;
+    /** Staged questions if there are any, otherwise those of the published version */
+    public List<TemplateQuestion> getQuestions() {
+        if (draftQuestions != null) {
+            return draftQuestions;
+        }
+        return currentVersion != null ? currentVersion.getQuestions() : new ArrayList<>();
+    }
+
+    public void setQuestions(List<TemplateQuestion> questions) {
+        this.draftQuestions = questions;
+    }
+
+    public FeedbackTemplateVersion getCurrentVersion() {
+        return currentVersion;
     }
 
-    public void setQuestions(List<String> questions) {
-        this.questions = questions;
+    public void setCurrentVersion(FeedbackTemplateVersion currentVersion) {
+        this.currentVersion = currentVersion;
+        this.draftQuestions = null;
     }
 
     public boolean isActive() {
@@ -72,4 +92,4 @@ public class FeedbackTemplate {
     public void setActive(boolean active) {
         isActive = active;
     }
-}
\ No newline at end of file
+}
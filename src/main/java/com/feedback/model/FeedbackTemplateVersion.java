@@ -0,0 +1,118 @@
+package com.feedback.model;
+
+import com.feedback.model.converter.QuestionListConverter;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One published revision of a feedback template. Rows are never updated: editing a
+ * template appends a new version, so feedback written from a version can always show
+ * exactly the questions its author answered.
+ */
+@Entity
+@Immutable
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_template_version",
+        columnNames = {"template_id", "version_number"}))
+public class FeedbackTemplateVersion implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Plain id, not an association: versions outlive a deleted template
+    @Column(name = "template_id", nullable = false, updatable = false)
+    private Long templateId;
+    
+    @Column(name = "version_number", nullable = false, updatable = false)
+    private int versionNumber;
+    
+    @Column(updatable = false)
+    private String name;
+    
+    @Column(updatable = false)
+    private String description;
+    
+    @Column(length = 500, updatable = false)
+    private String instructions;
+    
+    @Convert(converter = QuestionListConverter.class)
+    @Column(length = 8000, updatable = false)
+    private List<TemplateQuestion> questions = List.of();
+    
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    
+    protected FeedbackTemplateVersion() {
+    }
+    
+    public FeedbackTemplateVersion(Long templateId, int versionNumber, String name, String description,
+                                   String instructions, List<TemplateQuestion> questions) {
+        this.templateId = templateId;
+        this.versionNumber = versionNumber;
+        this.name = name;
+        this.description = description;
+        this.instructions = instructions;
+        this.questions = List.copyOf(questions);
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    /** Whether this version already says exactly what the given template's form holds */
+    public boolean hasSameContent(String name, String description, String instructions, List<TemplateQuestion> questions) {
+        return Objects.equals(this.name, name) && Objects.equals(this.description, description)
+                && Objects.equals(this.instructions, instructions) && this.questions.equals(questions);
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getTemplateId() {
+        return templateId;
+    }
+    
+    public int getVersionNumber() {
+        return versionNumber;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public String getInstructions() {
+        return instructions;
+    }
+    
+    public List<TemplateQuestion> getQuestions() {
+        return questions;
+    }
+    
+    /** Whether any question has a numeric answer that the rating analytics can aggregate */
+    public boolean hasNumericQuestions() {
+        return questions.stream().anyMatch(question -> question.type().isNumeric());
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof FeedbackTemplateVersion other && id != null && id.equals(other.id));
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
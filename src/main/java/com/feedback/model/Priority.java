@@ -0,0 +1,42 @@
+package com.feedback.model;
+
+/**
+ * Action item priority. Declared from lowest to highest so the natural enum order
+ * can be used directly for sorting; the stored value is the explicit code.
+ */
+public enum Priority {
+    LOW((short) 0, "Low"),
+    MEDIUM((short) 1, "Medium"),
+    HIGH((short) 2, "High");
+    
+    private static final Priority[] BY_CODE = new Priority[values().length];
+    
+    static {
+        for (Priority priority : values()) {
+            BY_CODE[priority.code] = priority;
+        }
+    }
+    
+    private final short code;
+    private final String displayName;
+    
+    Priority(short code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+    
+    public short getCode() {
+        return code;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public static Priority fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown priority code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
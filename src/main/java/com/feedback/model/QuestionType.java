@@ -0,0 +1,62 @@
+package com.feedback.model;
+
+import java.util.Locale;
+
+/**
+ * How a template question is answered. Numeric types store their answer in
+ * {@link FeedbackAnswer#getRating()} and can be aggregated; yes/no is stored as 1/0.
+ */
+public enum QuestionType {
+    TEXT("Free text", null, 0, 0),
+    RATING("Rating 1-5", "rating", 1, 5),
+    NPS("NPS 0-10", "nps", 0, 10),
+    YES_NO("Yes / No", "yes/no", 0, 1);
+    
+    private final String displayName;
+    // Written in front of a question in the template editor, e.g. "[rating] Communication"
+    private final String tag;
+    private final int min;
+    private final int max;
+    
+    QuestionType(String displayName, String tag, int min, int max) {
+        this.displayName = displayName;
+        this.tag = tag;
+        this.min = min;
+        this.max = max;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public String getTag() {
+        return tag;
+    }
+    
+    public boolean isNumeric() {
+        return this != TEXT;
+    }
+    
+    public int getMin() {
+        return min;
+    }
+    
+    public int getMax() {
+        return max;
+    }
+    
+    public boolean accepts(int value) {
+        return isNumeric() && value >= min && value <= max;
+    }
+    
+    /** The numeric type with this editor tag, or null if there is none */
+    public static QuestionType fromTag(String tag) {
+        String normalized = tag.trim().toLowerCase(Locale.ROOT);
+        for (QuestionType type : values()) {
+            if (type.tag != null && type.tag.equals(normalized)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
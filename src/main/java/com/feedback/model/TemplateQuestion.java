@@ -0,0 +1,36 @@
+package com.feedback.model;
+
+import java.io.Serializable;
+
+/**
+ * One question of a template version and how it is answered. In the template editor
+ * a question is one line, with an optional type tag in front: {@code [rating] Communication}.
+ */
+public record TemplateQuestion(String text, QuestionType type) implements Serializable {
+    
+    public TemplateQuestion {
+        type = type != null ? type : QuestionType.TEXT;
+    }
+    
+    public static TemplateQuestion text(String text) {
+        return new TemplateQuestion(text, QuestionType.TEXT);
+    }
+    
+    /** Parse an editor line; an unknown tag is left as part of a free-text question */
+    public static TemplateQuestion parse(String line) {
+        String trimmed = line.trim();
+        int close = trimmed.indexOf(']');
+        if (trimmed.startsWith("[") && close > 0) {
+            QuestionType type = QuestionType.fromTag(trimmed.substring(1, close));
+            if (type != null) {
+                return new TemplateQuestion(trimmed.substring(close + 1).trim(), type);
+            }
+        }
+        return text(trimmed);
+    }
+    
+    /** The editor line this question was parsed from */
+    public String format() {
+        return type.isNumeric() ? "[" + type.getTag() + "] " + text : text;
+    }
+}
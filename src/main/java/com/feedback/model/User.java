@@ -6,7 +6,12 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    // Prefix search in the user grid and pickers (UserSpecifications.nameOrEmailStartsWith)
+    @Index(name = "idx_users_first_name", columnList = "first_name"),
+    @Index(name = "idx_users_last_name", columnList = "last_name"),
+    @Index(name = "idx_users_username", columnList = "username")
+})
 public class User implements Serializable {
     
     private static final long serialVersionUID = 1L;
@@ -27,6 +32,7 @@ public class User implements Serializable {
     
     private boolean isActive = true;
     private LocalDateTime lastLogin;
+    private LocalDateTime lastWallVisit;
     private LocalDateTime createdAt;
     
     @ManyToOne
@@ -118,6 +124,14 @@ public class User implements Serializable {
         this.lastLogin = lastLogin;
     }
 
+    public LocalDateTime getLastWallVisit() {
+        return lastWallVisit;
+    }
+
+    public void setLastWallVisit(LocalDateTime lastWallVisit) {
+        this.lastWallVisit = lastWallVisit;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,22 @@
+package com.feedback.model.converter;
+
+import com.feedback.model.ActionItemStatus;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link ActionItemStatus} as its small-integer code instead of its name or ordinal.
+ */
+@Converter
+public class ActionItemStatusConverter implements AttributeConverter<ActionItemStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(ActionItemStatus attribute) {
+        return attribute != null ? attribute.getCode() : null;
+    }
+
+    @Override
+    public ActionItemStatus convertToEntityAttribute(Short dbData) {
+        return dbData != null ? ActionItemStatus.fromCode(dbData) : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.feedback.model.converter;
+
+import com.feedback.model.FeedbackStatus;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link FeedbackStatus} as its small-integer code instead of its name or ordinal.
+ */
+@Converter
+public class FeedbackStatusConverter implements AttributeConverter<FeedbackStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(FeedbackStatus attribute) {
+        return attribute != null ? attribute.getCode() : null;
+    }
+
+    @Override
+    public FeedbackStatus convertToEntityAttribute(Short dbData) {
+        return dbData != null ? FeedbackStatus.fromCode(dbData) : null;
+    }
+}
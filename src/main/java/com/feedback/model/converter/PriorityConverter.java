@@ -0,0 +1,22 @@
+package com.feedback.model.converter;
+
+import com.feedback.model.Priority;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Priority} as its small-integer code instead of its name or ordinal.
+ */
+@Converter
+public class PriorityConverter implements AttributeConverter<Priority, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Priority attribute) {
+        return attribute != null ? attribute.getCode() : null;
+    }
+
+    @Override
+    public Priority convertToEntityAttribute(Short dbData) {
+        return dbData != null ? Priority.fromCode(dbData) : null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.feedback.model.converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.feedback.model.QuestionType;
+import com.feedback.model.TemplateQuestion;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores an ordered list of template questions as a compact JSON array in one column,
+ * so a template version is a single row instead of a row per question. Free-text
+ * questions are plain strings, as they were before questions had types; typed ones
+ * are {@code {"text": ..., "type": ...}} objects.
+ */
+@Converter
+public class QuestionListConverter implements AttributeConverter<List<TemplateQuestion>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Override
+    public String convertToDatabaseColumn(List<TemplateQuestion> attribute) {
+        ArrayNode array = MAPPER.createArrayNode();
+        if (attribute != null) {
+            for (TemplateQuestion question : attribute) {
+                if (question.type() == QuestionType.TEXT) {
+                    array.add(question.text());
+                } else {
+                    array.addObject().put("text", question.text()).put("type", question.type().name());
+                }
+            }
+        }
+        try {
+            return MAPPER.writeValueAsString(array);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialise template questions", e);
+        }
+    }
+
+    @Override
+    public List<TemplateQuestion> convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isEmpty()) {
+            return List.of();
+        }
+        try {
+            List<TemplateQuestion> questions = new ArrayList<>();
+            for (JsonNode node : MAPPER.readTree(dbData)) {
+                if (node.isTextual()) {
+                    questions.add(TemplateQuestion.text(node.asText()));
+                } else {
+                    questions.add(new TemplateQuestion(node.path("text").asText(),
+                            QuestionType.valueOf(node.path("type").asText())));
+                }
+            }
+            return List.copyOf(questions);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Corrupt template questions: " + dbData, e);
+        }
+    }
+}
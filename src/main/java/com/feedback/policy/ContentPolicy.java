@@ -0,0 +1,303 @@
+package com.feedback.policy;
+
+import com.feedback.model.PrivacyLevel;
+import com.feedback.model.User;
+import com.feedback.service.NameScrubber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Screens feedback content before it is saved. The configured terms (see
+ * {@code policy/content-policy.txt}) are compiled into a {@link TermAutomaton}, and one
+ * pass over the text feeds every character to the automaton and, for anonymous
+ * feedback, to the phone number and email address detectors. A 1000-character
+ * message takes a few microseconds.
+ *
+ * The term list is reloaded when its file changes. The new automaton is built on the
+ * side and swapped in with a single volatile write, so scans never wait for a reload
+ * and always see one complete dictionary.
+ */
+@Component
+public class ContentPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentPolicy.class);
+
+    // Fewer digits is more likely a date, an amount or a ticket number than a phone number
+    private static final int MIN_PHONE_DIGITS = 9;
+    private static final int MAX_PHONE_DIGITS = 15;
+    private static final String PHONE = "phone number";
+    private static final String EMAIL = "email address";
+    private static final String OWN_NAME = "your name";
+
+    public enum Action {
+        /** The author is shown the match and asked to confirm */
+        WARN,
+        /** The feedback can't be submitted */
+        BLOCK
+    }
+
+    public record Violation(Action action, String category, String match) {
+
+        /** A phone number, email address or the sender's name rather than a listed term */
+        public boolean isPersonalData() {
+            return PHONE.equals(category) || EMAIL.equals(category) || OWN_NAME.equals(category);
+        }
+    }
+
+    public record Verdict(List<Violation> violations) {
+
+        public boolean isClean() {
+            return violations.isEmpty();
+        }
+
+        public boolean isBlocked() {
+            return violations.stream().anyMatch(violation -> violation.action() == Action.BLOCK);
+        }
+
+        public boolean hasPersonalData() {
+            return violations.stream().anyMatch(Violation::isPersonalData);
+        }
+
+        /** The violations with this action, as {@code category "match", ...} */
+        public String describe(Action action) {
+            return violations.stream()
+                    .filter(violation -> violation.action() == action)
+                    .map(violation -> violation.category() + " \"" + violation.match() + "\"")
+                    .collect(Collectors.joining(", "));
+        }
+    }
+
+    private record Rule(String term, boolean prefix, Action action, String category) {
+    }
+
+    private record Dictionary(List<Rule> rules, TermAutomaton automaton, long lastModified) {
+    }
+
+    private final Resource source;
+    private volatile Dictionary dictionary;
+    // Modification time of a file that failed to load, so it is not retried until it changes again
+    private volatile long rejectedModified;
+
+    public ContentPolicy(@Value("${feedback.content-policy.terms:classpath:policy/content-policy.txt}") Resource source) {
+        this.source = source;
+        this.dictionary = load();
+    }
+
+    /**
+     * Check content about to be submitted. Phone numbers, email addresses and the
+     * sender's own name are only looked for in anonymous feedback, where they could give
+     * away who wrote it.
+     */
+    public Verdict check(String content, PrivacyLevel privacyLevel, User sender) {
+        if (content == null || content.isEmpty()) {
+            return new Verdict(List.of());
+        }
+        boolean anonymous = privacyLevel == PrivacyLevel.ANONYMOUS;
+        List<Violation> violations = scan(content, anonymous);
+        if (anonymous && sender != null && NameScrubber.forUniqueNames(sender).scrub(content) != content) {
+            violations.add(new Violation(Action.WARN, OWN_NAME, sender.getFullName()));
+        }
+        return new Verdict(List.copyOf(violations));
+    }
+
+    private List<Violation> scan(String text, boolean findPersonalData) {
+        // One dictionary for the whole scan, even if a reload swaps it meanwhile
+        Dictionary current = dictionary;
+        TermAutomaton automaton = current.automaton();
+        List<Violation> violations = new ArrayList<>(0);
+
+        int state = 0;
+        int digits = 0;
+        int numberStart = -1;
+        int numberEnd = -1;
+        int separators = 0;
+        int localStart = -1;
+        int at = -1;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            state = automaton.next(state, Character.toLowerCase(c));
+            for (int output = automaton.firstOutput(state); output >= 0; output = automaton.nextOutput(output)) {
+                Rule rule = current.rules().get(automaton.termAt(output));
+                int start = i - rule.term().length() + 1;
+                if (isBoundary(text, start - 1) && (rule.prefix() || isBoundary(text, i + 1))) {
+                    int end = rule.prefix() ? wordEnd(text, i + 1) : i + 1;
+                    add(violations, rule.action(), rule.category(), text.substring(start, end));
+                }
+            }
+            if (!findPersonalData) {
+                continue;
+            }
+
+            // Phone numbers: digit groups with at most two separators between them
+            if (Character.isDigit(c)) {
+                if (digits == 0) {
+                    numberStart = i;
+                }
+                digits++;
+                numberEnd = i + 1;
+                separators = 0;
+            } else if (digits > 0 && isPhoneSeparator(c) && ++separators <= 2) {
+                // still the same number
+            } else {
+                addPhone(violations, text, digits, numberStart, numberEnd);
+                digits = 0;
+                separators = 0;
+            }
+
+            // Email addresses: a local part, '@', and a domain with a dot in it
+            if (at < 0) {
+                if (c == '@' && localStart >= 0) {
+                    at = i;
+                } else if (isLocalPartChar(c)) {
+                    localStart = localStart < 0 ? i : localStart;
+                } else {
+                    localStart = -1;
+                }
+            } else if (!Character.isLetterOrDigit(c) && c != '-' && c != '.') {
+                addEmail(violations, text, localStart, at, i);
+                at = -1;
+                localStart = isLocalPartChar(c) ? i : -1;
+            }
+        }
+        if (findPersonalData) {
+            addPhone(violations, text, digits, numberStart, numberEnd);
+            if (at >= 0) {
+                addEmail(violations, text, localStart, at, text.length());
+            }
+        }
+        return violations;
+    }
+
+    private static void addPhone(List<Violation> violations, String text, int digits, int start, int end) {
+        if (digits >= MIN_PHONE_DIGITS && digits <= MAX_PHONE_DIGITS) {
+            add(violations, Action.WARN, PHONE, text.substring(start, end));
+        }
+    }
+
+    private static void addEmail(List<Violation> violations, String text, int localStart, int at, int end) {
+        // A sentence can end right after the address
+        while (end > at + 1 && text.charAt(end - 1) == '.') {
+            end--;
+        }
+        String domain = text.substring(at + 1, end);
+        int dot = domain.lastIndexOf('.');
+        if (dot > 0 && domain.length() - dot > 2) {
+            add(violations, Action.WARN, EMAIL, text.substring(localStart, end));
+        }
+    }
+
+    private static void add(List<Violation> violations, Action action, String category, String match) {
+        for (Violation violation : violations) {
+            if (violation.category().equals(category) && violation.match().equalsIgnoreCase(match)) {
+                return;
+            }
+        }
+        violations.add(new Violation(action, category, match));
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private static int wordEnd(String text, int from) {
+        int end = from;
+        while (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isPhoneSeparator(char c) {
+        return c == ' ' || c == '-' || c == '.' || c == '(' || c == ')' || c == '/';
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    public int termCount() {
+        return dictionary.rules().size();
+    }
+
+    @Scheduled(initialDelayString = "${feedback.content-policy.reload-interval-ms:30000}",
+               fixedDelayString = "${feedback.content-policy.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        long modified = lastModified();
+        if (modified == dictionary.lastModified() || modified == rejectedModified) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            // Keep scanning with the dictionary we have
+            rejectedModified = modified;
+            log.warn("Content policy not reloaded: {}", e.getMessage());
+        }
+    }
+
+    /** Re-read the term list and swap in the new automaton */
+    public void reload() {
+        Dictionary loaded = load();
+        dictionary = loaded;
+        log.info("Content policy reloaded: {} terms, {} automaton states", loaded.rules().size(),
+                loaded.automaton().stateCount());
+    }
+
+    private Dictionary load() {
+        long lastModified = lastModified();
+        List<Rule> rules = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+", 3);
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Content policy line " + number
+                            + " needs an action, a category and a term: " + line);
+                }
+                Action action = Action.valueOf(parts[0].toUpperCase(Locale.ROOT));
+                String term = parts[2].toLowerCase(Locale.ROOT);
+                boolean prefix = term.endsWith("*");
+                if (prefix) {
+                    term = term.substring(0, term.length() - 1);
+                }
+                if (!term.isBlank()) {
+                    rules.add(new Rule(term, prefix, action, parts[1]));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read content policy " + source.getDescription(), e);
+        }
+        TermAutomaton automaton = new TermAutomaton(rules.stream().map(Rule::term).toList());
+        return new Dictionary(List.copyOf(rules), automaton, lastModified);
+    }
+
+    private long lastModified() {
+        try {
+            return source.isFile() ? source.lastModified() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
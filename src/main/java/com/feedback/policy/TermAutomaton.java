@@ -0,0 +1,125 @@
+package com.feedback.policy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over a fixed set of lower-case terms, compiled into a full
+ * transition table so scanning costs one array lookup per character, however many
+ * terms there are. Characters that occur in no term share one column that always
+ * leads back to the root.
+ *
+ * Immutable once built; {@link ContentPolicy} swaps in a new instance on reload.
+ */
+final class TermAutomaton {
+
+    // Character -> column in the transition table; 0 for characters no term uses
+    private final char[] columns;
+    private final int width;
+    private final int[] transitions;
+    // Index of the term (in the list it was built from) that ends in a state, or -1
+    private final int[] termAt;
+    // Next state on the failure chain where some term ends, or -1
+    private final int[] outputLink;
+
+    TermAutomaton(List<String> terms) {
+        columns = new char[Character.MAX_VALUE + 1];
+        int used = 0;
+        for (String term : terms) {
+            for (char c : term.toCharArray()) {
+                if (columns[c] == 0) {
+                    columns[c] = (char) ++used;
+                }
+            }
+        }
+        width = used + 1;
+
+        // Trie first, with -1 for missing edges
+        List<int[]> edges = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        edges.add(newRow());
+        ends.add(-1);
+        for (int index = 0; index < terms.size(); index++) {
+            int state = 0;
+            for (char c : terms.get(index).toCharArray()) {
+                int column = columns[c];
+                if (edges.get(state)[column] < 0) {
+                    edges.get(state)[column] = edges.size();
+                    edges.add(newRow());
+                    ends.add(-1);
+                }
+                state = edges.get(state)[column];
+            }
+            // With duplicate terms the first one wins
+            if (ends.get(state) < 0) {
+                ends.set(state, index);
+            }
+        }
+
+        // Breadth-first: failure links, output links and the missing transitions
+        int states = edges.size();
+        transitions = new int[states * width];
+        termAt = new int[states];
+        outputLink = new int[states];
+        int[] failure = new int[states];
+        Arrays.fill(outputLink, -1);
+        for (int state = 0; state < states; state++) {
+            termAt[state] = ends.get(state);
+        }
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int column = 0; column < width; column++) {
+            int child = edges.get(0)[column];
+            transitions[column] = Math.max(child, 0);
+            if (child > 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int fail = failure[state];
+            outputLink[state] = termAt[fail] >= 0 ? fail : outputLink[fail];
+            for (int column = 0; column < width; column++) {
+                int child = edges.get(state)[column];
+                if (child >= 0) {
+                    failure[child] = transitions[fail * width + column];
+                    transitions[state * width + column] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state * width + column] = transitions[fail * width + column];
+                }
+            }
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[width];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /** State after reading a lower-case character */
+    int next(int state, char c) {
+        return transitions[state * width + columns[c]];
+    }
+
+    /** First state on the output chain of {@code state} where a term ends, or -1 */
+    int firstOutput(int state) {
+        return termAt[state] >= 0 ? state : outputLink[state];
+    }
+
+    int nextOutput(int outputState) {
+        return outputLink[outputState];
+    }
+
+    /** Index of the term that ends in an output state */
+    int termAt(int outputState) {
+        return termAt[outputState];
+    }
+
+    int stateCount() {
+        return termAt.length;
+    }
+}
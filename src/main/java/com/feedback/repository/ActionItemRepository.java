@@ -1,15 +1,85 @@
 package com.feedback.repository;
 
 import com.feedback.model.ActionItem;
+import com.feedback.model.ActionItemStatus;
+import com.feedback.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ActionItemRepository extends JpaRepository<ActionItem, Long> {
     List<ActionItem> findByAssignedToId(Long userId);
     List<ActionItem> findByFeedbackId(Long feedbackId);
-    List<ActionItem> findByStatus(String status);
-    long countByAssignedToIdAndStatusNot(Long userId, String notStatus);
-}
\ No newline at end of file
+    List<ActionItem> findByFeedbackIdIn(Collection<Long> feedbackIds);
+    List<ActionItem> findByStatus(ActionItemStatus status);
+    long countByAssignedToIdAndStatusNot(Long userId, ActionItemStatus notStatus);
+    
+    // Just the fields a status update needs, without loading the user/feedback graph
+    @Query("SELECT a.status AS status, a.version AS version, u.id AS assigneeId " +
+           "FROM ActionItem a LEFT JOIN a.assignedTo u WHERE a.id = :id")
+    Optional<StatusVersion> findStatusVersionById(@Param("id") Long id);
+    
+    // Per-assignee counts of items that are not completed, used to warm and reconcile counters
+    @Query("SELECT a.assignedTo.id AS userId, COUNT(a) AS total FROM ActionItem a " +
+           "WHERE a.status <> :excluded AND a.assignedTo IS NOT NULL GROUP BY a.assignedTo.id")
+    List<UserCount> countByAssigneeAndStatusNot(@Param("excluded") ActionItemStatus excluded);
+    
+    // Compare-and-set: only applies if nobody changed the row since the version was read
+    @Modifying
+    @Transactional
+    @Query("UPDATE ActionItem a SET a.status = :status, a.completedAt = :completedAt, " +
+           "a.version = a.version + 1 WHERE a.id = :id AND a.version = :version")
+    int updateStatusIfVersion(@Param("id") Long id, @Param("status") ActionItemStatus status,
+                              @Param("completedAt") LocalDateTime completedAt,
+                              @Param("version") Long version);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ActionItem a WHERE a.feedback.id IN :feedbackIds")
+    int deleteByFeedbackIdIn(@Param("feedbackIds") Collection<Long> feedbackIds);
+    
+    // Erasure: items the user is assigned to or created, a batch at a time
+    @Query("SELECT a.id AS id, a.title AS title, a.description AS description FROM ActionItem a " +
+           "WHERE a.assignedTo.id = :userId OR a.createdBy.id = :userId ORDER BY a.id")
+    List<ItemText> findTextReferencingUser(@Param("userId") Long userId, Pageable page);
+    
+    @Query("SELECT a.id AS id, a.title AS title, a.description AS description FROM ActionItem a " +
+           "WHERE a.feedback.id IN :feedbackIds")
+    List<ItemText> findTextByFeedbackIdIn(@Param("feedbackIds") Collection<Long> feedbackIds);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ActionItem a SET a.assignedTo = :replacement, a.version = a.version + 1 " +
+           "WHERE a.id IN :ids AND a.assignedTo = :user")
+    int replaceAssignee(@Param("ids") Collection<Long> ids, @Param("user") User user,
+                        @Param("replacement") User replacement);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ActionItem a SET a.createdBy = :replacement, a.version = a.version + 1 " +
+           "WHERE a.id IN :ids AND a.createdBy = :user")
+    int replaceCreator(@Param("ids") Collection<Long> ids, @Param("user") User user,
+                       @Param("replacement") User replacement);
+    
+    interface ItemText {
+        Long getId();
+        String getTitle();
+        String getDescription();
+    }
+    
+    interface StatusVersion {
+        ActionItemStatus getStatus();
+        Long getVersion();
+        Long getAssigneeId();
+    }
+}
@@ -0,0 +1,129 @@
+package com.feedback.repository;
+
+import com.feedback.model.ArchivedFeedback;
+import com.feedback.model.PrivacyLevel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedFeedbackRepository extends JpaRepository<ArchivedFeedback, Long> {
+    
+    // A null "since" means all time
+    @Query("SELECT a FROM ArchivedFeedback a WHERE a.recipient.id = :userId " +
+           "AND (:since IS NULL OR a.createdAt >= :since)")
+    List<ArchivedFeedback> findReceived(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+    
+    @Query("SELECT a FROM ArchivedFeedback a WHERE a.sender.id = :userId " +
+           "AND (:since IS NULL OR a.createdAt >= :since)")
+    List<ArchivedFeedback> findSent(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+    
+    @Query("SELECT a FROM ArchivedFeedback a WHERE :since IS NULL OR a.createdAt >= :since")
+    List<ArchivedFeedback> findSince(@Param("since") LocalDateTime since);
+    
+    long countByPrivacyLevelAndDuplicateOfIdIsNull(PrivacyLevel privacyLevel);
+    long countByPrivacyLevelAndDuplicateOfIdIsNullAndCreatedAtAfter(PrivacyLevel privacyLevel,
+                                                                    LocalDateTime createdAt);
+    
+    // Same as FeedbackRepository.EXPIRED, for the archive table
+    String EXPIRED = "a.privacyLevel = :level AND a.createdAt < :cutoff " +
+           "AND (:category IS NULL OR a.category = :category) " +
+           "AND (a.category IS NULL OR a.category NOT IN :except)";
+    
+    @Query("SELECT a.id FROM ArchivedFeedback a WHERE " + EXPIRED + " ORDER BY a.createdAt")
+    List<Long> findExpiredIds(@Param("level") PrivacyLevel level, @Param("category") String category,
+                              @Param("except") Collection<String> except, @Param("cutoff") LocalDateTime cutoff,
+                              Pageable page);
+    
+    @Query("SELECT MIN(a.createdAt) FROM ArchivedFeedback a WHERE " + EXPIRED)
+    LocalDateTime findOldestExpired(@Param("level") PrivacyLevel level, @Param("category") String category,
+                                    @Param("except") Collection<String> except, @Param("cutoff") LocalDateTime cutoff);
+    
+    // Oldest-first batches for the segment archiver
+    List<ArchivedFeedback> findByCreatedAtBeforeOrderById(LocalDateTime cutoff, Pageable page);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ArchivedFeedback a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Erasure, as in FeedbackRepository; archive rows are immutable to JPA, so the update is native
+    @Query("SELECT a.id AS id, a.content AS content FROM ArchivedFeedback a " +
+           "WHERE a.sender.id = :userId OR a.recipient.id = :userId ORDER BY a.id")
+    List<FeedbackRepository.IdContent> findContentReferencingUser(@Param("userId") Long userId, Pageable page);
+    
+    @Query("SELECT MIN(a.id) FROM ArchivedFeedback a WHERE a.createdAt >= :since")
+    Long findFirstIdCreatedSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT a.id AS id, a.content AS content FROM ArchivedFeedback a " +
+           "WHERE a.id > :afterId AND a.createdAt >= :since AND " +
+           "(LOWER(a.content) LIKE :name OR LOWER(a.content) LIKE :username OR LOWER(a.content) LIKE :email) " +
+           "ORDER BY a.id")
+    List<FeedbackRepository.IdContent> findContentMentioning(@Param("afterId") Long afterId,
+                                                             @Param("since") LocalDateTime since,
+                                                             @Param("name") String name,
+                                                             @Param("username") String username,
+                                                             @Param("email") String email, Pageable page);
+    
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE feedback_archive SET " +
+                   "sender_id = CASE WHEN sender_id = :userId THEN :replacementId ELSE sender_id END, " +
+                   "recipient_id = CASE WHEN recipient_id = :userId THEN :replacementId ELSE recipient_id END " +
+                   "WHERE id IN (:ids)",
+           nativeQuery = true)
+    int replaceUser(@Param("ids") Collection<Long> ids, @Param("userId") Long userId,
+                    @Param("replacementId") Long replacementId);
+    
+    // Sentiment, as in FeedbackRepository
+    @Query("SELECT a.id AS id, a.content AS content FROM ArchivedFeedback a " +
+           "WHERE a.sentiment IS NULL AND a.id > :afterId ORDER BY a.id")
+    List<FeedbackRepository.IdContent> findUnscored(@Param("afterId") Long afterId, Pageable page);
+    
+    @Query("SELECT r.department.id AS departmentId, YEAR(a.createdAt) AS year, MONTH(a.createdAt) AS month, " +
+           "SUM(a.sentiment) AS total, COUNT(a) AS scored FROM ArchivedFeedback a JOIN a.recipient r " +
+           "WHERE a.sentiment IS NOT NULL AND r.department IS NOT NULL " +
+           "AND (:since IS NULL OR a.createdAt >= :since) " +
+           "GROUP BY r.department.id, YEAR(a.createdAt), MONTH(a.createdAt)")
+    List<FeedbackRepository.SentimentBucket> findSentimentBuckets(@Param("since") LocalDateTime since);
+    
+    // Analytics chart counts, as in FeedbackRepository
+    @Query("SELECT YEAR(a.createdAt) AS year, MONTH(a.createdAt) AS month, COUNT(a) AS total FROM ArchivedFeedback a " +
+           "WHERE :since IS NULL OR a.createdAt >= :since GROUP BY YEAR(a.createdAt), MONTH(a.createdAt)")
+    List<FeedbackRepository.MonthCount> countByMonth(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT a.category AS name, COUNT(a) AS total FROM ArchivedFeedback a " +
+           "WHERE :since IS NULL OR a.createdAt >= :since GROUP BY a.category")
+    List<FeedbackRepository.NameCount> countByCategory(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT d.name AS name, COUNT(a) AS total FROM ArchivedFeedback a JOIN a.recipient r JOIN r.department d " +
+           "WHERE :since IS NULL OR a.createdAt >= :since GROUP BY d.name")
+    List<FeedbackRepository.NameCount> countByRecipientDepartment(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT d.name AS name, COUNT(a) AS total FROM ArchivedFeedback a JOIN a.sender s JOIN s.department d " +
+           "WHERE :since IS NULL OR a.createdAt >= :since GROUP BY d.name")
+    List<FeedbackRepository.NameCount> countBySenderDepartment(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT a.status AS status, COUNT(a) AS total FROM ArchivedFeedback a " +
+           "WHERE :since IS NULL OR a.createdAt >= :since GROUP BY a.status")
+    List<FeedbackRepository.StatusCount> countByStatus(@Param("since") LocalDateTime since);
+    
+    // Copies hot rows as they are, in one statement; the caller deletes them in the same transaction
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO feedback_archive (id, sender_id, recipient_id, content, created_at, privacy_level, " +
+                   "category, is_read, status, template_version_id, sentiment, duplicate_of_id, archived_at) " +
+                   "SELECT id, sender_id, recipient_id, content, created_at, privacy_level, " +
+                   "category, is_read, status, template_version_id, sentiment, duplicate_of_id, :archivedAt " +
+                   "FROM feedback WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyFromHot(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -0,0 +1,101 @@
+package com.feedback.repository;
+
+import com.feedback.model.FeedbackAnswer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FeedbackAnswerRepository extends JpaRepository<FeedbackAnswer, Long> {
+    
+    List<FeedbackAnswer> findByFeedbackIdOrderByQuestionIndex(Long feedbackId);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FeedbackAnswer a WHERE a.feedbackId = :feedbackId")
+    int deleteByFeedbackId(@Param("feedbackId") Long feedbackId);
+    
+    // Erasure: answers rolled up under the user as manager, and the text answers of their feedback
+    @Query("SELECT a.id FROM FeedbackAnswer a WHERE a.managerId = :managerId ORDER BY a.id")
+    List<Long> findIdsByManagerId(@Param("managerId") Long managerId, Pageable page);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE FeedbackAnswer a SET a.managerId = :replacementId WHERE a.id IN :ids")
+    int updateManagerId(@Param("ids") Collection<Long> ids, @Param("replacementId") Long replacementId);
+    
+    List<FeedbackAnswer> findByFeedbackIdInAndTextIsNotNull(Collection<Long> feedbackIds);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FeedbackAnswer a WHERE a.feedbackId IN :feedbackIds")
+    int deleteByFeedbackIdIn(@Param("feedbackIds") Collection<Long> feedbackIds);
+    
+    // Average rating per question per department per month, served by idx_answer_question_stats
+    @Query("SELECT a.questionIndex AS questionIndex, a.departmentId AS departmentId, " +
+           "YEAR(a.answeredAt) AS year, MONTH(a.answeredAt) AS month, " +
+           "AVG(a.rating) AS averageRating, COUNT(a.rating) AS ratings " +
+           "FROM FeedbackAnswer a " +
+           "WHERE a.templateVersionId = :versionId AND a.rating IS NOT NULL " +
+           "AND a.answeredAt >= :from AND a.answeredAt < :to " +
+           "GROUP BY a.questionIndex, a.departmentId, YEAR(a.answeredAt), MONTH(a.answeredAt) " +
+           "ORDER BY a.questionIndex, a.departmentId, YEAR(a.answeredAt), MONTH(a.answeredAt)")
+    List<QuestionRatingStat> averageRatingsByQuestionDepartmentMonth(@Param("versionId") Long versionId,
+                                                                     @Param("from") LocalDateTime from,
+                                                                     @Param("to") LocalDateTime to);
+    
+    // Rating histogram buckets for a whole template version in one pass: one row per
+    // question, department, manager, month and answer value. An empty managerIds list
+    // means no manager filter; a null departmentId means no department filter
+    @Query("SELECT a.questionIndex AS questionIndex, a.departmentId AS departmentId, a.managerId AS managerId, " +
+           "YEAR(a.answeredAt) AS year, MONTH(a.answeredAt) AS month, a.rating AS value, COUNT(a) AS total " +
+           "FROM FeedbackAnswer a " +
+           "WHERE a.templateVersionId = :versionId AND a.rating IS NOT NULL " +
+           "AND a.answeredAt >= :from AND a.answeredAt < :to " +
+           "AND (:departmentId IS NULL OR a.departmentId = :departmentId) " +
+           "AND (:anyManager = true OR a.managerId IN :managerIds) " +
+           "GROUP BY a.questionIndex, a.departmentId, a.managerId, YEAR(a.answeredAt), MONTH(a.answeredAt), a.rating")
+    List<RatingBucket> findRatingBuckets(@Param("versionId") Long versionId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("departmentId") Long departmentId,
+                                         @Param("anyManager") boolean anyManager,
+                                         @Param("managerIds") Collection<Long> managerIds);
+    
+    // How many answers each question got, for response-rate style summaries
+    @Query("SELECT a.questionIndex AS questionIndex, COUNT(a) AS total FROM FeedbackAnswer a " +
+           "WHERE a.templateVersionId = :versionId GROUP BY a.questionIndex ORDER BY a.questionIndex")
+    List<QuestionCount> countAnswersByQuestion(@Param("versionId") Long versionId);
+    
+    interface QuestionRatingStat {
+        int getQuestionIndex();
+        Long getDepartmentId();
+        int getYear();
+        int getMonth();
+        Double getAverageRating();
+        long getRatings();
+    }
+    
+    interface RatingBucket {
+        int getQuestionIndex();
+        Long getDepartmentId();
+        Long getManagerId();
+        int getYear();
+        int getMonth();
+        short getValue();
+        long getTotal();
+    }
+    
+    interface QuestionCount {
+        int getQuestionIndex();
+        long getTotal();
+    }
+}
@@ -1,28 +1,253 @@
 package com.feedback.repository;
 
+import com.feedback.model.ActionItemStatus;
 import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackStatus;
 import com.feedback.model.PrivacyLevel;
 import com.feedback.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
     List<Feedback> findBySenderId(Long senderId);
     List<Feedback> findByRecipientId(Long recipientId);
+    List<Feedback> findBySenderIdAndCreatedAtGreaterThanEqual(Long senderId, LocalDateTime since);
+    List<Feedback> findByRecipientIdAndCreatedAtGreaterThanEqual(Long recipientId, LocalDateTime since);
+    List<Feedback> findByCreatedAtGreaterThanEqual(LocalDateTime since);
+    // The wall leaves out near-duplicates, so copy-pasted posts show once
+    List<Feedback> findByPrivacyLevelAndDuplicateOfIdIsNullOrderByCreatedAtDesc(PrivacyLevel privacyLevel);
     
-    // FIXED: Added @Param annotation for the named parameter
-    // Get feedback that a user can see based on privacy settings
-    @Query("SELECT f FROM Feedback f WHERE f.recipient.id = :userId OR f.sender.id = :userId OR " +
+    // Feedback a user can see based on privacy settings; shared by the queries below
+    String VISIBLE_TO_USER = "(f.recipient.id = :userId OR f.sender.id = :userId OR " +
            "(f.privacyLevel = 'PUBLIC') OR " +
            "(f.privacyLevel = 'DEPARTMENT' AND f.recipient.department.id = " +
-           "(SELECT u.department.id FROM User u WHERE u.id = :userId))")
+           "(SELECT u.department.id FROM User u WHERE u.id = :userId)))";
+    
+    // FIXED: Added @Param annotation for the named parameter
+    // Get feedback that a user can see based on privacy settings
+    @Query("SELECT f FROM Feedback f WHERE " + VISIBLE_TO_USER)
     List<Feedback> findVisibleFeedbackForUser(@Param("userId") Long userId);
     
+    // Dashboard cards: each is its own small query so they can run in parallel
+    @Query("SELECT COUNT(f) FROM Feedback f WHERE " + VISIBLE_TO_USER)
+    long countVisibleFeedbackForUser(@Param("userId") Long userId);
+    
+    @Query("SELECT f.status AS status, COUNT(f) AS total FROM Feedback f WHERE " + VISIBLE_TO_USER +
+           " GROUP BY f.status")
+    List<StatusCount> countVisibleFeedbackByStatus(@Param("userId") Long userId);
+    
+    @Query("SELECT f FROM Feedback f WHERE " + VISIBLE_TO_USER + " ORDER BY f.createdAt DESC")
+    List<Feedback> findRecentVisibleFeedback(@Param("userId") Long userId, Pageable page);
+    
     // Count unread feedback
     long countByRecipientIdAndIsReadFalse(Long recipientId);
-}
\ No newline at end of file
+    
+    // Wall of Appreciation post counts, for the "new since last visit" badge. Near-duplicates
+    // are left off the wall, so they are not counted either
+    long countByPrivacyLevelAndDuplicateOfIdIsNull(PrivacyLevel privacyLevel);
+    long countByPrivacyLevelAndDuplicateOfIdIsNullAndCreatedAtAfter(PrivacyLevel privacyLevel,
+                                                                    LocalDateTime createdAt);
+    
+    // Just the fields a status update needs, without loading the sender/recipient graph
+    @Query("SELECT f.status AS status, f.version AS version FROM Feedback f WHERE f.id = :id")
+    Optional<StatusVersion> findStatusVersionById(@Param("id") Long id);
+    
+    // Compare-and-set: only applies if nobody changed the row since the version was read
+    @Modifying
+    @Transactional
+    @Query("UPDATE Feedback f SET f.status = :status, f.version = f.version + 1 " +
+           "WHERE f.id = :id AND f.version = :version")
+    int updateStatusIfVersion(@Param("id") Long id, @Param("status") FeedbackStatus status,
+                              @Param("version") Long version);
+    
+    // Flush of buffered read receipts for one recipient in a single statement.
+    // The read flag only ever goes false -> true, so it needs no version check
+    @Modifying
+    @Transactional
+    @Query("UPDATE Feedback f SET f.isRead = true " +
+           "WHERE f.recipient.id = :recipientId AND f.id IN :ids AND f.isRead = false")
+    int markAsReadForRecipient(@Param("recipientId") Long recipientId, @Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Feedback f SET f.isRead = true WHERE f.recipient.id = :recipientId AND f.isRead = false")
+    int markAllAsRead(@Param("recipientId") Long recipientId);
+    
+    // Per-recipient unread counts in one grouped query, used to warm and reconcile counters
+    @Query("SELECT f.recipient.id AS userId, COUNT(f) AS total FROM Feedback f " +
+           "WHERE f.isRead = false AND f.recipient IS NOT NULL GROUP BY f.recipient.id")
+    List<UserCount> countUnreadByRecipient();
+    
+    // Oldest rows past the horizon that can move to the archive: read (so unread counters
+    // and buffered receipts are unaffected) and not referenced by an action item. Locked
+    // so a concurrent status change can't land between the copy and the delete
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f.id FROM Feedback f WHERE f.createdAt < :cutoff AND f.isRead = true " +
+           "AND NOT EXISTS (SELECT a.id FROM ActionItem a WHERE a.feedback = f) ORDER BY f.createdAt")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+    
+    // Rows old enough for the segment files: read, and any action items completed, so
+    // neither the unread nor the open-item counters change when they leave the table
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f.id FROM Feedback f WHERE f.createdAt < :cutoff AND f.isRead = true " +
+           "AND NOT EXISTS (SELECT a.id FROM ActionItem a WHERE a.feedback = f AND a.status <> :done) " +
+           "ORDER BY f.id")
+    List<Long> findSegmentableIds(@Param("cutoff") LocalDateTime cutoff, @Param("done") ActionItemStatus done,
+                                  Pageable page);
+    
+    // Rows past their retention for one policy rule; :except is never empty, callers pass a
+    // placeholder when no categories are excluded
+    String EXPIRED = "f.privacyLevel = :level AND f.createdAt < :cutoff " +
+           "AND (:category IS NULL OR f.category = :category) " +
+           "AND (f.category IS NULL OR f.category NOT IN :except)";
+    
+    // Oldest first, so an interrupted purge leaves the newest expired rows behind, not random ones
+    @Query("SELECT f.id FROM Feedback f WHERE " + EXPIRED + " ORDER BY f.createdAt")
+    List<Long> findExpiredIds(@Param("level") PrivacyLevel level, @Param("category") String category,
+                              @Param("except") Collection<String> except, @Param("cutoff") LocalDateTime cutoff,
+                              Pageable page);
+    
+    @Query("SELECT MIN(f.createdAt) FROM Feedback f WHERE " + EXPIRED)
+    LocalDateTime findOldestExpired(@Param("level") PrivacyLevel level, @Param("category") String category,
+                                    @Param("except") Collection<String> except, @Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Feedback f WHERE f.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Erasure: the user's own feedback a batch at a time; rows leave this result once the
+    // batch has been re-pointed, so callers always read the first page
+    @Query("SELECT f.id AS id, f.content AS content FROM Feedback f " +
+           "WHERE f.sender.id = :userId OR f.recipient.id = :userId ORDER BY f.id")
+    List<IdContent> findContentReferencingUser(@Param("userId") Long userId, Pageable page);
+    
+    // Erasure: where the mention scan starts. Ids follow creation order closely, so the
+    // scan walks the primary key from here instead of filtering the whole table
+    @Query("SELECT MIN(f.id) FROM Feedback f WHERE f.createdAt >= :since")
+    Long findFirstIdCreatedSince(@Param("since") LocalDateTime since);
+    
+    // Erasure: other feedback created since :since that may mention the user, in id order from :afterId
+    @Query("SELECT f.id AS id, f.content AS content FROM Feedback f " +
+           "WHERE f.id > :afterId AND f.createdAt >= :since AND " +
+           "(LOWER(f.content) LIKE :name OR LOWER(f.content) LIKE :username OR LOWER(f.content) LIKE :email) " +
+           "ORDER BY f.id")
+    List<IdContent> findContentMentioning(@Param("afterId") Long afterId, @Param("since") LocalDateTime since,
+                                          @Param("name") String name, @Param("username") String username,
+                                          @Param("email") String email, Pageable page);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Feedback f SET f.sender = :replacement, f.version = f.version + 1 " +
+           "WHERE f.id IN :ids AND f.sender = :user")
+    int replaceSender(@Param("ids") Collection<Long> ids, @Param("user") User user,
+                      @Param("replacement") User replacement);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Feedback f SET f.recipient = :replacement, f.version = f.version + 1 " +
+           "WHERE f.id IN :ids AND f.recipient = :user")
+    int replaceRecipient(@Param("ids") Collection<Long> ids, @Param("user") User user,
+                         @Param("replacement") User replacement);
+    
+    // Sentiment backfill: unscored rows in id order from :afterId
+    @Query("SELECT f.id AS id, f.content AS content FROM Feedback f " +
+           "WHERE f.sentiment IS NULL AND f.id > :afterId ORDER BY f.id")
+    List<IdContent> findUnscored(@Param("afterId") Long afterId, Pageable page);
+    
+    // Sentiment per recipient department and month. Sums rather than averages, so the
+    // buckets of both tiers can be added up; a null "since" means all time
+    @Query("SELECT r.department.id AS departmentId, YEAR(f.createdAt) AS year, MONTH(f.createdAt) AS month, " +
+           "SUM(f.sentiment) AS total, COUNT(f) AS scored FROM Feedback f JOIN f.recipient r " +
+           "WHERE f.sentiment IS NOT NULL AND r.department IS NOT NULL " +
+           "AND (:since IS NULL OR f.createdAt >= :since) " +
+           "GROUP BY r.department.id, YEAR(f.createdAt), MONTH(f.createdAt)")
+    List<SentimentBucket> findSentimentBuckets(@Param("since") LocalDateTime since);
+    
+    // Analytics charts: counts grouped in the database, so no feedback is loaded; a null
+    // "since" means all time
+    @Query("SELECT YEAR(f.createdAt) AS year, MONTH(f.createdAt) AS month, COUNT(f) AS total FROM Feedback f " +
+           "WHERE :since IS NULL OR f.createdAt >= :since GROUP BY YEAR(f.createdAt), MONTH(f.createdAt)")
+    List<MonthCount> countByMonth(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT f.category AS name, COUNT(f) AS total FROM Feedback f " +
+           "WHERE :since IS NULL OR f.createdAt >= :since GROUP BY f.category")
+    List<NameCount> countByCategory(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT d.name AS name, COUNT(f) AS total FROM Feedback f JOIN f.recipient r JOIN r.department d " +
+           "WHERE :since IS NULL OR f.createdAt >= :since GROUP BY d.name")
+    List<NameCount> countByRecipientDepartment(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT d.name AS name, COUNT(f) AS total FROM Feedback f JOIN f.sender s JOIN s.department d " +
+           "WHERE :since IS NULL OR f.createdAt >= :since GROUP BY d.name")
+    List<NameCount> countBySenderDepartment(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT f.status AS status, COUNT(f) AS total FROM Feedback f " +
+           "WHERE :since IS NULL OR f.createdAt >= :since GROUP BY f.status")
+    List<StatusCount> countByStatus(@Param("since") LocalDateTime since);
+    
+    // Duplicate scan: free-form feedback that isn't flagged yet, in id order from :afterId.
+    // Template feedback is left out; its shared question text would make it all look alike
+    @Query("SELECT f.id AS id, f.sender.id AS senderId, f.content AS content FROM Feedback f " +
+           "WHERE f.id > :afterId AND f.duplicateOfId IS NULL AND f.templateVersionId IS NULL " +
+           "AND f.sender IS NOT NULL ORDER BY f.id")
+    List<SenderContent> findUnflaggedContent(@Param("afterId") Long afterId, Pageable page);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Feedback f SET f.duplicateOfId = :originalId WHERE f.id = :id AND f.duplicateOfId IS NULL")
+    int markDuplicate(@Param("id") Long id, @Param("originalId") Long originalId);
+    
+    interface IdContent {
+        Long getId();
+        String getContent();
+    }
+    
+    interface SenderContent {
+        Long getId();
+        Long getSenderId();
+        String getContent();
+    }
+    
+    interface SentimentBucket {
+        Long getDepartmentId();
+        int getYear();
+        int getMonth();
+        long getTotal();
+        long getScored();
+    }
+    
+    interface StatusCount {
+        FeedbackStatus getStatus();
+        long getTotal();
+    }
+    
+    interface MonthCount {
+        int getYear();
+        int getMonth();
+        long getTotal();
+    }
+    
+    interface NameCount {
+        String getName();
+        long getTotal();
+    }
+    
+    interface StatusVersion {
+        FeedbackStatus getStatus();
+        Long getVersion();
+    }
+}
@@ -0,0 +1,22 @@
+package com.feedback.repository;
+
+import com.feedback.model.FeedbackTemplateVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FeedbackTemplateVersionRepository extends JpaRepository<FeedbackTemplateVersion, Long> {
+    
+    // Published (current) versions of the templates users can pick
+    @Query("SELECT t.currentVersion FROM FeedbackTemplate t WHERE t.isActive = true AND t.currentVersion IS NOT NULL")
+    List<FeedbackTemplateVersion> findPublishedVersions();
+    
+    @Query("SELECT COALESCE(MAX(v.versionNumber), 0) FROM FeedbackTemplateVersion v WHERE v.templateId = :templateId")
+    int findLatestVersionNumber(@Param("templateId") Long templateId);
+    
+    List<FeedbackTemplateVersion> findByTemplateIdOrderByVersionNumberDesc(Long templateId);
+}
@@ -0,0 +1,9 @@
+package com.feedback.repository;
+
+/**
+ * Projection for grouped "count per user" queries.
+ */
+public interface UserCount {
+    Long getUserId();
+    long getTotal();
+}
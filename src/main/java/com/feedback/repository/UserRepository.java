@@ -2,13 +2,19 @@ package com.feedback.repository;
 
 import com.feedback.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     List<User> findByManagerId(Long managerId);
@@ -16,4 +22,50 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByIsActiveTrue();
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
-}
\ No newline at end of file
+    
+    @Query("SELECT u.lastWallVisit FROM User u WHERE u.id = :id")
+    Optional<LocalDateTime> findLastWallVisitById(@Param("id") Long id);
+    
+    // Just the searchable fields, for building the in-memory user directory
+    @Query("SELECT u.id AS id, u.firstName AS firstName, u.lastName AS lastName, " +
+           "u.username AS username, u.email AS email, u.isActive AS active FROM User u")
+    List<DirectoryRow> findDirectoryRows();
+    
+    // The reporting lines only, for rolling analytics up a manager chain
+    @Query("SELECT u.id AS id, u.manager.id AS managerId FROM User u WHERE u.manager IS NOT NULL")
+    List<ManagerLink> findManagerLinks();
+    
+    // Department names by user, for grouping segment archive records that only hold user ids
+    @Query("SELECT u.id AS id, d.name AS name FROM User u JOIN u.department d")
+    List<DepartmentName> findDepartmentNames();
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastWallVisit = :visitedAt WHERE u.id = :id")
+    int updateLastWallVisit(@Param("id") Long id, @Param("visitedAt") LocalDateTime visitedAt);
+    
+    // Erasure: the user's reports move up to the user's own manager (or to none)
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.manager = :newManager WHERE u.manager = :user")
+    int reassignReports(@Param("user") User user, @Param("newManager") User newManager);
+    
+    interface DirectoryRow {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getUsername();
+        String getEmail();
+        boolean isActive();
+    }
+    
+    interface ManagerLink {
+        Long getId();
+        Long getManagerId();
+    }
+    
+    interface DepartmentName {
+        Long getId();
+        String getName();
+    }
+}
@@ -0,0 +1,16 @@
+package com.feedback.repository;
+
+import com.feedback.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+    
+    /**
+     * One window of {@link UserSummary} rows matching the specification. Takes a raw
+     * offset/limit rather than a Pageable because lazy grids ask for arbitrary ranges.
+     */
+    List<UserSummary> findSummaries(Specification<User> spec, int offset, int limit, Sort sort);
+}
@@ -0,0 +1,72 @@
+package com.feedback.repository;
+
+import com.feedback.model.Department;
+import com.feedback.model.Role;
+import com.feedback.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria implementation of {@link UserRepositoryCustom}, picked up by Spring Data
+ * through the {@code Impl} naming convention.
+ */
+class UserRepositoryImpl implements UserRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<UserSummary> findSummaries(Specification<User> spec, int offset, int limit, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserSummary> query = cb.createQuery(UserSummary.class);
+        Root<User> user = query.from(User.class);
+        Join<User, Role> role = user.join("role", JoinType.LEFT);
+        Join<User, Department> department = user.join("department", JoinType.LEFT);
+        Join<User, User> manager = user.join("manager", JoinType.LEFT);
+        
+        query.select(cb.construct(UserSummary.class,
+                user.get("id"), user.get("username"), user.get("firstName"), user.get("lastName"),
+                user.get("email"), role.get("name"), department.get("name"),
+                manager.get("firstName"), manager.get("lastName"),
+                user.get("isActive"), user.get("createdAt"), user.get("lastLogin")));
+        
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(user, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<?> path = switch (order.getProperty()) {
+                case "role.name" -> role.get("name");
+                case "department.name" -> department.get("name");
+                case "manager.lastName" -> manager.get("lastName");
+                default -> user.get(order.getProperty());
+            };
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        // Unique tie-breaker so rows don't shift between windows
+        orders.add(cb.asc(user.get("id")));
+        query.orderBy(orders);
+        
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
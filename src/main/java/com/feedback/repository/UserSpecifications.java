@@ -0,0 +1,49 @@
+package com.feedback.repository;
+
+import com.feedback.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters for the user administration grid. Each returns null when its value is
+ * empty, which {@link Specification#and} treats as "no restriction".
+ */
+public final class UserSpecifications {
+    
+    private UserSpecifications() {
+    }
+    
+    /**
+     * First name, last name, username or email starts with the given text.
+     *
+     * The columns are compared as they are, without lower(), so each prefix LIKE can use
+     * its index. Case-insensitivity comes from the database: MySQL's default collation,
+     * and IGNORECASE on the development H2 database.
+     */
+    public static Specification<User> nameOrEmailStartsWith(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return null;
+        }
+        String pattern = escapeLike(prefix.trim()) + "%";
+        return (user, query, cb) -> cb.or(
+                cb.like(user.get("firstName"), pattern, '\\'),
+                cb.like(user.get("lastName"), pattern, '\\'),
+                cb.like(user.get("username"), pattern, '\\'),
+                cb.like(user.get("email"), pattern, '\\'));
+    }
+    
+    public static Specification<User> hasRole(Long roleId) {
+        return roleId == null ? null : (user, query, cb) -> cb.equal(user.get("role").get("id"), roleId);
+    }
+    
+    public static Specification<User> inDepartment(Long departmentId) {
+        return departmentId == null ? null : (user, query, cb) -> cb.equal(user.get("department").get("id"), departmentId);
+    }
+    
+    public static Specification<User> isActive(Boolean active) {
+        return active == null ? null : (user, query, cb) -> cb.equal(user.get("isActive"), active);
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
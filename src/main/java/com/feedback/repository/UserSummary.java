@@ -0,0 +1,30 @@
+package com.feedback.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row for the user administration grid, selected directly by
+ * {@link UserRepositoryCustom#findSummaries} instead of loading User entities
+ * with their role, department and manager graph.
+ */
+public record UserSummary(Long id,
+                          String username,
+                          String firstName,
+                          String lastName,
+                          String email,
+                          String roleName,
+                          String departmentName,
+                          String managerFirstName,
+                          String managerLastName,
+                          boolean active,
+                          LocalDateTime createdAt,
+                          LocalDateTime lastLogin) {
+    
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+    
+    public String managerName() {
+        return managerFirstName != null ? managerFirstName + " " + managerLastName : "";
+    }
+}
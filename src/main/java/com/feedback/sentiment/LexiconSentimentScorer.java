@@ -0,0 +1,188 @@
+package com.feedback.sentiment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Word-list sentiment in the style of AFINN/VADER. The text is split into words and
+ * sentences; every word or phrase found in the lexicon adds its weight, and
+ * <ul>
+ *   <li>a negation up to {@link #NEGATION_WINDOW} words earlier flips and dampens it
+ *       ("not helpful", "didn't miss a deadline")</li>
+ *   <li>an intensifier or diminisher right before it scales it ("very helpful",
+ *       "slightly late")</li>
+ *   <li>in a sentence with "but", what follows weighs more than what came before
+ *       ("good work but often late" is mostly a concern)</li>
+ * </ul>
+ * The sum is squashed into -100..100 with {@code x / sqrt(x² + 15)}, so a couple of
+ * strong words already give a clear score and long texts don't run off the scale.
+ *
+ * The lexicon is {@code sentiment/lexicon.txt} on the classpath unless
+ * {@code feedback.sentiment.lexicon} points somewhere else.
+ */
+@Component
+public class LexiconSentimentScorer implements SentimentScorer {
+
+    private static final Logger log = LoggerFactory.getLogger(LexiconSentimentScorer.class);
+
+    static final int NEGATION_WINDOW = 3;
+    private static final double NEGATION_FACTOR = -0.75;
+    private static final double BEFORE_BUT = 0.5;
+    private static final double AFTER_BUT = 1.5;
+    private static final double ALPHA = 15;
+
+    // Marks the end of a sentence in the token list; negation and "but" don't reach past it
+    private static final String SENTENCE_END = ".";
+
+    private static final Set<String> NEGATIONS = Set.of("not", "no", "never", "none", "nobody", "nothing",
+            "neither", "nor", "without", "hardly", "barely", "cannot", "dont", "doesnt", "didnt", "isnt",
+            "wasnt", "werent", "cant", "couldnt", "wont", "wouldnt", "shouldnt", "havent", "hasnt", "aint");
+
+    private static final Map<String, Double> MODIFIERS = Map.ofEntries(
+            Map.entry("very", 1.5), Map.entry("really", 1.5), Map.entry("extremely", 1.8),
+            Map.entry("incredibly", 1.8), Map.entry("exceptionally", 1.8), Map.entry("super", 1.5),
+            Map.entry("so", 1.3), Map.entry("truly", 1.5), Map.entry("highly", 1.5), Map.entry("absolutely", 1.8),
+            Map.entry("especially", 1.3), Map.entry("particularly", 1.3), Map.entry("remarkably", 1.5),
+            Map.entry("totally", 1.5), Map.entry("consistently", 1.3), Map.entry("always", 1.2),
+            Map.entry("slightly", 0.5), Map.entry("somewhat", 0.5), Map.entry("fairly", 0.7),
+            Map.entry("marginally", 0.5), Map.entry("occasionally", 0.6), Map.entry("sometimes", 0.7),
+            Map.entry("bit", 0.6), Map.entry("little", 0.6));
+
+    private final Map<String, Double> lexicon;
+    private final int longestPhrase;
+
+    public LexiconSentimentScorer(
+            @Value("${feedback.sentiment.lexicon:classpath:sentiment/lexicon.txt}") Resource lexicon) {
+        this.lexicon = load(lexicon);
+        this.longestPhrase = this.lexicon.keySet().stream()
+                .mapToInt(phrase -> phrase.split(" ").length).max().orElse(1);
+        log.debug("Loaded {} sentiment lexicon entries from {}", this.lexicon.size(), lexicon.getDescription());
+    }
+
+    private static Map<String, Double> load(Resource resource) {
+        Map<String, Double> entries = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int split = line.lastIndexOf(' ');
+                if (split < 0) {
+                    throw new IllegalArgumentException("Sentiment lexicon line " + number
+                            + " needs a word and a weight: " + line);
+                }
+                // Stored the way the tokenizer would produce it, so lookups need no normalising
+                String phrase = String.join(" ", tokenize(line.substring(0, split)));
+                entries.put(phrase, Double.parseDouble(line.substring(split + 1)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read sentiment lexicon " + resource.getDescription(), e);
+        }
+        return Map.copyOf(entries);
+    }
+
+    @Override
+    public int score(String text) {
+        if (text == null || text.isBlank()) {
+            return 0;
+        }
+        List<String> tokens = tokenize(text);
+        double total = 0;
+        double sentence = 0;
+        double clauseWeight = 1;
+        double modifier = 1;
+        int negatedUntil = -1;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (token.equals(SENTENCE_END)) {
+                total += sentence;
+                sentence = 0;
+                clauseWeight = 1;
+                modifier = 1;
+                negatedUntil = -1;
+                continue;
+            }
+            if (token.equals("but")) {
+                sentence *= BEFORE_BUT;
+                clauseWeight = AFTER_BUT;
+                continue;
+            }
+            if (isNegation(token)) {
+                negatedUntil = i + NEGATION_WINDOW;
+                continue;
+            }
+            int matched = 0;
+            Double weight = null;
+            for (int length = Math.min(longestPhrase, tokens.size() - i); length > 0 && weight == null; length--) {
+                weight = lexicon.get(length == 1 ? token : String.join(" ", tokens.subList(i, i + length)));
+                matched = length;
+            }
+            if (weight != null) {
+                double value = weight * modifier;
+                if (i <= negatedUntil) {
+                    value *= NEGATION_FACTOR;
+                    negatedUntil = -1;
+                }
+                sentence += value * clauseWeight;
+                modifier = 1;
+                i += matched - 1;
+            } else {
+                // A modifier only applies to the word right after it
+                modifier = MODIFIERS.getOrDefault(token, 1.0);
+            }
+        }
+        total += sentence;
+        double normalized = total / Math.sqrt(total * total + ALPHA);
+        return (int) Math.round(Math.max(-1, Math.min(1, normalized)) * MAX);
+    }
+
+    private static boolean isNegation(String token) {
+        return NEGATIONS.contains(token) || token.endsWith("n't");
+    }
+
+    /** Lower-case words, with {@link #SENTENCE_END} after each sentence */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if ((c == '\'' || c == '’') && word.length() > 0) {
+                word.append('\'');
+            } else {
+                if (word.length() > 0) {
+                    tokens.add(word.toString());
+                    word.setLength(0);
+                }
+                if ((c == '.' || c == '!' || c == '?' || c == ';')
+                        && !tokens.isEmpty() && !tokens.get(tokens.size() - 1).equals(SENTENCE_END)) {
+                    tokens.add(SENTENCE_END);
+                }
+            }
+        }
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,129 @@
+package com.feedback.sentiment;
+
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Scores feedback that has no sentiment yet: rows from before scoring existed, rows
+ * the queue dropped or didn't get to before a shutdown, and archived rows. Walks the
+ * feedback table and then {@code feedback_archive} in id order, one short transaction
+ * per batch with a pause in between.
+ *
+ * There is no saved cursor to lose: the unscored rows are the work left, so a backfill
+ * that was stopped simply carries on with them next time. Segment files are not scored.
+ */
+@Component
+public class SentimentBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(SentimentBackfill.class);
+
+    private final FeedbackRepository feedbackRepository;
+    private final ArchivedFeedbackRepository archivedFeedbackRepository;
+    private final SentimentWriter writer;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long batchPauseMillis;
+
+    private volatile boolean stopped;
+
+    @Autowired
+    SentimentBackfill(FeedbackRepository feedbackRepository,
+                      ArchivedFeedbackRepository archivedFeedbackRepository,
+                      SentimentWriter writer,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${feedback.sentiment.backfill.batch-size:500}") int batchSize,
+                      @Value("${feedback.sentiment.backfill.batch-pause-ms:200}") long batchPauseMillis) {
+        this.feedbackRepository = feedbackRepository;
+        this.archivedFeedbackRepository = archivedFeedbackRepository;
+        this.writer = writer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+    }
+
+    @Scheduled(initialDelayString = "${feedback.sentiment.backfill.initial-delay-ms:60000}",
+               fixedDelayString = "${feedback.sentiment.backfill.interval-ms:3600000}")
+    public void backfillOnSchedule() {
+        try {
+            backfill();
+        } catch (Exception e) {
+            log.warn("Sentiment backfill stopped early: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Score every unscored row in both tables
+     *
+     * @return number of rows scored
+     */
+    public synchronized long backfill() {
+        long started = System.nanoTime();
+        long hot = backfill(SentimentWriter.Table.FEEDBACK,
+                (afterId, page) -> feedbackRepository.findUnscored(afterId, page));
+        long archived = backfill(SentimentWriter.Table.ARCHIVE,
+                (afterId, page) -> archivedFeedbackRepository.findUnscored(afterId, page));
+        if (hot + archived > 0) {
+            log.info("Sentiment backfill scored {} feedback and {} archived feedback, {} ms", hot, archived,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        return hot + archived;
+    }
+
+    private long backfill(SentimentWriter.Table table,
+                          BiFunction<Long, PageRequest, List<FeedbackRepository.IdContent>> nextBatch) {
+        long scored = 0;
+        // Keyset from the last id seen, so a row that can't be scored is never fetched twice in a run
+        long[] afterId = {0};
+        while (!stopped) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<FeedbackRepository.IdContent> rows = nextBatch.apply(afterId[0], PageRequest.of(0, batchSize));
+                Map<Long, String> contents = new LinkedHashMap<>();
+                for (FeedbackRepository.IdContent row : rows) {
+                    contents.put(row.getId(), row.getContent());
+                    afterId[0] = row.getId();
+                }
+                // Rows the queue scored since they were read keep the queue's score
+                writer.write(table, contents, true);
+                return rows.size();
+            });
+            scored += count;
+            if (count < batchSize || !pause()) {
+                break;
+            }
+        }
+        return scored;
+    }
+
+    private boolean pause() {
+        if (batchPauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+}
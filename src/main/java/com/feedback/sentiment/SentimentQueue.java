@@ -0,0 +1,153 @@
+package com.feedback.sentiment;
+
+import com.feedback.config.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores saved feedback in the background so saving never waits for it. Submitted
+ * content goes into a bounded queue; a fixed number of workers take up to
+ * {@code batch-size} items at a time (waiting at most {@code linger-ms} for a batch to
+ * fill) and write their scores in one JDBC batch.
+ *
+ * When the queue is full new items are dropped rather than slowing down the caller.
+ * Dropped items, and whatever is still queued at shutdown, keep a null score and are
+ * picked up by {@link SentimentBackfill}.
+ */
+@Component
+public class SentimentQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(SentimentQueue.class);
+
+    private record Pending(Long feedbackId, String content) {
+    }
+
+    private final SentimentWriter writer;
+    private final BlockingQueue<Pending> queue;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final Counter dropped;
+
+    private volatile boolean stopped;
+
+    @Autowired
+    SentimentQueue(SentimentWriter writer,
+                   MeterRegistry meterRegistry,
+                   @Value("${feedback.sentiment.threads:2}") int threads,
+                   @Value("${feedback.sentiment.queue-capacity:10000}") int queueCapacity,
+                   @Value("${feedback.sentiment.batch-size:100}") int batchSize,
+                   @Value("${feedback.sentiment.linger-ms:200}") long lingerMillis,
+                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.dropped = Counter.builder("feedback.sentiment.dropped")
+                .description("Feedback left for the sentiment backfill because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("feedback.sentiment.queue", queue, BlockingQueue::size)
+             .description("Feedback waiting to be scored for sentiment")
+             .register(meterRegistry);
+
+        this.workers = Executors.newFixedThreadPool(threads, WorkerThreads.factory("sentiment-", virtualThreads));
+        for (int i = 0; i < threads; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /** Queue feedback for scoring; returns false if it was left for the backfill */
+    public boolean submit(Long feedbackId, String content) {
+        if (feedbackId == null || stopped) {
+            return false;
+        }
+        if (!queue.offer(new Pending(feedbackId, content))) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /** {@link #submit} once the current transaction commits, or right away outside one */
+    public void submitAfterCommit(Long feedbackId, String content) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(feedbackId, content);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(feedbackId, content);
+            }
+        });
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    private void work() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (!stopped) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long left = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || left <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                // A feedback edited twice in quick succession is scored once, with its latest content
+                Map<Long, String> contents = new LinkedHashMap<>();
+                for (Pending pending : batch) {
+                    contents.put(pending.feedbackId(), pending.content());
+                }
+                writer.write(SentimentWriter.Table.FEEDBACK, contents, false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // The rows keep a null score, so the backfill retries them
+                log.warn("Could not score {} feedback for sentiment: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        workers.shutdownNow();
+    }
+}
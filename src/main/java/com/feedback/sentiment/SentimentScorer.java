@@ -0,0 +1,17 @@
+package com.feedback.sentiment;
+
+/**
+ * Scores free text from {@link #MIN} (clearly negative) to {@link #MAX} (clearly
+ * positive), 0 being neutral or nothing recognised. Runs in-process on the sentiment
+ * workers, so implementations must be thread-safe and must not call out to other services.
+ *
+ * The default is {@link LexiconSentimentScorer}; a {@code @Primary} bean of this type
+ * replaces it.
+ */
+public interface SentimentScorer {
+
+    int MIN = -100;
+    int MAX = 100;
+
+    int score(String text);
+}
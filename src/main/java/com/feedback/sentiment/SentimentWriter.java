@@ -0,0 +1,62 @@
+package com.feedback.sentiment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores content with the configured {@link SentimentScorer} and writes the scores in
+ * one JDBC batch. Shared by the queue for new feedback and the backfill for old rows.
+ */
+@Component
+class SentimentWriter {
+
+    enum Table {
+        FEEDBACK("feedback"),
+        ARCHIVE("feedback_archive");
+
+        private final String update;
+        private final String updateUnscored;
+
+        Table(String name) {
+            this.update = "UPDATE " + name + " SET sentiment = ? WHERE id = ?";
+            this.updateUnscored = update + " AND sentiment IS NULL";
+        }
+    }
+
+    private final SentimentScorer scorer;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter scored;
+
+    @Autowired
+    SentimentWriter(SentimentScorer scorer, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.scorer = scorer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.scored = Counter.builder("feedback.sentiment.scored")
+                .description("Feedback texts scored for sentiment")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param contents    feedback id -> content
+     * @param onlyUnscored leave rows alone that were scored in the meantime
+     */
+    void write(Table table, Map<Long, String> contents, boolean onlyUnscored) {
+        if (contents.isEmpty()) {
+            return;
+        }
+        List<Object[]> scores = new ArrayList<>(contents.size());
+        contents.forEach((id, content) -> {
+            int score = Math.max(SentimentScorer.MIN, Math.min(SentimentScorer.MAX, scorer.score(content)));
+            scores.add(new Object[] {(byte) score, id});
+        });
+        jdbcTemplate.batchUpdate(onlyUnscored ? table.updateUnscored : table.update, scores);
+        scored.increment(scores.size());
+    }
+}
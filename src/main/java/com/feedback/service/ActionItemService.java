@@ -1,7 +1,10 @@
 package com.feedback.service;
 
+import com.feedback.config.MetricsConfig;
 import com.feedback.model.ActionItem;
+import com.feedback.model.ActionItemStatus;
 import com.feedback.repository.ActionItemRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -10,13 +13,17 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ActionItemService {
     
     private final ActionItemRepository actionItemRepository;
+    private final ActivityCounterService activityCounterService;
     
     @Autowired
-    public ActionItemService(ActionItemRepository actionItemRepository) {
+    public ActionItemService(ActionItemRepository actionItemRepository,
+                             ActivityCounterService activityCounterService) {
         this.actionItemRepository = actionItemRepository;
+        this.activityCounterService = activityCounterService;
     }
     
     public List<ActionItem> findAllActionItems() {
@@ -35,39 +42,62 @@ public class ActionItemService {
         return actionItemRepository.findByFeedbackId(feedbackId);
     }
     
-    public List<ActionItem> findActionItemsByStatus(String status) {
+    public List<ActionItem> findActionItemsByStatus(ActionItemStatus status) {
         return actionItemRepository.findByStatus(status);
     }
     
     public long countActiveActionItems(Long userId) {
-        return actionItemRepository.countByAssignedToIdAndStatusNot(userId, "Completed");
+        return activityCounterService.openActionItems(userId);
     }
     
     public ActionItem saveActionItem(ActionItem actionItem) {
-        return actionItemRepository.save(actionItem);
+        ActionItemRepository.StatusVersion previous = actionItem.getId() != null
+                ? actionItemRepository.findStatusVersionById(actionItem.getId()).orElse(null)
+                : null;
+        ActionItem saved = actionItemRepository.save(actionItem);
+        activityCounterService.actionItemChanged(
+                previous != null ? previous.getAssigneeId() : null,
+                previous != null ? previous.getStatus() : null,
+                saved.getAssignedTo() != null ? saved.getAssignedTo().getId() : null,
+                saved.getStatus());
+        return saved;
     }
     
     public void completeActionItem(Long id) {
-        actionItemRepository.findById(id).ifPresent(actionItem -> {
-            actionItem.setStatus("Completed");
-            actionItem.setCompletedAt(LocalDateTime.now());
-            actionItemRepository.save(actionItem);
-        });
+        updateActionItemStatus(id, ActionItemStatus.COMPLETED);
     }
     
-    public void updateActionItemStatus(Long id, String status) {
-        actionItemRepository.findById(id).ifPresent(actionItem -> {
-            actionItem.setStatus(status);
-            if (status.equals("Completed")) {
-                actionItem.setCompletedAt(LocalDateTime.now());
-            } else {
-                actionItem.setCompletedAt(null);
+    /**
+     * Move an action item to a new status, rejecting transitions the lifecycle does not allow.
+     * Uses a versioned update instead of load-and-save; if another user changed the item
+     * in between, the transition is re-checked against the new state and retried.
+     *
+     * @return true if the status changed, false if it already had that status or no longer exists
+     */
+    public boolean updateActionItemStatus(Long id, ActionItemStatus status) {
+        return OptimisticRetry.run("Updating action item " + id, () -> {
+            ActionItemRepository.StatusVersion current = actionItemRepository.findStatusVersionById(id).orElse(null);
+            if (current == null || current.getStatus() == status) {
+                return OptimisticRetry.Outcome.UNCHANGED;
+            }
+            if (!current.getStatus().canTransitionTo(status)) {
+                throw new IllegalStateException("Cannot move action item from " +
+                        current.getStatus().getDisplayName() + " to " + status.getDisplayName());
             }
-            actionItemRepository.save(actionItem);
+            LocalDateTime completedAt = status == ActionItemStatus.COMPLETED ? LocalDateTime.now() : null;
+            if (actionItemRepository.updateStatusIfVersion(id, status, completedAt, current.getVersion()) != 1) {
+                return OptimisticRetry.Outcome.CONFLICT;
+            }
+            activityCounterService.actionItemChanged(current.getAssigneeId(), current.getStatus(),
+                    current.getAssigneeId(), status);
+            return OptimisticRetry.Outcome.APPLIED;
         });
     }
     
     public void deleteActionItem(Long id) {
-        actionItemRepository.deleteById(id);
+        actionItemRepository.findStatusVersionById(id).ifPresent(current -> {
+            actionItemRepository.deleteById(id);
+            activityCounterService.actionItemChanged(current.getAssigneeId(), current.getStatus(), null, null);
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.feedback.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms the activity counters once the default data is in place and then repairs
+ * any drift against the database on a fixed interval.
+ */
+@Component
+public class ActivityCounterReconciler {
+    
+    private static final Logger log = LoggerFactory.getLogger(ActivityCounterReconciler.class);
+    
+    private final ActivityCounterService activityCounterService;
+    private final ReadReceiptBuffer readReceiptBuffer;
+    
+    @Autowired
+    public ActivityCounterReconciler(ActivityCounterService activityCounterService,
+                                     ReadReceiptBuffer readReceiptBuffer) {
+        this.activityCounterService = activityCounterService;
+        this.readReceiptBuffer = readReceiptBuffer;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reconcile();
+    }
+    
+    @Scheduled(initialDelayString = "${feedback.counters.reconcile-interval-ms:300000}",
+               fixedDelayString = "${feedback.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            activityCounterService.reconcile(readReceiptBuffer::pendingCounts);
+        } catch (Exception e) {
+            log.warn("Error reconciling activity counters", e);
+        }
+    }
+}
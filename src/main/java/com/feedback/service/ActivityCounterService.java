@@ -0,0 +1,324 @@
+package com.feedback.service;
+
+import com.feedback.archive.ArchiveReader;
+import com.feedback.model.ActionItemStatus;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.UserCount;
+import com.feedback.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory per-user counters for unread feedback, open action items and new Wall of
+ * Appreciation posts, so badges and dashboard cards can read them in O(1) instead of
+ * running a COUNT(*) each render.
+ *
+ * Services report every change that affects a count. Because a missed or racing
+ * update can still leave a counter off by a little, {@link ActivityCounterReconciler}
+ * periodically resets everything from grouped DB counts. Adjustments made while those
+ * counts are being queried are journaled and applied on top of the fresh values, so a
+ * reconcile doesn't lose them.
+ *
+ * Unread counts are DB counts minus read receipts still buffered in
+ * {@link ReadReceiptBuffer}, so a reconcile needs the buffer and the DB as of the same
+ * moment. The buffer makes its changes through {@link #bufferingReceipts} and
+ * {@link #writingReceipts}: the buffer snapshot is taken together with starting the
+ * journal, and no buffered receipts are written to the DB until the unread counts are
+ * read.
+ *
+ * Users whose counts changed are remembered until {@link #drainChangedUsers()} so
+ * push subscribers only need to look at those.
+ */
+@Service
+public class ActivityCounterService {
+    
+    // Action items count as open until completed, matching countActiveActionItems
+    static final ActionItemStatus NOT_OPEN = ActionItemStatus.COMPLETED;
+    
+    private final FeedbackRepository feedbackRepository;
+    private final ArchivedFeedbackRepository archivedFeedbackRepository;
+    private final ArchiveReader archiveReader;
+    private final ActionItemRepository actionItemRepository;
+    private final UserRepository userRepository;
+    
+    private final ConcurrentHashMap<Long, LongAdder> unreadFeedback = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> openActionItems = new ConcurrentHashMap<>();
+    
+    // Deltas adjusted since a reconcile started counting, null outside a reconcile. Adjusters
+    // share the read lock; a reconcile takes the write lock to start and to finish the journal
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private Map<Long, Long> unreadJournal;
+    private Map<Long, Long> openActionItemsJournal;
+    // Receipt writes share the read lock; a reconcile holds the write lock until it has read unread counts
+    private final ReadWriteLock receiptWriteLock = new ReentrantReadWriteLock();
+    
+    // Wall posts are global, so each user only needs the post count they had seen at their last visit.
+    // Public near-duplicates are not on the wall and not counted
+    private final AtomicLong publicPosts = new AtomicLong();
+    private final ConcurrentHashMap<Long, Long> wallPostsSeen = new ConcurrentHashMap<>();
+    
+    private final Set<Long> changedUsers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean allChanged = new AtomicBoolean();
+    
+    @Autowired
+    public ActivityCounterService(FeedbackRepository feedbackRepository,
+                                  ArchivedFeedbackRepository archivedFeedbackRepository, ArchiveReader archiveReader,
+                                  ActionItemRepository actionItemRepository, UserRepository userRepository) {
+        this.feedbackRepository = feedbackRepository;
+        this.archivedFeedbackRepository = archivedFeedbackRepository;
+        this.archiveReader = archiveReader;
+        this.actionItemRepository = actionItemRepository;
+        this.userRepository = userRepository;
+    }
+    
+    public ActivityCounts countsFor(Long userId) {
+        return new ActivityCounts(unreadFeedback(userId), openActionItems(userId), newWallPosts(userId));
+    }
+    
+    public long unreadFeedback(Long userId) {
+        return read(unreadFeedback, userId);
+    }
+    
+    public long openActionItems(Long userId) {
+        return read(openActionItems, userId);
+    }
+    
+    public void adjustUnreadFeedback(Long userId, long delta) {
+        adjust(unreadFeedback, userId, delta, false);
+    }
+    
+    /**
+     * Public posts the user hasn't seen yet. The first call for a user since startup
+     * works out their baseline from the stored last visit; after that it is in memory.
+     */
+    public long newWallPosts(Long userId) {
+        if (userId == null) {
+            return 0;
+        }
+        Long seen = wallPostsSeen.get(userId);
+        if (seen == null) {
+            LocalDateTime lastVisit = userRepository.findLastWallVisitById(userId).orElse(null);
+            long total = publicPosts.get();
+            long unseen = lastVisit != null
+                    ? feedbackRepository.countByPrivacyLevelAndDuplicateOfIdIsNullAndCreatedAtAfter(
+                              PrivacyLevel.PUBLIC, lastVisit)
+                      + archivedFeedbackRepository.countByPrivacyLevelAndDuplicateOfIdIsNullAndCreatedAtAfter(
+                              PrivacyLevel.PUBLIC, lastVisit)
+                      + archiveReader.publicPostCountAfter(lastVisit)
+                    : total;
+            seen = wallPostsSeen.computeIfAbsent(userId, id -> total - unseen);
+        }
+        return Math.max(0, publicPosts.get() - seen);
+    }
+    
+    public void wallVisited(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        wallPostsSeen.put(userId, publicPosts.get());
+        userRepository.updateLastWallVisit(userId, LocalDateTime.now());
+        changedUsers.add(userId);
+    }
+    
+    public void publicPostAdded() {
+        publicPosts.incrementAndGet();
+        allChanged.set(true);
+    }
+    
+    public void publicPostRemoved() {
+        publicPosts.decrementAndGet();
+        allChanged.set(true);
+    }
+    
+    /** Drop everything held for a user who no longer exists */
+    public void forgetUser(Long userId) {
+        if (userId != null) {
+            unreadFeedback.remove(userId);
+            openActionItems.remove(userId);
+            wallPostsSeen.remove(userId);
+            changedUsers.remove(userId);
+        }
+    }
+    
+    /**
+     * Record an action item moving between assignees and/or statuses. Either side may
+     * be null for creation and deletion.
+     */
+    public void actionItemChanged(Long oldAssigneeId, ActionItemStatus oldStatus,
+                                  Long newAssigneeId, ActionItemStatus newStatus) {
+        if (oldAssigneeId != null && isOpen(oldStatus)) {
+            adjust(openActionItems, oldAssigneeId, -1, true);
+        }
+        if (newAssigneeId != null && isOpen(newStatus)) {
+            adjust(openActionItems, newAssigneeId, 1, true);
+        }
+    }
+    
+    /**
+     * Replace all counters with fresh DB counts plus whatever was adjusted while counting.
+     * Unread counts have receipts that are still buffered subtracted, so they agree with
+     * what the buffer will eventually write.
+     */
+    public synchronized void reconcile(Supplier<Map<Long, Integer>> pendingReadReceipts) {
+        Map<Long, Long> unread;
+        Map<Long, Long> open;
+        receiptWriteLock.writeLock().lock();
+        try {
+            Map<Long, Integer> pending;
+            journalLock.writeLock().lock();
+            try {
+                pending = pendingReadReceipts.get();
+                unreadJournal = new HashMap<>();
+                openActionItemsJournal = new HashMap<>();
+            } finally {
+                journalLock.writeLock().unlock();
+            }
+            try {
+                unread = toMap(feedbackRepository.countUnreadByRecipient());
+            } finally {
+                receiptWriteLock.writeLock().unlock();
+            }
+            pending.forEach((userId, receipts) -> unread.merge(userId, (long) -receipts, Long::sum));
+            open = toMap(actionItemRepository.countByAssigneeAndStatusNot(NOT_OPEN));
+        } catch (RuntimeException e) {
+            finishReconcile(null, null);
+            throw e;
+        }
+        finishReconcile(unread, open);
+        // Archived posts stay in the total, so archiving doesn't shift anyone's "seen" baseline
+        // Near-duplicates are flagged by the duplicate scan too, which this picks up
+        publicPosts.set(feedbackRepository.countByPrivacyLevelAndDuplicateOfIdIsNull(PrivacyLevel.PUBLIC)
+                + archivedFeedbackRepository.countByPrivacyLevelAndDuplicateOfIdIsNull(PrivacyLevel.PUBLIC)
+                + archiveReader.publicPostCount());
+        allChanged.set(true);
+    }
+    
+    // Apply the journaled deltas on top of the fresh counts and stop journaling; null counts just stop it
+    private void finishReconcile(Map<Long, Long> unread, Map<Long, Long> open) {
+        journalLock.writeLock().lock();
+        try {
+            if (unread != null && open != null) {
+                unreadJournal.forEach((userId, delta) -> unread.merge(userId, delta, Long::sum));
+                openActionItemsJournal.forEach((userId, delta) -> open.merge(userId, delta, Long::sum));
+                replaceAll(unreadFeedback, unread);
+                replaceAll(openActionItems, open);
+            }
+            unreadJournal = null;
+            openActionItemsJournal = null;
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Run a change to the buffered read receipts together with its counter adjustment,
+     * such as buffering one receipt. A reconcile's snapshot of the buffer sees all of it
+     * or none of it.
+     */
+    public void bufferingReceipts(Runnable change) {
+        journalLock.readLock().lock();
+        try {
+            change.run();
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Run a write of buffered receipts to the DB, from taking them out of the buffer to
+     * adjusting the counter. Waits while a reconcile is between its snapshot of the
+     * buffer and reading the unread counts, so the write is either in both or in
+     * neither.
+     */
+    public <T> T writingReceipts(Supplier<T> write) {
+        receiptWriteLock.readLock().lock();
+        try {
+            return write.get();
+        } finally {
+            receiptWriteLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * True if any count may have changed for every user (a new wall post, a reconcile)
+     * since the last call.
+     */
+    public boolean drainAllChanged() {
+        return allChanged.getAndSet(false);
+    }
+    
+    /**
+     * Users whose own counts changed since the last call
+     */
+    public Set<Long> drainChangedUsers() {
+        Set<Long> drained = new HashSet<>();
+        for (Iterator<Long> it = changedUsers.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+    
+    static boolean isOpen(ActionItemStatus status) {
+        return status != null && status != NOT_OPEN;
+    }
+    
+    private static long read(ConcurrentHashMap<Long, LongAdder> counters, Long userId) {
+        LongAdder counter = userId != null ? counters.get(userId) : null;
+        return counter != null ? Math.max(0, counter.sum()) : 0;
+    }
+    
+    private void adjust(ConcurrentHashMap<Long, LongAdder> counters, Long userId, long delta, boolean actionItems) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        journalLock.readLock().lock();
+        try {
+            counters.computeIfAbsent(userId, id -> new LongAdder()).add(delta);
+            Map<Long, Long> journal = actionItems ? openActionItemsJournal : unreadJournal;
+            if (journal != null) {
+                synchronized (journal) {
+                    journal.merge(userId, delta, Long::sum);
+                }
+            }
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        changedUsers.add(userId);
+    }
+    
+    private static void replaceAll(ConcurrentHashMap<Long, LongAdder> counters, Map<Long, Long> fresh) {
+        counters.keySet().removeIf(userId -> !fresh.containsKey(userId));
+        fresh.forEach((userId, value) -> {
+            LongAdder counter = new LongAdder();
+            counter.add(value);
+            counters.put(userId, counter);
+        });
+    }
+    
+    private static Map<Long, Long> toMap(List<UserCount> counts) {
+        Map<Long, Long> result = new HashMap<>();
+        for (UserCount count : counts) {
+            result.put(count.getUserId(), count.getTotal());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,7 @@
+package com.feedback.service;
+
+/**
+ * Snapshot of the per-user counts shown as side-nav badges
+ */
+public record ActivityCounts(long unreadFeedback, long openActionItems, long newWallPosts) {
+}
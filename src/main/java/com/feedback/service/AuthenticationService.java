@@ -1,8 +1,15 @@
 package com.feedback.service;
 
+import com.feedback.config.LogMasking;
+import com.feedback.config.MetricsConfig;
 import com.feedback.model.User;
 import com.feedback.repository.UserRepository;
 import com.vaadin.flow.server.VaadinSession;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -18,63 +25,66 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class AuthenticationService {
     
+    private static final Logger log = LoggerFactory.getLogger(AuthenticationService.class);
+    
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final Counter loginSuccesses;
+    private final Counter loginFailures;
     
     public static final String CURRENT_USER_ID_SESSION_ATTRIBUTE = "current_user_id";
     
     @Autowired
     public AuthenticationService(UserRepository userRepository, 
-                               PasswordEncoder passwordEncoder) {
+                               PasswordEncoder passwordEncoder,
+                               MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.loginSuccesses = meterRegistry.counter("feedback.auth.logins", "result", "success");
+        this.loginFailures = meterRegistry.counter("feedback.auth.logins", "result", "failure");
     }
     
     /**
      * Authenticate user with both custom session and Spring Security
      */
     public boolean authenticate(String email, String password) {
-        System.out.println("AuthenticationService.authenticate() called with email: " + email);
-        
         try {
             Optional<User> userOptional = userRepository.findByEmail(email);
             
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
-                System.out.println("User found: " + user.getFullName() + ", Active: " + user.isActive());
-                
                 if (user.isActive() && passwordEncoder.matches(password, user.getPassword())) {
-                    System.out.println("Password matches for user: " + user.getFullName());
-                    
                     // Update last login time
                     user.setLastLogin(LocalDateTime.now());
                     userRepository.save(user);
-                    System.out.println("Updated last login time for user");
                     
                     // Store user ID in VaadinSession
                     VaadinSession session = VaadinSession.getCurrent();
                     if (session != null) {
                         session.setAttribute(CURRENT_USER_ID_SESSION_ATTRIBUTE, user.getId());
-                        System.out.println("User ID stored in VaadinSession: " + user.getId());
                     }
                     
                     // IMPORTANT: Also authenticate with Spring Security
                     authenticateWithSpringSecurity(user);
                     
+                    loginSuccesses.increment();
+                    log.info("Login succeeded for user {}", user.getId());
                     return true;
                 } else {
-                    System.out.println("Password does not match or user is inactive");
+                    log.info("Login rejected for user {}: {}", user.getId(),
+                            user.isActive() ? "bad credentials" : "inactive");
                 }
             } else {
-                System.out.println("No user found with email: " + email);
+                log.info("Login rejected: no user with email {}", LogMasking.email(email));
             }
         } catch (Exception e) {
-            System.err.println("Authentication error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Authentication error for {}", LogMasking.email(email), e);
         }
         
+        loginFailures.increment();
         return false;
     }
     
@@ -107,12 +117,10 @@ public class AuthenticationService {
                 );
             }
             
-            System.out.println("Spring Security authentication set for: " + user.getEmail() + 
-                              " with authority: " + roleAuthority);
+            log.debug("Spring Security authentication set for user {} with authority {}", user.getId(), roleAuthority);
             
         } catch (Exception e) {
-            System.err.println("Error setting Spring Security authentication: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error setting Spring Security authentication for user {}", user.getId(), e);
         }
     }
     
@@ -129,24 +137,37 @@ public class AuthenticationService {
                     if (userOptional.isPresent()) {
                         return userOptional.get();
                     } else {
-                        System.err.println("getCurrentUser() - user ID " + userId + " no longer exists in database!");
+                        log.warn("getCurrentUser() - user ID {} no longer exists in database", userId);
                         // Clear invalid session
                         session.setAttribute(CURRENT_USER_ID_SESSION_ATTRIBUTE, null);
                         SecurityContextHolder.clearContext();
                     }
                 } else {
-                    System.out.println("getCurrentUser() - no user ID in session");
+                    // Signed in through Spring Security's form login rather than the login view
+                    User user = springSecurityUser();
+                    if (user != null) {
+                        session.setAttribute(CURRENT_USER_ID_SESSION_ATTRIBUTE, user.getId());
+                        return user;
+                    }
+                    log.trace("getCurrentUser() - no user ID in session");
                 }
             } else {
-                System.out.println("getCurrentUser() - no VaadinSession");
+                log.trace("getCurrentUser() - no VaadinSession");
             }
         } catch (Exception e) {
-            System.err.println("Error getting current user: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting current user", e);
         }
         return null;
     }
-    
+
+    private User springSecurityUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return null;
+        }
+        return userRepository.findByEmail(auth.getName()).filter(User::isActive).orElse(null);
+    }
+
     /**
      * Check if user is authenticated
      */
@@ -158,10 +179,10 @@ public class AuthenticationService {
                                 SecurityContextHolder.getContext().getAuthentication().isAuthenticated() &&
                                 !SecurityContextHolder.getContext().getAuthentication().getName().equals("anonymousUser");
             
-            System.out.println("isAuthenticated() - Custom: " + customAuth + ", Spring: " + springAuth);
+            log.trace("isAuthenticated() - custom: {}, spring: {}", customAuth, springAuth);
             return customAuth && springAuth;
         } catch (Exception e) {
-            System.err.println("Error checking authentication: " + e.getMessage());
+            log.error("Error checking authentication", e);
             return false;
         }
     }
@@ -172,8 +193,6 @@ public class AuthenticationService {
     public boolean isCurrentUserSuperAdmin() {
         User currentUser = getCurrentUser();
         boolean isSuperAdmin = currentUser != null && currentUser.isSuperAdmin();
-        System.out.println("isCurrentUserSuperAdmin() returning: " + isSuperAdmin + 
-                          (currentUser != null ? " (role: " + currentUser.getRole().getName() + ")" : ""));
         return isSuperAdmin;
     }
     
@@ -181,7 +200,6 @@ public class AuthenticationService {
      * Logout current user from both systems
      */
     public void logout() {
-        System.out.println("Logout called");
         try {
             // Clear custom session
             VaadinSession session = VaadinSession.getCurrent();
@@ -201,10 +219,9 @@ public class AuthenticationService {
                 session.close();
             }
             
-            System.out.println("Logout completed - cleared both custom and Spring Security sessions");
+            log.debug("Logout completed - cleared both custom and Spring Security sessions");
         } catch (Exception e) {
-            System.err.println("Logout error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Logout error", e);
         }
     }
     
@@ -243,7 +260,6 @@ public class AuthenticationService {
         
         String roleName = currentUser.getRole().getName();
         boolean canManage = "SUPER_ADMIN".equals(roleName) || "ADMIN".equals(roleName);
-        System.out.println("canManageUsers() for role " + roleName + ": " + canManage);
         return canManage;
     }
     
@@ -0,0 +1,167 @@
+package com.feedback.service;
+
+import com.feedback.config.WorkerThreads;
+import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the dashboard by running its independent queries in parallel, so it takes
+ * about as long as the slowest one instead of their sum.
+ *
+ * Each card gets the same deadline measured from the start of the assembly. A card
+ * whose query fails, times out, or can't get a thread comes back unavailable instead
+ * of holding up the others. Per-card latency is kept in the snapshot, recorded as the
+ * {@code feedback.dashboard.card} timer, and logged for slow assemblies.
+ *
+ * The unread and open action item counts are in-memory counters, so they are read
+ * on the calling thread; a pool hop would cost more than the read.
+ */
+@Service
+public class DashboardAssembler {
+    
+    private static final Logger log = LoggerFactory.getLogger(DashboardAssembler.class);
+    
+    static final int RECENT_FEEDBACK_LIMIT = 5;
+    
+    private final FeedbackService feedbackService;
+    private final ActionItemService actionItemService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final long cardTimeoutMillis;
+    
+    @Autowired
+    public DashboardAssembler(FeedbackService feedbackService,
+                              ActionItemService actionItemService,
+                              MeterRegistry meterRegistry,
+                              @Value("${feedback.dashboard.threads:16}") int threads,
+                              @Value("${feedback.dashboard.queue-capacity:500}") int queueCapacity,
+                              @Value("${feedback.dashboard.card-timeout-ms:2000}") long cardTimeoutMillis,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.feedbackService = feedbackService;
+        this.actionItemService = actionItemService;
+        this.meterRegistry = meterRegistry;
+        this.cardTimeoutMillis = cardTimeoutMillis;
+        
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                WorkerThreads.factory("dashboard-", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+    
+    public DashboardSnapshot assemble(Long userId) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(cardTimeoutMillis);
+        
+        CompletableFuture<Timed<Long>> visible = submit(() -> feedbackService.countVisibleFeedbackForUser(userId));
+        CompletableFuture<Timed<Long>> unread = inline(() -> feedbackService.countUnreadFeedback(userId));
+        CompletableFuture<Timed<Long>> active = inline(() -> actionItemService.countActiveActionItems(userId));
+        CompletableFuture<Timed<Map<FeedbackStatus, Long>>> statuses =
+                submit(() -> feedbackService.countVisibleFeedbackByStatus(userId));
+        CompletableFuture<Timed<List<Feedback>>> recent =
+                submit(() -> feedbackService.findRecentVisibleFeedback(userId, RECENT_FEEDBACK_LIMIT));
+        
+        DashboardSnapshot snapshot = new DashboardSnapshot(
+                await("visibleFeedback", visible, start, deadline),
+                await("unreadFeedback", unread, start, deadline),
+                await("activeActionItems", active, start, deadline),
+                await("statusDistribution", statuses, start, deadline),
+                await("recentFeedback", recent, start, deadline),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        
+        report(userId, snapshot);
+        return snapshot;
+    }
+    
+    // Completion time is taken on the worker, so latency isn't skewed by the order cards are awaited in
+    private record Timed<T>(T value, long finishedAt) {
+    }
+    
+    private <T> CompletableFuture<Timed<T>> submit(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                T value = query.get();
+                return new Timed<>(value, System.nanoTime());
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    private static <T> CompletableFuture<Timed<T>> inline(Supplier<T> read) {
+        try {
+            return CompletableFuture.completedFuture(new Timed<>(read.get(), System.nanoTime()));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    private <T> DashboardCard<T> await(String name, CompletableFuture<Timed<T>> future, long start, long deadline) {
+        try {
+            Timed<T> result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return DashboardCard.of(name, result.value(), TimeUnit.NANOSECONDS.toMillis(result.finishedAt() - start));
+        } catch (TimeoutException e) {
+            // Drops it if still queued; a query already running finishes and is ignored
+            future.cancel(false);
+            log.warn("Dashboard card {} timed out after {} ms", name, cardTimeoutMillis);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("Dashboard card {} failed: {}", name, cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+        }
+        return DashboardCard.unavailable(name, elapsedMillis(start));
+    }
+    
+    private void report(Long userId, DashboardSnapshot snapshot) {
+        for (DashboardCard<?> card : snapshot.cards()) {
+            Timer.builder("feedback.dashboard.card")
+                    .tag("card", card.name())
+                    .tag("outcome", card.available() ? "ok" : "unavailable")
+                    .register(meterRegistry)
+                    .record(card.latencyMillis(), TimeUnit.MILLISECONDS);
+        }
+        
+        if (snapshot.totalMillis() < cardTimeoutMillis / 2) {
+            return;
+        }
+        StringBuilder line = new StringBuilder("Slow dashboard for user ").append(userId)
+                .append(": ").append(snapshot.totalMillis()).append(" ms");
+        for (DashboardCard<?> card : snapshot.cards()) {
+            line.append(", ").append(card.name()).append('=').append(card.latencyMillis()).append(" ms");
+            if (!card.available()) {
+                line.append(" (unavailable)");
+            }
+        }
+        log.warn(line.toString());
+    }
+    
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
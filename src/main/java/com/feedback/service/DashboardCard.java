@@ -0,0 +1,16 @@
+package com.feedback.service;
+
+/**
+ * Result of one dashboard query. When the query failed or timed out the card is
+ * unavailable and {@code value} is null; the rest of the dashboard still renders.
+ */
+public record DashboardCard<T>(String name, T value, boolean available, long latencyMillis) {
+    
+    static <T> DashboardCard<T> of(String name, T value, long latencyMillis) {
+        return new DashboardCard<>(name, value, true, latencyMillis);
+    }
+    
+    static <T> DashboardCard<T> unavailable(String name, long latencyMillis) {
+        return new DashboardCard<>(name, null, false, latencyMillis);
+    }
+}
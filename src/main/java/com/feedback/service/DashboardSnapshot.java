@@ -0,0 +1,22 @@
+package com.feedback.service;
+
+import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the dashboard shows for one user, assembled by {@link DashboardAssembler}
+ */
+public record DashboardSnapshot(DashboardCard<Long> visibleFeedback,
+                                DashboardCard<Long> unreadFeedback,
+                                DashboardCard<Long> activeActionItems,
+                                DashboardCard<Map<FeedbackStatus, Long>> statusDistribution,
+                                DashboardCard<List<Feedback>> recentFeedback,
+                                long totalMillis) {
+    
+    public List<DashboardCard<?>> cards() {
+        return List.of(visibleFeedback, unreadFeedback, activeActionItems, statusDistribution, recentFeedback);
+    }
+}
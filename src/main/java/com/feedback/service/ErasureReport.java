@@ -0,0 +1,20 @@
+package com.feedback.service;
+
+/**
+ * What erasing a user changed. Counts are rows re-pointed at the tombstone user,
+ * except {@code scrubbed}, which counts texts that had the user's name removed.
+ */
+public record ErasureReport(Long userId,
+                            long feedback,
+                            long archivedFeedback,
+                            long segmentRecords,
+                            long actionItems,
+                            long answers,
+                            long reports,
+                            long scrubbed,
+                            long millis) {
+    
+    public long total() {
+        return feedback + archivedFeedback + segmentRecords + actionItems + answers + reports;
+    }
+}
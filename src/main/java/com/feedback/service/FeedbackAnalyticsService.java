@@ -0,0 +1,146 @@
+package com.feedback.service;
+
+import com.feedback.archive.ArchiveReader;
+import com.feedback.archive.ArchiveRecord;
+import com.feedback.config.MetricsConfig;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Feedback counts for the analytics charts, added up from grouped counts of each tier
+ * rather than from loaded feedback. The archive table and the segment files are only
+ * read for ranges past the hot horizon.
+ *
+ * Feedback is grouped by the current department of its sender or recipient. A record
+ * still in the database as well as in a segment (a segment run that failed before its
+ * deletes committed) is counted in both until the run is retried.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class FeedbackAnalyticsService {
+
+    private final FeedbackRepository feedbackRepository;
+    private final ArchivedFeedbackRepository archivedFeedbackRepository;
+    private final ArchiveReader archiveReader;
+    private final UserRepository userRepository;
+    private final FeedbackArchiver feedbackArchiver;
+
+    public record Volume(Map<YearMonth, Long> byMonth, Map<String, Long> byCategory) {
+    }
+
+    public record Departments(Map<String, Long> received, Map<String, Long> sent) {
+    }
+
+    @Autowired
+    public FeedbackAnalyticsService(FeedbackRepository feedbackRepository,
+                                    ArchivedFeedbackRepository archivedFeedbackRepository,
+                                    ArchiveReader archiveReader,
+                                    UserRepository userRepository,
+                                    FeedbackArchiver feedbackArchiver) {
+        this.feedbackRepository = feedbackRepository;
+        this.archivedFeedbackRepository = archivedFeedbackRepository;
+        this.archiveReader = archiveReader;
+        this.userRepository = userRepository;
+        this.feedbackArchiver = feedbackArchiver;
+    }
+
+    /** Feedback per month and per category; a null {@code since} means all time */
+    public Volume volume(LocalDateTime since) {
+        Map<YearMonth, Long> byMonth = new HashMap<>();
+        Map<String, Long> byCategory = new HashMap<>();
+        addMonths(byMonth, feedbackRepository.countByMonth(since));
+        addNames(byCategory, feedbackRepository.countByCategory(since));
+        if (feedbackArchiver.reachesArchive(since)) {
+            addMonths(byMonth, archivedFeedbackRepository.countByMonth(since));
+            addNames(byCategory, archivedFeedbackRepository.countByCategory(since));
+            merge(byMonth, archiveReader.countBetween(since, null, record -> YearMonth.from(record.createdAt())));
+            merge(byCategory, archiveReader.countBetween(since, null, ArchiveRecord::category));
+        }
+        return new Volume(byMonth, byCategory);
+    }
+
+    /** Feedback received and sent per department name; a null {@code since} means all time */
+    public Departments byDepartment(LocalDateTime since) {
+        Map<String, Long> received = new HashMap<>();
+        Map<String, Long> sent = new HashMap<>();
+        addNames(received, feedbackRepository.countByRecipientDepartment(since));
+        addNames(sent, feedbackRepository.countBySenderDepartment(since));
+        if (feedbackArchiver.reachesArchive(since)) {
+            addNames(received, archivedFeedbackRepository.countByRecipientDepartment(since));
+            addNames(sent, archivedFeedbackRepository.countBySenderDepartment(since));
+            if (archiveReader.recordCount() > 0) {
+                Map<Long, String> departments = departmentNames();
+                merge(received, archiveReader.countBetween(since, null, byUser(departments, ArchiveRecord::recipientId)));
+                merge(sent, archiveReader.countBetween(since, null, byUser(departments, ArchiveRecord::senderId)));
+            }
+        }
+        return new Departments(received, sent);
+    }
+
+    /** Feedback per status; a null {@code since} means all time */
+    public Map<FeedbackStatus, Long> byStatus(LocalDateTime since) {
+        Map<FeedbackStatus, Long> counts = new EnumMap<>(FeedbackStatus.class);
+        addStatuses(counts, feedbackRepository.countByStatus(since));
+        if (feedbackArchiver.reachesArchive(since)) {
+            addStatuses(counts, archivedFeedbackRepository.countByStatus(since));
+            merge(counts, archiveReader.countBetween(since, null, ArchiveRecord::status));
+        }
+        return counts;
+    }
+
+    private Map<Long, String> departmentNames() {
+        Map<Long, String> names = new HashMap<>();
+        for (UserRepository.DepartmentName row : userRepository.findDepartmentNames()) {
+            names.put(row.getId(), row.getName());
+        }
+        return names;
+    }
+
+    private static Function<ArchiveRecord, String> byUser(Map<Long, String> departments,
+                                                          Function<ArchiveRecord, Long> user) {
+        return record -> {
+            Long userId = user.apply(record);
+            return userId != null ? departments.get(userId) : null;
+        };
+    }
+
+    private static void addMonths(Map<YearMonth, Long> counts, List<FeedbackRepository.MonthCount> rows) {
+        for (FeedbackRepository.MonthCount row : rows) {
+            counts.merge(YearMonth.of(row.getYear(), row.getMonth()), row.getTotal(), Long::sum);
+        }
+    }
+
+    // Feedback without a category is left out, like feedback without a department
+    private static void addNames(Map<String, Long> counts, List<FeedbackRepository.NameCount> rows) {
+        for (FeedbackRepository.NameCount row : rows) {
+            if (row.getName() != null) {
+                counts.merge(row.getName(), row.getTotal(), Long::sum);
+            }
+        }
+    }
+
+    private static void addStatuses(Map<FeedbackStatus, Long> counts, List<FeedbackRepository.StatusCount> rows) {
+        for (FeedbackRepository.StatusCount row : rows) {
+            if (row.getStatus() != null) {
+                counts.merge(row.getStatus(), row.getTotal(), Long::sum);
+            }
+        }
+    }
+
+    private static <K> void merge(Map<K, Long> counts, Map<K, Long> more) {
+        more.forEach((key, total) -> counts.merge(key, total, Long::sum));
+    }
+}
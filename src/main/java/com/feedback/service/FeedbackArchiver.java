@@ -0,0 +1,135 @@
+package com.feedback.service;
+
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the feedback table to the hot tier: feedback older than the horizon is moved
+ * to {@code feedback_archive} in small batches, each its own transaction, with a
+ * pause in between so the archiver never holds locks or hogs the pool for long.
+ *
+ * Only read feedback without action items is moved. Unread feedback and feedback
+ * that action items point at stay hot however old they are.
+ *
+ * Readers use {@link #reachesArchive} to decide whether a time range needs the archive
+ * at all; anything inside the horizon is answered from the hot table alone.
+ */
+@Component
+public class FeedbackArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedbackArchiver.class);
+
+    private final FeedbackRepository feedbackRepository;
+    private final ArchivedFeedbackRepository archivedFeedbackRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+    private final int batchSize;
+    private final long batchPauseMillis;
+
+    private volatile boolean stopped;
+
+    @Autowired
+    public FeedbackArchiver(FeedbackRepository feedbackRepository,
+                            ArchivedFeedbackRepository archivedFeedbackRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${feedback.archive.horizon-days:365}") int horizonDays,
+                            @Value("${feedback.archive.batch-size:500}") int batchSize,
+                            @Value("${feedback.archive.batch-pause-ms:200}") long batchPauseMillis) {
+        this.feedbackRepository = feedbackRepository;
+        this.archivedFeedbackRepository = archivedFeedbackRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+    }
+
+    /** Oldest creation time the hot tier is guaranteed to cover */
+    public LocalDateTime hotTierStart() {
+        return LocalDateTime.now().minusDays(horizonDays);
+    }
+
+    /** Whether a range starting at {@code since} (null for all time) may include archived rows */
+    public boolean reachesArchive(LocalDateTime since) {
+        return since == null || since.isBefore(hotTierStart());
+    }
+
+    @Scheduled(initialDelayString = "${feedback.archive.interval-ms:3600000}",
+               fixedDelayString = "${feedback.archive.interval-ms:3600000}")
+    public void archiveOnSchedule() {
+        try {
+            archive();
+        } catch (Exception e) {
+            log.warn("Feedback archiving stopped early: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Move everything currently past the horizon, batch by batch
+     *
+     * @return number of rows moved
+     */
+    public int archive() {
+        LocalDateTime cutoff = hotTierStart();
+        long started = System.nanoTime();
+        int moved = 0;
+        int batches = 0;
+        while (!stopped) {
+            Integer count = transactionTemplate.execute(status -> moveBatch(cutoff));
+            moved += count;
+            batches++;
+            if (count < batchSize || !pause()) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} feedback rows older than {} in {} batches, {} ms", moved, cutoff.toLocalDate(),
+                    batches, (System.nanoTime() - started) / 1_000_000);
+        }
+        return moved;
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Long> ids = feedbackRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int copied = archivedFeedbackRepository.copyFromHot(ids, LocalDateTime.now());
+        int deleted = feedbackRepository.deleteByIdIn(ids);
+        if (copied != deleted) {
+            // Rolls the batch back; nothing is lost or duplicated
+            throw new IllegalStateException("Archived " + copied + " feedback rows but removed " + deleted);
+        }
+        return deleted;
+    }
+
+    private boolean pause() {
+        if (batchPauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+}
@@ -1,22 +1,83 @@
 package com.feedback.service;
 
+import com.feedback.archive.ArchiveReader;
+import com.feedback.archive.ArchiveRecord;
+import com.feedback.config.MetricsConfig;
+import com.feedback.dedup.MinHasher;
+import com.feedback.dedup.NearDuplicateIndex;
+import com.feedback.model.ArchivedFeedback;
 import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackAnswer;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.FeedbackTemplateVersion;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.model.QuestionType;
+import com.feedback.model.TemplateQuestion;
 import com.feedback.model.User;
+import com.feedback.policy.ContentPolicy;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackAnswerRepository;
 import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.UserRepository;
+import com.feedback.sentiment.SentimentQueue;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class FeedbackService {
     
     private final FeedbackRepository feedbackRepository;
+    private final FeedbackAnswerRepository feedbackAnswerRepository;
+    private final ReadReceiptBuffer readReceiptBuffer;
+    private final ActivityCounterService activityCounterService;
+    private final TemplateVersionCache templateVersionCache;
+    private final RatingAnalyticsService ratingAnalyticsService;
+    private final ArchivedFeedbackRepository archivedFeedbackRepository;
+    private final FeedbackArchiver feedbackArchiver;
+    private final ArchiveReader archiveReader;
+    private final UserRepository userRepository;
+    private final SentimentQueue sentimentQueue;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final ContentPolicy contentPolicy;
     
     @Autowired
-    public FeedbackService(FeedbackRepository feedbackRepository) {
+    public FeedbackService(FeedbackRepository feedbackRepository, FeedbackAnswerRepository feedbackAnswerRepository,
+                           ReadReceiptBuffer readReceiptBuffer, ActivityCounterService activityCounterService,
+                           TemplateVersionCache templateVersionCache, RatingAnalyticsService ratingAnalyticsService,
+                           ArchivedFeedbackRepository archivedFeedbackRepository, FeedbackArchiver feedbackArchiver,
+                           ArchiveReader archiveReader, UserRepository userRepository,
+                           SentimentQueue sentimentQueue, NearDuplicateIndex nearDuplicateIndex,
+                           ContentPolicy contentPolicy) {
         this.feedbackRepository = feedbackRepository;
+        this.feedbackAnswerRepository = feedbackAnswerRepository;
+        this.readReceiptBuffer = readReceiptBuffer;
+        this.activityCounterService = activityCounterService;
+        this.templateVersionCache = templateVersionCache;
+        this.ratingAnalyticsService = ratingAnalyticsService;
+        this.archivedFeedbackRepository = archivedFeedbackRepository;
+        this.feedbackArchiver = feedbackArchiver;
+        this.archiveReader = archiveReader;
+        this.userRepository = userRepository;
+        this.sentimentQueue = sentimentQueue;
+        this.nearDuplicateIndex = nearDuplicateIndex;
+        this.contentPolicy = contentPolicy;
     }
     
     public List<Feedback> findAllFeedback() {
@@ -27,6 +88,7 @@ public class FeedbackService {
         return feedbackRepository.findById(id);
     }
     
+    // The methods without a time range read the hot tier only
     public List<Feedback> findFeedbackSentByUser(Long userId) {
         return feedbackRepository.findBySenderId(userId);
     }
@@ -35,33 +97,304 @@ public class FeedbackService {
         return feedbackRepository.findByRecipientId(userId);
     }
     
+    /**
+     * Feedback the user sent since the given time, or ever if {@code since} is null.
+     * Reads the archive table and segment files only when the range reaches past the
+     * hot horizon.
+     */
+    public List<Feedback> findFeedbackSentByUser(Long userId, LocalDateTime since) {
+        List<Feedback> hot = since == null
+                ? feedbackRepository.findBySenderId(userId)
+                : feedbackRepository.findBySenderIdAndCreatedAtGreaterThanEqual(userId, since);
+        return feedbackArchiver.reachesArchive(since)
+                ? withArchived(hot, archivedFeedbackRepository.findSent(userId, since),
+                               archiveReader.findSent(userId, since, null))
+                : hot;
+    }
+    
+    /** Like {@link #findFeedbackSentByUser(Long, LocalDateTime)}, for received feedback */
+    public List<Feedback> findFeedbackReceivedByUser(Long userId, LocalDateTime since) {
+        List<Feedback> hot = since == null
+                ? feedbackRepository.findByRecipientId(userId)
+                : feedbackRepository.findByRecipientIdAndCreatedAtGreaterThanEqual(userId, since);
+        return feedbackArchiver.reachesArchive(since)
+                ? withArchived(hot, archivedFeedbackRepository.findReceived(userId, since),
+                               archiveReader.findReceived(userId, since, null))
+                : hot;
+    }
+    
+    /** All feedback since the given time (null for all time), for analytics */
+    public List<Feedback> findAllFeedback(LocalDateTime since) {
+        List<Feedback> hot = since == null
+                ? feedbackRepository.findAll()
+                : feedbackRepository.findByCreatedAtGreaterThanEqual(since);
+        return feedbackArchiver.reachesArchive(since)
+                ? withArchived(hot, archivedFeedbackRepository.findSince(since), archiveReader.findBetween(since, null))
+                : hot;
+    }
+    
+    /** Wall of Appreciation posts in the hot tier, newest first, without near-duplicates */
+    public List<Feedback> findPublicFeedback() {
+        return feedbackRepository.findByPrivacyLevelAndDuplicateOfIdIsNullOrderByCreatedAtDesc(PrivacyLevel.PUBLIC);
+    }
+    
+    /** Whether the sender already wrote nearly the same free-form feedback (see NearDuplicateIndex) */
+    public boolean isNearDuplicate(String content, Long senderId) {
+        return nearDuplicateIndex.isNearDuplicate(content, senderId);
+    }
+    
+    /** Screen content against the content policy before it is submitted (see ContentPolicy) */
+    public ContentPolicy.Verdict checkContent(String content, PrivacyLevel privacyLevel, User sender) {
+        return contentPolicy.check(content, privacyLevel, sender);
+    }
+    
+    /**
+     * Hot rows plus both archive tiers. A record that is still in the database as well
+     * as in a segment (a segment run that failed before its deletes committed) is taken
+     * from the database; segment records whose users are gone are left out.
+     */
+    private List<Feedback> withArchived(List<Feedback> hot, List<ArchivedFeedback> archived,
+                                        List<ArchiveRecord> segments) {
+        if (archived.isEmpty() && segments.isEmpty()) {
+            return hot;
+        }
+        List<Feedback> all = new ArrayList<>(hot.size() + archived.size() + segments.size());
+        Set<Long> ids = new HashSet<>();
+        for (Feedback feedback : hot) {
+            all.add(feedback);
+            ids.add(feedback.getId());
+        }
+        for (ArchivedFeedback row : archived) {
+            all.add(row.toFeedback());
+            ids.add(row.getId());
+        }
+        if (!segments.isEmpty()) {
+            Set<Long> userIds = new HashSet<>();
+            for (ArchiveRecord record : segments) {
+                userIds.add(record.senderId());
+                userIds.add(record.recipientId());
+            }
+            userIds.remove(null);
+            Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            for (ArchiveRecord record : segments) {
+                Feedback feedback = ids.contains(record.id()) ? null : record.toFeedback(users);
+                if (feedback != null) {
+                    all.add(feedback);
+                }
+            }
+        }
+        return all;
+    }
+    
     public List<Feedback> findVisibleFeedbackForUser(Long userId) {
         return feedbackRepository.findVisibleFeedbackForUser(userId);
     }
     
+    public long countVisibleFeedbackForUser(Long userId) {
+        return feedbackRepository.countVisibleFeedbackForUser(userId);
+    }
+    
+    public Map<FeedbackStatus, Long> countVisibleFeedbackByStatus(Long userId) {
+        Map<FeedbackStatus, Long> counts = new EnumMap<>(FeedbackStatus.class);
+        for (FeedbackRepository.StatusCount count : feedbackRepository.countVisibleFeedbackByStatus(userId)) {
+            counts.put(count.getStatus(), count.getTotal());
+        }
+        return counts;
+    }
+    
+    /**
+     * Newest feedback the user is allowed to see, limited in the query
+     */
+    public List<Feedback> findRecentVisibleFeedback(Long userId, int limit) {
+        return feedbackRepository.findRecentVisibleFeedback(userId, PageRequest.of(0, limit));
+    }
+    
     public long countUnreadFeedback(Long userId) {
-        return feedbackRepository.countByRecipientIdAndIsReadFalse(userId);
+        return activityCounterService.unreadFeedback(userId);
     }
     
+    /**
+     * @throws IllegalArgumentException if new feedback breaks a blocking content policy rule
+     */
     public Feedback saveFeedback(Feedback feedback) {
-        return feedbackRepository.save(feedback);
+        boolean isNew = feedback.getId() == null;
+        if (isNew) {
+            ContentPolicy.Verdict verdict = contentPolicy.check(feedback.getContent(), feedback.getPrivacyLevel(),
+                    feedback.getSender());
+            if (verdict.isBlocked()) {
+                throw new IllegalArgumentException("Feedback breaks the content policy: "
+                        + verdict.describe(ContentPolicy.Action.BLOCK));
+            }
+        }
+        // New free-form feedback is fingerprinted; one that repeats the sender's earlier
+        // feedback is flagged and stays off the wall, anything else joins the index
+        short[] fingerprint = isNew && feedback.getTemplateVersionId() == null && feedback.getSender() != null
+                ? MinHasher.signature(feedback.getContent()) : null;
+        Long senderId = fingerprint != null ? feedback.getSender().getId() : null;
+        if (fingerprint != null) {
+            feedback.setDuplicateOfId(nearDuplicateIndex.findOriginal(fingerprint, senderId, Long.MAX_VALUE));
+        }
+        Feedback saved = feedbackRepository.save(feedback);
+        if (fingerprint != null && saved.getDuplicateOfId() == null) {
+            nearDuplicateIndex.addAfterCommit(saved.getId(), senderId, fingerprint);
+        }
+        if (isNew && !saved.isRead() && saved.getRecipient() != null) {
+            Long recipientId = saved.getRecipient().getId();
+            afterCommit(() -> activityCounterService.adjustUnreadFeedback(recipientId, 1));
+        }
+        if (isNew && isWallPost(saved)) {
+            afterCommit(activityCounterService::publicPostAdded);
+        }
+        // Scored in the background; the score shows up in analytics a moment later
+        sentimentQueue.submitAfterCommit(saved.getId(), saved.getContent());
+        return saved;
     }
     
-    public void markAsRead(Long feedbackId) {
-        feedbackRepository.findById(feedbackId).ifPresent(feedback -> {
-            feedback.setRead(true);
-            feedbackRepository.save(feedback);
-        });
+    /**
+     * Save template-based feedback together with its per-question answers. The answers
+     * get the feedback's id, template version, time and the recipient's department and
+     * manager.
+     *
+     * @throws IllegalArgumentException if an answer doesn't fit its question's type
+     */
+    @Transactional
+    public Feedback saveFeedback(Feedback feedback, List<FeedbackAnswer> answers) {
+        checkAnswers(feedback.getTemplateVersionId(), answers);
+        Feedback saved = saveFeedback(feedback);
+        User recipient = saved.getRecipient();
+        Long departmentId = recipient != null && recipient.getDepartment() != null
+                ? recipient.getDepartment().getId() : null;
+        Long managerId = recipient != null && recipient.getManager() != null
+                ? recipient.getManager().getId() : null;
+        for (FeedbackAnswer answer : answers) {
+            answer.setFeedbackId(saved.getId());
+            answer.setTemplateVersionId(saved.getTemplateVersionId());
+            answer.setDepartmentId(departmentId);
+            answer.setManagerId(managerId);
+            answer.setAnsweredAt(saved.getCreatedAt());
+        }
+        feedbackAnswerRepository.saveAll(answers);
+        ratingAnalyticsService.evictAfterCommit(saved.getTemplateVersionId());
+        return saved;
+    }
+    
+    private void checkAnswers(Long templateVersionId, List<FeedbackAnswer> answers) {
+        FeedbackTemplateVersion version = templateVersionCache.get(templateVersionId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown template version " + templateVersionId));
+        List<TemplateQuestion> questions = version.getQuestions();
+        for (FeedbackAnswer answer : answers) {
+            int index = answer.getQuestionIndex();
+            if (index < 0 || index >= questions.size()) {
+                throw new IllegalArgumentException("Template version " + templateVersionId
+                        + " has no question " + index);
+            }
+            QuestionType type = questions.get(index).type();
+            boolean valid = type.isNumeric()
+                    ? answer.getRating() != null && type.accepts(answer.getRating())
+                    : answer.getRating() == null;
+            if (!valid) {
+                throw new IllegalArgumentException("Answer " + answer.getRating() + " does not fit "
+                        + type.getDisplayName() + " question " + index);
+            }
+        }
+    }
+    
+    public List<FeedbackAnswer> findAnswers(Long feedbackId) {
+        return feedbackAnswerRepository.findByFeedbackIdOrderByQuestionIndex(feedbackId);
     }
     
-    public void updateFeedbackStatus(Long feedbackId, String status) {
-        feedbackRepository.findById(feedbackId).ifPresent(feedback -> {
-            feedback.setStatus(status);
-            feedbackRepository.save(feedback);
+    /**
+     * Average rating for each question of a template version, per recipient department
+     * and calendar month, for answers given in [from, to)
+     */
+    public List<FeedbackAnswerRepository.QuestionRatingStat> findQuestionRatingStats(Long templateVersionId,
+                                                                                    LocalDateTime from,
+                                                                                    LocalDateTime to) {
+        return feedbackAnswerRepository.averageRatingsByQuestionDepartmentMonth(templateVersionId, from, to);
+    }
+    
+    /**
+     * Clears the user's "new on the wall" badge
+     */
+    public void recordWallVisit(Long userId) {
+        activityCounterService.wallVisited(userId);
+    }
+    
+    /**
+     * Record that the recipient opened an item. The write is buffered and flushed in
+     * batches together with the recipient's other receipts.
+     */
+    public void markAsRead(Long recipientId, Long feedbackId) {
+        readReceiptBuffer.record(recipientId, feedbackId);
+    }
+    
+    /**
+     * Mark all of a recipient's feedback read in a single statement
+     */
+    public int markAllAsRead(Long recipientId) {
+        return readReceiptBuffer.markAllAsRead(recipientId);
+    }
+    
+    /**
+     * Move feedback to a new status, rejecting transitions the lifecycle does not allow.
+     * Uses a versioned update instead of load-and-save; if another user changed the item
+     * in between, the transition is re-checked against the new state and retried.
+     *
+     * @return true if the status changed, false if it already had that status or no longer exists
+     */
+    public boolean updateFeedbackStatus(Long feedbackId, FeedbackStatus status) {
+        return OptimisticRetry.run("Updating feedback " + feedbackId, () -> {
+            FeedbackRepository.StatusVersion current = feedbackRepository.findStatusVersionById(feedbackId).orElse(null);
+            if (current == null || current.getStatus() == status) {
+                return OptimisticRetry.Outcome.UNCHANGED;
+            }
+            if (!current.getStatus().canTransitionTo(status)) {
+                throw new IllegalStateException("Cannot move feedback from " +
+                        current.getStatus().getDisplayName() + " to " + status.getDisplayName());
+            }
+            return OptimisticRetry.Outcome.ofUpdatedRows(
+                    feedbackRepository.updateStatusIfVersion(feedbackId, status, current.getVersion()));
         });
     }
     
+    /**
+     * Delete feedback and its answers in one transaction. Counters and the rating cache
+     * are only updated once it has committed, so a rollback leaves them alone.
+     */
+    @Transactional
     public void deleteFeedback(Long id) {
-        feedbackRepository.deleteById(id);
+        feedbackRepository.findById(id).ifPresent(feedback -> {
+            feedbackAnswerRepository.deleteByFeedbackId(id);
+            feedbackRepository.delete(feedback);
+            ratingAnalyticsService.evictAfterCommit(feedback.getTemplateVersionId());
+            if (!feedback.isRead() && feedback.getRecipient() != null) {
+                Long recipientId = feedback.getRecipient().getId();
+                afterCommit(() -> activityCounterService.adjustUnreadFeedback(recipientId, -1));
+            }
+            if (isWallPost(feedback)) {
+                afterCommit(activityCounterService::publicPostRemoved);
+            }
+        });
+    }
+    
+    // Public feedback shows on the Wall of Appreciation unless it repeats an earlier post
+    private static boolean isWallPost(Feedback feedback) {
+        return feedback.getPrivacyLevel() == PrivacyLevel.PUBLIC && feedback.getDuplicateOfId() == null;
+    }
+    
+    // Inside a transaction (e.g. saving answers with the feedback) wait for the commit,
+    // so counters never count rows that were rolled back; otherwise run right away
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -1,58 +1,120 @@
 package com.feedback.service;
 
+import com.feedback.config.MetricsConfig;
 import com.feedback.model.FeedbackTemplate;
+import com.feedback.model.FeedbackTemplateVersion;
+import com.feedback.model.QuestionType;
+import com.feedback.model.TemplateQuestion;
 import com.feedback.repository.FeedbackTemplateRepository;
+import com.feedback.repository.FeedbackTemplateVersionRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class FeedbackTemplateService {
     
     private final FeedbackTemplateRepository feedbackTemplateRepository;
+    private final FeedbackTemplateVersionRepository versionRepository;
+    private final TemplateVersionCache templateVersionCache;
     
     @Autowired
-    public FeedbackTemplateService(FeedbackTemplateRepository feedbackTemplateRepository) {
+    public FeedbackTemplateService(FeedbackTemplateRepository feedbackTemplateRepository,
+                                   FeedbackTemplateVersionRepository versionRepository,
+                                   TemplateVersionCache templateVersionCache) {
         this.feedbackTemplateRepository = feedbackTemplateRepository;
+        this.versionRepository = versionRepository;
+        this.templateVersionCache = templateVersionCache;
     }
     
-    // FIXED: Added @Transactional and collection initialization
-    @Transactional(readOnly = true)
+    // Questions come from the eagerly loaded current version, so no collection to initialise
     public List<FeedbackTemplate> findAllTemplates() {
-        List<FeedbackTemplate> templates = feedbackTemplateRepository.findAll();
-        // Force initialization of the questions collection for each template
-        templates.forEach(t -> t.getQuestions().size());
-        return templates;
+        return feedbackTemplateRepository.findAll();
     }
     
-    @Transactional(readOnly = true)
     public List<FeedbackTemplate> findActiveTemplates() {
-        List<FeedbackTemplate> templates = feedbackTemplateRepository.findByIsActiveTrue();
-        // Force initialization of the questions collection for each template
-        templates.forEach(t -> t.getQuestions().size());
-        return templates;
+        return feedbackTemplateRepository.findByIsActiveTrue();
     }
     
-    @Transactional(readOnly = true)
     public Optional<FeedbackTemplate> findTemplateById(Long id) {
-        Optional<FeedbackTemplate> template = feedbackTemplateRepository.findById(id);
-        // Force initialization of the questions collection
-        template.ifPresent(t -> t.getQuestions().size());
-        return template;
+        return feedbackTemplateRepository.findById(id);
     }
     
+    /**
+     * Published versions of the active templates, for the feedback form. Served from
+     * the in-process cache.
+     */
+    public List<FeedbackTemplateVersion> findPublishedVersions() {
+        return templateVersionCache.publishedVersions();
+    }
+    
+    /** The exact version a piece of feedback was written from */
+    public Optional<FeedbackTemplateVersion> findVersion(Long versionId) {
+        return templateVersionCache.get(versionId);
+    }
+    
+    public List<FeedbackTemplateVersion> findVersionHistory(Long templateId) {
+        return versionRepository.findByTemplateIdOrderByVersionNumberDesc(templateId);
+    }
+    
+    /**
+     * Save a template. If its name, details or questions differ from the published
+     * version, a new immutable version is appended and published; older versions are
+     * kept for the feedback written from them. Toggling "active" alone adds no version.
+     */
+    @Transactional
     public FeedbackTemplate saveTemplate(FeedbackTemplate template) {
-        return feedbackTemplateRepository.save(template);
+        List<TemplateQuestion> questions = List.copyOf(template.getQuestions());
+        FeedbackTemplateVersion current = template.getCurrentVersion();
+        
+        if (template.getId() == null) {
+            template = feedbackTemplateRepository.save(template);
+        }
+        if (current == null || !current.hasSameContent(template.getName(), template.getDescription(),
+                template.getInstructions(), questions)) {
+            int next = versionRepository.findLatestVersionNumber(template.getId()) + 1;
+            FeedbackTemplateVersion version = versionRepository.save(new FeedbackTemplateVersion(template.getId(), next,
+                    template.getName(), template.getDescription(), template.getInstructions(), questions));
+            template.setCurrentVersion(version);
+        }
+        FeedbackTemplate saved = feedbackTemplateRepository.save(template);
+        
+        Long templateId = saved.getId();
+        FeedbackTemplateVersion published = saved.getCurrentVersion();
+        boolean active = saved.isActive();
+        afterCommit(() -> templateVersionCache.publish(templateId, published, active));
+        return saved;
     }
     
+    // Versions stay behind so feedback written from them still resolves
+    @Transactional
     public void deleteTemplate(Long id) {
         feedbackTemplateRepository.deleteById(id);
+        afterCommit(() -> templateVersionCache.unpublish(id));
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
     
     // Initialize default templates
+    @Transactional
     public void initializeDefaultTemplates() {
         if (feedbackTemplateRepository.count() == 0) {
             // Create a performance feedback template
@@ -61,12 +123,12 @@ public class FeedbackTemplateService {
             performanceTemplate.setDescription("Template for providing performance feedback");
             performanceTemplate.setInstructions("Please provide specific examples to support your feedback.");
             performanceTemplate.setQuestions(List.of(
-                "What did the person do well?",
-                "What could the person improve?",
-                "How can they develop in their role?",
-                "What specific actions would you recommend?"
+                TemplateQuestion.text("What did the person do well?"),
+                TemplateQuestion.text("What could the person improve?"),
+                TemplateQuestion.text("How can they develop in their role?"),
+                TemplateQuestion.text("What specific actions would you recommend?")
             ));
-            feedbackTemplateRepository.save(performanceTemplate);
+            saveTemplate(performanceTemplate);
             
             // Create a project feedback template
             FeedbackTemplate projectTemplate = new FeedbackTemplate();
@@ -74,12 +136,12 @@ public class FeedbackTemplateService {
             projectTemplate.setDescription("Template for providing feedback on project work");
             projectTemplate.setInstructions("Please be specific about the project contributions.");
             projectTemplate.setQuestions(List.of(
-                "How effectively did the person contribute to the project?",
-                "How well did they collaborate with the team?",
-                "What skills did they demonstrate during the project?",
-                "What recommendations do you have for future projects?"
+                TemplateQuestion.text("How effectively did the person contribute to the project?"),
+                TemplateQuestion.text("How well did they collaborate with the team?"),
+                TemplateQuestion.text("What skills did they demonstrate during the project?"),
+                TemplateQuestion.text("What recommendations do you have for future projects?")
             ));
-            feedbackTemplateRepository.save(projectTemplate);
+            saveTemplate(projectTemplate);
             
             // Create a SBI (Situation-Behavior-Impact) feedback template
             FeedbackTemplate sbiTemplate = new FeedbackTemplate();
@@ -87,12 +149,26 @@ public class FeedbackTemplateService {
             sbiTemplate.setDescription("Situation-Behavior-Impact feedback framework");
             sbiTemplate.setInstructions("Use this structured approach to provide clear and actionable feedback.");
             sbiTemplate.setQuestions(List.of(
-                "Situation: Describe the specific situation",
-                "Behavior: Describe the specific behaviors you observed",
-                "Impact: Explain the impact of those behaviors",
-                "Request: What specific change would you like to see?"
+                TemplateQuestion.text("Situation: Describe the specific situation"),
+                TemplateQuestion.text("Behavior: Describe the specific behaviors you observed"),
+                TemplateQuestion.text("Impact: Explain the impact of those behaviors"),
+                TemplateQuestion.text("Request: What specific change would you like to see?")
+            ));
+            saveTemplate(sbiTemplate);
+            
+            // Typed questions, so ratings can be charted in analytics
+            FeedbackTemplate pulseTemplate = new FeedbackTemplate();
+            pulseTemplate.setName("Collaboration Pulse");
+            pulseTemplate.setDescription("Quick ratings on working together, with room for a comment");
+            pulseTemplate.setInstructions("Rate what you have seen over the last few weeks.");
+            pulseTemplate.setQuestions(List.of(
+                new TemplateQuestion("How clearly does the person communicate?", QuestionType.RATING),
+                new TemplateQuestion("How well do they collaborate with others?", QuestionType.RATING),
+                new TemplateQuestion("How likely are you to recommend working with them?", QuestionType.NPS),
+                new TemplateQuestion("Would you like to work with them again?", QuestionType.YES_NO),
+                TemplateQuestion.text("Anything else you would like to add?")
             ));
-            feedbackTemplateRepository.save(sbiTemplate);
+            saveTemplate(pulseTemplate);
         }
     }
 }
\ No newline at end of file
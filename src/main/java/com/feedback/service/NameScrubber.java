@@ -0,0 +1,88 @@
+package com.feedback.service;
+
+import com.feedback.model.User;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces a user's name, username and email in free text with {@link #REPLACEMENT}.
+ * Matching is case-insensitive and on whole words only, so "Ann" is removed from
+ * "thanks Ann!" but not from "annual". Longer terms are tried first, so a full name is
+ * replaced as one piece rather than word by word.
+ */
+public final class NameScrubber {
+
+    public static final String REPLACEMENT = "[removed]";
+
+    // Shorter words are too likely to be something else
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private final Pattern pattern;
+
+    private NameScrubber(Set<String> terms) {
+        List<String> sorted = new ArrayList<>();
+        for (String term : terms) {
+            if (term != null && term.strip().length() >= MIN_TERM_LENGTH) {
+                sorted.add(term.strip());
+            }
+        }
+        sorted.sort(Comparator.comparingInt(String::length).reversed());
+        if (sorted.isEmpty()) {
+            pattern = null;
+            return;
+        }
+        StringBuilder alternatives = new StringBuilder();
+        for (String term : sorted) {
+            if (alternatives.length() > 0) {
+                alternatives.append('|');
+            }
+            alternatives.append(Pattern.quote(term));
+        }
+        pattern = Pattern.compile("(?<![\\p{L}\\p{N}])(?:" + alternatives + ")(?![\\p{L}\\p{N}])",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    /**
+     * Everything that identifies the user: full name, first and last name on their own,
+     * username and email. For text the user wrote or received.
+     */
+    public static NameScrubber forAllNames(User user) {
+        Set<String> terms = new LinkedHashSet<>(identifyingTerms(user));
+        terms.add(user.getFirstName());
+        terms.add(user.getLastName());
+        return new NameScrubber(terms);
+    }
+
+    /**
+     * Only terms that identify the user on their own. For everyone else's text, where
+     * a bare first name most likely means somebody else.
+     */
+    public static NameScrubber forUniqueNames(User user) {
+        return new NameScrubber(identifyingTerms(user));
+    }
+
+    private static Set<String> identifyingTerms(User user) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (user.getFirstName() != null && user.getLastName() != null) {
+            terms.add(user.getFirstName().strip() + " " + user.getLastName().strip());
+        }
+        terms.add(user.getUsername());
+        terms.add(user.getEmail());
+        return terms;
+    }
+
+    /** The text with every match replaced; the same instance if nothing matched */
+    public String scrub(String text) {
+        if (text == null || pattern == null) {
+            return text;
+        }
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? matcher.replaceAll(Matcher.quoteReplacement(REPLACEMENT)) : text;
+    }
+}
@@ -0,0 +1,62 @@
+package com.feedback.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retry loop for compare-and-set updates that use a version column.
+ */
+final class OptimisticRetry {
+    
+    static final int MAX_ATTEMPTS = 10;
+    
+    /** What one attempt of a compare-and-set update did */
+    enum Outcome {
+        /** The update was applied */
+        APPLIED,
+        /** Nothing to do, e.g. the row already has the value or no longer exists */
+        UNCHANGED,
+        /** The version moved underneath us; re-run against fresh state */
+        CONFLICT;
+        
+        /** APPLIED if the versioned update touched its row, CONFLICT otherwise */
+        static Outcome ofUpdatedRows(int rows) {
+            return rows == 1 ? APPLIED : CONFLICT;
+        }
+    }
+    
+    private OptimisticRetry() {
+    }
+    
+    /**
+     * Run an attempt until it is applied or has nothing to do. On a conflict the attempt
+     * is re-run after a short, jittered backoff.
+     *
+     * @return true if applied, false if unchanged
+     * @throws OptimisticLockingFailureException if every attempt conflicted
+     */
+    static boolean run(String description, Supplier<Outcome> attempt) {
+        for (int i = 1; i <= MAX_ATTEMPTS; i++) {
+            Outcome outcome = attempt.get();
+            if (outcome != Outcome.CONFLICT) {
+                return outcome == Outcome.APPLIED;
+            }
+            if (i < MAX_ATTEMPTS) {
+                backoff(i);
+            }
+        }
+        throw new OptimisticLockingFailureException(
+                description + " failed after " + MAX_ATTEMPTS + " attempts due to concurrent updates");
+    }
+    
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 2L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockingFailureException("Interrupted while retrying update", e);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.feedback.service;
+
+import com.feedback.config.MetricsConfig;
+import com.feedback.model.FeedbackTemplateVersion;
+import com.feedback.model.TemplateQuestion;
+import com.feedback.repository.FeedbackAnswerRepository;
+import com.feedback.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Histograms and moving averages for the numeric questions of a template version.
+ *
+ * A report comes from one grouped query that returns answer counts per question,
+ * department, manager, month and value. Everything else is added up from those
+ * buckets in memory: department and manager chain breakdowns, the monthly trend and
+ * the moving average. Reports are cached per (version, scope, period); saving or
+ * deleting answers for a version drops its reports, and the rest expire after
+ * {@link #CACHE_TTL} so changes to reporting lines show up too. The reporting lines
+ * themselves are cached the same way, so a cache miss doesn't reload every user's
+ * manager.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class RatingAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingAnalyticsService.class);
+
+    static final int MOVING_AVERAGE_MONTHS = 3;
+    private static final Duration CACHE_TTL = Duration.ofMinutes(10);
+    private static final int MAX_CACHED_REPORTS = 256;
+    // Placeholder for the unused manager filter; IN () is not valid SQL
+    private static final List<Long> NO_MANAGERS = List.of(0L);
+    // A large manager chain is queried in parts, keeping IN lists at a size every database handles
+    static final int MAX_MANAGERS_PER_QUERY = 500;
+
+    private final FeedbackAnswerRepository answerRepository;
+    private final UserRepository userRepository;
+    private final TemplateVersionCache templateVersionCache;
+
+    private final Map<Key, RatingReport> reports = new ConcurrentHashMap<>();
+    // Null until first needed and after evictAll(); the lock keeps a load that started before
+    // an eviction from putting its old lines back
+    private final Object reportingLinesLock = new Object();
+    private ReportingLines reportingLines;
+    private long reportingLinesGeneration;
+
+    @Autowired
+    public RatingAnalyticsService(FeedbackAnswerRepository answerRepository, UserRepository userRepository,
+                                  TemplateVersionCache templateVersionCache) {
+        this.answerRepository = answerRepository;
+        this.userRepository = userRepository;
+        this.templateVersionCache = templateVersionCache;
+    }
+
+    /** The report for a template version, or empty if there is no such version */
+    public Optional<RatingReport> findReport(Long versionId, RatingScope scope, RatingPeriod period) {
+        Optional<FeedbackTemplateVersion> version = templateVersionCache.get(versionId);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+        Key key = new Key(versionId, scope, period);
+        RatingReport cached = reports.get(key);
+        if (cached != null && cached.computedAt().isAfter(LocalDateTime.now().minus(CACHE_TTL))) {
+            return Optional.of(cached);
+        }
+        RatingReport report = buildReport(version.get(), scope, period);
+        if (reports.size() >= MAX_CACHED_REPORTS) {
+            reports.clear();
+        }
+        reports.put(key, report);
+        return Optional.of(report);
+    }
+
+    public void evict(Long versionId) {
+        if (versionId != null) {
+            reports.keySet().removeIf(key -> key.versionId().equals(versionId));
+        }
+    }
+
+    /** Drop every report and the cached reporting lines, e.g. after reporting lines changed */
+    public void evictAll() {
+        synchronized (reportingLinesLock) {
+            reportingLines = null;
+            reportingLinesGeneration++;
+        }
+        reports.clear();
+    }
+
+    /** Evict once the current transaction commits, so a concurrent read can't re-cache old counts */
+    public void evictAfterCommit(Long versionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(versionId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(versionId);
+            }
+        });
+    }
+
+    private RatingReport buildReport(FeedbackTemplateVersion version, RatingScope scope, RatingPeriod period) {
+        long started = System.nanoTime();
+        ReportingLines lines = reportingLines();
+        Map<Long, Long> managers = lines.managers();
+        Set<Long> chain = scope.kind() == RatingScope.Kind.MANAGER_CHAIN
+                ? lines.chainOf(scope.id()) : Set.of();
+
+        Long departmentId = scope.kind() == RatingScope.Kind.DEPARTMENT ? scope.id() : null;
+        List<FeedbackAnswerRepository.RatingBucket> buckets;
+        if (chain.isEmpty()) {
+            buckets = answerRepository.findRatingBuckets(version.getId(), period.start(), period.end(),
+                    departmentId, true, NO_MANAGERS);
+        } else {
+            // Buckets are per manager, so the parts never overlap
+            buckets = new ArrayList<>();
+            List<Long> managerIds = new ArrayList<>(chain);
+            for (int from = 0; from < managerIds.size(); from += MAX_MANAGERS_PER_QUERY) {
+                buckets.addAll(answerRepository.findRatingBuckets(version.getId(), period.start(), period.end(),
+                        departmentId, false,
+                        managerIds.subList(from, Math.min(from + MAX_MANAGERS_PER_QUERY, managerIds.size()))));
+            }
+        }
+
+        Map<Integer, QuestionBuilder> builders = new TreeMap<>();
+        List<TemplateQuestion> questions = version.getQuestions();
+        for (int i = 0; i < questions.size(); i++) {
+            if (questions.get(i).type().isNumeric()) {
+                builders.put(i, new QuestionBuilder(i, questions.get(i)));
+            }
+        }
+        for (FeedbackAnswerRepository.RatingBucket bucket : buckets) {
+            QuestionBuilder builder = builders.get(bucket.getQuestionIndex());
+            if (builder != null) {
+                builder.add(bucket, managers, chain);
+            }
+        }
+
+        List<RatingReport.QuestionRatings> results = new ArrayList<>();
+        for (QuestionBuilder builder : builders.values()) {
+            results.add(builder.build(period));
+        }
+        log.debug("Rating report for template version {} ({}, {}): {} buckets in {} ms", version.getId(), scope,
+                period, buckets.size(), (System.nanoTime() - started) / 1_000_000);
+        return new RatingReport(version, scope, period, List.copyOf(results), LocalDateTime.now());
+    }
+
+    /** The cached reporting lines, reloaded once they are older than {@link #CACHE_TTL} */
+    private ReportingLines reportingLines() {
+        long generation;
+        synchronized (reportingLinesLock) {
+            ReportingLines lines = reportingLines;
+            if (lines != null && lines.loadedAt().isAfter(LocalDateTime.now().minus(CACHE_TTL))) {
+                return lines;
+            }
+            generation = reportingLinesGeneration;
+        }
+        // Loaded outside the lock so a slow query doesn't hold up cached reads
+        Map<Long, Long> managers = new HashMap<>();
+        for (UserRepository.ManagerLink link : userRepository.findManagerLinks()) {
+            managers.put(link.getId(), link.getManagerId());
+        }
+        ReportingLines loaded = new ReportingLines(managers, LocalDateTime.now());
+        synchronized (reportingLinesLock) {
+            if (reportingLinesGeneration == generation) {
+                reportingLines = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /** User id -> manager id, and the inverse for walking down a chain */
+    private record ReportingLines(Map<Long, Long> managers, Map<Long, List<Long>> reports, LocalDateTime loadedAt) {
+
+        ReportingLines(Map<Long, Long> managers, LocalDateTime loadedAt) {
+            this(Map.copyOf(managers), invert(managers), loadedAt);
+        }
+
+        private static Map<Long, List<Long>> invert(Map<Long, Long> managers) {
+            Map<Long, List<Long>> reports = new HashMap<>();
+            managers.forEach((user, manager) -> reports.computeIfAbsent(manager, m -> new ArrayList<>()).add(user));
+            return Map.copyOf(reports);
+        }
+
+        /** The manager and everyone who reports to them, directly or further down */
+        Set<Long> chainOf(Long managerId) {
+            Set<Long> chain = new HashSet<>();
+            Deque<Long> pending = new ArrayDeque<>(List.of(managerId));
+            while (!pending.isEmpty()) {
+                Long next = pending.pop();
+                if (chain.add(next)) {
+                    pending.addAll(reports.getOrDefault(next, List.of()));
+                }
+            }
+            return chain;
+        }
+    }
+
+    private static final class QuestionBuilder {
+        private final int index;
+        private final TemplateQuestion question;
+        private final RatingHistogram overall;
+        private final Map<Long, RatingHistogram> byDepartment = new HashMap<>();
+        private final Map<Long, RatingHistogram> byManagerChain = new HashMap<>();
+        private final Map<YearMonth, RatingHistogram> byMonth = new HashMap<>();
+
+        QuestionBuilder(int index, TemplateQuestion question) {
+            this.index = index;
+            this.question = question;
+            this.overall = new RatingHistogram(question.type());
+        }
+
+        void add(FeedbackAnswerRepository.RatingBucket bucket, Map<Long, Long> managers, Collection<Long> chain) {
+            int value = bucket.getValue();
+            long count = bucket.getTotal();
+            overall.add(value, count);
+            histogram(byMonth, YearMonth.of(bucket.getYear(), bucket.getMonth())).add(value, count);
+            if (bucket.getDepartmentId() != null) {
+                histogram(byDepartment, bucket.getDepartmentId()).add(value, count);
+            }
+            // Credit the direct manager and everyone above them, stopping at the top of the
+            // scoped chain; the seen set guards against a cycle in the reporting lines
+            Set<Long> seen = new HashSet<>();
+            for (Long manager = bucket.getManagerId(); manager != null && seen.add(manager);
+                 manager = managers.get(manager)) {
+                if (chain.isEmpty() || chain.contains(manager)) {
+                    histogram(byManagerChain, manager).add(value, count);
+                }
+            }
+        }
+
+        private <K> RatingHistogram histogram(Map<K, RatingHistogram> map, K key) {
+            return map.computeIfAbsent(key, k -> new RatingHistogram(question.type()));
+        }
+
+        RatingReport.QuestionRatings build(RatingPeriod period) {
+            List<YearMonth> months = period.months();
+            List<RatingReport.MonthlyRating> trend = new ArrayList<>(months.size());
+            for (int i = 0; i < months.size(); i++) {
+                RatingHistogram month = byMonth.get(months.get(i));
+                long windowSum = 0;
+                long windowTotal = 0;
+                for (int j = Math.max(0, i - MOVING_AVERAGE_MONTHS + 1); j <= i; j++) {
+                    RatingHistogram earlier = byMonth.get(months.get(j));
+                    if (earlier != null) {
+                        windowSum += earlier.sum();
+                        windowTotal += earlier.total();
+                    }
+                }
+                trend.add(new RatingReport.MonthlyRating(months.get(i),
+                        month != null ? month.total() : 0,
+                        month != null ? month.mean() : null,
+                        windowTotal > 0 ? (double) windowSum / windowTotal : null));
+            }
+            return new RatingReport.QuestionRatings(index, question, overall,
+                    Map.copyOf(byDepartment), Map.copyOf(byManagerChain), List.copyOf(trend));
+        }
+    }
+
+    private record Key(Long versionId, RatingScope scope, RatingPeriod period) {
+    }
+}
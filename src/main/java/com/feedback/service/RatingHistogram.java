@@ -0,0 +1,63 @@
+package com.feedback.service;
+
+import com.feedback.model.QuestionType;
+
+/**
+ * Answer counts for each value of a numeric question. Histograms add up, so one for a
+ * department or a manager chain is just the sum of the buckets under it.
+ */
+public final class RatingHistogram {
+    
+    private final QuestionType type;
+    private final long[] counts;
+    
+    RatingHistogram(QuestionType type) {
+        this.type = type;
+        this.counts = new long[type.getMax() - type.getMin() + 1];
+    }
+    
+    void add(int value, long count) {
+        if (type.accepts(value)) {
+            counts[value - type.getMin()] += count;
+        }
+    }
+    
+    public QuestionType getType() {
+        return type;
+    }
+    
+    public long count(int value) {
+        return type.accepts(value) ? counts[value - type.getMin()] : 0;
+    }
+    
+    public long total() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+    
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            sum += counts[i] * (i + type.getMin());
+        }
+        return sum;
+    }
+    
+    /** Average answer, or null when nobody answered */
+    public Double mean() {
+        long total = total();
+        return total == 0 ? null : (double) sum() / total;
+    }
+    
+    /** Largest single bucket, for scaling bars */
+    public long maxCount() {
+        long max = 0;
+        for (long count : counts) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,41 @@
+package com.feedback.service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A range of whole calendar months, both ends included
+ */
+public record RatingPeriod(YearMonth from, YearMonth to) {
+    
+    public RatingPeriod {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Period starts after it ends: " + from + " > " + to);
+        }
+    }
+    
+    /** The current month and the {@code months - 1} before it */
+    public static RatingPeriod lastMonths(int months) {
+        YearMonth now = YearMonth.now();
+        return new RatingPeriod(now.minusMonths(months - 1L), now);
+    }
+    
+    public LocalDateTime start() {
+        return from.atDay(1).atStartOfDay();
+    }
+    
+    /** Exclusive end: the first instant of the month after {@code to} */
+    public LocalDateTime end() {
+        return to.plusMonths(1).atDay(1).atStartOfDay();
+    }
+    
+    public List<YearMonth> months() {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+}
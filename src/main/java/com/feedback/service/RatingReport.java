@@ -0,0 +1,37 @@
+package com.feedback.service;
+
+import com.feedback.model.FeedbackTemplateVersion;
+import com.feedback.model.TemplateQuestion;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rating analytics for the numeric questions of one template version, built by
+ * {@link RatingAnalyticsService}
+ */
+public record RatingReport(FeedbackTemplateVersion version,
+                           RatingScope scope,
+                           RatingPeriod period,
+                           List<QuestionRatings> questions,
+                           LocalDateTime computedAt) {
+    
+    /**
+     * @param byDepartment   recipient department id -> histogram
+     * @param byManagerChain manager id -> histogram of everyone below that manager
+     * @param trend          one entry per month of the period
+     */
+    public record QuestionRatings(int questionIndex,
+                                  TemplateQuestion question,
+                                  RatingHistogram histogram,
+                                  Map<Long, RatingHistogram> byDepartment,
+                                  Map<Long, RatingHistogram> byManagerChain,
+                                  List<MonthlyRating> trend) {
+    }
+    
+    /** A month's average and the trailing moving average ending in that month; null when there were no answers */
+    public record MonthlyRating(YearMonth month, long responses, Double average, Double movingAverage) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.feedback.service;
+
+/**
+ * Whose answers a rating report covers: everyone, one recipient department, or
+ * everyone reporting to a manager directly or further down the chain.
+ */
+public record RatingScope(Kind kind, Long id) {
+    
+    public enum Kind { ALL, DEPARTMENT, MANAGER_CHAIN }
+    
+    public static RatingScope all() {
+        return new RatingScope(Kind.ALL, null);
+    }
+    
+    public static RatingScope department(Long departmentId) {
+        return new RatingScope(Kind.DEPARTMENT, departmentId);
+    }
+    
+    public static RatingScope managerChain(Long managerId) {
+        return new RatingScope(Kind.MANAGER_CHAIN, managerId);
+    }
+}
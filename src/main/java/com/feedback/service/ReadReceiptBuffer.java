@@ -0,0 +1,159 @@
+package com.feedback.service;
+
+import com.feedback.repository.FeedbackRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces mark-as-read events per recipient and writes them as one
+ * {@code UPDATE ... WHERE id IN (...)} per flush instead of a load and save per item.
+ *
+ * Unread counters are decremented as soon as a receipt is buffered, so they follow
+ * {@code unread rows in DB - buffered receipts}; each flush gives back the count for
+ * buffered ids that turned out to be read already. Buffering and writing go through
+ * {@link ActivityCounterService#bufferingReceipts} and
+ * {@link ActivityCounterService#writingReceipts} so a reconcile sees each of them
+ * either in the buffer or in the DB, never in both or neither.
+ */
+@Component
+public class ReadReceiptBuffer {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReadReceiptBuffer.class);
+    
+    // Keep IN lists at a size every database handles comfortably
+    static final int MAX_IDS_PER_STATEMENT = 500;
+    
+    private final FeedbackRepository feedbackRepository;
+    private final ActivityCounterService activityCounterService;
+    private final int maxPendingPerRecipient;
+    
+    // Sets are only ever touched inside compute()/remove(), which CHM runs atomically per key
+    private final ConcurrentHashMap<Long, Set<Long>> pending = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public ReadReceiptBuffer(FeedbackRepository feedbackRepository,
+                             ActivityCounterService activityCounterService,
+                             @Value("${feedback.read-receipts.max-pending:" + MAX_IDS_PER_STATEMENT + "}") int maxPendingPerRecipient) {
+        this.feedbackRepository = feedbackRepository;
+        this.activityCounterService = activityCounterService;
+        this.maxPendingPerRecipient = maxPendingPerRecipient;
+    }
+    
+    /**
+     * Buffer a read receipt. Flushes this recipient right away once enough receipts pile up.
+     */
+    public void record(Long recipientId, Long feedbackId) {
+        int[] size = new int[1];
+        activityCounterService.bufferingReceipts(() -> {
+            boolean[] added = new boolean[1];
+            pending.compute(recipientId, (id, receipts) -> {
+                Set<Long> set = receipts != null ? receipts : new HashSet<>();
+                added[0] = set.add(feedbackId);
+                size[0] = set.size();
+                return set;
+            });
+            if (added[0]) {
+                activityCounterService.adjustUnreadFeedback(recipientId, -1);
+            }
+        });
+        if (size[0] >= maxPendingPerRecipient) {
+            flush(recipientId);
+        }
+    }
+    
+    /**
+     * Mark everything read for a recipient in one statement. Buffered receipts are
+     * covered by it, so they are simply dropped.
+     *
+     * The counter is lowered by the rows the statement updated rather than reset to zero:
+     * feedback committed after the UPDATE is still unread and keeps its +1.
+     */
+    public int markAllAsRead(Long recipientId) {
+        return activityCounterService.writingReceipts(() -> {
+            Set<Long> dropped = pending.remove(recipientId);
+            int updated = feedbackRepository.markAllAsRead(recipientId);
+            // Dropped receipts were already subtracted when buffered; the UPDATE counted their unread rows again
+            int alreadySubtracted = dropped != null ? dropped.size() : 0;
+            activityCounterService.adjustUnreadFeedback(recipientId, alreadySubtracted - updated);
+            return updated;
+        });
+    }
+    
+    public void flush(Long recipientId) {
+        activityCounterService.writingReceipts(() -> {
+            writePending(recipientId);
+            return null;
+        });
+    }
+    
+    private void writePending(Long recipientId) {
+        Set<Long> receipts = pending.remove(recipientId);
+        if (receipts == null || receipts.isEmpty()) {
+            return;
+        }
+        
+        List<Long> ids = new ArrayList<>(receipts);
+        int updated = 0;
+        int from = 0;
+        try {
+            for (; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+                List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, ids.size()));
+                updated += feedbackRepository.markAsReadForRecipient(recipientId, chunk);
+            }
+        } catch (RuntimeException e) {
+            // Put back whatever wasn't written so the next flush retries it
+            List<Long> unwritten = ids.subList(from, ids.size());
+            pending.merge(recipientId, new HashSet<>(unwritten), (current, retry) -> {
+                current.addAll(retry);
+                return current;
+            });
+            throw e;
+        }
+        
+        // Receipts for rows that were already read were subtracted too eagerly; give them back
+        activityCounterService.adjustUnreadFeedback(recipientId, ids.size() - updated);
+    }
+    
+    @Scheduled(fixedDelayString = "${feedback.read-receipts.flush-interval-ms:2000}")
+    public void flushAll() {
+        for (Long recipientId : new ArrayList<>(pending.keySet())) {
+            try {
+                flush(recipientId);
+            } catch (Exception e) {
+                log.warn("Error flushing read receipts for user {}", recipientId, e);
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+    }
+    
+    /**
+     * Number of buffered receipts per recipient
+     */
+    public Map<Long, Integer> pendingCounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Long recipientId : pending.keySet()) {
+            pending.computeIfPresent(recipientId, (id, receipts) -> {
+                counts.put(id, receipts.size());
+                return receipts;
+            });
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,95 @@
+package com.feedback.service;
+
+import com.feedback.model.PrivacyLevel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * How long feedback is kept, by privacy level and optionally category, written as
+ * comma-separated {@code LEVEL=days} and {@code LEVEL/Category=days} entries. A category
+ * entry overrides its level's entry; 0 days, or no entry at all, keeps feedback forever.
+ *
+ * <pre>PRIVATE=2555,ANONYMOUS=1825,DEPARTMENT=2555,DEPARTMENT/Recognition=3650</pre>
+ */
+public final class RetentionPolicy {
+
+    private final Map<PrivacyLevel, Integer> levelDays = new EnumMap<>(PrivacyLevel.class);
+    private final Map<PrivacyLevel, Map<String, Integer>> categoryDays = new EnumMap<>(PrivacyLevel.class);
+
+    /**
+     * One purge query: feedback of a privacy level (and category, if set) created
+     * before the cutoff. A level-wide rule leaves out the categories that have their own.
+     */
+    public record Rule(PrivacyLevel level, String category, Set<String> exceptCategories, LocalDateTime cutoff) {
+    }
+
+    private RetentionPolicy() {
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown privacy level or a malformed entry
+     */
+    public static RetentionPolicy parse(String spec) {
+        RetentionPolicy policy = new RetentionPolicy();
+        if (spec == null || spec.isBlank()) {
+            return policy;
+        }
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] keyAndDays = entry.split("=", 2);
+            if (keyAndDays.length != 2) {
+                throw new IllegalArgumentException("Retention entry needs LEVEL[/Category]=days: " + entry.trim());
+            }
+            int days = Integer.parseInt(keyAndDays[1].trim());
+            String[] levelAndCategory = keyAndDays[0].trim().split("/", 2);
+            PrivacyLevel level = PrivacyLevel.valueOf(levelAndCategory[0].trim().toUpperCase());
+            if (levelAndCategory.length == 2) {
+                policy.categoryDays.computeIfAbsent(level, l -> new HashMap<>())
+                        .put(levelAndCategory[1].trim(), days);
+            } else {
+                policy.levelDays.put(level, days);
+            }
+        }
+        return policy;
+    }
+
+    /** Days to keep feedback of this level and category, or 0 to keep it forever */
+    public int daysFor(PrivacyLevel level, String category) {
+        Integer days = category != null ? categoryDays.getOrDefault(level, Map.of()).get(category) : null;
+        if (days == null) {
+            days = levelDays.get(level);
+        }
+        return days != null && days > 0 ? days : 0;
+    }
+
+    public boolean isExpired(PrivacyLevel level, String category, LocalDateTime createdAt, LocalDateTime now) {
+        int days = daysFor(level, category);
+        return days > 0 && createdAt != null && createdAt.isBefore(now.minusDays(days));
+    }
+
+    /** The purge queries that cover this policy, with cutoffs relative to {@code now} */
+    public List<Rule> rules(LocalDateTime now) {
+        List<Rule> rules = new ArrayList<>();
+        for (PrivacyLevel level : PrivacyLevel.values()) {
+            Map<String, Integer> categories = categoryDays.getOrDefault(level, Map.of());
+            Integer days = levelDays.get(level);
+            if (days != null && days > 0) {
+                rules.add(new Rule(level, null, Set.copyOf(categories.keySet()), now.minusDays(days)));
+            }
+            categories.forEach((category, categoryDays) -> {
+                if (categoryDays > 0) {
+                    rules.add(new Rule(level, category, Set.of(), now.minusDays(categoryDays)));
+                }
+            });
+        }
+        return rules;
+    }
+}
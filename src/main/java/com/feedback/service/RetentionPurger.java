@@ -0,0 +1,262 @@
+package com.feedback.service;
+
+import com.feedback.archive.SegmentArchiver;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackAnswerRepository;
+import com.feedback.repository.FeedbackRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Deletes feedback past its {@link RetentionPolicy} from every tier: the feedback
+ * table, {@code feedback_archive} and the segment files. Action items and template
+ * answers go with their feedback.
+ *
+ * Table deletes are done in chunks of at most {@code chunk-size} ids, each its own short
+ * transaction, so no statement holds row locks for long or writes a large binlog event
+ * for replicas to apply. Between chunks the purger sleeps for at least {@code pause-ms},
+ * and longer if needed to stay under {@code max-rows-per-second}.
+ *
+ * Each run publishes the rows it deleted per tier ({@code feedback.retention.purged}),
+ * its delete rate ({@code feedback.retention.rate}) and how overdue the oldest expired
+ * row it left behind is ({@code feedback.retention.lag}, 0 when it caught up).
+ */
+@Component
+public class RetentionPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionPurger.class);
+
+    // Placeholder for an empty category exclusion; NOT IN () is not valid SQL
+    private static final Set<String> NO_CATEGORIES = Set.of("");
+
+    private final FeedbackRepository feedbackRepository;
+    private final ArchivedFeedbackRepository archivedFeedbackRepository;
+    private final ActionItemRepository actionItemRepository;
+    private final FeedbackAnswerRepository feedbackAnswerRepository;
+    private final SegmentArchiver segmentArchiver;
+    private final ActivityCounterReconciler counterReconciler;
+    private final TransactionTemplate transactionTemplate;
+    private final RetentionPolicy policy;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final int maxRowsPerSecond;
+
+    private final Counter hotPurged;
+    private final Counter archivePurged;
+    private final Counter segmentPurged;
+    private final AtomicLong lastRate = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    private volatile boolean stopped;
+
+    @Autowired
+    public RetentionPurger(FeedbackRepository feedbackRepository,
+                           ArchivedFeedbackRepository archivedFeedbackRepository,
+                           ActionItemRepository actionItemRepository,
+                           FeedbackAnswerRepository feedbackAnswerRepository,
+                           SegmentArchiver segmentArchiver,
+                           ActivityCounterReconciler counterReconciler,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${feedback.retention.policy:}") String policy,
+                           @Value("${feedback.retention.chunk-size:1000}") int chunkSize,
+                           @Value("${feedback.retention.pause-ms:100}") long pauseMillis,
+                           @Value("${feedback.retention.max-rows-per-second:2000}") int maxRowsPerSecond) {
+        this.feedbackRepository = feedbackRepository;
+        this.archivedFeedbackRepository = archivedFeedbackRepository;
+        this.actionItemRepository = actionItemRepository;
+        this.feedbackAnswerRepository = feedbackAnswerRepository;
+        this.segmentArchiver = segmentArchiver;
+        this.counterReconciler = counterReconciler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.policy = RetentionPolicy.parse(policy);
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+
+        this.hotPurged = purgedCounter(meterRegistry, "hot");
+        this.archivePurged = purgedCounter(meterRegistry, "archive");
+        this.segmentPurged = purgedCounter(meterRegistry, "segments");
+        Gauge.builder("feedback.retention.rate", lastRate, AtomicLong::get)
+             .description("Rows per second deleted by the last retention run")
+             .register(meterRegistry);
+        Gauge.builder("feedback.retention.lag", lagSeconds, AtomicLong::get)
+             .description("How long the oldest expired row left in the database has been overdue")
+             .baseUnit("seconds")
+             .register(meterRegistry);
+    }
+
+    private static Counter purgedCounter(MeterRegistry registry, String tier) {
+        return Counter.builder("feedback.retention.purged")
+                .description("Feedback rows deleted by the retention policy")
+                .tag("tier", tier)
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${feedback.retention.interval-ms:3600000}",
+               fixedDelayString = "${feedback.retention.interval-ms:3600000}")
+    public void purgeOnSchedule() {
+        try {
+            purge();
+        } catch (Exception e) {
+            log.warn("Retention purge stopped early: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete everything that is currently past its retention
+     *
+     * @return number of feedback records deleted
+     */
+    public synchronized long purge() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RetentionPolicy.Rule> rules = policy.rules(now);
+        if (rules.isEmpty()) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        long hot = 0;
+        long archived = 0;
+        long segments = 0;
+        try {
+            for (RetentionPolicy.Rule rule : rules) {
+                Collection<String> except = rule.exceptCategories().isEmpty() ? NO_CATEGORIES : rule.exceptCategories();
+                archived += purgeTable(() -> archivedFeedbackRepository.findExpiredIds(rule.level(), rule.category(),
+                        except, rule.cutoff(), PageRequest.of(0, chunkSize)), this::deleteArchived);
+                hot += purgeTable(() -> feedbackRepository.findExpiredIds(rule.level(), rule.category(),
+                        except, rule.cutoff(), PageRequest.of(0, chunkSize)), this::deleteHot);
+            }
+            segments = purgeSegments(rules, now);
+        } finally {
+            long total = hot + archived + segments;
+            long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            lastRate.set(total * 1000 / millis);
+            lagSeconds.set(lag(rules));
+            if (total > 0) {
+                // Unread, open action item and wall counts may all have dropped
+                counterReconciler.reconcile();
+                log.info("Retention purge deleted {} feedback records ({} hot, {} archived, {} in segments) "
+                                + "in {} ms, {} rows/s, lag {} s", total, hot, archived, segments, millis,
+                        lastRate.get(), lagSeconds.get());
+            }
+        }
+        return hot + archived + segments;
+    }
+
+    private long purgeTable(Supplier<List<Long>> nextChunk, ToIntFunction<List<Long>> delete) {
+        long deleted = 0;
+        while (!stopped) {
+            long chunkStarted = System.nanoTime();
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> ids = nextChunk.get();
+                return ids.isEmpty() ? 0 : delete.applyAsInt(ids);
+            });
+            deleted += count;
+            if (count < chunkSize || !throttle(count, chunkStarted)) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private int deleteHot(List<Long> ids) {
+        actionItemRepository.deleteByFeedbackIdIn(ids);
+        feedbackAnswerRepository.deleteByFeedbackIdIn(ids);
+        int deleted = feedbackRepository.deleteByIdIn(ids);
+        hotPurged.increment(deleted);
+        return deleted;
+    }
+
+    private int deleteArchived(List<Long> ids) {
+        feedbackAnswerRepository.deleteByFeedbackIdIn(ids);
+        int deleted = archivedFeedbackRepository.deleteByIdIn(ids);
+        archivePurged.increment(deleted);
+        return deleted;
+    }
+
+    private long purgeSegments(List<RetentionPolicy.Rule> rules, LocalDateTime now) {
+        // Nothing created after the latest cutoff can be expired, so segments newer than that are skipped
+        LocalDateTime before = rules.stream().map(RetentionPolicy.Rule::cutoff)
+                .max(Comparator.naturalOrder()).orElse(now);
+        List<Long> removed = segmentArchiver.purge(before,
+                record -> policy.isExpired(record.privacyLevel(), record.category(), record.createdAt(), now));
+        for (int from = 0; from < removed.size(); from += chunkSize) {
+            List<Long> chunk = removed.subList(from, Math.min(from + chunkSize, removed.size()));
+            long chunkStarted = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> feedbackAnswerRepository.deleteByFeedbackIdIn(chunk));
+            if (!throttle(chunk.size(), chunkStarted)) {
+                break;
+            }
+        }
+        segmentPurged.increment(removed.size());
+        return removed.size();
+    }
+
+    /** Seconds the oldest expired row still in the database is past its cutoff */
+    private long lag(List<RetentionPolicy.Rule> rules) {
+        Duration worst = Duration.ZERO;
+        for (RetentionPolicy.Rule rule : rules) {
+            Collection<String> except = rule.exceptCategories().isEmpty() ? NO_CATEGORIES : rule.exceptCategories();
+            for (LocalDateTime oldest : new LocalDateTime[] {
+                    feedbackRepository.findOldestExpired(rule.level(), rule.category(), except, rule.cutoff()),
+                    archivedFeedbackRepository.findOldestExpired(rule.level(), rule.category(), except, rule.cutoff())}) {
+                if (oldest != null) {
+                    Duration overdue = Duration.between(oldest, rule.cutoff());
+                    worst = overdue.compareTo(worst) > 0 ? overdue : worst;
+                }
+            }
+        }
+        return worst.toSeconds();
+    }
+
+    /**
+     * Sleep after a chunk: at least the configured pause, and long enough overall to keep
+     * to the rate limit
+     *
+     * @return false if interrupted or stopped
+     */
+    private boolean throttle(int rows, long chunkStarted) {
+        long sleep = pauseMillis;
+        if (maxRowsPerSecond > 0) {
+            long budget = rows * 1000L / maxRowsPerSecond;
+            long spent = (System.nanoTime() - chunkStarted) / 1_000_000;
+            sleep = Math.max(sleep, budget - spent);
+        }
+        if (sleep > 0) {
+            try {
+                Thread.sleep(sleep);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return !stopped;
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+}
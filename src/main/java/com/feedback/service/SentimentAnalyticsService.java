@@ -0,0 +1,72 @@
+package com.feedback.service;
+
+import com.feedback.config.MetricsConfig;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.sentiment.SentimentScorer;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Average sentiment of received feedback per recipient department and month, added up
+ * from grouped sums of the feedback table and, for ranges past the hot horizon,
+ * {@code feedback_archive}. Feedback in segment files and feedback not scored yet
+ * are left out.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class SentimentAnalyticsService {
+
+    private final FeedbackRepository feedbackRepository;
+    private final ArchivedFeedbackRepository archivedFeedbackRepository;
+    private final FeedbackArchiver feedbackArchiver;
+
+    /** @param average from -1 (negative) to 1 (positive) */
+    public record DepartmentMonth(Long departmentId, YearMonth month, long scored, double average) {
+    }
+
+    @Autowired
+    public SentimentAnalyticsService(FeedbackRepository feedbackRepository,
+                                     ArchivedFeedbackRepository archivedFeedbackRepository,
+                                     FeedbackArchiver feedbackArchiver) {
+        this.feedbackRepository = feedbackRepository;
+        this.archivedFeedbackRepository = archivedFeedbackRepository;
+        this.feedbackArchiver = feedbackArchiver;
+    }
+
+    /** Newest month first; a null {@code since} means all time */
+    public List<DepartmentMonth> averageByDepartmentAndMonth(LocalDateTime since) {
+        Map<Key, long[]> sums = new HashMap<>();
+        add(sums, feedbackRepository.findSentimentBuckets(since));
+        if (feedbackArchiver.reachesArchive(since)) {
+            add(sums, archivedFeedbackRepository.findSentimentBuckets(since));
+        }
+        List<DepartmentMonth> result = new ArrayList<>(sums.size());
+        sums.forEach((key, sum) -> result.add(new DepartmentMonth(key.departmentId(), key.month(), sum[1],
+                (double) sum[0] / sum[1] / SentimentScorer.MAX)));
+        result.sort(Comparator.comparing(DepartmentMonth::month).reversed()
+                .thenComparing(DepartmentMonth::departmentId));
+        return result;
+    }
+
+    private static void add(Map<Key, long[]> sums, List<FeedbackRepository.SentimentBucket> buckets) {
+        for (FeedbackRepository.SentimentBucket bucket : buckets) {
+            long[] sum = sums.computeIfAbsent(new Key(bucket.getDepartmentId(),
+                    YearMonth.of(bucket.getYear(), bucket.getMonth())), key -> new long[2]);
+            sum[0] += bucket.getTotal();
+            sum[1] += bucket.getScored();
+        }
+    }
+
+    private record Key(Long departmentId, YearMonth month) {
+    }
+}
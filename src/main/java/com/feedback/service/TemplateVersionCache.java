@@ -0,0 +1,94 @@
+package com.feedback.service;
+
+import com.feedback.model.FeedbackTemplateVersion;
+import com.feedback.repository.FeedbackTemplateVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process cache of template versions by id, plus the list of published versions the
+ * feedback form offers. Versions are immutable, so a cached entry never goes stale;
+ * only the published list changes, and {@link FeedbackTemplateService} updates it on
+ * every template write. After warm-up the form never reads templates from the DB.
+ */
+@Component
+public class TemplateVersionCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(TemplateVersionCache.class);
+    
+    private static final Comparator<FeedbackTemplateVersion> BY_NAME =
+            Comparator.comparing(FeedbackTemplateVersion::getName, String.CASE_INSENSITIVE_ORDER);
+    
+    private final FeedbackTemplateVersionRepository versionRepository;
+    
+    private final Map<Long, FeedbackTemplateVersion> versions = new ConcurrentHashMap<>();
+    // template id -> its published version, for active templates only
+    private final Map<Long, FeedbackTemplateVersion> published = new ConcurrentHashMap<>();
+    private volatile List<FeedbackTemplateVersion> publishedSorted = List.of();
+    
+    @Autowired
+    public TemplateVersionCache(FeedbackTemplateVersionRepository versionRepository) {
+        this.versionRepository = versionRepository;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        published.clear();
+        for (FeedbackTemplateVersion version : versionRepository.findPublishedVersions()) {
+            versions.put(version.getId(), version);
+            published.put(version.getTemplateId(), version);
+        }
+        publishedSorted = sorted();
+        log.info("Template cache loaded {} published templates", published.size());
+    }
+    
+    public List<FeedbackTemplateVersion> publishedVersions() {
+        return publishedSorted;
+    }
+    
+    /** Any version, published or historical; loaded once on first use */
+    public Optional<FeedbackTemplateVersion> get(Long versionId) {
+        if (versionId == null) {
+            return Optional.empty();
+        }
+        FeedbackTemplateVersion cached = versions.get(versionId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<FeedbackTemplateVersion> loaded = versionRepository.findById(versionId);
+        loaded.ifPresent(version -> versions.put(versionId, version));
+        return loaded;
+    }
+    
+    /** The template now publishes this version, or nothing if it is inactive */
+    public synchronized void publish(Long templateId, FeedbackTemplateVersion version, boolean active) {
+        if (version != null) {
+            versions.put(version.getId(), version);
+        }
+        if (active && version != null) {
+            published.put(templateId, version);
+        } else {
+            published.remove(templateId);
+        }
+        publishedSorted = sorted();
+    }
+    
+    public synchronized void unpublish(Long templateId) {
+        published.remove(templateId);
+        publishedSorted = sorted();
+    }
+    
+    private List<FeedbackTemplateVersion> sorted() {
+        return published.values().stream().sorted(BY_NAME).toList();
+    }
+}
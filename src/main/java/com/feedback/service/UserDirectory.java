@@ -0,0 +1,219 @@
+package com.feedback.service;
+
+import com.feedback.model.User;
+import com.feedback.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index over user names, usernames and emails, so pickers can search
+ * the directory without loading it. Every word of a name, the username, the full email
+ * and its local part are indexed as tokens in a sorted map; a prefix lookup is a
+ * {@code subMap} range scan over that map.
+ *
+ * Only a few strings per user are kept, not entities. {@link UserService} calls
+ * {@link #put} and {@link #remove} on every write so the index stays in sync.
+ */
+@Component
+public class UserDirectory {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserDirectory.class);
+    
+    private final UserRepository userRepository;
+    
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> tokens = new ConcurrentSkipListMap<>();
+    // "full name \0 id" -> id, for listing in name order when there is no filter
+    private final ConcurrentSkipListMap<String, Long> byName = new ConcurrentSkipListMap<>();
+    
+    @Autowired
+    public UserDirectory(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * (Re)build the index from the users table. Safe to call again while searches run,
+     * e.g. after a bulk import: rows are put over the existing entries and users that are
+     * no longer in the table are removed afterwards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Set<Long> loaded = new HashSet<>();
+        for (UserRepository.DirectoryRow row : userRepository.findDirectoryRows()) {
+            put(new Entry(row.getId(), row.getFirstName(), row.getLastName(),
+                    row.getUsername(), row.getEmail(), row.isActive()));
+            loaded.add(row.getId());
+        }
+        for (Long id : entries.keySet()) {
+            if (!loaded.contains(id)) {
+                remove(id);
+            }
+        }
+        log.info("User directory indexed {} users", entries.size());
+    }
+    
+    public void put(User user) {
+        if (user != null && user.getId() != null) {
+            put(new Entry(user.getId(), user.getFirstName(), user.getLastName(),
+                    user.getUsername(), user.getEmail(), user.isActive()));
+        }
+    }
+    
+    // Writes are rare (admin edits), so they are serialized; searches never lock
+    public synchronized void remove(Long userId) {
+        Entry previous = entries.remove(userId);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+    
+    private synchronized void put(Entry entry) {
+        Entry previous = entries.put(entry.id, entry);
+        if (previous != null) {
+            unindex(previous);
+        }
+        for (String token : entry.tokens) {
+            tokens.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(entry.id);
+        }
+        byName.put(entry.nameKey, entry.id);
+    }
+    
+    private void unindex(Entry entry) {
+        for (String token : entry.tokens) {
+            tokens.computeIfPresent(token, (t, ids) -> {
+                ids.remove(entry.id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        byName.remove(entry.nameKey);
+    }
+    
+    /**
+     * Ids of active users matching every word of the filter as a prefix of a name,
+     * username or email, ordered by name. An empty filter lists everyone by name.
+     *
+     * @param excludeId user to leave out (typically the current user), may be null
+     */
+    public List<Long> search(String filter, Long excludeId, int offset, int limit) {
+        String[] terms = normalize(filter).split("\\s+");
+        List<Long> result = new ArrayList<>(limit);
+        
+        if (terms[0].isEmpty()) {
+            int skipped = 0;
+            for (Long id : byName.values()) {
+                if (!isCandidate(entries.get(id), excludeId)) {
+                    continue;
+                }
+                if (skipped++ < offset) {
+                    continue;
+                }
+                result.add(id);
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+            return result;
+        }
+        
+        // Scan the range of the longest term, it is the most selective one
+        String longest = terms[0];
+        for (String term : terms) {
+            if (term.length() > longest.length()) {
+                longest = term;
+            }
+        }
+        Set<Long> candidates = new HashSet<>();
+        for (Set<Long> ids : prefixRange(longest).values()) {
+            candidates.addAll(ids);
+        }
+        
+        List<Entry> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            Entry entry = entries.get(id);
+            if (isCandidate(entry, excludeId) && entry.matchesAll(terms)) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator.comparing(entry -> entry.nameKey));
+        for (int i = offset; i < matches.size() && result.size() < limit; i++) {
+            result.add(matches.get(i).id);
+        }
+        return result;
+    }
+    
+    private NavigableMap<String, Set<Long>> prefixRange(String prefix) {
+        return tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+    
+    private static boolean isCandidate(Entry entry, Long excludeId) {
+        return entry != null && entry.active && !entry.id.equals(excludeId);
+    }
+    
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static final class Entry {
+        final Long id;
+        final boolean active;
+        final String nameKey;
+        final Set<String> tokens = new HashSet<>();
+        
+        Entry(Long id, String firstName, String lastName, String username, String email, boolean active) {
+            this.id = id;
+            this.active = active;
+            String fullName = normalize(normalize(firstName) + " " + normalize(lastName));
+            this.nameKey = fullName + '\0' + id;
+            addWords(fullName);
+            addToken(normalize(username));
+            String mail = normalize(email);
+            addToken(mail);
+            int at = mail.indexOf('@');
+            if (at > 0) {
+                addToken(mail.substring(0, at));
+            }
+        }
+        
+        private void addWords(String text) {
+            for (String word : text.split("\\s+")) {
+                addToken(word);
+            }
+        }
+        
+        private void addToken(String token) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        
+        boolean matchesAll(String[] terms) {
+            for (String term : terms) {
+                boolean found = false;
+                for (String token : tokens) {
+                    if (token.startsWith(term)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.feedback.service;
+
+import com.feedback.archive.ArchiveRecord;
+import com.feedback.archive.SegmentArchiver;
+import com.feedback.dedup.NearDuplicateIndex;
+import com.feedback.model.FeedbackAnswer;
+import com.feedback.model.User;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackAnswerRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Erases a user (right to erasure). Everything that points at them, in every tier, is
+ * re-pointed at one shared tombstone user, their name is scrubbed from the text
+ * involved, and finally the user row is deleted and every in-memory trace dropped.
+ *
+ * Work is streamed in batches of {@code batch-size} rows, each batch one short
+ * transaction of set-based updates, so a user with 100k references never holds locks
+ * for long. A batch's rows drop out of the "still references the user" query once
+ * they are re-pointed, so each step just reads its first page until it is empty, and
+ * an interrupted erasure can simply be run again.
+ *
+ * Text the user wrote or received has all of their names removed; other feedback has
+ * only the full name, username and email removed (see {@link NameScrubber}). That
+ * mention scan is a substring match no index can serve, so it is bounded in time: it
+ * covers feedback created since the account was, and no further back than
+ * {@code mention-window-days} (0 for no limit). It starts at the first id in the window
+ * and walks the primary key from there. Archive segments are only rewritten where a
+ * block's bloom filter may hold the user or the segment reaches into that window.
+ */
+@Component
+public class UserEraser {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEraser.class);
+
+    static final String TOMBSTONE_USERNAME = "erased-user";
+    private static final String TOMBSTONE_EMAIL = "erased-user@invalid";
+    // Mention scan bound for accounts without a creation time and no window
+    private static final LocalDateTime NO_LOWER_BOUND = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Scrubbed text is written back with JDBC batches, one round trip per batch instead of per row
+    private static final String UPDATE_FEEDBACK_CONTENT =
+            "UPDATE feedback SET content = ?, version = version + 1 WHERE id = ?";
+    private static final String UPDATE_ARCHIVE_CONTENT = "UPDATE feedback_archive SET content = ? WHERE id = ?";
+    private static final String UPDATE_ITEM_TEXT =
+            "UPDATE action_item SET title = ?, description = ?, version = version + 1 WHERE id = ?";
+
+    private final UserRepository userRepository;
+    private final FeedbackRepository feedbackRepository;
+    private final ArchivedFeedbackRepository archivedFeedbackRepository;
+    private final ActionItemRepository actionItemRepository;
+    private final FeedbackAnswerRepository feedbackAnswerRepository;
+    private final SegmentArchiver segmentArchiver;
+    private final ReadReceiptBuffer readReceiptBuffer;
+    private final UserDirectory userDirectory;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final ActivityCounterService activityCounterService;
+    private final ActivityCounterReconciler counterReconciler;
+    private final RatingAnalyticsService ratingAnalyticsService;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int mentionWindowDays;
+
+    @Autowired
+    public UserEraser(UserRepository userRepository,
+                      FeedbackRepository feedbackRepository,
+                      ArchivedFeedbackRepository archivedFeedbackRepository,
+                      ActionItemRepository actionItemRepository,
+                      FeedbackAnswerRepository feedbackAnswerRepository,
+                      SegmentArchiver segmentArchiver,
+                      ReadReceiptBuffer readReceiptBuffer,
+                      UserDirectory userDirectory,
+                      NearDuplicateIndex nearDuplicateIndex,
+                      ActivityCounterService activityCounterService,
+                      ActivityCounterReconciler counterReconciler,
+                      RatingAnalyticsService ratingAnalyticsService,
+                      PasswordEncoder passwordEncoder,
+                      JdbcTemplate jdbcTemplate,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${feedback.erasure.batch-size:1000}") int batchSize,
+                      @Value("${feedback.erasure.mention-window-days:365}") int mentionWindowDays) {
+        this.userRepository = userRepository;
+        this.feedbackRepository = feedbackRepository;
+        this.archivedFeedbackRepository = archivedFeedbackRepository;
+        this.actionItemRepository = actionItemRepository;
+        this.feedbackAnswerRepository = feedbackAnswerRepository;
+        this.segmentArchiver = segmentArchiver;
+        this.readReceiptBuffer = readReceiptBuffer;
+        this.userDirectory = userDirectory;
+        this.nearDuplicateIndex = nearDuplicateIndex;
+        this.activityCounterService = activityCounterService;
+        this.counterReconciler = counterReconciler;
+        this.ratingAnalyticsService = ratingAnalyticsService;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.mentionWindowDays = mentionWindowDays;
+    }
+
+    /**
+     * Erase the user and delete their account
+     *
+     * @param progress called after every batch with the step name and rows done in that step
+     * @return what was changed, or empty counts if there is no such user
+     * @throws IllegalArgumentException for the tombstone user itself
+     */
+    public synchronized ErasureReport erase(Long userId, BiConsumer<String, Long> progress) {
+        long started = System.nanoTime();
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return new ErasureReport(userId, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        if (TOMBSTONE_USERNAME.equals(user.getUsername())) {
+            throw new IllegalArgumentException("The tombstone user cannot be erased");
+        }
+        User tombstone = tombstone();
+
+        // No new sign-ins or picker results while the references are moved
+        userDirectory.remove(userId);
+        user.setActive(false);
+        userRepository.save(user);
+        readReceiptBuffer.flush(userId);
+
+        NameScrubber allNames = NameScrubber.forAllNames(user);
+        NameScrubber uniqueNames = NameScrubber.forUniqueNames(user);
+        LocalDateTime mentionsSince = mentionsSince(user);
+        long[] scrubbed = new long[1];
+
+        long feedback = step("feedback", progress,
+                () -> feedbackRepository.findContentReferencingUser(userId, page()),
+                batch -> {
+                    List<Long> ids = batch.stream().map(FeedbackRepository.IdContent::getId).toList();
+                    scrubbed[0] += scrubContent(batch, allNames, UPDATE_FEEDBACK_CONTENT);
+                    scrubbed[0] += scrubAttachedText(ids, allNames);
+                    feedbackRepository.replaceSender(ids, user, tombstone);
+                    feedbackRepository.replaceRecipient(ids, user, tombstone);
+                    return ids.size();
+                });
+
+        long archived = step("archived feedback", progress,
+                () -> archivedFeedbackRepository.findContentReferencingUser(userId, page()),
+                batch -> {
+                    List<Long> ids = batch.stream().map(FeedbackRepository.IdContent::getId).toList();
+                    scrubbed[0] += scrubContent(batch, allNames, UPDATE_ARCHIVE_CONTENT);
+                    scrubbed[0] += scrubAttachedText(ids, allNames);
+                    archivedFeedbackRepository.replaceUser(ids, userId, tombstone.getId());
+                    return ids.size();
+                });
+
+        long actionItems = step("action items", progress,
+                () -> actionItemRepository.findTextReferencingUser(userId, page()),
+                batch -> {
+                    List<Long> ids = batch.stream().map(ActionItemRepository.ItemText::getId).toList();
+                    scrubbed[0] += scrubItems(batch, allNames);
+                    actionItemRepository.replaceAssignee(ids, user, tombstone);
+                    actionItemRepository.replaceCreator(ids, user, tombstone);
+                    return ids.size();
+                });
+
+        long answers = step("answers", progress,
+                () -> feedbackAnswerRepository.findIdsByManagerId(userId, page()),
+                batch -> feedbackAnswerRepository.updateManagerId(batch, tombstone.getId()));
+
+        scrubbed[0] += scrubMentions(user, uniqueNames, mentionsSince, progress);
+
+        long[] segmentRecords = new long[1];
+        int segmentChanges = segmentArchiver.rewriteForErasure(userId, mentionsSince, record -> {
+            if (record.involves(userId)) {
+                segmentRecords[0]++;
+            }
+            return eraseFromRecord(record, userId, tombstone.getId(), allNames, uniqueNames, mentionsSince);
+        });
+        progress.accept("archive segments", (long) segmentChanges);
+
+        long reports = transactionTemplate.execute(status -> {
+            int moved = userRepository.reassignReports(user, user.getManager());
+            userRepository.deleteById(userId);
+            return (long) moved;
+        });
+
+        activityCounterService.forgetUser(userId);
+        nearDuplicateIndex.remove(userId);
+        ratingAnalyticsService.evictAll();
+        counterReconciler.reconcile();
+
+        ErasureReport report = new ErasureReport(userId, feedback, archived, segmentRecords[0], actionItems, answers,
+                reports, scrubbed[0], (System.nanoTime() - started) / 1_000_000);
+        log.info("Erased user {}: {} references moved to the tombstone user ({} feedback, {} archived, "
+                        + "{} in segments, {} action items, {} answers, {} reports), {} texts scrubbed, {} ms",
+                userId, report.total(), feedback, archived, segmentRecords[0], actionItems, answers, reports,
+                scrubbed[0], report.millis());
+        return report;
+    }
+
+    /** The shared user erased users are replaced with; created on first use */
+    public User tombstone() {
+        return transactionTemplate.execute(status -> userRepository.findByUsername(TOMBSTONE_USERNAME)
+                .orElseGet(() -> {
+                    User user = new User(TOMBSTONE_USERNAME, "Former", "employee", TOMBSTONE_EMAIL,
+                            passwordEncoder.encode(UUID.randomUUID().toString()));
+                    user.setActive(false);
+                    user.setCreatedAt(LocalDateTime.now());
+                    return userRepository.save(user);
+                }));
+    }
+
+    /** Start of the mention scan: the later of the account's creation and the window */
+    private LocalDateTime mentionsSince(User user) {
+        LocalDateTime since = user.getCreatedAt() != null ? user.getCreatedAt() : NO_LOWER_BOUND;
+        if (mentionWindowDays > 0) {
+            LocalDateTime windowStart = LocalDateTime.now().minusDays(mentionWindowDays);
+            since = since.isAfter(windowStart) ? since : windowStart;
+        }
+        return since;
+    }
+
+    private PageRequest page() {
+        return PageRequest.of(0, batchSize);
+    }
+
+    /** Run batches until the source is empty, each in its own transaction */
+    private <T> long step(String name, BiConsumer<String, Long> progress, Supplier<List<T>> nextBatch,
+                          ToIntFunction<List<T>> apply) {
+        long done = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<T> batch = nextBatch.get();
+                return batch.isEmpty() ? 0 : apply.applyAsInt(batch);
+            });
+            if (count == 0) {
+                break;
+            }
+            done += count;
+            progress.accept(name, done);
+            log.debug("Erasure {}: {} rows", name, done);
+        }
+        return done;
+    }
+
+    /** Scrub the rows' content and write back the ones that changed in one JDBC batch */
+    private int scrubContent(List<FeedbackRepository.IdContent> rows, NameScrubber scrubber, String update) {
+        List<Object[]> changed = new ArrayList<>();
+        for (FeedbackRepository.IdContent row : rows) {
+            String content = scrubber.scrub(row.getContent());
+            if (content != row.getContent()) {
+                changed.add(new Object[] {content, row.getId()});
+            }
+        }
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate(update, changed);
+        }
+        return changed.size();
+    }
+
+    private int scrubItems(List<ActionItemRepository.ItemText> items, NameScrubber scrubber) {
+        List<Object[]> changed = new ArrayList<>();
+        for (ActionItemRepository.ItemText item : items) {
+            String title = scrubber.scrub(item.getTitle());
+            String description = scrubber.scrub(item.getDescription());
+            if (title != item.getTitle() || description != item.getDescription()) {
+                changed.add(new Object[] {title, description, item.getId()});
+            }
+        }
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_ITEM_TEXT, changed);
+        }
+        return changed.size();
+    }
+
+    /** Action items and template answers that belong to the given feedback */
+    private int scrubAttachedText(List<Long> feedbackIds, NameScrubber scrubber) {
+        int scrubbed = scrubItems(actionItemRepository.findTextByFeedbackIdIn(feedbackIds), scrubber);
+        // Managed entities; the changes are flushed with the batch
+        for (FeedbackAnswer answer : feedbackAnswerRepository.findByFeedbackIdInAndTextIsNotNull(feedbackIds)) {
+            String text = scrubber.scrub(answer.getText());
+            if (text != answer.getText()) {
+                answer.setText(text);
+                scrubbed++;
+            }
+        }
+        return scrubbed;
+    }
+
+    /** Feedback between other people created since {@code since} that mentions the user, hot and archived */
+    private long scrubMentions(User user, NameScrubber scrubber, LocalDateTime since,
+                               BiConsumer<String, Long> progress) {
+        // The LIKE terms only narrow the scan down; the scrubber decides what actually matches
+        String name = user.getFirstName() != null && user.getLastName() != null
+                ? likeTerm(user.getFirstName().strip() + " " + user.getLastName().strip()) : null;
+        String username = likeTerm(user.getUsername());
+        String email = likeTerm(user.getEmail());
+        long scrubbed = 0;
+        for (boolean archive : new boolean[] {false, true}) {
+            Long firstId = archive ? archivedFeedbackRepository.findFirstIdCreatedSince(since)
+                    : feedbackRepository.findFirstIdCreatedSince(since);
+            if (firstId == null) {
+                continue;
+            }
+            long afterId = firstId - 1;
+            while (true) {
+                long from = afterId;
+                long[] result = transactionTemplate.execute(status -> {
+                    List<FeedbackRepository.IdContent> rows = archive
+                            ? archivedFeedbackRepository.findContentMentioning(from, since, name, username, email, page())
+                            : feedbackRepository.findContentMentioning(from, since, name, username, email, page());
+                    long changed = scrubContent(rows, scrubber, archive ? UPDATE_ARCHIVE_CONTENT : UPDATE_FEEDBACK_CONTENT);
+                    // rows read, last id, rows changed
+                    return new long[] {rows.size(), rows.isEmpty() ? from : rows.get(rows.size() - 1).getId(), changed};
+                });
+                scrubbed += result[2];
+                afterId = result[1];
+                if (result[0] < batchSize) {
+                    break;
+                }
+            }
+        }
+        progress.accept("mentions", scrubbed);
+        return scrubbed;
+    }
+
+    private static ArchiveRecord eraseFromRecord(ArchiveRecord record, Long userId, Long tombstoneId,
+                                                 NameScrubber allNames, NameScrubber uniqueNames,
+                                                 LocalDateTime mentionsSince) {
+        boolean involved = record.involves(userId) || record.actionItems().stream()
+                .anyMatch(item -> userId.equals(item.assignedToId()) || userId.equals(item.createdById()));
+        if (!involved && (record.createdAt() == null || record.createdAt().isBefore(mentionsSince))) {
+            return record;
+        }
+        NameScrubber scrubber = involved ? allNames : uniqueNames;
+        List<ArchiveRecord.ActionItemRecord> items = new ArrayList<>(record.actionItems().size());
+        for (ArchiveRecord.ActionItemRecord item : record.actionItems()) {
+            items.add(new ArchiveRecord.ActionItemRecord(item.id(),
+                    replace(item.assignedToId(), userId, tombstoneId), replace(item.createdById(), userId, tombstoneId),
+                    scrubber.scrub(item.title()), scrubber.scrub(item.description()), item.dueDate(),
+                    item.createdAt(), item.completedAt(), item.status(), item.priority()));
+        }
+        return new ArchiveRecord(record.id(), replace(record.senderId(), userId, tombstoneId),
+                replace(record.recipientId(), userId, tombstoneId), scrubber.scrub(record.content()),
+                record.createdAt(), record.privacyLevel(), record.category(), record.read(), record.status(),
+                record.templateVersionId(), record.sentiment(), record.duplicateOfId(), List.copyOf(items));
+    }
+
+    private static Long replace(Long id, Long userId, Long tombstoneId) {
+        return Objects.equals(id, userId) ? tombstoneId : id;
+    }
+
+    private static String likeTerm(String term) {
+        return term != null && !term.isBlank() ? "%" + term.strip().toLowerCase(Locale.ROOT) + "%" : null;
+    }
+}
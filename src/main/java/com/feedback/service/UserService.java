@@ -1,42 +1,80 @@
 package com.feedback.service;
 
+import com.feedback.config.MetricsConfig;
 import com.feedback.model.Department;
 import com.feedback.model.Role;
 import com.feedback.model.User;
 import com.feedback.repository.DepartmentRepository;
 import com.feedback.repository.RoleRepository;
 import com.feedback.repository.UserRepository;
+import com.feedback.repository.UserSpecifications;
+import com.feedback.repository.UserSummary;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserService {
     
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final DepartmentRepository departmentRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDirectory userDirectory;
+    private final UserEraser userEraser;
     
     @Autowired
     public UserService(UserRepository userRepository, 
                       RoleRepository roleRepository,
                       DepartmentRepository departmentRepository,
-                      PasswordEncoder passwordEncoder) {
+                      PasswordEncoder passwordEncoder,
+                      UserDirectory userDirectory,
+                      UserEraser userEraser) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.departmentRepository = departmentRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDirectory = userDirectory;
+        this.userEraser = userEraser;
     }
     
     public List<User> findAllUsers() {
         return userRepository.findAll();
     }
     
+    /**
+     * One window of the user administration list, filtered and sorted in the database.
+     * Any filter argument may be null to leave it out.
+     */
+    public List<UserSummary> findUserSummaries(String nameOrEmailPrefix, Role role, Department department,
+                                               Boolean active, int offset, int limit, Sort sort) {
+        return userRepository.findSummaries(userFilter(nameOrEmailPrefix, role, department, active),
+                offset, limit, sort);
+    }
+    
+    public long countUsers(String nameOrEmailPrefix, Role role, Department department, Boolean active) {
+        return userRepository.count(userFilter(nameOrEmailPrefix, role, department, active));
+    }
+    
+    private static Specification<User> userFilter(String nameOrEmailPrefix, Role role, Department department,
+                                                  Boolean active) {
+        return Specification.where(UserSpecifications.nameOrEmailStartsWith(nameOrEmailPrefix))
+                .and(UserSpecifications.hasRole(role != null ? role.getId() : null))
+                .and(UserSpecifications.inDepartment(department != null ? department.getId() : null))
+                .and(UserSpecifications.isActive(active));
+    }
+    
     public List<User> findActiveUsers() {
         return userRepository.findByIsActiveTrue();
     }
@@ -87,14 +125,18 @@ public class UserService {
         user.setActive(true);
         user.setCreatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDirectory.put(saved);
+        return saved;
     }
     
     /**
      * Update existing user (without changing password)
      */
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDirectory.put(saved);
+        return saved;
     }
     
     /**
@@ -112,7 +154,7 @@ public class UserService {
     public void deactivateUser(Long id) {
         userRepository.findById(id).ifPresent(user -> {
             user.setActive(false);
-            userRepository.save(user);
+            userDirectory.put(userRepository.save(user));
         });
     }
     
@@ -122,15 +164,16 @@ public class UserService {
     public void reactivateUser(Long id) {
         userRepository.findById(id).ifPresent(user -> {
             user.setActive(true);
-            userRepository.save(user);
+            userDirectory.put(userRepository.save(user));
         });
     }
     
     /**
-     * Hard delete user (use with caution)
+     * Hard delete user (use with caution). Their feedback and action items are kept but
+     * moved to the tombstone user and their name is scrubbed; see {@link UserEraser}.
      */
-    public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+    public ErasureReport deleteUser(Long id) {
+        return userEraser.erase(id, (step, rows) -> { });
     }
     
     /**
@@ -213,17 +256,33 @@ public class UserService {
                 superAdmin.setActive(true);
                 superAdmin.setCreatedAt(LocalDateTime.now());
                 
-                userRepository.save(superAdmin);
+                userDirectory.put(userRepository.save(superAdmin));
             }
         }
     }
     
     /**
-     * Get users that current user can give feedback to (exclude self)
+     * One page of active users matching the filter, for lazy pickers. Matching runs
+     * against the in-memory directory; only the users on the page are loaded.
+     *
+     * @param excludeUserId user to leave out, e.g. self when picking a feedback recipient
      */
-    public List<User> getUsersForFeedback(User currentUser) {
-        return userRepository.findByIsActiveTrue().stream()
-                .filter(user -> !user.getId().equals(currentUser.getId()))
-                .toList();
+    public List<User> searchActiveUsers(String filter, Long excludeUserId, int offset, int limit) {
+        List<Long> ids = userDirectory.search(filter, excludeUserId, offset, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> loaded = new HashMap<>();
+        for (User user : userRepository.findAllById(ids)) {
+            loaded.put(user.getId(), user);
+        }
+        List<User> page = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = loaded.get(id);
+            if (user != null) {
+                page.add(user);
+            }
+        }
+        return page;
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.feedback.ui;
+
+import com.feedback.service.ActivityCounterService;
+import com.feedback.service.ActivityCounts;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.Registration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Pushes badge counts to open UIs. Subscriptions are grouped per user; on each tick
+ * only users whose counts changed are looked at, counts come from the in-memory
+ * {@link ActivityCounterService} (no DB query), and a UI is only pushed to when its
+ * snapshot differs from the last one it received. Ticking on a fixed delay also
+ * debounces bursts of changes into a single push.
+ */
+@Component
+public class ActivityBadgeBroadcaster {
+    
+    private final ActivityCounterService activityCounterService;
+    
+    private final ConcurrentHashMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public ActivityBadgeBroadcaster(ActivityCounterService activityCounterService) {
+        this.activityCounterService = activityCounterService;
+    }
+    
+    /**
+     * Subscribe a UI to a user's counts. The listener is called right away with the
+     * current counts and then from {@link UI#access} whenever they change.
+     */
+    public Registration subscribe(Long userId, UI ui, Consumer<ActivityCounts> listener) {
+        ActivityCounts initial = activityCounterService.countsFor(userId);
+        Subscription subscription = new Subscription(ui, listener, initial);
+        subscriptions.compute(userId, (id, set) -> {
+            Set<Subscription> result = set != null ? set : ConcurrentHashMap.newKeySet();
+            result.add(subscription);
+            return result;
+        });
+        listener.accept(initial);
+        
+        return () -> subscriptions.computeIfPresent(userId, (id, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${feedback.badges.debounce-ms:1000}")
+    public void publish() {
+        // Always drain, even with nobody subscribed, so stale changes don't pile up
+        boolean allChanged = activityCounterService.drainAllChanged();
+        Collection<Long> changed = activityCounterService.drainChangedUsers();
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        
+        Collection<Long> userIds = allChanged ? new ArrayList<>(subscriptions.keySet()) : changed;
+        for (Long userId : userIds) {
+            Set<Subscription> userSubscriptions = subscriptions.get(userId);
+            if (userSubscriptions == null) {
+                continue;
+            }
+            ActivityCounts counts = activityCounterService.countsFor(userId);
+            for (Subscription subscription : userSubscriptions) {
+                subscription.offer(counts);
+            }
+        }
+    }
+    
+    private static class Subscription {
+        private final UI ui;
+        private final Consumer<ActivityCounts> listener;
+        // Only touched by the publishing thread after construction
+        private ActivityCounts lastSent;
+        
+        Subscription(UI ui, Consumer<ActivityCounts> listener, ActivityCounts initial) {
+            this.ui = ui;
+            this.listener = listener;
+            this.lastSent = initial;
+        }
+        
+        void offer(ActivityCounts counts) {
+            if (counts.equals(lastSent)) {
+                return;
+            }
+            lastSent = counts;
+            try {
+                ui.access(() -> listener.accept(counts));
+            } catch (UIDetachedException e) {
+                // UI went away before onDetach unsubscribed it; nothing to update
+            }
+        }
+    }
+}
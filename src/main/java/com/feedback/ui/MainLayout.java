@@ -1,5 +1,6 @@
 package com.feedback.ui;
 
+import com.feedback.service.ActivityCounts;
 import com.feedback.service.AuthenticationService;
 import com.feedback.ui.profile.ProfileView;
 import com.feedback.ui.views.actionitems.ActionItemView;
@@ -10,6 +11,8 @@ import com.feedback.ui.views.feedback.FeedbackFormView;
 import com.feedback.ui.views.feedback.FeedbackListView;
 import com.feedback.ui.views.templates.TemplateView;
 import com.feedback.ui.views.users.UserView;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.applayout.AppLayout;
 import com.vaadin.flow.component.applayout.DrawerToggle;
@@ -25,6 +28,7 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.sidenav.SideNav;
 import com.vaadin.flow.component.sidenav.SideNavItem;
 import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 
 /**
@@ -33,12 +37,39 @@ import com.vaadin.flow.theme.lumo.LumoUtility;
 public class MainLayout extends AppLayout {
 
     private final AuthenticationService authenticationService;
+    private final ActivityBadgeBroadcaster badgeBroadcaster;
     
-    public MainLayout(AuthenticationService authenticationService) {
+    // Side-nav count badges, kept up to date through badgeBroadcaster
+    private final Span unreadFeedbackBadge = createBadge();
+    private final Span openActionItemsBadge = createBadge();
+    private final Span newWallPostsBadge = createBadge();
+    private ActivityCounts shownCounts;
+    private Registration badgeRegistration;
+    
+    public MainLayout(AuthenticationService authenticationService, ActivityBadgeBroadcaster badgeBroadcaster) {
         this.authenticationService = authenticationService;
+        this.badgeBroadcaster = badgeBroadcaster;
         createHeader();
         createDrawer();
     }
+    
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        com.feedback.model.User currentUser = authenticationService.getCurrentUser();
+        if (currentUser != null) {
+            badgeRegistration = badgeBroadcaster.subscribe(currentUser.getId(), attachEvent.getUI(), this::updateBadges);
+        }
+    }
+    
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (badgeRegistration != null) {
+            badgeRegistration.remove();
+            badgeRegistration = null;
+        }
+        super.onDetach(detachEvent);
+    }
 
     private void createHeader() {
         H1 logo = new H1("Feedback System");
@@ -98,15 +129,20 @@ public class MainLayout extends AppLayout {
             // Main navigation items for all users
             nav.addItem(new SideNavItem("Dashboard", DashboardView.class, VaadinIcon.DASHBOARD.create()));
             nav.addItem(new SideNavItem("Give Feedback", FeedbackFormView.class, VaadinIcon.EDIT.create()));
-            nav.addItem(new SideNavItem("My Feedback", FeedbackListView.class, VaadinIcon.LIST.create()));
+            SideNavItem feedbackItem = new SideNavItem("My Feedback", FeedbackListView.class, VaadinIcon.LIST.create());
+            feedbackItem.setSuffixComponent(unreadFeedbackBadge);
+            nav.addItem(feedbackItem);
             
             // NEW: Wall of Appreciation - visible to all authenticated users
             SideNavItem wallItem = new SideNavItem("Wall of Appreciation", WallOfAppreciationView.class, VaadinIcon.HEART.create());
             // Add some special styling to make it stand out
             wallItem.getElement().getStyle().set("--lumo-primary-color", "#e91e63");
+            wallItem.setSuffixComponent(newWallPostsBadge);
             nav.addItem(wallItem);
             
-            nav.addItem(new SideNavItem("Action Items", ActionItemView.class, VaadinIcon.TASKS.create()));
+            SideNavItem actionItemsItem = new SideNavItem("Action Items", ActionItemView.class, VaadinIcon.TASKS.create());
+            actionItemsItem.setSuffixComponent(openActionItemsBadge);
+            nav.addItem(actionItemsItem);
             nav.addItem(new SideNavItem("Analytics", AnalyticsView.class, VaadinIcon.CHART.create()));
             nav.addItem(new SideNavItem("My Profile", ProfileView.class, VaadinIcon.USER.create()));
             
@@ -131,4 +167,37 @@ public class MainLayout extends AppLayout {
 
         addToDrawer(nav);
     }
-}
\ No newline at end of file
+
+    private static Span createBadge() {
+        Span badge = new Span();
+        badge.addClassNames(
+            LumoUtility.Background.PRIMARY,
+            LumoUtility.TextColor.PRIMARY_CONTRAST,
+            LumoUtility.BorderRadius.LARGE,
+            LumoUtility.FontSize.XSMALL,
+            LumoUtility.FontWeight.SEMIBOLD,
+            LumoUtility.Padding.Horizontal.SMALL
+        );
+        badge.setVisible(false);
+        return badge;
+    }
+    
+    // Only touch the badges whose count actually changed
+    private void updateBadges(ActivityCounts counts) {
+        if (shownCounts == null || shownCounts.unreadFeedback() != counts.unreadFeedback()) {
+            showCount(unreadFeedbackBadge, counts.unreadFeedback());
+        }
+        if (shownCounts == null || shownCounts.openActionItems() != counts.openActionItems()) {
+            showCount(openActionItemsBadge, counts.openActionItems());
+        }
+        if (shownCounts == null || shownCounts.newWallPosts() != counts.newWallPosts()) {
+            showCount(newWallPostsBadge, counts.newWallPosts());
+        }
+        shownCounts = counts;
+    }
+    
+    private static void showCount(Span badge, long count) {
+        badge.setText(count > 99 ? "99+" : String.valueOf(count));
+        badge.setVisible(count > 0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.feedback.ui;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+/**
+ * Grey placeholder block shown where content will appear once a background load
+ * finishes, so the page has its final shape straight away.
+ */
+public class Skeleton extends Div {
+    
+    public Skeleton(String width, String height) {
+        setWidth(width);
+        setHeight(height);
+        addClassName("skeleton");
+        getStyle()
+                .set("background-color", "var(--lumo-contrast-10pct)")
+                .set("border-radius", "var(--lumo-border-radius-m)");
+    }
+    
+    /**
+     * A card-sized stack of placeholder lines
+     */
+    public static VerticalLayout card(int lines) {
+        VerticalLayout card = new VerticalLayout();
+        card.setWidthFull();
+        card.add(new Skeleton("40%", "1.5em"));
+        for (int i = 0; i < lines; i++) {
+            card.add(new Skeleton(i % 2 == 0 ? "100%" : "80%", "1em"));
+        }
+        card.getStyle()
+                .set("background-color", "var(--lumo-contrast-5pct)")
+                .set("border-radius", "var(--lumo-border-radius-m)")
+                .set("padding", "var(--lumo-space-m)");
+        return card;
+    }
+}
@@ -0,0 +1,152 @@
+package com.feedback.ui;
+
+import com.feedback.config.WorkerThreads;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs a view's queries off the request thread so navigation only costs building the
+ * layout. The view shows a placeholder (see {@link Skeleton}), the query runs on a
+ * bounded pool, and the result is applied through {@link UI#access} and delivered by
+ * server push. Detaching the view cancels the load. The query runs with the caller's
+ * security context.
+ *
+ * If the pool and its queue are full the load is rejected and handed to the view's
+ * failure handler straight away; running it on the request thread instead would hold
+ * the session lock for the whole query.
+ *
+ * Long-running operations the user started, such as erasing a user, go to
+ * {@link #runInBackground} and a separate small pool, so they can't take the view
+ * loading threads away from navigation.
+ */
+@Component
+public class ViewDataLoader {
+    
+    private static final Logger log = LoggerFactory.getLogger(ViewDataLoader.class);
+    
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor backgroundExecutor;
+    private final Executor securedExecutor;
+    private final Executor securedBackgroundExecutor;
+    
+    public ViewDataLoader(@Value("${feedback.view-loading.threads:8}") int threads,
+                          @Value("${feedback.view-loading.queue-capacity:200}") int queueCapacity,
+                          @Value("${feedback.view-loading.background-threads:2}") int backgroundThreads,
+                          @Value("${feedback.view-loading.background-queue-capacity:20}") int backgroundQueueCapacity,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.executor = pool(threads, queueCapacity, WorkerThreads.factory("view-loader-", virtualThreads));
+        this.backgroundExecutor = pool(backgroundThreads, backgroundQueueCapacity,
+                WorkerThreads.factory("view-background-", virtualThreads));
+        // Captures the submitting thread's security context for each task
+        this.securedExecutor = new DelegatingSecurityContextExecutor(executor);
+        this.securedBackgroundExecutor = new DelegatingSecurityContextExecutor(backgroundExecutor);
+    }
+    
+    private static ThreadPoolExecutor pool(int threads, int queueCapacity, ThreadFactory threadFactory) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+    
+    /**
+     * Load data for a view in the background. Must be called from the UI thread
+     * (e.g. the view constructor or a listener).
+     *
+     * @param view      component whose detach cancels the load
+     * @param query     the blocking work; must not touch components or the Vaadin session
+     * @param onLoaded  applies the result, run under the session lock
+     * @param onFailed  reports an error, run under the session lock
+     * @return a registration that cancels the load if it has not been applied yet
+     */
+    public <T> Registration load(com.vaadin.flow.component.Component view, SerializableSupplier<T> query,
+                                 SerializableConsumer<T> onLoaded, SerializableConsumer<Throwable> onFailed) {
+        return submit(securedExecutor, true, view, query, onLoaded, onFailed);
+    }
+    
+    /**
+     * Like {@link #load}, for an operation the user started that may run for a long
+     * time. Detaching the view only drops the result; the operation itself runs to the
+     * end.
+     */
+    public <T> Registration runInBackground(com.vaadin.flow.component.Component view, SerializableSupplier<T> task,
+                                            SerializableConsumer<T> onDone, SerializableConsumer<Throwable> onFailed) {
+        return submit(securedBackgroundExecutor, false, view, task, onDone, onFailed);
+    }
+    
+    private <T> Registration submit(Executor target, boolean cancelOnDetach, com.vaadin.flow.component.Component view,
+                                    SerializableSupplier<T> query, SerializableConsumer<T> onLoaded,
+                                    SerializableConsumer<Throwable> onFailed) {
+        UI ui = UI.getCurrent();
+        CompletableFuture<T> work;
+        try {
+            work = CompletableFuture.supplyAsync(query, target);
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejected a background load for {}: pool and queue are full", view.getClass().getSimpleName());
+            // Queued behind the current request, so the view has finished building when it runs
+            RejectedExecutionException busy = new RejectedExecutionException(
+                    "The server is busy, please try again in a moment", e);
+            try {
+                ui.access(() -> onFailed.accept(busy));
+            } catch (UIDetachedException detached) {
+                // Nobody left to tell
+            }
+            return () -> { };
+        }
+        // Cancelling a copy drops the result but leaves the work itself running
+        CompletableFuture<T> future = cancelOnDetach ? work : work.thenApply(Function.identity());
+        Registration detachRegistration = view.addDetachListener(event -> future.cancel(false));
+        
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            try {
+                ui.access(() -> {
+                    detachRegistration.remove();
+                    if (future.isCancelled()) {
+                        return;
+                    }
+                    if (error != null) {
+                        onFailed.accept(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    } else {
+                        onLoaded.accept(result);
+                    }
+                });
+            } catch (UIDetachedException e) {
+                // The user navigated away or closed the tab; nobody is waiting for this
+            }
+        });
+        
+        return () -> {
+            future.cancel(false);
+            detachRegistration.remove();
+        };
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        backgroundExecutor.shutdownNow();
+    }
+}
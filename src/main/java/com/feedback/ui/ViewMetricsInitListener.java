@@ -0,0 +1,62 @@
+package com.feedback.ui;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each navigation from before-enter until the target view has been created
+ * and attached, as {@code feedback.view.render} tagged with the route's view class.
+ * Data that views load in the background after that is not included.
+ */
+@Component
+public class ViewMetricsInitListener implements VaadinServiceInitListener {
+    
+    public static final String VIEW_TIMER = "feedback.view.render";
+    
+    // Per-UI start of the navigation in progress, kept with the UI itself
+    private static final class NavigationStart {
+        final long startedAt;
+        
+        NavigationStart(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Autowired
+    public ViewMetricsInitListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addUIInitListener(uiInit -> {
+            UI ui = uiInit.getUI();
+            ui.addBeforeEnterListener(beforeEnter ->
+                    ComponentUtil.setData(ui, NavigationStart.class, new NavigationStart(System.nanoTime())));
+            ui.addAfterNavigationListener(afterNavigation -> {
+                NavigationStart start = ComponentUtil.getData(ui, NavigationStart.class);
+                if (start == null) {
+                    return;
+                }
+                ComponentUtil.setData(ui, NavigationStart.class, null);
+                String view = afterNavigation.getActiveChain().isEmpty()
+                        ? "unknown"
+                        : afterNavigation.getActiveChain().get(0).getClass().getSimpleName();
+                Timer.builder(VIEW_TIMER)
+                        .tag("view", view)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start.startedAt, TimeUnit.NANOSECONDS);
+            });
+        });
+    }
+}
@@ -1,7 +1,9 @@
 package com.feedback.ui.views.actionitems;
 
 import com.feedback.model.ActionItem;
+import com.feedback.model.ActionItemStatus;
 import com.feedback.model.Feedback;
+import com.feedback.model.Priority;
 import com.feedback.model.User;
 import com.feedback.service.ActionItemService;
 import com.feedback.service.AuthenticationService;
@@ -32,10 +34,12 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.PermitAll;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
 import java.util.List;
 
 @Route(value = "action-items", layout = MainLayout.class)
@@ -49,8 +53,8 @@ public class ActionItemView extends VerticalLayout {
     private final AuthenticationService authenticationService;
     
     private final Grid<ActionItem> grid = new Grid<>(ActionItem.class);
-    private final ComboBox<String> statusFilter = new ComboBox<>("Status");
-    private final ComboBox<String> priorityFilter = new ComboBox<>("Priority");
+    private final ComboBox<ActionItemStatus> statusFilter = new ComboBox<>("Status");
+    private final ComboBox<Priority> priorityFilter = new ComboBox<>("Priority");
     
     private Tab assignedToMeTab;
     private Tab createdByMeTab;
@@ -205,18 +209,18 @@ public class ActionItemView extends VerticalLayout {
         
         // Add status with color coding
         grid.addComponentColumn(item -> {
-            Span statusSpan = new Span(item.getStatus());
+            Span statusSpan = new Span(item.getStatus().getDisplayName());
             switch (item.getStatus()) {
-                case "Open":
+                case OPEN:
                     statusSpan.getStyle().set("color", "var(--lumo-primary-color)");
                     break;
-                case "In Progress":
+                case IN_PROGRESS:
                     statusSpan.getStyle().set("color", "var(--lumo-warning-color)");
                     break;
-                case "Completed":
+                case COMPLETED:
                     statusSpan.getStyle().set("color", "var(--lumo-success-color)");
                     break;
-                case "Cancelled":
+                case CANCELLED:
                     statusSpan.getStyle().set("color", "var(--lumo-error-color)");
                     break;
             }
@@ -226,9 +230,9 @@ public class ActionItemView extends VerticalLayout {
         
         // Add priority with color coding
         grid.addComponentColumn(item -> {
-            Span prioritySpan = new Span(item.getPriority());
+            Span prioritySpan = new Span(item.getPriority().getDisplayName());
             switch (item.getPriority()) {
-                case "High":
+                case HIGH:
                     prioritySpan.getStyle()
                         .set("background-color", "var(--lumo-error-color)")
                         .set("color", "white")
@@ -236,7 +240,7 @@ public class ActionItemView extends VerticalLayout {
                         .set("border-radius", "4px")
                         .set("font-size", "0.8em");
                     break;
-                case "Medium":
+                case MEDIUM:
                     prioritySpan.getStyle()
                         .set("background-color", "var(--lumo-warning-color)")
                         .set("color", "white")
@@ -244,7 +248,7 @@ public class ActionItemView extends VerticalLayout {
                         .set("border-radius", "4px")
                         .set("font-size", "0.8em");
                     break;
-                case "Low":
+                case LOW:
                     prioritySpan.getStyle()
                         .set("background-color", "var(--lumo-success-color)")
                         .set("color", "white")
@@ -266,13 +270,18 @@ public class ActionItemView extends VerticalLayout {
             
             Button completeButton = new Button("Complete");
             completeButton.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_SUCCESS);
-            completeButton.setEnabled(!item.getStatus().equals("Completed") && 
+            completeButton.setEnabled(item.getStatus().canTransitionTo(ActionItemStatus.COMPLETED) &&
+                                      item.getStatus() != ActionItemStatus.COMPLETED && 
                                       (item.getAssignedTo().getId().equals(currentUser.getId()) ||
                                        currentUser.isSuperAdmin()));
             completeButton.addClickListener(e -> {
-                actionItemService.completeActionItem(item.getId());
-                updateList();
-                showSuccess("Action item marked as completed");
+                try {
+                    actionItemService.completeActionItem(item.getId());
+                    updateList();
+                    showSuccess("Action item marked as completed");
+                } catch (IllegalStateException | OptimisticLockingFailureException ex) {
+                    showError(ex.getMessage());
+                }
             });
             
             actions.add(viewButton, completeButton);
@@ -284,12 +293,17 @@ public class ActionItemView extends VerticalLayout {
     }
     
     private void configureFilters() {
-        statusFilter.setItems("All", "Open", "In Progress", "Completed", "Cancelled");
-        statusFilter.setValue("All");
+        // An empty filter means "All"
+        statusFilter.setItems(ActionItemStatus.values());
+        statusFilter.setItemLabelGenerator(ActionItemStatus::getDisplayName);
+        statusFilter.setPlaceholder("All");
+        statusFilter.setClearButtonVisible(true);
         statusFilter.addValueChangeListener(e -> updateList());
         
-        priorityFilter.setItems("All", "High", "Medium", "Low");
-        priorityFilter.setValue("All");
+        priorityFilter.setItems(Priority.HIGH, Priority.MEDIUM, Priority.LOW);
+        priorityFilter.setItemLabelGenerator(Priority::getDisplayName);
+        priorityFilter.setPlaceholder("All");
+        priorityFilter.setClearButtonVisible(true);
         priorityFilter.addValueChangeListener(e -> updateList());
     }
     
@@ -300,8 +314,8 @@ public class ActionItemView extends VerticalLayout {
         
         Button clearFiltersButton = new Button("Clear Filters");
         clearFiltersButton.addClickListener(e -> {
-            statusFilter.setValue("All");
-            priorityFilter.setValue("All");
+            statusFilter.clear();
+            priorityFilter.clear();
         });
         
         filterLayout.add(clearFiltersButton);
@@ -338,7 +352,8 @@ public class ActionItemView extends VerticalLayout {
             title.setWidthFull();
             
             ComboBox<User> assignedTo = new ComboBox<>("Assigned To");
-            assignedTo.setItems(userService.findActiveUsers());
+            assignedTo.setItems(query -> userService.searchActiveUsers(
+                    query.getFilter().orElse(""), null, query.getOffset(), query.getLimit()).stream());
             assignedTo.setItemLabelGenerator(User::getFullName);
             assignedTo.setValue(currentUser);
             assignedTo.setRequired(true);
@@ -354,8 +369,8 @@ public class ActionItemView extends VerticalLayout {
                     newItem.setTitle(title.getValue());
                     newItem.setAssignedTo(assignedTo.getValue());
                     newItem.setDueDate(dueDate.getValue());
-                    newItem.setStatus("Open");
-                    newItem.setPriority("Medium");
+                    newItem.setStatus(ActionItemStatus.OPEN);
+                    newItem.setPriority(Priority.MEDIUM);
                     newItem.setCreatedBy(currentUser);
                     newItem.setCreatedAt(LocalDateTime.now());
                     
@@ -374,8 +389,8 @@ public class ActionItemView extends VerticalLayout {
             // Show details view - simplified
             content.add(new H3(item.getTitle()));
             content.add(new Span("Assigned to: " + item.getAssignedTo().getFullName()));
-            content.add(new Span("Status: " + item.getStatus()));
-            content.add(new Span("Priority: " + item.getPriority()));
+            content.add(new Span("Status: " + item.getStatus().getDisplayName()));
+            content.add(new Span("Priority: " + item.getPriority().getDisplayName()));
             
             Button closeButton = new Button("Close");
             closeButton.addClickListener(e -> dialog.close());
@@ -407,21 +422,15 @@ public class ActionItemView extends VerticalLayout {
     }
     
     private void applyFiltersAndSetItems(List<ActionItem> items) {
+        ActionItemStatus status = statusFilter.getValue();
+        Priority priority = priorityFilter.getValue();
+        
         List<ActionItem> filteredItems = items.stream()
-                .filter(item -> {
-                    boolean statusMatch = "All".equals(statusFilter.getValue()) || 
-                                        item.getStatus().equals(statusFilter.getValue());
-                    boolean priorityMatch = "All".equals(priorityFilter.getValue()) || 
-                                          item.getPriority().equals(priorityFilter.getValue());
-                    return statusMatch && priorityMatch;
-                })
-                .sorted((i1, i2) -> {
-                    // Sort by due date, then by priority
-                    if (i1.getDueDate() == null && i2.getDueDate() == null) return 0;
-                    if (i1.getDueDate() == null) return 1;
-                    if (i2.getDueDate() == null) return -1;
-                    return i1.getDueDate().compareTo(i2.getDueDate());
-                })
+                .filter(item -> (status == null || item.getStatus() == status) &&
+                                (priority == null || item.getPriority() == priority))
+                // Sort by due date, then by priority (highest first)
+                .sorted(Comparator.comparing(ActionItem::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(ActionItem::getPriority, Comparator.reverseOrder()))
                 .toList();
                 
         grid.setItems(filteredItems);
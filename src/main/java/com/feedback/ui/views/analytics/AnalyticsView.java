@@ -1,12 +1,24 @@
 package com.feedback.ui.views.analytics;
 
-import com.feedback.model.Feedback;
+import com.feedback.model.Department;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.FeedbackTemplateVersion;
+import com.feedback.model.QuestionType;
 import com.feedback.model.User;
 import com.feedback.service.ActionItemService;
 import com.feedback.service.AuthenticationService;
-import com.feedback.service.FeedbackService;
+import com.feedback.service.FeedbackAnalyticsService;
+import com.feedback.service.FeedbackTemplateService;
+import com.feedback.service.RatingAnalyticsService;
+import com.feedback.service.RatingHistogram;
+import com.feedback.service.RatingPeriod;
+import com.feedback.service.RatingReport;
+import com.feedback.service.RatingScope;
+import com.feedback.service.SentimentAnalyticsService;
 import com.feedback.service.UserService;
 import com.feedback.ui.MainLayout;
+import com.feedback.ui.Skeleton;
+import com.feedback.ui.ViewDataLoader;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.Div;
@@ -23,13 +35,19 @@ import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.Tabs;
 import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import jakarta.annotation.security.PermitAll;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -39,27 +57,47 @@ import java.util.stream.Collectors;
 @PermitAll  // All authenticated users can see analytics
 public class AnalyticsView extends VerticalLayout {
 
-    private final FeedbackService feedbackService;
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsView.class);
+
+    private final FeedbackAnalyticsService feedbackAnalyticsService;
     private final UserService userService;
     private final ActionItemService actionItemService;
     private final AuthenticationService authenticationService;
+    private final ViewDataLoader viewDataLoader;
+    private final FeedbackTemplateService templateService;
+    private final RatingAnalyticsService ratingAnalyticsService;
+    private final SentimentAnalyticsService sentimentAnalyticsService;
     
     private final VerticalLayout chartsLayout = new VerticalLayout();
+    private final ComboBox<String> timeRangeFilter = new ComboBox<>("Time Range");
+    private Tabs tabs;
     private Tab feedbackVolumeTab;
     private Tab feedbackByDepartmentTab;
     private Tab feedbackByStatusTab;
     private Tab actionItemsTab;
+    private Tab templateRatingsTab;
+    private Tab sentimentTab;
     
     private User currentUser;
+    // Load for the chart currently being opened; replaced when switching tabs
+    private Registration pendingChartLoad;
 
-    public AnalyticsView(FeedbackService feedbackService, 
+    public AnalyticsView(FeedbackAnalyticsService feedbackAnalyticsService, 
                          UserService userService,
                          ActionItemService actionItemService,
-                         AuthenticationService authenticationService) {
-        this.feedbackService = feedbackService;
+                         AuthenticationService authenticationService,
+                         ViewDataLoader viewDataLoader,
+                         FeedbackTemplateService templateService,
+                         RatingAnalyticsService ratingAnalyticsService,
+                         SentimentAnalyticsService sentimentAnalyticsService) {
+        this.feedbackAnalyticsService = feedbackAnalyticsService;
         this.userService = userService;
         this.actionItemService = actionItemService;
         this.authenticationService = authenticationService;
+        this.viewDataLoader = viewDataLoader;
+        this.templateService = templateService;
+        this.ratingAnalyticsService = ratingAnalyticsService;
+        this.sentimentAnalyticsService = sentimentAnalyticsService;
         
         System.out.println("AnalyticsView: Constructor started");
         
@@ -79,7 +117,7 @@ public class AnalyticsView extends VerticalLayout {
         setSizeFull();
         
         try {
-            Tabs tabs = createTabs();
+            tabs = createTabs();
             
             add(
                     new H2("Feedback Analytics"),
@@ -104,27 +142,37 @@ public class AnalyticsView extends VerticalLayout {
         feedbackByDepartmentTab = new Tab("Feedback by Department");
         feedbackByStatusTab = new Tab("Feedback by Status");
         actionItemsTab = new Tab("Action Items");
+        templateRatingsTab = new Tab("Template Ratings");
+        sentimentTab = new Tab("Sentiment");
         
-        Tabs tabs = new Tabs(feedbackVolumeTab, feedbackByDepartmentTab, feedbackByStatusTab, actionItemsTab);
-        tabs.addSelectedChangeListener(event -> {
-            if (event.getSelectedTab().equals(feedbackVolumeTab)) {
-                showFeedbackVolumeChart();
-            } else if (event.getSelectedTab().equals(feedbackByDepartmentTab)) {
-                showFeedbackByDepartmentChart();
-            } else if (event.getSelectedTab().equals(feedbackByStatusTab)) {
-                showFeedbackByStatusChart();
-            } else if (event.getSelectedTab().equals(actionItemsTab)) {
-                showActionItemsChart();
-            }
-        });
+        Tabs tabs = new Tabs(feedbackVolumeTab, feedbackByDepartmentTab, feedbackByStatusTab, actionItemsTab,
+                templateRatingsTab, sentimentTab);
+        tabs.addSelectedChangeListener(event -> showChart(event.getSelectedTab()));
         
         return tabs;
     }
     
+    private void showChart(Tab tab) {
+        if (tab.equals(feedbackVolumeTab)) {
+            showFeedbackVolumeChart();
+        } else if (tab.equals(feedbackByDepartmentTab)) {
+            showFeedbackByDepartmentChart();
+        } else if (tab.equals(feedbackByStatusTab)) {
+            showFeedbackByStatusChart();
+        } else if (tab.equals(actionItemsTab)) {
+            showActionItemsChart();
+        } else if (tab.equals(templateRatingsTab)) {
+            showTemplateRatings();
+        } else if (tab.equals(sentimentTab)) {
+            showSentimentChart();
+        }
+    }
+    
     private HorizontalLayout createFilters() {
-        ComboBox<String> timeRangeFilter = new ComboBox<>("Time Range");
         timeRangeFilter.setItems("Last 7 Days", "Last 30 Days", "Last 90 Days", "All Time");
-        timeRangeFilter.setValue("All Time");
+        // Inside the hot horizon, so opening the page doesn't read the archive
+        timeRangeFilter.setValue("Last 90 Days");
+        timeRangeFilter.addValueChangeListener(e -> showChart(tabs.getSelectedTab()));
         
         ComboBox<String> typeFilter = new ComboBox<>("Feedback Type");
         typeFilter.setItems("All Types", "Performance", "Leadership", "Communication", "Teamwork", "Technical Skills", "Other");
@@ -137,18 +185,71 @@ public class AnalyticsView extends VerticalLayout {
     }
     
     private void showFeedbackVolumeChart() {
+        showFeedbackChart(feedbackAnalyticsService::volume, this::renderFeedbackVolumeChart);
+    }
+    
+    private void showFeedbackByDepartmentChart() {
+        showFeedbackChart(feedbackAnalyticsService::byDepartment, this::renderFeedbackByDepartmentChart);
+    }
+    
+    private void showFeedbackByStatusChart() {
+        showFeedbackChart(feedbackAnalyticsService::byStatus, this::renderFeedbackByStatusChart);
+    }
+    
+    /**
+     * Put a placeholder in the charts area and render the chart once its counts have
+     * been loaded in the background. Switching tabs cancels a load still in flight.
+     */
+    private <T> void showFeedbackChart(SerializableFunction<LocalDateTime, T> counts, SerializableConsumer<T> render) {
+        cancelPendingChartLoad();
         chartsLayout.removeAll();
-        
-        // Get all feedback
-        List<Feedback> allFeedback = feedbackService.findAllFeedback();
-        
-        // Group feedback by month
-        Map<Month, Long> feedbackByMonth = allFeedback.stream()
-                .filter(f -> f.getCreatedAt().getYear() == LocalDate.now().getYear())
-                .collect(Collectors.groupingBy(
-                        f -> f.getCreatedAt().getMonth(),
-                        Collectors.counting()
-                ));
+        chartsLayout.add(Skeleton.card(8));
+        
+        LocalDateTime since = timeRangeStart();
+        pendingChartLoad = viewDataLoader.load(this, () -> counts.apply(since),
+                loaded -> {
+                    pendingChartLoad = null;
+                    chartsLayout.removeAll();
+                    render.accept(loaded);
+                },
+                error -> {
+                    pendingChartLoad = null;
+                    chartsLayout.removeAll();
+                    System.err.println("Error loading analytics: " + error.getMessage());
+                    showError("Error loading analytics. Please try again.");
+                });
+    }
+    
+    // Ranges inside the hot horizon never touch the archive
+    private LocalDateTime timeRangeStart() {
+        String range = timeRangeFilter.getValue();
+        if (range == null) {
+            return null;
+        }
+        return switch (range) {
+            case "Last 7 Days" -> LocalDateTime.now().minusDays(7);
+            case "Last 30 Days" -> LocalDateTime.now().minusDays(30);
+            case "Last 90 Days" -> LocalDateTime.now().minusDays(90);
+            default -> null;
+        };
+    }
+    
+    private void cancelPendingChartLoad() {
+        if (pendingChartLoad != null) {
+            pendingChartLoad.remove();
+            pendingChartLoad = null;
+        }
+    }
+    
+    private void renderFeedbackVolumeChart(FeedbackAnalyticsService.Volume volume) {
+        // Months of the current year
+        Map<Month, Long> feedbackByMonth = new EnumMap<>(Month.class);
+        int year = LocalDate.now().getYear();
+        volume.byMonth().forEach((month, count) -> {
+            if (month.getYear() == year) {
+                feedbackByMonth.put(month.getMonth(), count);
+            }
+        });
         
         // Create a visualization using free components
         VerticalLayout volumeLayout = new VerticalLayout();
@@ -198,12 +299,7 @@ public class AnalyticsView extends VerticalLayout {
         categoryLayout.setWidth("100%");
         categoryLayout.add(new H3("Feedback by Category"));
         
-        // Group feedback by category
-        Map<String, Long> feedbackByCategory = allFeedback.stream()
-                .collect(Collectors.groupingBy(
-                        Feedback::getCategory,
-                        Collectors.counting()
-                ));
+        Map<String, Long> feedbackByCategory = volume.byCategory();
         
         // Find total for percentage calculation
         long total = feedbackByCategory.values().stream().mapToLong(Long::longValue).sum();
@@ -237,23 +333,13 @@ public class AnalyticsView extends VerticalLayout {
         chartsLayout.add(volumeLayout, categoryLayout);
     }
     
-    private void showFeedbackByDepartmentChart() {
-        chartsLayout.removeAll();
-        
+    private void renderFeedbackByDepartmentChart(FeedbackAnalyticsService.Departments departments) {
         VerticalLayout departmentLayout = new VerticalLayout();
         departmentLayout.setWidth("100%");
         departmentLayout.add(new H3("Feedback by Department"));
         
-        // Get all feedback
-        List<Feedback> allFeedback = feedbackService.findAllFeedback();
-        
-        // Group feedback by recipient's department
-        Map<String, Long> feedbackByDepartment = allFeedback.stream()
-                .filter(f -> f.getRecipient() != null && f.getRecipient().getDepartment() != null)
-                .collect(Collectors.groupingBy(
-                        f -> f.getRecipient().getDepartment().getName(),
-                        Collectors.counting()
-                ));
+        // Feedback received, by recipient's department
+        Map<String, Long> feedbackByDepartment = departments.received();
         
         // Find maximum value for scaling
         long maxCount = feedbackByDepartment.values().stream().mapToLong(Long::longValue).max().orElse(10);
@@ -284,13 +370,8 @@ public class AnalyticsView extends VerticalLayout {
         givenByDeptLayout.setWidth("100%");
         givenByDeptLayout.add(new H3("Feedback Given by Department"));
         
-        // Group feedback by sender's department
-        Map<String, Long> feedbackGivenByDepartment = allFeedback.stream()
-                .filter(f -> f.getSender() != null && f.getSender().getDepartment() != null)
-                .collect(Collectors.groupingBy(
-                        f -> f.getSender().getDepartment().getName(),
-                        Collectors.counting()
-                ));
+        // Feedback given, by sender's department
+        Map<String, Long> feedbackGivenByDepartment = departments.sent();
         
         long totalGiven = feedbackGivenByDepartment.values().stream().mapToLong(Long::longValue).sum();
         
@@ -322,23 +403,11 @@ public class AnalyticsView extends VerticalLayout {
         chartsLayout.add(departmentLayout, givenByDeptLayout);
     }
     
-    private void showFeedbackByStatusChart() {
-        chartsLayout.removeAll();
-        
+    private void renderFeedbackByStatusChart(Map<FeedbackStatus, Long> feedbackByStatus) {
         VerticalLayout statusLayout = new VerticalLayout();
         statusLayout.setWidth("100%");
         statusLayout.add(new H3("Feedback by Status"));
         
-        // Get all feedback
-        List<Feedback> allFeedback = feedbackService.findAllFeedback();
-        
-        // Group feedback by status
-        Map<String, Long> feedbackByStatus = allFeedback.stream()
-                .collect(Collectors.groupingBy(
-                        Feedback::getStatus,
-                        Collectors.counting()
-                ));
-        
         long total = feedbackByStatus.values().stream().mapToLong(Long::longValue).sum();
         
         // Create status visualization
@@ -347,16 +416,15 @@ public class AnalyticsView extends VerticalLayout {
         statusBars.setJustifyContentMode(FlexComponent.JustifyContentMode.CENTER);
         
         // Define colors for different statuses
-        Map<String, String> statusColors = new HashMap<>();
-        statusColors.put("Open", "var(--lumo-primary-color)");
-        statusColors.put("Acknowledged", "var(--lumo-success-color)");
-        statusColors.put("In Progress", "var(--lumo-contrast-color)");
-        statusColors.put("Completed", "var(--lumo-tertiary-color)");
-        statusColors.put("Closed", "var(--lumo-secondary-color)");
+        Map<FeedbackStatus, String> statusColors = new EnumMap<>(FeedbackStatus.class);
+        statusColors.put(FeedbackStatus.OPEN, "var(--lumo-primary-color)");
+        statusColors.put(FeedbackStatus.ACKNOWLEDGED, "var(--lumo-success-color)");
+        statusColors.put(FeedbackStatus.IN_PROGRESS, "var(--lumo-contrast-color)");
+        statusColors.put(FeedbackStatus.COMPLETED, "var(--lumo-tertiary-color)");
         
         // Create a colored box for each status
-        for (Map.Entry<String, Long> entry : feedbackByStatus.entrySet()) {
-            String status = entry.getKey();
+        for (Map.Entry<FeedbackStatus, Long> entry : feedbackByStatus.entrySet()) {
+            FeedbackStatus status = entry.getKey();
             long count = entry.getValue();
             double percentage = total > 0 ? (count * 100.0 / total) : 0;
             
@@ -383,7 +451,7 @@ public class AnalyticsView extends VerticalLayout {
             box.add(countLabel);
             
             // Add status and percentage below
-            Span statusLabel = new Span(status);
+            Span statusLabel = new Span(status.getDisplayName());
             Span percentLabel = new Span(String.format("%.1f%%", percentage));
             
             statusBox.add(box, statusLabel, percentLabel);
@@ -395,6 +463,7 @@ public class AnalyticsView extends VerticalLayout {
     }
     
     private void showActionItemsChart() {
+        cancelPendingChartLoad();
         chartsLayout.removeAll();
         
         VerticalLayout actionItemsLayout = new VerticalLayout();
@@ -438,6 +507,226 @@ public class AnalyticsView extends VerticalLayout {
         chartsLayout.add(actionItemsLayout);
     }
     
+    private void showTemplateRatings() {
+        cancelPendingChartLoad();
+        chartsLayout.removeAll();
+        
+        List<FeedbackTemplateVersion> ratedTemplates = templateService.findPublishedVersions().stream()
+                .filter(FeedbackTemplateVersion::hasNumericQuestions)
+                .toList();
+        if (ratedTemplates.isEmpty()) {
+            chartsLayout.add(new H3("Template Ratings"),
+                    new Span("No active template has rating, NPS or yes/no questions yet."));
+            return;
+        }
+        
+        ComboBox<FeedbackTemplateVersion> templateFilter = new ComboBox<>("Template");
+        templateFilter.setItems(ratedTemplates);
+        templateFilter.setItemLabelGenerator(version -> version.getName() + " (v" + version.getVersionNumber() + ")");
+        templateFilter.setValue(ratedTemplates.get(0));
+        
+        ComboBox<RatingScope> scopeFilter = new ComboBox<>("Scope");
+        List<RatingScope> scopes = new ArrayList<>();
+        scopes.add(RatingScope.all());
+        if (currentUser.getDepartment() != null) {
+            scopes.add(RatingScope.department(currentUser.getDepartment().getId()));
+        }
+        scopes.add(RatingScope.managerChain(currentUser.getId()));
+        scopeFilter.setItems(scopes);
+        scopeFilter.setItemLabelGenerator(scope -> switch (scope.kind()) {
+            case ALL -> "Everyone";
+            case DEPARTMENT -> "My department";
+            case MANAGER_CHAIN -> "My reporting chain";
+        });
+        scopeFilter.setValue(scopes.get(0));
+        
+        ComboBox<Integer> periodFilter = new ComboBox<>("Period");
+        periodFilter.setItems(3, 6, 12);
+        periodFilter.setItemLabelGenerator(months -> "Last " + months + " months");
+        periodFilter.setValue(6);
+        
+        VerticalLayout reportLayout = new VerticalLayout();
+        reportLayout.setPadding(false);
+        reportLayout.setWidthFull();
+        
+        Runnable reload = () -> {
+            if (templateFilter.getValue() != null && scopeFilter.getValue() != null && periodFilter.getValue() != null) {
+                loadTemplateRatings(reportLayout, templateFilter.getValue().getId(), scopeFilter.getValue(),
+                        RatingPeriod.lastMonths(periodFilter.getValue()));
+            }
+        };
+        templateFilter.addValueChangeListener(e -> reload.run());
+        scopeFilter.addValueChangeListener(e -> reload.run());
+        periodFilter.addValueChangeListener(e -> reload.run());
+        
+        chartsLayout.add(new H3("Template Ratings"), new HorizontalLayout(templateFilter, scopeFilter, periodFilter),
+                reportLayout);
+        reload.run();
+    }
+    
+    private void loadTemplateRatings(VerticalLayout reportLayout, Long versionId, RatingScope scope, RatingPeriod period) {
+        cancelPendingChartLoad();
+        reportLayout.removeAll();
+        reportLayout.add(Skeleton.card(6));
+        
+        pendingChartLoad = viewDataLoader.load(this,
+                () -> ratingAnalyticsService.findReport(versionId, scope, period).orElse(null),
+                report -> {
+                    pendingChartLoad = null;
+                    reportLayout.removeAll();
+                    if (report == null) {
+                        reportLayout.add(new Span("This template version no longer exists."));
+                        return;
+                    }
+                    renderTemplateRatings(reportLayout, report);
+                },
+                error -> {
+                    pendingChartLoad = null;
+                    reportLayout.removeAll();
+                    log.warn("Error loading template ratings", error);
+                    showError("Error loading template ratings. Please try again.");
+                });
+    }
+    
+    private void renderTemplateRatings(VerticalLayout reportLayout, RatingReport report) {
+        Map<Long, String> departmentNames = userService.findAllDepartments().stream()
+                .collect(Collectors.toMap(Department::getId, Department::getName));
+        DateTimeFormatter monthFormat = DateTimeFormatter.ofPattern("MMM yy");
+        
+        for (RatingReport.QuestionRatings question : report.questions()) {
+            RatingHistogram histogram = question.histogram();
+            QuestionType type = question.question().type();
+            
+            VerticalLayout questionLayout = new VerticalLayout();
+            questionLayout.setWidthFull();
+            questionLayout.getStyle().set("border", "1px solid var(--lumo-contrast-10pct)");
+            
+            Double mean = histogram.mean();
+            questionLayout.add(new H4(question.question().text()),
+                    new Span(type.getDisplayName() + " - " + histogram.total() + " answers"
+                            + (mean != null ? String.format(", average %.2f", mean) : "")));
+            
+            // One bar per answer value, scaled to the largest bucket
+            long maxCount = Math.max(1, histogram.maxCount());
+            for (int value = type.getMax(); value >= type.getMin(); value--) {
+                long count = histogram.count(value);
+                HorizontalLayout row = new HorizontalLayout();
+                row.setWidthFull();
+                
+                Span valueLabel = new Span(type == QuestionType.YES_NO ? (value == 1 ? "Yes" : "No") : String.valueOf(value));
+                valueLabel.setWidth("60px");
+                
+                ProgressBar bar = new ProgressBar();
+                bar.setValue((double) count / maxCount);
+                bar.setWidth("60%");
+                
+                row.add(valueLabel, bar, new Span(String.valueOf(count)));
+                questionLayout.add(row);
+            }
+            
+            // Monthly averages with the moving average next to them
+            Grid<RatingReport.MonthlyRating> trendGrid = new Grid<>();
+            trendGrid.setItems(question.trend());
+            trendGrid.setAllRowsVisible(true);
+            trendGrid.addColumn(month -> month.month().format(monthFormat)).setHeader("Month").setAutoWidth(true);
+            trendGrid.addColumn(RatingReport.MonthlyRating::responses).setHeader("Answers").setAutoWidth(true);
+            trendGrid.addColumn(month -> formatAverage(month.average())).setHeader("Average").setAutoWidth(true);
+            trendGrid.addColumn(month -> formatAverage(month.movingAverage()))
+                    .setHeader("Moving average").setAutoWidth(true);
+            questionLayout.add(trendGrid);
+            
+            if (!question.byDepartment().isEmpty()) {
+                Grid<Map.Entry<Long, RatingHistogram>> departmentGrid = new Grid<>();
+                departmentGrid.setItems(question.byDepartment().entrySet());
+                departmentGrid.setAllRowsVisible(true);
+                departmentGrid.addColumn(entry -> departmentNames.getOrDefault(entry.getKey(), "Unknown"))
+                        .setHeader("Department").setAutoWidth(true);
+                departmentGrid.addColumn(entry -> entry.getValue().total()).setHeader("Answers").setAutoWidth(true);
+                departmentGrid.addColumn(entry -> formatAverage(entry.getValue().mean()))
+                        .setHeader("Average").setAutoWidth(true);
+                questionLayout.add(departmentGrid);
+            }
+            
+            reportLayout.add(questionLayout);
+        }
+    }
+    
+    private void showSentimentChart() {
+        cancelPendingChartLoad();
+        chartsLayout.removeAll();
+        chartsLayout.add(Skeleton.card(6));
+        
+        LocalDateTime since = timeRangeStart();
+        pendingChartLoad = viewDataLoader.load(this, () -> sentimentAnalyticsService.averageByDepartmentAndMonth(since),
+                averages -> {
+                    pendingChartLoad = null;
+                    chartsLayout.removeAll();
+                    renderSentimentChart(averages);
+                },
+                error -> {
+                    pendingChartLoad = null;
+                    chartsLayout.removeAll();
+                    log.warn("Error loading sentiment", error);
+                    showError("Error loading sentiment. Please try again.");
+                });
+    }
+    
+    private void renderSentimentChart(List<SentimentAnalyticsService.DepartmentMonth> averages) {
+        VerticalLayout sentimentLayout = new VerticalLayout();
+        sentimentLayout.setWidth("100%");
+        sentimentLayout.add(new H3("Average Sentiment by Department"),
+                new Span("Feedback received per month, from -1 (negative) to +1 (positive); "
+                        + "the number of scored feedback is in brackets."));
+        if (averages.isEmpty()) {
+            sentimentLayout.add(new Span("No feedback has been scored for this time range yet."));
+            chartsLayout.add(sentimentLayout);
+            return;
+        }
+        
+        Map<Long, String> departmentNames = userService.findAllDepartments().stream()
+                .collect(Collectors.toMap(Department::getId, Department::getName));
+        
+        // One row per month, one column per department, plus all departments together
+        Map<YearMonth, Map<Long, SentimentAnalyticsService.DepartmentMonth>> byMonth = new TreeMap<>(Comparator.reverseOrder());
+        Map<YearMonth, double[]> overall = new HashMap<>();
+        Set<Long> departmentIds = new TreeSet<>(Comparator.comparing((Long id) -> departmentNames.getOrDefault(id, "Unknown"))
+                .thenComparing(Comparator.naturalOrder()));
+        for (SentimentAnalyticsService.DepartmentMonth average : averages) {
+            byMonth.computeIfAbsent(average.month(), month -> new HashMap<>()).put(average.departmentId(), average);
+            double[] sum = overall.computeIfAbsent(average.month(), month -> new double[2]);
+            sum[0] += average.average() * average.scored();
+            sum[1] += average.scored();
+            departmentIds.add(average.departmentId());
+        }
+        
+        DateTimeFormatter monthFormat = DateTimeFormatter.ofPattern("MMM yy");
+        Grid<YearMonth> grid = new Grid<>();
+        grid.setItems(byMonth.keySet());
+        grid.setAllRowsVisible(true);
+        grid.addColumn(month -> month.format(monthFormat)).setHeader("Month").setAutoWidth(true);
+        for (Long departmentId : departmentIds) {
+            grid.addColumn(month -> {
+                SentimentAnalyticsService.DepartmentMonth average = byMonth.get(month).get(departmentId);
+                return average != null ? formatSentiment(average.average(), average.scored()) : "-";
+            }).setHeader(departmentNames.getOrDefault(departmentId, "Unknown")).setAutoWidth(true);
+        }
+        grid.addColumn(month -> {
+            double[] sum = overall.get(month);
+            return formatSentiment(sum[0] / sum[1], (long) sum[1]);
+        }).setHeader("All departments").setAutoWidth(true);
+        
+        sentimentLayout.add(grid);
+        chartsLayout.add(sentimentLayout);
+    }
+    
+    private static String formatSentiment(double average, long scored) {
+        return String.format("%+.2f (%d)", average, scored);
+    }
+    
+    private static String formatAverage(Double average) {
+        return average != null ? String.format("%.2f", average) : "-";
+    }
+    
     private void showError(String message) {
         Notification notification = Notification.show(message, 4000, Notification.Position.TOP_CENTER);
         notification.addThemeVariants(NotificationVariant.LUMO_ERROR);
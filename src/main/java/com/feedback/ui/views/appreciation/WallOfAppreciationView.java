@@ -1,11 +1,12 @@
 package com.feedback.ui.views.appreciation;
 
 import com.feedback.model.Feedback;
-import com.feedback.model.PrivacyLevel;
 import com.feedback.model.User;
 import com.feedback.service.AuthenticationService;
 import com.feedback.service.FeedbackService;
 import com.feedback.ui.MainLayout;
+import com.feedback.ui.Skeleton;
+import com.feedback.ui.ViewDataLoader;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -38,6 +39,7 @@ public class WallOfAppreciationView extends VerticalLayout {
 
     private final FeedbackService feedbackService;
     private final AuthenticationService authenticationService;
+    private final ViewDataLoader viewDataLoader;
     
     private final VerticalLayout feedbackCardsLayout = new VerticalLayout();
     private final ComboBox<String> categoryFilter = new ComboBox<>("Filter by Category");
@@ -53,9 +55,11 @@ public class WallOfAppreciationView extends VerticalLayout {
     private Span activeUsersValue;
 
     public WallOfAppreciationView(FeedbackService feedbackService, 
-                                  AuthenticationService authenticationService) {
+                                  AuthenticationService authenticationService,
+                                  ViewDataLoader viewDataLoader) {
         this.feedbackService = feedbackService;
         this.authenticationService = authenticationService;
+        this.viewDataLoader = viewDataLoader;
         
         System.out.println("WallOfAppreciationView: Constructor started");
         
@@ -239,37 +243,36 @@ public class WallOfAppreciationView extends VerticalLayout {
         feedbackCardsLayout.setSpacing(true);
         feedbackCardsLayout.setPadding(false);
         
-        // Add loading message initially
-        Div loadingMessage = new Div();
-        loadingMessage.setText("Loading appreciations...");
-        loadingMessage.getStyle()
-                .set("text-align", "center")
-                .set("padding", "var(--lumo-space-xl)")
-                .set("color", "var(--lumo-secondary-text-color)");
-        
-        feedbackCardsLayout.add(loadingMessage);
+        // Placeholder cards until the background load finishes
+        for (int i = 0; i < 3; i++) {
+            feedbackCardsLayout.add(Skeleton.card(3));
+        }
         add(feedbackCardsLayout);
     }
     
     private void loadPublicFeedback() {
-        try {
-            // Get all public feedback
-            allPublicFeedback = feedbackService.findAllFeedback().stream()
-                    .filter(feedback -> feedback.getPrivacyLevel() == PrivacyLevel.PUBLIC)
-                    .sorted(Comparator.comparing(Feedback::getCreatedAt).reversed())
-                    .collect(Collectors.toList());
-            
-            // Update stats
-            updateStats();
-            
-            // Display filtered feedback
-            filterAndDisplayFeedback();
-            
-        } catch (Exception e) {
-            System.err.println("Error loading public feedback: " + e.getMessage());
-            e.printStackTrace();
-            showError("Error loading appreciations. Please refresh the page.");
-        }
+        Long userId = currentUser.getId();
+        viewDataLoader.load(this,
+                () -> {
+                    // Opening the wall clears the "new posts" badge
+                    feedbackService.recordWallVisit(userId);
+                    return feedbackService.findPublicFeedback();
+                },
+                publicFeedback -> {
+                    allPublicFeedback = publicFeedback;
+                    
+                    // Update stats
+                    updateStats();
+                    
+                    // Display filtered feedback
+                    filterAndDisplayFeedback();
+                },
+                e -> {
+                    System.err.println("Error loading public feedback: " + e.getMessage());
+                    e.printStackTrace();
+                    feedbackCardsLayout.removeAll();
+                    showError("Error loading appreciations. Please refresh the page.");
+                });
     }
     
     private void updateStats() {
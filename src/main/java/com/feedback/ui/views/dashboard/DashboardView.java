@@ -1,13 +1,19 @@
 package com.feedback.ui.views.dashboard;
 
 import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackStatus;
 import com.feedback.model.PrivacyLevel;
 import com.feedback.model.User;
 import com.feedback.service.ActionItemService;
 import com.feedback.service.AuthenticationService;
+import com.feedback.service.DashboardAssembler;
+import com.feedback.service.DashboardCard;
+import com.feedback.service.DashboardSnapshot;
 import com.feedback.service.FeedbackService;
 import com.feedback.service.UserService;
 import com.feedback.ui.MainLayout;
+import com.feedback.ui.Skeleton;
+import com.feedback.ui.ViewDataLoader;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Text;
 import com.vaadin.flow.component.UI;
@@ -31,11 +37,9 @@ import com.vaadin.flow.router.RouterLink;
 import jakarta.annotation.security.PermitAll;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Route(value = "", layout = MainLayout.class)
 @PageTitle("Dashboard | Feedback System")
@@ -45,16 +49,21 @@ public class DashboardView extends VerticalLayout {
 	private final UserService userService;
 	private final ActionItemService actionItemService;
 	private final AuthenticationService authenticationService;
+	private final ViewDataLoader viewDataLoader;
+	private final DashboardAssembler dashboardAssembler;
 	private User currentUser;
 
 	private boolean hasRedirected = false; // Prevent infinite redirects
 
 	public DashboardView(FeedbackService feedbackService, UserService userService, ActionItemService actionItemService,
-			AuthenticationService authenticationService) {
+			AuthenticationService authenticationService, ViewDataLoader viewDataLoader,
+			DashboardAssembler dashboardAssembler) {
 		this.feedbackService = feedbackService;
 		this.userService = userService;
 		this.actionItemService = actionItemService;
 		this.authenticationService = authenticationService;
+		this.viewDataLoader = viewDataLoader;
+		this.dashboardAssembler = dashboardAssembler;
 
 		System.out.println("DashboardView: Constructor started");
 
@@ -106,55 +115,90 @@ public class DashboardView extends VerticalLayout {
 
 		add(new H2("Feedback Dashboard"));
 
-		// Create dashboard content
-		createDashboardContent();
+		// Show placeholders right away and fill them in when the queries finish
+		VerticalLayout skeleton = createSkeleton();
+		add(skeleton);
+
+		Long userId = currentUser.getId();
+		viewDataLoader.load(this,
+				() -> dashboardAssembler.assemble(userId),
+				data -> {
+					remove(skeleton);
+					createDashboardContent(data);
+				},
+				error -> {
+					remove(skeleton);
+					showLoadError(error);
+				});
 
 		System.out.println("DashboardView: Successfully initialized");
 	}
 
-	private void createDashboardContent() {
+	private VerticalLayout createSkeleton() {
+		HorizontalLayout statsSkeleton = new HorizontalLayout();
+		statsSkeleton.setJustifyContentMode(FlexComponent.JustifyContentMode.CENTER);
+		statsSkeleton.setWidthFull();
+		for (int i = 0; i < 3; i++) {
+			statsSkeleton.add(new Skeleton("200px", "150px"));
+		}
+
+		VerticalLayout skeleton = new VerticalLayout(statsSkeleton, Skeleton.card(3), Skeleton.card(5), Skeleton.card(2));
+		skeleton.setPadding(false);
+		skeleton.setWidthFull();
+		return skeleton;
+	}
+
+	private void createDashboardContent(DashboardSnapshot data) {
 		try {
 			// Create stats layout - FIXED: Use privacy-aware count for total feedback
 			HorizontalLayout statsLayout = new HorizontalLayout(
-					createFeedbackStatCard("Visible Feedback", feedbackService.findVisibleFeedbackForUser(currentUser.getId()).size()),
-					createFeedbackStatCard("Unread Feedback", feedbackService.countUnreadFeedback(currentUser.getId())),
-					createFeedbackStatCard("Pending Actions",
-							actionItemService.countActiveActionItems(currentUser.getId())));
+					createFeedbackStatCard("Visible Feedback", data.visibleFeedback()),
+					createFeedbackStatCard("Unread Feedback", data.unreadFeedback()),
+					createFeedbackStatCard("Pending Actions", data.activeActionItems()));
 			statsLayout.setWidthFull();
 			statsLayout.setJustifyContentMode(FlexComponent.JustifyContentMode.CENTER);
 			statsLayout.setSpacing(true);
 
 			add(statsLayout);
-			add(createStatusDistributionChart());
-			add(createRecentFeedbackSection());
+			add(createStatusDistributionChart(data.statusDistribution()));
+			add(createRecentFeedbackSection(data.recentFeedback()));
 			add(createActionItemsSummary());
 
 		} catch (Exception e) {
-			// Better error handling
-			System.err.println("Error creating dashboard content: " + e.getMessage());
-			e.printStackTrace();
+			showLoadError(e);
+		}
+	}
 
-			// Show user-friendly error message
-			VerticalLayout errorLayout = new VerticalLayout();
-			errorLayout.setAlignItems(FlexComponent.Alignment.CENTER);
+	private void showLoadError(Throwable e) {
+		// Better error handling
+		System.err.println("Error creating dashboard content: " + e.getMessage());
+		e.printStackTrace();
 
-			Span errorMessage = new Span("Error loading dashboard content. Please try refreshing the page.");
-			Button refreshButton = new Button("Refresh Page");
-			refreshButton.addClickListener(e2 -> UI.getCurrent().getPage().reload());
+		// Show user-friendly error message
+		VerticalLayout errorLayout = new VerticalLayout();
+		errorLayout.setAlignItems(FlexComponent.Alignment.CENTER);
 
-			errorLayout.add(errorMessage, refreshButton);
-			add(errorLayout);
-		}
+		Span errorMessage = new Span("Error loading dashboard content. Please try refreshing the page.");
+		Button refreshButton = new Button("Refresh Page");
+		refreshButton.addClickListener(e2 -> UI.getCurrent().getPage().reload());
+
+		errorLayout.add(errorMessage, refreshButton);
+		add(errorLayout);
 	}
 
-	private Component createFeedbackStatCard(String title, long value) {
+	private Component createFeedbackStatCard(String title, DashboardCard<Long> card) {
 		VerticalLayout layout = new VerticalLayout();
 		layout.addClassName("feedback-stat-card");
 		layout.setAlignItems(FlexComponent.Alignment.CENTER);
 
 		H3 titleComponent = new H3(title);
-		Span valueComponent = new Span(String.valueOf(value));
-		valueComponent.getStyle().set("font-size", "2.5em");
+		Span valueComponent;
+		if (card.available()) {
+			valueComponent = new Span(String.valueOf(card.value()));
+			valueComponent.getStyle().set("font-size", "2.5em");
+		} else {
+			valueComponent = createUnavailableLabel();
+		}
 
 		layout.add(titleComponent, valueComponent);
 
@@ -181,39 +225,41 @@ public class DashboardView extends VerticalLayout {
 		return layout;
 	}
 
-	private Component createStatusDistributionChart() {
+	private Component createStatusDistributionChart(DashboardCard<Map<FeedbackStatus, Long>> card) {
 		// FIXED: Use privacy-aware feedback instead of all feedback
 		VerticalLayout chartLayout = new VerticalLayout();
 		chartLayout.setWidth("100%");
 
 		H3 title = new H3("Feedback Status Distribution");
 		chartLayout.add(title);
+		styleSection(chartLayout);
 
-		// Get only feedback that the current user is authorized to see
-		List<Feedback> visibleFeedback = feedbackService.findVisibleFeedbackForUser(currentUser.getId());
-		Map<String, Integer> statusCounts = new HashMap<>();
-
-		for (Feedback feedback : visibleFeedback) {
-			statusCounts.put(feedback.getStatus(), statusCounts.getOrDefault(feedback.getStatus(), 0) + 1);
+		if (!card.available()) {
+			chartLayout.add(createUnavailableLabel());
+			return chartLayout;
 		}
 
+		// Counts cover only feedback that the current user is authorized to see
+		Map<FeedbackStatus, Integer> statusCounts = new EnumMap<>(FeedbackStatus.class);
+		card.value().forEach((status, count) -> statusCounts.put(status, count.intValue()));
+
 		// If we don't have any feedback yet, add some default statuses
 		if (statusCounts.isEmpty()) {
-			statusCounts.put("Open", 5);
-			statusCounts.put("Acknowledged", 3);
-			statusCounts.put("In Progress", 2);
-			statusCounts.put("Completed", 1);
+			statusCounts.put(FeedbackStatus.OPEN, 5);
+			statusCounts.put(FeedbackStatus.ACKNOWLEDGED, 3);
+			statusCounts.put(FeedbackStatus.IN_PROGRESS, 2);
+			statusCounts.put(FeedbackStatus.COMPLETED, 1);
 		}
 
 		// Calculate total for percentages
 		int total = statusCounts.values().stream().mapToInt(Integer::intValue).sum();
 
 		// Define colors for different statuses
-		Map<String, String> statusColors = new HashMap<>();
-		statusColors.put("Open", "var(--lumo-primary-color)");
-		statusColors.put("Acknowledged", "var(--lumo-success-color)");
-		statusColors.put("In Progress", "var(--lumo-contrast-color)");
-		statusColors.put("Completed", "var(--lumo-tertiary-color)");
+		Map<FeedbackStatus, String> statusColors = new EnumMap<>(FeedbackStatus.class);
+		statusColors.put(FeedbackStatus.OPEN, "var(--lumo-primary-color)");
+		statusColors.put(FeedbackStatus.ACKNOWLEDGED, "var(--lumo-success-color)");
+		statusColors.put(FeedbackStatus.IN_PROGRESS, "var(--lumo-contrast-color)");
+		statusColors.put(FeedbackStatus.COMPLETED, "var(--lumo-tertiary-color)");
 
 		// Create horizontal layout for the visualization
 		HorizontalLayout statusLayout = new HorizontalLayout();
@@ -221,8 +267,8 @@ public class DashboardView extends VerticalLayout {
 		statusLayout.setJustifyContentMode(FlexComponent.JustifyContentMode.CENTER);
 
 		// Create a proportional bar for each status
-		for (Map.Entry<String, Integer> entry : statusCounts.entrySet()) {
-			String status = entry.getKey();
+		for (Map.Entry<FeedbackStatus, Integer> entry : statusCounts.entrySet()) {
+			FeedbackStatus status = entry.getKey();
 			int count = entry.getValue();
 			double percentage = total > 0 ? (count * 100.0 / total) : 0;
 
@@ -250,7 +296,7 @@ public class DashboardView extends VerticalLayout {
 			block.add(countSpan);
 
 			// Add status name and percentage
-			Span statusName = new Span(status);
+			Span statusName = new Span(status.getDisplayName());
 			Span percentSpan = new Span(String.format("%.1f%%", percentage));
 
 			statusBlock.add(block, statusName, percentSpan);
@@ -259,15 +305,23 @@ public class DashboardView extends VerticalLayout {
 
 		chartLayout.add(statusLayout);
 
-		// Add some styling
-		chartLayout.getStyle().set("background-color", "var(--lumo-contrast-5pct)")
+		return chartLayout;
+	}
+
+	private void styleSection(VerticalLayout layout) {
+		layout.getStyle().set("background-color", "var(--lumo-contrast-5pct)")
 				.set("border-radius", "var(--lumo-border-radius-m)").set("padding", "var(--lumo-space-m)")
 				.set("box-shadow", "var(--lumo-box-shadow-xs)");
+	}
 
-		return chartLayout;
+	// Shown in place of a card whose query failed or timed out
+	private Span createUnavailableLabel() {
+		Span unavailable = new Span("unavailable");
+		unavailable.getStyle().set("color", "var(--lumo-secondary-text-color)").set("font-style", "italic");
+		return unavailable;
 	}
 
-	private Component createRecentFeedbackSection() {
+	private Component createRecentFeedbackSection(DashboardCard<List<Feedback>> card) {
 		VerticalLayout layout = new VerticalLayout();
 		layout.setWidth("100%");
 
@@ -285,7 +339,7 @@ public class DashboardView extends VerticalLayout {
 
 		grid.addColumn(feedback -> getRecipientDisplayName(feedback)).setHeader("To").setAutoWidth(true);
 		grid.addColumn(feedback -> feedback.getCategory()).setHeader("Category").setAutoWidth(true);
-		grid.addColumn(feedback -> feedback.getStatus()).setHeader("Status").setAutoWidth(true);
+		grid.addColumn(feedback -> feedback.getStatus().getDisplayName()).setHeader("Status").setAutoWidth(true);
 
 		// Add action button
 		grid.addComponentColumn(feedback -> {
@@ -298,17 +352,17 @@ public class DashboardView extends VerticalLayout {
 			return viewButton;
 		}).setHeader("Actions").setAutoWidth(true);
 
-		// FIXED: Get only recent feedback that the current user is authorized to see
-		List<Feedback> recentFeedback = feedbackService.findVisibleFeedbackForUser(currentUser.getId()).stream()
-				.sorted(Comparator.comparing(Feedback::getCreatedAt).reversed()).limit(5).collect(Collectors.toList());
-
-		grid.setItems(recentFeedback);
-
 		// Add a "View All" button
 		Button viewAllButton = new Button("View All Feedback", VaadinIcon.LIST.create());
 		viewAllButton.addClickListener(e -> viewAllButton.getUI().ifPresent(ui -> ui.navigate("feedback-list")));
 
-		layout.add(title, grid, viewAllButton);
+		// FIXED: Only recent feedback that the current user is authorized to see, newest first
+		if (card.available()) {
+			grid.setItems(card.value());
+			layout.add(title, grid, viewAllButton);
+		} else {
+			layout.add(title, createUnavailableLabel(), viewAllButton);
+		}
 
 		// Add some styling
 		layout.getStyle().set("background-color", "var(--lumo-contrast-5pct)")
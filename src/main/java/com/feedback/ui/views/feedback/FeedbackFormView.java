@@ -1,9 +1,14 @@
 package com.feedback.ui.views.feedback;
 
 import com.feedback.model.Feedback;
-import com.feedback.model.FeedbackTemplate;
+import com.feedback.model.FeedbackAnswer;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.FeedbackTemplateVersion;
 import com.feedback.model.PrivacyLevel;
+import com.feedback.model.QuestionType;
+import com.feedback.model.TemplateQuestion;
 import com.feedback.model.User;
+import com.feedback.policy.ContentPolicy;
 import com.feedback.service.AuthenticationService;
 import com.feedback.service.FeedbackService;
 import com.feedback.service.FeedbackTemplateService;
@@ -21,13 +26,18 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.radiobutton.RadioButtonGroup;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.PermitAll;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 @Route(value = "feedback-form", layout = MainLayout.class)
 @PageTitle("Give Feedback | Feedback System")
@@ -43,11 +53,13 @@ public class FeedbackFormView extends VerticalLayout {
     private final ComboBox<String> category = new ComboBox<>("Category");
     private final TextArea content = new TextArea("Feedback");
     private final ComboBox<PrivacyLevel> privacyLevel = new ComboBox<>("Privacy Level");
-    private final ComboBox<FeedbackTemplate> templateSelector = new ComboBox<>("Use Template");
+    private final ComboBox<FeedbackTemplateVersion> templateSelector = new ComboBox<>("Use Template");
     
     // For structured feedback based on templates
     private final VerticalLayout templateQuestionsLayout = new VerticalLayout();
     private final TextArea[] questionAnswers = new TextArea[10]; // Max 10 questions per template
+    // Rating, NPS and yes/no questions, by question index
+    private final Map<Integer, RadioButtonGroup<Integer>> questionScores = new HashMap<>();
     
     private User currentUser;
 
@@ -124,9 +136,9 @@ public class FeedbackFormView extends VerticalLayout {
     private void configureForm() {
         System.out.println("FeedbackFormView: Configuring form...");
         
-        // Only show users that the current user can give feedback to
-        List<User> availableRecipients = userService.getUsersForFeedback(currentUser);
-        recipient.setItems(availableRecipients);
+        // Only show users that the current user can give feedback to, fetched page by page as they type
+        recipient.setItems(query -> userService.searchActiveUsers(
+                query.getFilter().orElse(""), currentUser.getId(), query.getOffset(), query.getLimit()).stream());
         recipient.setItemLabelGenerator(user -> user.getFullName() + " (" + user.getRole().getName() + ")");
         recipient.setRequired(true);
         recipient.setHelperText("Select the person you want to give feedback to");
@@ -151,8 +163,7 @@ public class FeedbackFormView extends VerticalLayout {
         privacyLevel.setHelperText("Choose who can see this feedback");
         
         // Template selector
-        List<FeedbackTemplate> templates = templateService.findActiveTemplates();
-        templateSelector.setItems(templates);
+        templateSelector.setItems(templateService.findPublishedVersions());
         templateSelector.setItemLabelGenerator(template -> 
             template.getName() + " - " + template.getDescription());
         templateSelector.setHelperText("Optional: Use a structured template for your feedback");
@@ -170,7 +181,7 @@ public class FeedbackFormView extends VerticalLayout {
         System.out.println("FeedbackFormView: Form configuration completed");
     }
     
-    private void applyTemplate(FeedbackTemplate template) {
+    private void applyTemplate(FeedbackTemplateVersion template) {
         // Clear any existing questions
         templateQuestionsLayout.removeAll();
         
@@ -197,14 +208,22 @@ public class FeedbackFormView extends VerticalLayout {
         
         templateQuestionsLayout.add(templateInfo);
         
-        // Add each question with a text area for the answer
-        List<String> questions = template.getQuestions();
+        // Add each question with a text area or a score picker for the answer
+        List<TemplateQuestion> questions = template.getQuestions();
         for (int i = 0; i < questions.size() && i < questionAnswers.length; i++) {
-            String question = questions.get(i);
+            TemplateQuestion question = questions.get(i);
+            String label = "Question " + (i + 1) + ": " + question.text();
+            
+            if (question.type().isNumeric()) {
+                RadioButtonGroup<Integer> score = createScoreField(label, question.type());
+                questionScores.put(i, score);
+                templateQuestionsLayout.add(score);
+                continue;
+            }
             
             // Create a text area for the answer
             TextArea answer = new TextArea();
-            answer.setLabel("Question " + (i + 1) + ": " + question);
+            answer.setLabel(label);
             answer.setWidthFull();
             answer.setMinHeight("80px");
             answer.setRequired(true);
@@ -228,14 +247,53 @@ public class FeedbackFormView extends VerticalLayout {
         for (int i = 0; i < questionAnswers.length; i++) {
             questionAnswers[i] = null;
         }
+        questionScores.clear();
+    }
+    
+    private RadioButtonGroup<Integer> createScoreField(String label, QuestionType type) {
+        RadioButtonGroup<Integer> score = new RadioButtonGroup<>(label);
+        score.setRequired(true);
+        if (type == QuestionType.YES_NO) {
+            score.setItems(1, 0);
+        } else {
+            score.setItems(IntStream.rangeClosed(type.getMin(), type.getMax()).boxed().toList());
+        }
+        score.setItemLabelGenerator(value -> formatScore(type, value));
+        if (type == QuestionType.RATING) {
+            score.setHelperText("1 = needs improvement, 5 = excellent");
+        } else if (type == QuestionType.NPS) {
+            score.setHelperText("0 = not at all likely, 10 = extremely likely");
+        }
+        return score;
+    }
+    
+    private static String formatScore(QuestionType type, int value) {
+        if (type == QuestionType.YES_NO) {
+            return value == 1 ? "Yes" : "No";
+        }
+        return String.valueOf(value);
     }
 
     private HorizontalLayout createButtonLayout() {
         Button submitButton = new Button("Submit Feedback");
         submitButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         submitButton.addClickListener(click -> {
-            if (validateForm()) {
-                saveFeedback();
+            if (!validateForm()) {
+                return;
+            }
+            ContentPolicy.Verdict verdict = feedbackService.checkContent(getFeedbackContent(),
+                    privacyLevel.getValue(), currentUser);
+            if (verdict.isBlocked()) {
+                showError("Please remove " + verdict.describe(ContentPolicy.Action.BLOCK) + " before submitting");
+            } else if (!verdict.isClean()) {
+                confirm("Please Review Your Feedback",
+                        List.of("Your feedback contains " + verdict.describe(ContentPolicy.Action.WARN) + ".",
+                                verdict.hasPersonalData()
+                                        ? "Personal details can reveal who wrote anonymous feedback."
+                                        : "Consider rephrasing so the feedback stays constructive."),
+                        this::checkNearDuplicateAndSave);
+            } else {
+                checkNearDuplicateAndSave();
             }
         });
         
@@ -270,10 +328,19 @@ public class FeedbackFormView extends VerticalLayout {
             }
         } else {
             // Template-based feedback validation
-            FeedbackTemplate template = templateSelector.getValue();
-            List<String> questions = template.getQuestions();
+            FeedbackTemplateVersion template = templateSelector.getValue();
+            List<TemplateQuestion> questions = template.getQuestions();
             
             for (int i = 0; i < questions.size() && i < questionAnswers.length; i++) {
+                if (questions.get(i).type().isNumeric()) {
+                    RadioButtonGroup<Integer> score = questionScores.get(i);
+                    if (score == null || score.isEmpty()) {
+                        showError("Please answer all template questions");
+                        return false;
+                    }
+                    continue;
+                }
+                
                 if (questionAnswers[i] == null || questionAnswers[i].isEmpty()) {
                     showError("Please answer all template questions");
                     questionAnswers[i].focus();
@@ -334,20 +401,68 @@ public class FeedbackFormView extends VerticalLayout {
         previewDialog.open();
     }
     
+    private void checkNearDuplicateAndSave() {
+        // Only free-form text is checked; template feedback shares its question text
+        if (templateSelector.getValue() == null
+                && feedbackService.isNearDuplicate(content.getValue(), currentUser.getId())) {
+            confirm("Similar Feedback Already Sent",
+                    List.of("You have sent feedback with nearly the same text before.",
+                            "Feedback that repeats earlier feedback is not shown on the Wall of Appreciation. "
+                                    + "Consider making it specific to " + recipient.getValue().getFirstName() + "."),
+                    this::saveFeedback);
+        } else {
+            saveFeedback();
+        }
+    }
+    
+    private void confirm(String title, List<String> lines, Runnable onSubmit) {
+        com.vaadin.flow.component.dialog.Dialog confirmDialog = new com.vaadin.flow.component.dialog.Dialog();
+        confirmDialog.setHeaderTitle(title);
+        
+        VerticalLayout confirmContent = new VerticalLayout();
+        lines.forEach(line -> confirmContent.add(new Span(line)));
+        
+        Button submitAnyway = new Button("Submit Anyway");
+        submitAnyway.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        submitAnyway.addClickListener(e -> {
+            confirmDialog.close();
+            onSubmit.run();
+        });
+        
+        Button edit = new Button("Edit Feedback");
+        edit.addClickListener(e -> {
+            confirmDialog.close();
+            content.focus();
+        });
+        
+        confirmContent.add(new HorizontalLayout(submitAnyway, edit));
+        confirmDialog.add(confirmContent);
+        confirmDialog.open();
+    }
+    
     private String getFeedbackContent() {
         if (templateSelector.getValue() == null) {
             return content.getValue();
         } else {
             // Format template responses
             StringBuilder contentBuilder = new StringBuilder();
-            FeedbackTemplate template = templateSelector.getValue();
-            List<String> questions = template.getQuestions();
+            FeedbackTemplateVersion template = templateSelector.getValue();
+            List<TemplateQuestion> questions = template.getQuestions();
             
             contentBuilder.append("Template: ").append(template.getName()).append("\n\n");
             
             for (int i = 0; i < questions.size() && i < questionAnswers.length; i++) {
-                if (questionAnswers[i] != null) {
-                    contentBuilder.append(questions.get(i)).append("\n");
+                TemplateQuestion question = questions.get(i);
+                RadioButtonGroup<Integer> score = questionScores.get(i);
+                if (score != null && score.getValue() != null) {
+                    contentBuilder.append(question.text()).append("\n");
+                    contentBuilder.append(formatScore(question.type(), score.getValue()));
+                    if (question.type() != QuestionType.YES_NO) {
+                        contentBuilder.append(" / ").append(question.type().getMax());
+                    }
+                    contentBuilder.append("\n\n");
+                } else if (questionAnswers[i] != null) {
+                    contentBuilder.append(question.text()).append("\n");
                     contentBuilder.append(questionAnswers[i].getValue()).append("\n\n");
                 }
             }
@@ -356,6 +471,21 @@ public class FeedbackFormView extends VerticalLayout {
         }
     }
 
+    // One row per answered question, so template analytics don't have to parse the content text
+    private List<FeedbackAnswer> getTemplateAnswers() {
+        FeedbackTemplateVersion template = templateSelector.getValue();
+        List<FeedbackAnswer> answers = new ArrayList<>();
+        for (int i = 0; i < template.getQuestions().size() && i < questionAnswers.length; i++) {
+            RadioButtonGroup<Integer> score = questionScores.get(i);
+            if (score != null && score.getValue() != null) {
+                answers.add(new FeedbackAnswer(template.getId(), i, null, score.getValue().shortValue()));
+            } else if (questionAnswers[i] != null) {
+                answers.add(new FeedbackAnswer(template.getId(), i, questionAnswers[i].getValue(), null));
+            }
+        }
+        return answers;
+    }
+
     private void saveFeedback() {
         try {
             Feedback feedback = new Feedback();
@@ -366,9 +496,13 @@ public class FeedbackFormView extends VerticalLayout {
             feedback.setPrivacyLevel(privacyLevel.getValue());
             feedback.setCreatedAt(LocalDateTime.now());
             feedback.setRead(false);
-            feedback.setStatus("Open");
-
-            feedbackService.saveFeedback(feedback);
+            feedback.setStatus(FeedbackStatus.OPEN);
+            if (templateSelector.getValue() != null) {
+                feedback.setTemplateVersionId(templateSelector.getValue().getId());
+                feedbackService.saveFeedback(feedback, getTemplateAnswers());
+            } else {
+                feedbackService.saveFeedback(feedback);
+            }
             
             showSuccess("Feedback submitted successfully! The recipient will be notified.");
             clearForm();
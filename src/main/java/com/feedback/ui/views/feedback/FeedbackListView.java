@@ -1,7 +1,10 @@
 package com.feedback.ui.views.feedback;
 
 import com.feedback.model.ActionItem;
+import com.feedback.model.ActionItemStatus;
 import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.Priority;
 import com.feedback.model.PrivacyLevel;
 import com.feedback.model.User;
 import com.feedback.service.ActionItemService;
@@ -30,6 +33,7 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.PermitAll;
+import org.springframework.dao.OptimisticLockingFailureException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -44,6 +48,10 @@ public class FeedbackListView extends VerticalLayout {
 	private final ActionItemService actionItemService;
 	private final AuthenticationService authenticationService;
 	private final Grid<Feedback> grid = new Grid<>(Feedback.class);
+	private final ComboBox<FeedbackStatus> statusFilter = new ComboBox<>("Status");
+	// Months to look back, or 0 for all time; only long ranges read the archive
+	private final ComboBox<Integer> periodFilter = new ComboBox<>("Period");
+	private final Button markAllReadButton = new Button("Mark All as Read");
 	private Tab receivedTab;
 	private Tab sentTab;
 	private User currentUser;
@@ -76,12 +84,30 @@ public class FeedbackListView extends VerticalLayout {
 			configureGrid();
 
 			HorizontalLayout filterLayout = new HorizontalLayout();
-			ComboBox<String> statusFilter = new ComboBox<>("Status");
-			statusFilter.setItems("All", "Open", "Acknowledged", "In Progress", "Completed");
-			statusFilter.setValue("All");
+			// An empty filter means "All"
+			statusFilter.setItems(FeedbackStatus.values());
+			statusFilter.setItemLabelGenerator(FeedbackStatus::getDisplayName);
+			statusFilter.setPlaceholder("All");
+			statusFilter.setClearButtonVisible(true);
 			statusFilter.addValueChangeListener(e -> updateList());
 
-			filterLayout.add(statusFilter);
+			periodFilter.setItems(1, 12, 0);
+			periodFilter.setItemLabelGenerator(months -> switch (months) {
+				case 0 -> "All time";
+				case 1 -> "Last month";
+				default -> "Last " + months + " months";
+			});
+			periodFilter.setValue(12);
+			periodFilter.addValueChangeListener(e -> updateList());
+
+			markAllReadButton.addClickListener(e -> {
+				int updated = feedbackService.markAllAsRead(currentUser.getId());
+				updateList();
+				Notification.show(updated + " feedback item(s) marked as read");
+			});
+
+			filterLayout.setAlignItems(Alignment.END);
+			filterLayout.add(statusFilter, periodFilter, markAllReadButton);
 
 			Tabs tabs = createTabs();
 
@@ -130,7 +156,7 @@ public class FeedbackListView extends VerticalLayout {
 
 		grid.addColumn(feedback -> feedback.getRecipient().getFullName()).setHeader("To").setAutoWidth(true);
 		grid.addColumn(feedback -> feedback.getCategory()).setHeader("Category").setAutoWidth(true);
-		grid.addColumn(feedback -> feedback.getStatus()).setHeader("Status").setAutoWidth(true);
+		grid.addColumn(feedback -> feedback.getStatus().getDisplayName()).setHeader("Status").setAutoWidth(true);
 		grid.addColumn(feedback -> feedback.getPrivacyLevel().name()).setHeader("Privacy").setAutoWidth(true);
 
 		// Add action column with view button
@@ -164,9 +190,10 @@ public class FeedbackListView extends VerticalLayout {
 	}
 
 	private void openFeedbackDialog(Feedback feedback) {
-		// Mark as read if user is the recipient
+		// Mark as read if user is the recipient (buffered and written in batches)
 		if (feedback.getRecipient().getId().equals(currentUser.getId()) && !feedback.isRead()) {
-			feedbackService.markAsRead(feedback.getId());
+			feedbackService.markAsRead(currentUser.getId(), feedback.getId());
+			feedback.setRead(true);
 		}
 
 		Dialog dialog = new Dialog();
@@ -193,16 +220,26 @@ public class FeedbackListView extends VerticalLayout {
 
 		// Status update controls (only if the user is the recipient)
 		HorizontalLayout statusLayout = new HorizontalLayout();
-		ComboBox<String> statusComboBox = new ComboBox<>("Status");
-		statusComboBox.setItems("Open", "Acknowledged", "In Progress", "Completed");
+		ComboBox<FeedbackStatus> statusComboBox = new ComboBox<>("Status");
+		// Only offer the statuses the current one may move to
+		statusComboBox.setItems(feedback.getStatus().allowedTransitions());
+		statusComboBox.setItemLabelGenerator(FeedbackStatus::getDisplayName);
 		statusComboBox.setValue(feedback.getStatus());
 
 		Button updateStatusButton = new Button("Update Status");
 		updateStatusButton.addClickListener(e -> {
-			feedbackService.updateFeedbackStatus(feedback.getId(), statusComboBox.getValue());
-			dialog.close();
-			updateList();
-			Notification.show("Status updated successfully");
+			if (statusComboBox.isEmpty()) {
+				Notification.show("Please select a status");
+				return;
+			}
+			try {
+				feedbackService.updateFeedbackStatus(feedback.getId(), statusComboBox.getValue());
+				dialog.close();
+				updateList();
+				Notification.show("Status updated successfully");
+			} catch (IllegalStateException | OptimisticLockingFailureException ex) {
+				Notification.show(ex.getMessage());
+			}
 		});
 
 		// Create Action Item button
@@ -213,8 +250,8 @@ public class FeedbackListView extends VerticalLayout {
 		});
 
 		statusLayout.add(statusComboBox, updateStatusButton, createActionItemButton);
-		// Only show status controls if user is the recipient
-		statusLayout.setVisible(feedback.getRecipient().getId().equals(currentUser.getId()));
+		// Only show status controls if user is the recipient; archived feedback is read-only
+		statusLayout.setVisible(feedback.getRecipient().getId().equals(currentUser.getId()) && !feedback.isArchived());
 
 		Button closeButton = new Button("Close");
 		closeButton.addClickListener(e -> dialog.close());
@@ -244,7 +281,8 @@ public class FeedbackListView extends VerticalLayout {
 				+ feedback.getContent().substring(0, Math.min(200, feedback.getContent().length())) + "...");
 
 		ComboBox<User> assignedTo = new ComboBox<>("Assigned To");
-		assignedTo.setItems(userService.findAllUsers());
+		assignedTo.setItems(query -> userService.searchActiveUsers(
+				query.getFilter().orElse(""), null, query.getOffset(), query.getLimit()).stream());
 		assignedTo.setItemLabelGenerator(User::getFullName);
 		assignedTo.setValue(feedback.getRecipient()); // Default to the feedback recipient
 		assignedTo.setRequired(true);
@@ -252,9 +290,10 @@ public class FeedbackListView extends VerticalLayout {
 		DatePicker dueDate = new DatePicker("Due Date");
 		dueDate.setValue(LocalDate.now().plusWeeks(1)); // Default to one week from now
 
-		ComboBox<String> priority = new ComboBox<>("Priority");
-		priority.setItems("Low", "Medium", "High");
-		priority.setValue("Medium");
+		ComboBox<Priority> priority = new ComboBox<>("Priority");
+		priority.setItems(Priority.values());
+		priority.setItemLabelGenerator(Priority::getDisplayName);
+		priority.setValue(Priority.MEDIUM);
 
 		// Create form layout
 		FormLayout formLayout = new FormLayout();
@@ -277,7 +316,7 @@ public class FeedbackListView extends VerticalLayout {
 			actionItem.setAssignedTo(assignedTo.getValue());
 			actionItem.setDueDate(dueDate.getValue());
 			actionItem.setPriority(priority.getValue());
-			actionItem.setStatus("Open");
+			actionItem.setStatus(ActionItemStatus.OPEN);
 			actionItem.setCreatedBy(currentUser);
 			actionItem.setCreatedAt(LocalDateTime.now());
 
@@ -298,16 +337,31 @@ public class FeedbackListView extends VerticalLayout {
 
 	private void showReceivedFeedback() {
 		if (currentUser != null) {
-			List<Feedback> feedbackList = feedbackService.findFeedbackReceivedByUser(currentUser.getId());
-			grid.setItems(feedbackList);
+			List<Feedback> feedbackList = feedbackService.findFeedbackReceivedByUser(currentUser.getId(), periodStart());
+			grid.setItems(applyStatusFilter(feedbackList));
+			markAllReadButton.setVisible(true);
 		}
 	}
 
 	private void showSentFeedback() {
 		if (currentUser != null) {
-			List<Feedback> feedbackList = feedbackService.findFeedbackSentByUser(currentUser.getId());
-			grid.setItems(feedbackList);
+			List<Feedback> feedbackList = feedbackService.findFeedbackSentByUser(currentUser.getId(), periodStart());
+			grid.setItems(applyStatusFilter(feedbackList));
+			markAllReadButton.setVisible(false);
+		}
+	}
+
+	private LocalDateTime periodStart() {
+		Integer months = periodFilter.getValue();
+		return months == null || months == 0 ? null : LocalDateTime.now().minusMonths(months);
+	}
+
+	private List<Feedback> applyStatusFilter(List<Feedback> feedbackList) {
+		FeedbackStatus status = statusFilter.getValue();
+		if (status == null) {
+			return feedbackList;
 		}
+		return feedbackList.stream().filter(feedback -> feedback.getStatus() == status).toList();
 	}
 
 	private void updateList() {
@@ -1,6 +1,7 @@
 package com.feedback.ui.views.templates;
 
 import com.feedback.model.FeedbackTemplate;
+import com.feedback.model.TemplateQuestion;
 import com.feedback.service.AuthenticationService;
 import com.feedback.service.FeedbackTemplateService;
 import com.feedback.ui.MainLayout;
@@ -28,8 +29,8 @@ import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.PermitAll;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Route(value = "templates", layout = MainLayout.class)
 @PageTitle("Feedback Templates | Feedback System")
@@ -163,6 +164,10 @@ public class TemplateView extends VerticalLayout {
         grid.addColumn(template -> template.getQuestions().size())
             .setHeader("Questions").setAutoWidth(true);
         
+        grid.addColumn(template -> template.getCurrentVersion() != null
+                ? "v" + template.getCurrentVersion().getVersionNumber() : "-")
+            .setHeader("Version").setAutoWidth(true);
+        
         // Active status with visual indicator
         grid.addComponentColumn(template -> {
             Span activeSpan = new Span(template.isActive() ? "Active" : "Inactive");
@@ -241,6 +246,8 @@ public class TemplateView extends VerticalLayout {
         questions.setWidthFull();
         questions.setHeight("200px");
         questions.setPlaceholder("Enter each question on a new line...");
+        questions.setHelperText("Start a line with [rating], [nps] or [yes/no] for a scored question. "
+                + "Saving changes publishes a new version; feedback already written keeps its version");
         
         // Custom binding for questions list
         binder.forField(name).bind(FeedbackTemplate::getName, FeedbackTemplate::setName);
@@ -251,18 +258,28 @@ public class TemplateView extends VerticalLayout {
         // We need custom binding for the questions since they're stored as a list
         binder.forField(questions)
               .bind(
-                  template -> String.join("\n", template.getQuestions()),
+                  template -> template.getQuestions().stream()
+                          .map(TemplateQuestion::format)
+                          .collect(Collectors.joining("\n")),
                   (template, value) -> {
-                      List<String> questionList = new ArrayList<>(
-                          Arrays.asList(value.split("\n"))
-                      );
-                      // Remove empty lines
-                      questionList.removeIf(q -> q.trim().isEmpty());
+                      List<TemplateQuestion> questionList = new ArrayList<>();
+                      for (String line : value.split("\n")) {
+                          // Skip empty lines
+                          if (!line.trim().isEmpty()) {
+                              questionList.add(TemplateQuestion.parse(line));
+                          }
+                      }
                       template.setQuestions(questionList);
                   }
               );
     }
     
+    private static String describe(TemplateQuestion question) {
+        return question.type().isNumeric()
+                ? question.text() + " (" + question.type().getDisplayName() + ")"
+                : question.text();
+    }
+    
     private void openTemplatePreviewDialog(FeedbackTemplate template) {
         Dialog dialog = new Dialog();
         dialog.setHeaderTitle("Template Preview: " + template.getName());
@@ -284,6 +301,8 @@ public class TemplateView extends VerticalLayout {
             createPreviewRow("Name:", template.getName()),
             createPreviewRow("Description:", template.getDescription()),
             createPreviewRow("Status:", template.isActive() ? "Active" : "Inactive"),
+            createPreviewRow("Version:", template.getCurrentVersion() != null
+                    ? String.valueOf(template.getCurrentVersion().getVersionNumber()) : "Unpublished"),
             createPreviewRow("Number of Questions:", String.valueOf(template.getQuestions().size()))
         );
         
@@ -310,7 +329,7 @@ public class TemplateView extends VerticalLayout {
         
         for (int i = 0; i < template.getQuestions().size(); i++) {
             Div questionDiv = new Div();
-            questionDiv.setText((i + 1) + ". " + template.getQuestions().get(i));
+            questionDiv.setText((i + 1) + ". " + describe(template.getQuestions().get(i)));
             questionDiv.getStyle()
                     .set("border", "1px solid var(--lumo-primary-color-50pct)")
                     .set("border-radius", "var(--lumo-border-radius-s)")
@@ -418,7 +437,8 @@ public class TemplateView extends VerticalLayout {
                 int questionNumber = 1;
                 for (String line : questionLines) {
                     if (!line.trim().isEmpty()) {
-                        preview.append(questionNumber).append(". ").append(line.trim()).append("\n");
+                        preview.append(questionNumber).append(". ")
+                               .append(describe(TemplateQuestion.parse(line))).append("\n");
                         questionNumber++;
                     }
                 }
@@ -3,9 +3,11 @@ package com.feedback.ui.views.users;
 import com.feedback.model.Department;
 import com.feedback.model.Role;
 import com.feedback.model.User;
+import com.feedback.repository.UserSummary;
 import com.feedback.service.AuthenticationService;
 import com.feedback.service.UserService;
 import com.feedback.ui.MainLayout;
+import com.feedback.ui.ViewDataLoader;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -25,12 +27,15 @@ import com.vaadin.flow.component.textfield.PasswordField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
+import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 
 import jakarta.annotation.security.PermitAll;
 
 import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
 
 @Route(value = "users", layout = MainLayout.class)
 @PageTitle("Users | Feedback System")
@@ -39,7 +44,14 @@ public class UserView extends VerticalLayout {
 
     private final UserService userService;
     private final AuthenticationService authenticationService;
-    private final Grid<User> grid = new Grid<>(User.class);
+    private final ViewDataLoader viewDataLoader;
+    private final Grid<UserSummary> grid = new Grid<>();
+
+    // Grid filters, applied in the database query
+    private final TextField searchFilter = new TextField();
+    private final ComboBox<Role> roleFilter = new ComboBox<>();
+    private final ComboBox<Department> departmentFilter = new ComboBox<>();
+    private final ComboBox<Boolean> statusFilter = new ComboBox<>();
 
     // Form fields for user creation/editing
     private final TextField username = new TextField("Username");
@@ -54,9 +66,11 @@ public class UserView extends VerticalLayout {
 
     private User currentEditingUser = null;
 
-    public UserView(UserService userService, AuthenticationService authenticationService) {
+    public UserView(UserService userService, AuthenticationService authenticationService,
+                    ViewDataLoader viewDataLoader) {
         this.userService = userService;
         this.authenticationService = authenticationService;
+        this.viewDataLoader = viewDataLoader;
 
         System.out.println("UserView: Constructor started");
 
@@ -100,44 +114,85 @@ public class UserView extends VerticalLayout {
         grid.addClassName("user-grid");
         grid.setSizeFull();
 
-        grid.removeAllColumns();
-        grid.addColumn(User::getUsername).setHeader("Username").setAutoWidth(true);
-        grid.addColumn(User::getFullName).setHeader("Full Name").setAutoWidth(true);
-        grid.addColumn(User::getEmail).setHeader("Email").setAutoWidth(true);
-        grid.addColumn(user -> user.getRole() != null ? user.getRole().getName() : "").setHeader("Role").setAutoWidth(true);
-        grid.addColumn(user -> user.getDepartment() != null ? user.getDepartment().getName() : "").setHeader("Department").setAutoWidth(true);
-        grid.addColumn(user -> user.getManager() != null ? user.getManager().getFullName() : "").setHeader("Manager").setAutoWidth(true);
-        grid.addColumn(user -> user.isActive() ? "Active" : "Inactive").setHeader("Status").setAutoWidth(true);
-        grid.addColumn(user -> user.getCreatedAt() != null ?
-                user.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) : "").setHeader("Created").setAutoWidth(true);
-        grid.addColumn(user -> user.getLastLogin() != null ?
-                user.getLastLogin().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) : "Never").setHeader("Last Login").setAutoWidth(true);
+        // Sort properties are resolved by UserRepositoryImpl
+        grid.addColumn(UserSummary::username).setHeader("Username").setSortProperty("username");
+        grid.addColumn(UserSummary::fullName).setHeader("Full Name").setSortProperty("lastName", "firstName");
+        grid.addColumn(UserSummary::email).setHeader("Email").setSortProperty("email");
+        grid.addColumn(user -> user.roleName() != null ? user.roleName() : "").setHeader("Role").setSortProperty("role.name");
+        grid.addColumn(user -> user.departmentName() != null ? user.departmentName() : "").setHeader("Department").setSortProperty("department.name");
+        grid.addColumn(UserSummary::managerName).setHeader("Manager").setSortProperty("manager.lastName");
+        grid.addColumn(user -> user.active() ? "Active" : "Inactive").setHeader("Status").setSortProperty("isActive");
+        grid.addColumn(user -> user.createdAt() != null ?
+                user.createdAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) : "").setHeader("Created").setSortProperty("createdAt");
+        grid.addColumn(user -> user.lastLogin() != null ?
+                user.lastLogin().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) : "Never").setHeader("Last Login").setSortProperty("lastLogin");
 
         grid.addComponentColumn(user -> {
             HorizontalLayout actions = new HorizontalLayout();
             Button editButton = new Button("Edit");
-            editButton.addClickListener(e -> openUserForm(user));
-            Button toggleButton = new Button(user.isActive() ? "Deactivate" : "Activate");
+            editButton.addClickListener(e -> withUser(user, this::openUserForm));
+            Button toggleButton = new Button(user.active() ? "Deactivate" : "Activate");
             toggleButton.addClickListener(e -> toggleUserStatus(user));
             Button resetPasswordButton = new Button("Reset Password");
-            resetPasswordButton.addClickListener(e -> openResetPasswordDialog(user));
+            resetPasswordButton.addClickListener(e -> withUser(user, this::openResetPasswordDialog));
             actions.add(editButton, toggleButton, resetPasswordButton);
             return actions;
-        }).setHeader("Actions").setAutoWidth(true);
+        }).setHeader("Actions");
 
         grid.getColumns().forEach(col -> col.setAutoWidth(true));
+
+        // Rows are fetched a window at a time as the admin scrolls; nothing is held per session
+        grid.setItems(
+                query -> userService.findUserSummaries(searchFilter.getValue(), roleFilter.getValue(),
+                        departmentFilter.getValue(), statusFilter.getValue(), query.getOffset(), query.getLimit(),
+                        VaadinSpringDataHelpers.toSpringDataSort(query)).stream(),
+                query -> (int) userService.countUsers(searchFilter.getValue(), roleFilter.getValue(),
+                        departmentFilter.getValue(), statusFilter.getValue()));
     }
 
     private HorizontalLayout getManagementToolbar() {
         HorizontalLayout toolbar = new HorizontalLayout();
+
+        searchFilter.setPlaceholder("Name or email starts with...");
+        searchFilter.setClearButtonVisible(true);
+        searchFilter.setValueChangeMode(ValueChangeMode.LAZY);
+        searchFilter.addValueChangeListener(e -> updateList());
+
+        roleFilter.setPlaceholder("All Roles");
+        roleFilter.setItems(userService.findAllRoles());
+        roleFilter.setItemLabelGenerator(Role::getName);
+        roleFilter.setClearButtonVisible(true);
+        roleFilter.addValueChangeListener(e -> updateList());
+
+        departmentFilter.setPlaceholder("All Departments");
+        departmentFilter.setItems(userService.findAllDepartments());
+        departmentFilter.setItemLabelGenerator(Department::getName);
+        departmentFilter.setClearButtonVisible(true);
+        departmentFilter.addValueChangeListener(e -> updateList());
+
+        statusFilter.setPlaceholder("All Statuses");
+        statusFilter.setItems(true, false);
+        statusFilter.setItemLabelGenerator(active -> active ? "Active" : "Inactive");
+        statusFilter.setClearButtonVisible(true);
+        statusFilter.addValueChangeListener(e -> updateList());
+
         Button addUserButton = new Button("Add User");
         addUserButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         addUserButton.addClickListener(e -> openUserForm(new User()));
-        toolbar.add(addUserButton);
+        toolbar.add(searchFilter, roleFilter, departmentFilter, statusFilter, addUserButton);
         toolbar.addClassName("toolbar");
         return toolbar;
     }
 
+    // Grid rows are summaries; actions that need the entity load it on demand
+    private void withUser(UserSummary summary, Consumer<User> action) {
+        userService.findUserById(summary.id()).ifPresentOrElse(action,
+                () -> {
+                    showError("User no longer exists");
+                    updateList();
+                });
+    }
+
     // Rest of your existing methods remain unchanged...
     private void openUserForm(User user) {
         boolean isNewUser = user.getId() == null;
@@ -182,7 +237,8 @@ public class UserView extends VerticalLayout {
         department.setItemLabelGenerator(Department::getName);
         department.setRequired(true);
 
-        manager.setItems(userService.findActiveUsers());
+        manager.setItems(query -> userService.searchActiveUsers(
+                query.getFilter().orElse(""), null, query.getOffset(), query.getLimit()).stream());
         manager.setItemLabelGenerator(User::getFullName);
 
         if (isNewUser) {
@@ -279,18 +335,30 @@ public class UserView extends VerticalLayout {
         confirmDialog.setHeaderTitle("Confirm Delete");
         VerticalLayout content = new VerticalLayout();
         content.add(new Span("Are you sure you want to delete user: " + user.getFullName() + "?"));
-        content.add(new Span("This action cannot be undone."));
+        content.add(new Span("Their feedback and action items are kept under a \"Former employee\" " +
+                "placeholder and their name is removed from the text. This action cannot be undone."));
         HorizontalLayout buttons = new HorizontalLayout();
         Button confirmButton = new Button("Delete");
         confirmButton.addThemeVariants(ButtonVariant.LUMO_ERROR);
+        Button cancelButton = new Button("Cancel");
         confirmButton.addClickListener(e -> {
-            userService.deleteUser(user.getId());
-            confirmDialog.close();
-            dialog.close();
-            updateList();
-            showSuccess("User deleted successfully");
+            // Erasing a user with a long history takes a while; run it off the UI thread
+            confirmButton.setEnabled(false);
+            cancelButton.setEnabled(false);
+            confirmButton.setText("Deleting...");
+            viewDataLoader.runInBackground(this, () -> userService.deleteUser(user.getId()),
+                    report -> {
+                        confirmDialog.close();
+                        dialog.close();
+                        updateList();
+                        showSuccess("User deleted; " + report.total() + " references moved, "
+                                + report.scrubbed() + " texts scrubbed");
+                    },
+                    error -> {
+                        confirmDialog.close();
+                        showError("Error deleting user: " + error.getMessage());
+                    });
         });
-        Button cancelButton = new Button("Cancel");
         cancelButton.addClickListener(e -> confirmDialog.close());
         buttons.add(confirmButton, cancelButton);
         content.add(buttons);
@@ -298,12 +366,12 @@ public class UserView extends VerticalLayout {
         confirmDialog.open();
     }
 
-    private void toggleUserStatus(User user) {
-        if (user.isActive()) {
-            userService.deactivateUser(user.getId());
+    private void toggleUserStatus(UserSummary user) {
+        if (user.active()) {
+            userService.deactivateUser(user.id());
             showSuccess("User deactivated successfully");
         } else {
-            userService.reactivateUser(user.getId());
+            userService.reactivateUser(user.id());
             showSuccess("User reactivated successfully");
         }
         updateList();
@@ -351,7 +419,7 @@ public class UserView extends VerticalLayout {
     }
 
     private void updateList() {
-        grid.setItems(userService.findAllUsers());
+        grid.getDataProvider().refreshAll();
     }
 
     private void clearForm() {
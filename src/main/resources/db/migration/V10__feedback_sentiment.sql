@@ -0,0 +1,10 @@
+-- Content sentiment, -100 (negative) to 100 (positive), scored in the background after
+-- feedback is saved. NULL means not scored yet; the backfill job walks those rows by id,
+-- hence the (sentiment, id) indexes.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+ALTER TABLE feedback ADD COLUMN sentiment TINYINT NULL;
+CREATE INDEX idx_feedback_sentiment ON feedback (sentiment, id);
+
+ALTER TABLE feedback_archive ADD COLUMN sentiment TINYINT NULL;
+CREATE INDEX idx_archive_sentiment ON feedback_archive (sentiment, id);
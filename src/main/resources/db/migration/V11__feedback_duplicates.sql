@@ -0,0 +1,5 @@
+-- Near-duplicate feedback points at the earlier feedback of the same sender it repeats.
+-- The wall lists only feedback where this is NULL.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+ALTER TABLE feedback ADD COLUMN duplicate_of_id BIGINT NULL;
@@ -0,0 +1,8 @@
+-- Indexes for the prefix search over first name, last name and username in the user grid
+-- and pickers. The search compares the columns directly (no LOWER()), relying on the
+-- case-insensitive default collation; email is already covered by its unique index.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+CREATE INDEX idx_users_first_name ON users (first_name);
+CREATE INDEX idx_users_last_name ON users (last_name);
+CREATE INDEX idx_users_username ON users (username);
@@ -0,0 +1,5 @@
+-- Archived feedback keeps the near-duplicate link it had in the hot table, so it also
+-- survives into archive segments.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+ALTER TABLE feedback_archive ADD COLUMN duplicate_of_id BIGINT NULL;
@@ -0,0 +1,81 @@
+-- Schema as Hibernate created it on MySQL before the numbered migrations existed, i.e.
+-- what V2 onwards upgrade. A new database runs every script from here; a database that
+-- was created by ddl-auto is baselined instead (see spring.flyway.baseline-version in
+-- application-prod.properties) so this script is skipped there.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+CREATE TABLE department (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    description VARCHAR(255),
+    name VARCHAR(255)
+) ENGINE=InnoDB;
+
+CREATE TABLE roles (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    description VARCHAR(255),
+    name VARCHAR(255)
+) ENGINE=InnoDB;
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    is_active BIT NOT NULL,
+    created_at DATETIME(6),
+    department_id BIGINT,
+    last_login DATETIME(6),
+    manager_id BIGINT,
+    role_id BIGINT,
+    email VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    password VARCHAR(255) NOT NULL,
+    username VARCHAR(255),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT fk_users_department FOREIGN KEY (department_id) REFERENCES department (id),
+    CONSTRAINT fk_users_manager FOREIGN KEY (manager_id) REFERENCES users (id),
+    CONSTRAINT fk_users_role FOREIGN KEY (role_id) REFERENCES roles (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE feedback (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    is_read BIT NOT NULL,
+    created_at DATETIME(6),
+    recipient_id BIGINT,
+    sender_id BIGINT,
+    content VARCHAR(1000),
+    category VARCHAR(255),
+    status VARCHAR(255),
+    privacy_level ENUM('ANONYMOUS', 'DEPARTMENT', 'PRIVATE', 'PUBLIC'),
+    CONSTRAINT fk_feedback_recipient FOREIGN KEY (recipient_id) REFERENCES users (id),
+    CONSTRAINT fk_feedback_sender FOREIGN KEY (sender_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE action_item (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    due_date DATE,
+    assigned_to_id BIGINT,
+    completed_at DATETIME(6),
+    created_at DATETIME(6),
+    created_by_id BIGINT,
+    feedback_id BIGINT,
+    description VARCHAR(1000),
+    priority VARCHAR(255),
+    status VARCHAR(255),
+    title VARCHAR(255),
+    CONSTRAINT fk_action_item_assignee FOREIGN KEY (assigned_to_id) REFERENCES users (id),
+    CONSTRAINT fk_action_item_creator FOREIGN KEY (created_by_id) REFERENCES users (id),
+    CONSTRAINT fk_action_item_feedback FOREIGN KEY (feedback_id) REFERENCES feedback (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE feedback_template (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    is_active BIT NOT NULL,
+    instructions VARCHAR(500),
+    description VARCHAR(255),
+    name VARCHAR(255)
+) ENGINE=InnoDB;
+
+CREATE TABLE template_questions (
+    template_id BIGINT NOT NULL,
+    question VARCHAR(500),
+    CONSTRAINT fk_template_questions_template FOREIGN KEY (template_id) REFERENCES feedback_template (id)
+) ENGINE=InnoDB;
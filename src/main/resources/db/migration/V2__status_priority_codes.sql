@@ -0,0 +1,40 @@
+-- Converts the free-form status/priority strings on existing MySQL databases to the
+-- small-integer codes used by FeedbackStatus, ActionItemStatus and Priority.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+-- Feedback.status: Open=0, Acknowledged=1, In Progress=2, Completed=3
+ALTER TABLE feedback ADD COLUMN status_code SMALLINT NOT NULL DEFAULT 0;
+UPDATE feedback SET status_code = CASE status
+    WHEN 'Acknowledged' THEN 1
+    WHEN 'In Progress' THEN 2
+    WHEN 'Completed' THEN 3
+    ELSE 0
+END;
+ALTER TABLE feedback DROP COLUMN status;
+ALTER TABLE feedback CHANGE COLUMN status_code status SMALLINT NOT NULL DEFAULT 0;
+
+-- ActionItem.status: Open=0, In Progress=1, Completed=2, Cancelled=3
+ALTER TABLE action_item ADD COLUMN status_code SMALLINT NOT NULL DEFAULT 0;
+UPDATE action_item SET status_code = CASE status
+    WHEN 'In Progress' THEN 1
+    WHEN 'Completed' THEN 2
+    WHEN 'Cancelled' THEN 3
+    ELSE 0
+END;
+ALTER TABLE action_item DROP COLUMN status;
+ALTER TABLE action_item CHANGE COLUMN status_code status SMALLINT NOT NULL DEFAULT 0;
+
+-- ActionItem.priority: Low=0, Medium=1, High=2
+ALTER TABLE action_item ADD COLUMN priority_code SMALLINT NOT NULL DEFAULT 1;
+UPDATE action_item SET priority_code = CASE priority
+    WHEN 'Low' THEN 0
+    WHEN 'High' THEN 2
+    ELSE 1
+END;
+ALTER TABLE action_item DROP COLUMN priority;
+ALTER TABLE action_item CHANGE COLUMN priority_code priority SMALLINT NOT NULL DEFAULT 1;
+
+-- Indexes backing the hot status filters
+CREATE INDEX idx_feedback_recipient_read ON feedback (recipient_id, is_read);
+CREATE INDEX idx_feedback_status ON feedback (status);
+CREATE INDEX idx_action_item_assignee_status ON action_item (assigned_to_id, status);
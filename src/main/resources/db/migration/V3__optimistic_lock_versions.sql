@@ -0,0 +1,5 @@
+-- Adds the optimistic-lock version columns used by Feedback and ActionItem.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+ALTER TABLE feedback ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE action_item ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
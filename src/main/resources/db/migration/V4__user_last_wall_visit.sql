@@ -0,0 +1,4 @@
+-- Adds the timestamp used for the "new on the Wall of Appreciation" badge.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+ALTER TABLE users ADD COLUMN last_wall_visit DATETIME(6) NULL;
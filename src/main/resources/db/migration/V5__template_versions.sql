@@ -0,0 +1,36 @@
+-- Moves template questions from the template_questions element collection into
+-- immutable, versioned rows with the questions as a JSON array, and lets feedback
+-- record which version it was written from.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+CREATE TABLE feedback_template_version (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    template_id BIGINT NOT NULL,
+    version_number INT NOT NULL,
+    name VARCHAR(255),
+    description VARCHAR(255),
+    instructions VARCHAR(500),
+    questions VARCHAR(8000),
+    created_at DATETIME(6),
+    CONSTRAINT uk_template_version UNIQUE (template_id, version_number)
+);
+
+-- Every existing template becomes version 1 of itself. template_questions has no order
+-- column; the element collection was always rewritten in list order, so row order by
+-- insertion is the best available ordering.
+INSERT INTO feedback_template_version (template_id, version_number, name, description, instructions, questions, created_at)
+SELECT t.id, 1, t.name, t.description, t.instructions,
+       COALESCE((SELECT JSON_ARRAYAGG(q.question) FROM template_questions q WHERE q.template_id = t.id), JSON_ARRAY()),
+       NOW(6)
+FROM feedback_template t;
+
+ALTER TABLE feedback_template ADD COLUMN current_version_id BIGINT NULL;
+UPDATE feedback_template t
+    JOIN feedback_template_version v ON v.template_id = t.id AND v.version_number = 1
+    SET t.current_version_id = v.id;
+ALTER TABLE feedback_template
+    ADD CONSTRAINT fk_template_current_version FOREIGN KEY (current_version_id) REFERENCES feedback_template_version (id);
+
+ALTER TABLE feedback ADD COLUMN template_version_id BIGINT NULL;
+
+DROP TABLE template_questions;
@@ -0,0 +1,21 @@
+-- Per-question answers for template-based feedback, with the recipient's department
+-- and the answer time copied in so the rating aggregates stay on one covering index.
+-- Feedback written before this change keeps its answers only in feedback.content;
+-- they are not parsed back out.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+CREATE TABLE feedback_answer (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    feedback_id BIGINT NOT NULL,
+    template_version_id BIGINT NOT NULL,
+    question_index INT NOT NULL,
+    text VARCHAR(2000),
+    rating SMALLINT NULL,
+    department_id BIGINT NULL,
+    answered_at DATETIME(6) NOT NULL,
+    CONSTRAINT fk_answer_feedback FOREIGN KEY (feedback_id) REFERENCES feedback (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_answer_feedback ON feedback_answer (feedback_id);
+CREATE INDEX idx_answer_question_stats
+    ON feedback_answer (template_version_id, question_index, department_id, answered_at, rating);
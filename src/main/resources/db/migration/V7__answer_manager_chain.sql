@@ -0,0 +1,17 @@
+-- Rating analytics group answers by the recipient's manager as well as department,
+-- and filter by period before question, so the stats index is rebuilt to lead with
+-- version and answer time and to cover manager_id.
+-- Typed template questions need no schema change: they are stored in the existing
+-- questions JSON column, and plain strings still read as free-text questions.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+ALTER TABLE feedback_answer ADD COLUMN manager_id BIGINT NULL;
+
+UPDATE feedback_answer a
+    JOIN feedback f ON f.id = a.feedback_id
+    JOIN users u ON u.id = f.recipient_id
+    SET a.manager_id = u.manager_id;
+
+DROP INDEX idx_answer_question_stats ON feedback_answer;
+CREATE INDEX idx_answer_question_stats
+    ON feedback_answer (template_version_id, answered_at, question_index, department_id, manager_id, rating);
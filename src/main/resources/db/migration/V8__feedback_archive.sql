@@ -0,0 +1,32 @@
+-- Cold tier for feedback past the hot horizon (feedback.archive.horizon-days). The
+-- archiver copies rows here with their original ids and deletes them from feedback in
+-- the same transaction. Native partitioning by created_at was not used because MySQL
+-- does not allow foreign keys on partitioned tables, and action_item references feedback.
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+CREATE TABLE feedback_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    sender_id BIGINT,
+    recipient_id BIGINT,
+    content VARCHAR(1000),
+    created_at DATETIME(6),
+    privacy_level ENUM('PUBLIC', 'DEPARTMENT', 'PRIVATE', 'ANONYMOUS'),
+    category VARCHAR(255),
+    is_read BIT NOT NULL,
+    status SMALLINT,
+    template_version_id BIGINT,
+    archived_at DATETIME(6),
+    CONSTRAINT fk_archive_sender FOREIGN KEY (sender_id) REFERENCES users (id),
+    CONSTRAINT fk_archive_recipient FOREIGN KEY (recipient_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_archive_recipient_created ON feedback_archive (recipient_id, created_at);
+CREATE INDEX idx_archive_sender_created ON feedback_archive (sender_id, created_at);
+CREATE INDEX idx_archive_privacy_created ON feedback_archive (privacy_level, created_at);
+CREATE INDEX idx_archive_created ON feedback_archive (created_at);
+
+-- The archiver scans the hot table by age
+CREATE INDEX idx_feedback_created ON feedback (created_at);
+
+-- Answers stay put when their feedback moves to the archive
+ALTER TABLE feedback_answer DROP FOREIGN KEY fk_answer_feedback;
@@ -0,0 +1,5 @@
+-- The retention purge selects expired feedback per privacy level, oldest first, in
+-- small chunks. feedback_archive already has the matching index (idx_archive_privacy_created).
+-- Development runs on H2 with ddl-auto=create-drop and does not need this script.
+
+CREATE INDEX idx_feedback_privacy_created ON feedback (privacy_level, created_at);
@@ -0,0 +1,43 @@
+package com.feedback;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the prod profile against an empty MySQL: Flyway has to build the whole schema
+ * from db/migration, and the context only comes up if Hibernate's ddl-auto=validate then
+ * finds every entity table and column. Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {"vaadin.productionMode=false", "spring.datasource.hikari.minimum-idle=1"})
+@ActiveProfiles("prod")
+class ProdSchemaMigrationTest {
+
+	@Container
+	@ServiceConnection
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void migrationsBuildTheSchemaTheEntitiesExpect() {
+		List<String> versions = jdbcTemplate.queryForList(
+				"SELECT version FROM flyway_schema_history WHERE success = 1 ORDER BY installed_rank", String.class);
+		assertEquals("1", versions.get(0));
+		assertEquals(String.valueOf(versions.size()), versions.get(versions.size() - 1));
+		assertTrue(jdbcTemplate.queryForList("SHOW TABLES", String.class).contains("feedback_answer"));
+	}
+}
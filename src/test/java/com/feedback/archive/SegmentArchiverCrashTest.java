@@ -0,0 +1,149 @@
+package com.feedback.archive;
+
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Rewriting a segment swaps it for a new file in steps. These tests stop after each step,
+ * as a crash would, then open the directory with a fresh reader (a restart) and check it
+ * sees exactly one of the two versions, and that the archiver's next run cleans up.
+ */
+class SegmentArchiverCrashTest {
+
+	private static final Long ERASED = 7L;
+
+	@TempDir
+	Path directory;
+
+	private List<ArchiveRecord> original;
+	private List<ArchiveRecord> rewritten;
+	private Path old;
+
+	@BeforeEach
+	void writeSegment() {
+		original = new ArrayList<>();
+		for (long id = 1; id <= 6; id++) {
+			Long sender = id % 3 == 0 ? ERASED : 100 + id;
+			original.add(new ArchiveRecord(id, sender, 200 + id, "Feedback " + id, LocalDateTime.of(2020, 1, (int) id, 9, 0),
+					PrivacyLevel.PRIVATE, null, true, FeedbackStatus.COMPLETED, null, null, null, List.of()));
+		}
+		rewritten = original.stream().filter(record -> !record.involves(ERASED)).toList();
+		old = new ArchiveReader(directory.toString()).nextSegmentPath();
+		new SegmentWriter(4096, 3).write(old, original);
+	}
+
+	@Test
+	void rewriteSwapsTheSegmentAndLeavesNothingBehind() {
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+		assertEquals(2, archiver(reader).rewrite(record -> record.involves(ERASED) ? null : record));
+
+		assertEquals(rewritten, reader.findBetween(null, null));
+		assertEquals(List.of("segment-00000002.fseg"), files());
+	}
+
+	@Test
+	void crashWhileWritingTheReplacement() {
+		Path target = new ArchiveReader(directory.toString()).nextSegmentPath();
+		new SegmentWriter(4096, 3).writeUnpublished(target, rewritten);
+
+		assertAfterRestart(original);
+		assertEquals(List.of("segment-00000001.fseg"), files());
+	}
+
+	@Test
+	void crashAfterJournalingTheSwap() {
+		Path target = new ArchiveReader(directory.toString()).nextSegmentPath();
+		SegmentWriter writer = new SegmentWriter(4096, 3);
+		writer.writeUnpublished(target, rewritten);
+		new SegmentJournal(directory).put(old, target);
+
+		assertAfterRestart(original);
+		assertEquals(List.of("segment-00000001.fseg"), files());
+	}
+
+	@Test
+	void crashAfterPublishingTheReplacement() {
+		Path target = new ArchiveReader(directory.toString()).nextSegmentPath();
+		SegmentWriter writer = new SegmentWriter(4096, 3);
+		Path temp = writer.writeUnpublished(target, rewritten);
+		new SegmentJournal(directory).put(old, target);
+		writer.publish(temp, target);
+
+		// The old file is still there, but the journal says it has been replaced
+		assertEquals(List.of("segment-00000001.fseg", "segment-00000002.fseg", SegmentJournal.FILE_NAME), files());
+		assertAfterRestart(rewritten);
+		assertEquals(List.of("segment-00000002.fseg"), files());
+	}
+
+	@Test
+	void crashAfterDeletingTheOldSegment() throws IOException {
+		Path target = new ArchiveReader(directory.toString()).nextSegmentPath();
+		SegmentWriter writer = new SegmentWriter(4096, 3);
+		Path temp = writer.writeUnpublished(target, rewritten);
+		new SegmentJournal(directory).put(old, target);
+		writer.publish(temp, target);
+		Files.delete(old);
+
+		assertAfterRestart(rewritten);
+		assertEquals(List.of("segment-00000002.fseg"), files());
+	}
+
+	@Test
+	void aStaleEntryDoesNotHideTheNextSegmentWritten() {
+		// The replacement never got its name; the next write takes that number instead
+		Path target = new ArchiveReader(directory.toString()).nextSegmentPath();
+		new SegmentJournal(directory).put(old, target);
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+		SegmentArchiver archiver = archiver(reader);
+
+		assertEquals(0, archiver.rewrite(record -> record));
+		new SegmentWriter(4096, 3).write(reader.nextSegmentPath(), List.of());
+		reader.refresh();
+		assertEquals(2, reader.segmentCount());
+		assertEquals(original, reader.findBetween(null, null));
+	}
+
+	// A restarted reader sees the expected records, before and after the archiver's recovery
+	private void assertAfterRestart(List<ArchiveRecord> expected) {
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+		assertEquals(expected, reader.findBetween(null, null));
+		assertEquals(1, reader.segmentCount());
+
+		archiver(reader).rewrite(record -> record);
+		assertEquals(expected, reader.findBetween(null, null));
+		assertEquals(Map.of(), reader.journal().read());
+	}
+
+	private static SegmentArchiver archiver(ArchiveReader reader) {
+		return new SegmentArchiver(mock(FeedbackRepository.class), mock(ArchivedFeedbackRepository.class),
+				mock(ActionItemRepository.class), reader, mock(PlatformTransactionManager.class), 1095, 10_000,
+				4096, 3, 0);
+	}
+
+	private List<String> files() {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(path -> path.getFileName().toString()).sorted().toList();
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -0,0 +1,357 @@
+package com.feedback.archive;
+
+import com.feedback.model.ActionItemStatus;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.Priority;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class SegmentFormatTest {
+
+	// Small blocks, so a few hundred records spread over dozens of them
+	private static final int BLOCK_SIZE = 512;
+	private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 9, 0, 0, 123_000_000);
+	private static final long RARE_RECIPIENT = 900L;
+	private static final int RECORDS = 400;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void recordRoundTripsWithNullFieldsAndActionItems() throws IOException {
+		ArchiveRecord.ActionItemRecord full = new ArchiveRecord.ActionItemRecord(70L, 3L, 4L, "Follow up",
+				"Book a slot for the retro", LocalDate.of(2024, 4, 2), BASE, BASE.plusDays(3).withNano(7_000_000),
+				ActionItemStatus.COMPLETED, Priority.HIGH);
+		ArchiveRecord.ActionItemRecord sparse = new ArchiveRecord.ActionItemRecord(71L, null, null, null, null,
+				null, null, null, null, null);
+		ArchiveRecord withItems = new ArchiveRecord(5L, 3L, 4L, "Great demo — thanks ✓", BASE,
+				PrivacyLevel.PUBLIC, "Recognition", true, FeedbackStatus.ACKNOWLEDGED, 12L, (byte) -100, 3L,
+				List.of(full, sparse));
+		ArchiveRecord anonymous = new ArchiveRecord(6L, null, null, null, null, null, null, false, null, null, null,
+				null, List.of());
+		ArchiveRecord neutral = new ArchiveRecord(7L, 3L, 4L, "Fine", BASE, PrivacyLevel.PRIVATE, null, false,
+				FeedbackStatus.OPEN, null, (byte) 0, null, List.of());
+
+		ByteBuffer in = ByteBuffer.wrap(encode(withItems, anonymous, neutral));
+		assertEquals(withItems, SegmentFormat.readRecord(in, SegmentFormat.VERSION));
+		assertEquals(anonymous, SegmentFormat.readRecord(in, SegmentFormat.VERSION));
+		assertEquals(neutral, SegmentFormat.readRecord(in, SegmentFormat.VERSION));
+		assertFalse(in.hasRemaining());
+	}
+
+	@Test
+	void versionOneSegmentsAreStillRead() throws IOException {
+		// Written before sentiment and duplicate-of were stored; see versionOneRecords()
+		Path segment = directory.resolve("segment-00000001.fseg");
+		try (InputStream fixture = getClass().getResourceAsStream("/archive/segment-v1.fseg")) {
+			Files.copy(fixture, segment);
+		}
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+		List<ArchiveRecord> expected = versionOneRecords();
+
+		assertEquals(expected, reader.readSegment(segment));
+		assertEquals(Optional.of(expected.get(13)), reader.findById(expected.get(13).id()));
+		assertEquals(expected.stream().filter(r -> Long.valueOf(33).equals(r.recipientId())).toList(),
+				reader.findReceived(33L, null, null));
+
+		// A rewrite upgrades the file to the current version
+		SegmentArchiver archiver = new SegmentArchiver(mock(FeedbackRepository.class),
+				mock(ArchivedFeedbackRepository.class), mock(ActionItemRepository.class), reader,
+				mock(PlatformTransactionManager.class), 1095, 10_000, BLOCK_SIZE, 3, 0);
+		archiver.rewrite(record -> record.id() == 100 ? withSentiment(record, (byte) 40) : record);
+		Path upgraded = reader.liveSegmentFiles().get(0);
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(upgraded));
+		assertEquals(SegmentFormat.VERSION, SegmentFormat.Footer.readFrom(
+				data.slice(data.capacity() - SegmentFormat.FOOTER_SIZE, SegmentFormat.FOOTER_SIZE)).version());
+		assertEquals(Byte.valueOf((byte) 40), reader.findById(100).orElseThrow().sentiment());
+		assertEquals(expected.subList(1, expected.size()), reader.readSegment(upgraded).subList(1, expected.size()));
+	}
+
+	@Test
+	void newerVersionsAreRejected() throws IOException {
+		Path segment = write(records());
+		byte[] bytes = Files.readAllBytes(segment);
+		ByteBuffer.wrap(bytes).putInt(bytes.length - SegmentFormat.FOOTER_SIZE + 4, SegmentFormat.VERSION + 1);
+		Files.write(segment, bytes);
+
+		assertThrows(IllegalStateException.class, () -> new ArchiveReader(directory.toString()));
+	}
+
+	@Test
+	void timesBeforeTheEpochRoundTrip() {
+		LocalDateTime time = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000);
+		assertEquals(time, SegmentFormat.fromMillis(SegmentFormat.toMillis(time)));
+		assertEquals(null, SegmentFormat.fromMillis(SegmentFormat.toMillis(null)));
+	}
+
+	@Test
+	void segmentRoundTripsEveryRecord() {
+		List<ArchiveRecord> records = records();
+		Path segment = write(records);
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+
+		assertEquals(RECORDS, reader.recordCount());
+		// Public near-duplicates are not wall posts
+		long wallPosts = records.stream().filter(r -> r.privacyLevel() == PrivacyLevel.PUBLIC && r.duplicateOfId() == null)
+				.count();
+		assertTrue(wallPosts < records.stream().filter(r -> r.privacyLevel() == PrivacyLevel.PUBLIC).count());
+		assertEquals(wallPosts, reader.publicPostCount());
+		assertEquals(wallPosts, reader.publicPostCountAfter(BASE.minusDays(1)));
+		assertEquals(records, reader.readSegment(segment));
+		assertTrue(blocks(segment).size() > 10, "expected the records to span many blocks");
+	}
+
+	@Test
+	void findByIdLooksInTheRightBlock() {
+		List<ArchiveRecord> records = records();
+		Path segment = write(records);
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+
+		for (ArchiveRecord record : records) {
+			assertEquals(Optional.of(record), reader.findById(record.id()));
+		}
+		// Ids are even: odd ones fall inside a block's range or between two blocks
+		List<SegmentFormat.BlockInfo> blocks = blocks(segment);
+		assertEquals(Optional.empty(), reader.findById(blocks.get(3).firstId() + 1));
+		assertEquals(Optional.empty(), reader.findById(blocks.get(3).lastId() + 1));
+		assertEquals(Optional.empty(), reader.findById(0));
+		assertEquals(Optional.empty(), reader.findById(2L * RECORDS + 2));
+	}
+
+	@Test
+	void findByIdPrefersTheNewestSegment() {
+		List<ArchiveRecord> records = records();
+		write(records);
+		ArchiveRecord old = records.get(10);
+		ArchiveRecord rewritten = new ArchiveRecord(old.id(), old.senderId(), old.recipientId(), "Edited",
+				old.createdAt(), old.privacyLevel(), old.category(), old.read(), FeedbackStatus.COMPLETED,
+				old.templateVersionId(), (byte) 55, 4L, old.actionItems());
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+		new SegmentWriter(BLOCK_SIZE, 3).write(reader.nextSegmentPath(), List.of(rewritten));
+		reader.refresh();
+
+		assertEquals(2, reader.segmentCount());
+		assertEquals(Optional.of(rewritten), reader.findById(old.id()));
+		assertEquals(List.of(rewritten), reader.findReceived(old.recipientId(), old.createdAt(),
+				old.createdAt().plusSeconds(1)));
+	}
+
+	@Test
+	void recipientScanSkipsBlocksTheBloomFilterRulesOut() {
+		List<ArchiveRecord> records = records();
+		List<SegmentFormat.BlockInfo> blocks = blocks(write(records));
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+
+		List<ArchiveRecord> expected = records.stream().filter(r -> r.involves(RARE_RECIPIENT)).toList();
+		assertEquals(2, expected.size());
+		assertEquals(expected, reader.findReceived(RARE_RECIPIENT, null, null));
+		assertEquals(List.of(), reader.findSent(RARE_RECIPIENT, null, null));
+
+		long misses = blocks.stream().filter(block -> !block.mayInvolve(RARE_RECIPIENT)).count();
+		assertTrue(misses >= blocks.size() - 4, "only " + misses + " of " + blocks.size() + " blocks ruled out");
+		for (SegmentFormat.BlockInfo block : blocks) {
+			boolean holds = expected.stream().anyMatch(r -> r.id() >= block.firstId() && r.id() <= block.lastId());
+			if (holds) {
+				assertTrue(block.mayInvolve(RARE_RECIPIENT), "bloom filter must not miss a real member");
+			}
+		}
+	}
+
+	@Test
+	void bloomFalsePositivesAreFilteredOut() {
+		List<SegmentFormat.BlockInfo> blocks = blocks(write(records()));
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+
+		// A user in no record whose id still sets the bits of some block
+		long phantom = 10_000;
+		while (!mayBeIn(blocks, phantom)) {
+			phantom++;
+		}
+		assertEquals(List.of(), reader.findReceived(phantom, null, null));
+		assertEquals(List.of(), reader.findSent(phantom, null, null));
+	}
+
+	@Test
+	void erasureSkipsSegmentsThatCannotHoldTheUser() throws IOException {
+		Path withRare = write(records());
+		ArchiveRecord.ActionItemRecord assigned = new ArchiveRecord.ActionItemRecord(9_000L, 950L, 951L, "Item",
+				null, null, BASE, null, ActionItemStatus.OPEN, Priority.LOW);
+		Path withAssignee = write(List.of(new ArchiveRecord(5_000L, 1L, 2L, "Assigned", BASE, PrivacyLevel.PRIVATE,
+				null, false, FeedbackStatus.OPEN, null, null, null, List.of(assigned))));
+		Path unrelated = write(List.of(new ArchiveRecord(6_000L, 1L, 2L, "Unrelated", BASE, PrivacyLevel.PRIVATE,
+				null, false, FeedbackStatus.OPEN, null, null, null, List.of())));
+		write(List.of());
+		// Version 1 blooms leave out action item users, so those files can never be skipped
+		Path versionOne = new ArchiveReader(directory.toString()).nextSegmentPath();
+		try (InputStream fixture = getClass().getResourceAsStream("/archive/segment-v1.fseg")) {
+			Files.copy(fixture, versionOne);
+		}
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+		LocalDateTime afterAll = BASE.plusYears(1);
+
+		assertEquals(List.of(withAssignee, versionOne), reader.segmentsForErasure(950L, afterAll));
+		assertEquals(List.of(withAssignee, versionOne), reader.segmentsForErasure(951L, afterAll));
+		assertEquals(List.of(withRare, versionOne), reader.segmentsForErasure(RARE_RECIPIENT, afterAll));
+		// Anything recent enough to hold a mention is rewritten whoever it involves
+		assertEquals(List.of(withRare, withAssignee, unrelated, versionOne),
+				reader.segmentsForErasure(RARE_RECIPIENT, BASE));
+	}
+
+	@Test
+	void timeScansHonourTheHalfOpenRange() {
+		List<ArchiveRecord> records = records();
+		write(records);
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+
+		// Record i was created i minutes after BASE
+		LocalDateTime from = BASE.plusMinutes(100);
+		LocalDateTime to = BASE.plusMinutes(150);
+		assertEquals(records.subList(100, 150), reader.findBetween(from, to));
+		assertEquals(records.subList(0, 150), reader.findBetween(null, to));
+		assertEquals(records.subList(100, RECORDS), reader.findBetween(from, null));
+		assertEquals(List.of(), reader.findBetween(BASE.minusDays(1), BASE));
+		assertEquals(List.of(), reader.findBetween(BASE.plusDays(1), BASE.plusDays(2)));
+
+		Long recipient = records.get(120).recipientId();
+		List<ArchiveRecord> received = records.subList(100, 150).stream()
+				.filter(r -> recipient.equals(r.recipientId())).toList();
+		assertFalse(received.isEmpty());
+		assertEquals(received, reader.findReceived(recipient, from, to));
+	}
+
+	@Test
+	void countsGroupTheRangeAndTakeEachIdFromItsNewestSegment() {
+		List<ArchiveRecord> records = records();
+		write(records);
+		ArchiveRecord first = records.get(0);
+		write(List.of(new ArchiveRecord(first.id(), first.senderId(), first.recipientId(), first.content(),
+				first.createdAt(), first.privacyLevel(), "Moved", first.read(), FeedbackStatus.COMPLETED, null, null,
+				null, List.of())));
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+
+		// Records 100 to 149; every fourth has no category and is left out
+		assertEquals(Map.of("General", 37L),
+				reader.countBetween(BASE.plusMinutes(100), BASE.plusMinutes(150), ArchiveRecord::category));
+		assertEquals(Map.of("Moved", 1L), reader.countBetween(null, BASE.plusMinutes(1), ArchiveRecord::category));
+		assertEquals(Map.of(FeedbackStatus.OPEN, (long) RECORDS - 1, FeedbackStatus.COMPLETED, 1L),
+				reader.countBetween(null, null, ArchiveRecord::status));
+	}
+
+	@Test
+	void emptySegmentHasNoRecords() {
+		Path segment = write(List.of());
+		ArchiveReader reader = new ArchiveReader(directory.toString());
+
+		assertEquals(1, reader.segmentCount());
+		assertEquals(0, reader.recordCount());
+		assertEquals(List.of(), reader.readSegment(segment));
+		assertEquals(Optional.empty(), reader.findById(1));
+		assertEquals(List.of(), reader.findBetween(null, null));
+	}
+
+	// Ids 2, 4, ... so there are gaps; RARE_RECIPIENT gets two records far apart
+	private static List<ArchiveRecord> records() {
+		List<ArchiveRecord> records = new ArrayList<>();
+		for (int i = 0; i < RECORDS; i++) {
+			long recipient = i == 10 || i == 350 ? RARE_RECIPIENT : 1 + i % 13;
+			Long sender = i % 5 == 0 ? null : 100L + i % 7;
+			List<ArchiveRecord.ActionItemRecord> items = i % 9 == 0
+					? List.of(new ArchiveRecord.ActionItemRecord(10_000L + i, recipient, sender, "Item " + i, null,
+							LocalDate.of(2024, 5, 1), BASE.plusMinutes(i), null, ActionItemStatus.OPEN,
+							Priority.MEDIUM))
+					: List.of();
+			records.add(new ArchiveRecord(2L * (i + 1), sender, recipient, "Feedback number " + i, BASE.plusMinutes(i),
+					i % 3 == 0 ? PrivacyLevel.PUBLIC : PrivacyLevel.PRIVATE, i % 4 == 0 ? null : "General",
+					i % 2 == 0, FeedbackStatus.OPEN, null, i % 6 == 0 ? null : (byte) (i % 201 - 100),
+					i % 11 == 0 ? 2L * i : null, items));
+		}
+		return records;
+	}
+
+	// What src/test/resources/archive/segment-v1.fseg was written from, by the version 1 writer
+	private static List<ArchiveRecord> versionOneRecords() {
+		List<ArchiveRecord> records = new ArrayList<>();
+		LocalDateTime base = LocalDateTime.of(2021, 5, 3, 8, 30, 15, 250_000_000);
+		for (int i = 0; i < 20; i++) {
+			List<ArchiveRecord.ActionItemRecord> items = i % 4 == 0
+					? List.of(new ArchiveRecord.ActionItemRecord(500L + i, 10L + i % 3, 20L, "Item " + i,
+							i % 8 == 0 ? null : "Details", LocalDate.of(2021, 6, 1).plusDays(i), base.plusHours(i),
+							i % 8 == 0 ? base.plusDays(2) : null, ActionItemStatus.values()[i % 4],
+							Priority.values()[i % 3]))
+					: List.of();
+			records.add(new ArchiveRecord(100L + i * 3, i % 5 == 0 ? null : 10L + i % 3, 30L + i % 4,
+					i % 6 == 0 ? null : "Version one feedback " + i, base.plusHours(i * 7L),
+					PrivacyLevel.values()[i % 4], i % 3 == 0 ? null : "Teamwork", i % 2 == 0,
+					FeedbackStatus.values()[i % 4], i % 7 == 0 ? 3L : null, null, null, items));
+		}
+		return records;
+	}
+
+	private static ArchiveRecord withSentiment(ArchiveRecord record, Byte sentiment) {
+		return new ArchiveRecord(record.id(), record.senderId(), record.recipientId(), record.content(),
+				record.createdAt(), record.privacyLevel(), record.category(), record.read(), record.status(),
+				record.templateVersionId(), sentiment, record.duplicateOfId(), record.actionItems());
+	}
+
+	private Path write(List<ArchiveRecord> records) {
+		Path segment = new ArchiveReader(directory.toString()).nextSegmentPath();
+		new SegmentWriter(BLOCK_SIZE, 3).write(segment, records);
+		return segment;
+	}
+
+	// The block index, read the way ArchiveReader reads it
+	private static List<SegmentFormat.BlockInfo> blocks(Path segment) {
+		try {
+			ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+			SegmentFormat.Footer footer = SegmentFormat.Footer.readFrom(
+					data.slice(data.capacity() - SegmentFormat.FOOTER_SIZE, SegmentFormat.FOOTER_SIZE));
+			ByteBuffer index = data.slice((int) footer.indexOffset(), footer.blockCount() * SegmentFormat.BLOCK_INFO_SIZE);
+			List<SegmentFormat.BlockInfo> blocks = new ArrayList<>();
+			for (int i = 0; i < footer.blockCount(); i++) {
+				blocks.add(SegmentFormat.BlockInfo.readFrom(index));
+			}
+			return blocks;
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static boolean mayBeIn(List<SegmentFormat.BlockInfo> blocks, long userId) {
+		return blocks.stream().anyMatch(block -> block.mayInvolve(userId));
+	}
+
+	private static byte[] encode(ArchiveRecord... records) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		for (ArchiveRecord record : records) {
+			SegmentFormat.writeRecord(out, record);
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,171 @@
+package com.feedback.benchmark;
+
+import com.feedback.datagen.DataGenResult;
+import com.feedback.datagen.DataGenSpec;
+import com.feedback.datagen.SyntheticDataGenerator;
+import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.model.User;
+import com.feedback.repository.UserRepository;
+import com.feedback.service.DashboardAssembler;
+import com.feedback.service.FeedbackService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of a mixed read/write workload under whichever Spring profile is active,
+ * so the dev defaults and the prod profile can be compared on the same machine.
+ * Besides ops/s and latency it prints JDBC statements per operation from Hibernate's
+ * statistics, which is where show-sql, batching and batch fetching show up.
+ *
+ * Dev defaults (H2, show-sql):
+ *   mvn test -Dbenchmark=true -Dtest=ProfileThroughputBenchmark
+ * Prod profile against MySQL; Flyway creates or upgrades the schema from db/migration on
+ * startup, so point it at an empty database or one Flyway already manages:
+ *   FEEDBACK_DB_URL=jdbc:mysql://... FEEDBACK_DB_USER=... FEEDBACK_DB_PASSWORD=... \
+ *   mvn test -Dbenchmark=true -Dtest=ProfileThroughputBenchmark -Dspring.profiles.active=prod \
+ *     -Dvaadin.productionMode=false
+ * Prod tuning without a MySQL server (isolates the Hibernate/logging side; the migrations
+ * are MySQL scripts, so Flyway is off and H2 gets its schema from the entities):
+ *   mvn test -Dbenchmark=true -Dtest=ProfileThroughputBenchmark -Dspring.profiles.active=prod \
+ *     "-Dspring.datasource.url=jdbc:h2:mem:bench;IGNORECASE=TRUE" -Dspring.datasource.driver-class-name=org.h2.Driver \
+ *     -Dspring.datasource.username=sa -Dspring.flyway.enabled=false -Dspring.jpa.hibernate.ddl-auto=create-drop \
+ *     -Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect -Dvaadin.productionMode=false
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProfileThroughputBenchmark {
+
+	private static final int THREADS = 16;
+	private static final int OPS_PER_THREAD = Integer.getInteger("profile.ops", 500);
+	private static final int ACCOUNTS = 40;
+	private static final long SEED = 38;
+
+	@Autowired
+	private SyntheticDataGenerator dataGenerator;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private FeedbackService feedbackService;
+
+	@Autowired
+	private DashboardAssembler dashboardAssembler;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private Environment environment;
+
+	@Test
+	void mixedWorkload() throws Exception {
+		DataGenResult data = dataGenerator.generate(DataGenSpec.small(SEED, ACCOUNTS));
+		List<User> accounts = userRepository.findAllById(data.userIds());
+		List<Long> feedbackIds = LongStream.range(data.firstFeedbackId(), data.firstFeedbackId() + data.feedback())
+				.boxed().toList();
+
+		// Warm up connection pool, statement caches and JIT before measuring
+		runWorkload(accounts, feedbackIds, OPS_PER_THREAD / 5);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		long start = System.nanoTime();
+		long[] latenciesNanos = runWorkload(accounts, feedbackIds, OPS_PER_THREAD);
+		long elapsedNanos = System.nanoTime() - start;
+
+		int ops = latenciesNanos.length;
+		Arrays.sort(latenciesNanos);
+		System.out.printf("Profiles %s | show-sql=%s batch_size=%s pool=%s%n",
+				Arrays.toString(environment.getActiveProfiles()),
+				environment.getProperty("spring.jpa.show-sql", "false"),
+				environment.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "-"),
+				environment.getProperty("spring.datasource.hikari.maximum-pool-size", "10"));
+		System.out.printf("%d ops in %d ms: %.0f ops/s, p50 %.2f ms, p95 %.2f ms, p99 %.2f ms%n",
+				ops, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), ops / (elapsedNanos / 1_000_000_000.0),
+				percentile(latenciesNanos, 0.50), percentile(latenciesNanos, 0.95), percentile(latenciesNanos, 0.99));
+		System.out.printf("JDBC statements: %d prepared (%.1f per op), %d entities loaded, %d queries%n",
+				statistics.getPrepareStatementCount(), statistics.getPrepareStatementCount() / (double) ops,
+				statistics.getEntityLoadCount(), statistics.getQueryExecutionCount());
+		assertEquals(THREADS * OPS_PER_THREAD, ops);
+	}
+
+	// Five operations in rotation: dashboard, feedback list, new feedback, status change, mark all read
+	private long[] runWorkload(List<User> accounts, List<Long> feedbackIds, int opsPerThread) throws Exception {
+		long[] latenciesNanos = new long[THREADS * opsPerThread];
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			futures.add(pool.submit(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int n = 0; n < opsPerThread; n++) {
+					User user = accounts.get(random.nextInt(accounts.size()));
+					long opStart = System.nanoTime();
+					switch (n % 5) {
+						case 0 -> dashboardAssembler.assemble(user.getId());
+						case 1 -> feedbackService.findVisibleFeedbackForUser(user.getId());
+						case 2 -> feedbackService.saveFeedback(feedback(user, accounts.get(random.nextInt(accounts.size())), n));
+						case 3 -> changeStatus(feedbackIds.get(random.nextInt(feedbackIds.size())), random);
+						default -> feedbackService.markAllAsRead(user.getId());
+					}
+					latenciesNanos[thread * opsPerThread + n] = System.nanoTime() - opStart;
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		pool.shutdown();
+		pool.awaitTermination(10, TimeUnit.SECONDS);
+		return latenciesNanos;
+	}
+
+	// Random targets; transitions the lifecycle rejects still cost the status read
+	private void changeStatus(Long feedbackId, ThreadLocalRandom random) {
+		FeedbackStatus[] statuses = FeedbackStatus.values();
+		try {
+			feedbackService.updateFeedbackStatus(feedbackId, statuses[random.nextInt(statuses.length)]);
+		} catch (IllegalStateException rejected) {
+			// expected for backwards moves
+		}
+	}
+
+	private static Feedback feedback(User sender, User recipient, int n) {
+		Feedback feedback = new Feedback();
+		feedback.setSender(sender);
+		feedback.setRecipient(recipient);
+		feedback.setContent("Profile benchmark feedback " + n);
+		feedback.setCategory("Teamwork");
+		feedback.setPrivacyLevel(n % 3 == 0 ? PrivacyLevel.PUBLIC : PrivacyLevel.PRIVATE);
+		feedback.setCreatedAt(LocalDateTime.now());
+		return feedback;
+	}
+
+	private static double percentile(long[] sortedNanos, double p) {
+		int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+		return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+	}
+}
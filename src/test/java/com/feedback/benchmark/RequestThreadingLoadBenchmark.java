@@ -0,0 +1,236 @@
+package com.feedback.benchmark;
+
+import com.feedback.FeedbackApplication;
+import com.feedback.datagen.DataGenResult;
+import com.feedback.datagen.DataGenSpec;
+import com.feedback.datagen.SyntheticDataGenerator;
+import com.feedback.model.User;
+import com.feedback.repository.UserRepository;
+import com.feedback.ui.views.dashboard.DashboardView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the app served by Tomcat's platform worker pool with the same app in the
+ * virtual-threads profile, for the login and dashboard flows over real HTTP.
+ *
+ * Each mode starts its own application on a random port. Each simulated user is a
+ * closed loop: a form login (POST /login), then opening the dashboard a few times with
+ * think time in between. Opening the dashboard is what the browser sends: Vaadin's init
+ * request, then the navigation event, which builds the view on the request thread and
+ * hands its queries to the view loading and dashboard pools. Latency is measured at the client, so it includes
+ * queueing in Tomcat. The dashboard queries finish after the response and are reported
+ * from the {@code feedback.dashboard.card} timer once they have settled.
+ *
+ * Every dashboard open creates a Vaadin UI that lives as long as its session. A 3 GB
+ * heap fills after about 3600 opens, so the default of 5000 users (15000 opens) needs
+ * roughly 12 GB (-DargLine=-Xmx12g); pass a smaller -Dload.users on smaller machines.
+ *
+ * The virtual-thread mode needs a JDK 21 runtime and is skipped on older ones. Run
+ * without -Pvirtual-threads, which would put the profile into both modes.
+ *
+ * Run with: mvn test -Dbenchmark=true -Dtest=RequestThreadingLoadBenchmark [-Dload.users=5000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RequestThreadingLoadBenchmark {
+
+	private static final int USERS = Integer.getInteger("load.users", 5000);
+	private static final int DASHBOARD_VIEWS_PER_USER = 3;
+	private static final int THINK_TIME_MS = 20;
+	private static final int ACCOUNTS = 50;
+	private static final long SEED = 33;
+	private static final Pattern UI_ID = Pattern.compile("\"v-uiId\":(\\d+)");
+	private static final Pattern SECURITY_KEY = Pattern.compile("\"Vaadin-Security-Key\":\"([^\"]+)\"");
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+
+	@Test
+	void platformVersusVirtualThreads() throws Exception {
+		run("platform threads");
+
+		if (Runtime.version().feature() >= 21) {
+			run("virtual threads", "virtual-threads");
+		} else {
+			System.out.println("Virtual threads need JDK 21+; skipped that mode on " + Runtime.version());
+		}
+	}
+
+	private void run(String mode, String... profiles) throws Exception {
+		try (ConfigurableApplicationContext app = new SpringApplicationBuilder(FeedbackApplication.class)
+				.profiles(profiles)
+				.properties("server.port=0", "management.server.port=0", "spring.jpa.show-sql=false",
+						"vaadin.launch-browser=false")
+				.run()) {
+			String baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+			DataGenResult data = app.getBean(SyntheticDataGenerator.class).generate(DataGenSpec.small(SEED, ACCOUNTS));
+			List<User> accounts = app.getBean(UserRepository.class).findAllById(data.userIds()).stream()
+					.filter(User::isActive).toList();
+			drive(mode, baseUrl, accounts, data.password());
+			reportDashboardCards(app.getBean(MeterRegistry.class));
+		}
+	}
+
+	private void drive(String mode, String baseUrl, List<User> accounts, String password) throws Exception {
+		ScheduledExecutorService thinkTimer = Executors.newSingleThreadScheduledExecutor();
+		ConcurrentLinkedQueue<Long> loginNanos = new ConcurrentLinkedQueue<>();
+		ConcurrentLinkedQueue<Long> dashboardNanos = new ConcurrentLinkedQueue<>();
+		AtomicInteger failures = new AtomicInteger();
+
+		long start = System.nanoTime();
+		List<CompletableFuture<String>> sessions = new ArrayList<>();
+		for (int u = 0; u < USERS; u++) {
+			User account = accounts.get(u % accounts.size());
+			CompletableFuture<String> session = timed(loginNanos, failures, login(baseUrl, account, password));
+			for (int v = 0; v < DASHBOARD_VIEWS_PER_USER; v++) {
+				session = session
+						.thenCompose(cookie -> delay(thinkTimer, cookie))
+						.thenCompose(cookie -> cookie == null ? CompletableFuture.completedFuture(null)
+								: timed(dashboardNanos, failures, dashboard(baseUrl, cookie)));
+			}
+			sessions.add(session);
+		}
+		CompletableFuture.allOf(sessions.toArray(CompletableFuture<?>[]::new)).get(30, TimeUnit.MINUTES);
+		long elapsedNanos = System.nanoTime() - start;
+		thinkTimer.shutdown();
+
+		int requests = loginNanos.size() + dashboardNanos.size();
+		System.out.printf("%s: %d users, %d requests in %d ms (%.0f req/s), %d failures%n", mode, USERS, requests,
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos), requests / (elapsedNanos / 1_000_000_000.0), failures.get());
+		report("  login", loginNanos);
+		report("  dashboard", dashboardNanos);
+		assertEquals(0, failures.get(), "Requests failed in " + mode + " mode");
+	}
+
+	// Form login; completes with the session cookie
+	private Function<Void, CompletableFuture<String>> login(String baseUrl, User account, String password) {
+		String form = "username=" + URLEncoder.encode(account.getEmail(), StandardCharsets.UTF_8)
+				+ "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form))
+				.build();
+		return ignored -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(response -> {
+			String location = response.headers().firstValue("Location").orElse("");
+			if (response.statusCode() != 302 || location.contains("error")) {
+				throw new IllegalStateException("Login rejected for " + account.getEmail());
+			}
+			return response.headers().allValues("Set-Cookie").stream()
+					.filter(cookie -> cookie.startsWith("JSESSIONID="))
+					.map(cookie -> cookie.substring(0, cookie.indexOf(';') > 0 ? cookie.indexOf(';') : cookie.length()))
+					.findFirst()
+					.orElseThrow(() -> new IllegalStateException("No session after login"));
+		});
+	}
+
+	// What a browser sends to open the dashboard: Vaadin's init request, which creates the UI,
+	// then the navigation event that builds the view; completes with the same cookie
+	private Function<Void, CompletableFuture<String>> dashboard(String baseUrl, String cookie) {
+		HttpRequest init = HttpRequest.newBuilder(URI.create(baseUrl + "/?v-r=init&location=&query="))
+				.header("Cookie", cookie)
+				.GET()
+				.build();
+		return ignored -> client.sendAsync(init, HttpResponse.BodyHandlers.ofString())
+				.thenCompose(response -> {
+					Matcher key = SECURITY_KEY.matcher(response.body());
+					Matcher uiId = UI_ID.matcher(response.body());
+					if (response.statusCode() != 200 || !key.find() || !uiId.find()) {
+						throw new IllegalStateException("Vaadin UI not created: HTTP " + response.statusCode());
+					}
+					String navigate = "{\"csrfToken\":\"" + key.group(1) + "\",\"rpc\":[{\"type\":\"event\",\"node\":1,"
+							+ "\"event\":\"ui-navigate\",\"data\":{\"route\":\"\",\"query\":\"\",\"appShellTitle\":\"\","
+							+ "\"historyState\":{\"idx\":0},\"trigger\":\"\"}}],\"syncId\":0,\"clientId\":0}";
+					HttpRequest uidl = HttpRequest.newBuilder(URI.create(baseUrl + "/?v-r=uidl&v-uiId=" + uiId.group(1)))
+							.header("Cookie", cookie)
+							.header("Content-Type", "application/json; charset=UTF-8")
+							.POST(HttpRequest.BodyPublishers.ofString(navigate))
+							.build();
+					return client.sendAsync(uidl, HttpResponse.BodyHandlers.ofString());
+				})
+				.thenApply(response -> {
+					if (response.statusCode() != 200 || !response.body().contains(DashboardView.class.getName())
+							|| response.body().contains("Authentication Required")) {
+						throw new IllegalStateException("Dashboard not rendered: HTTP " + response.statusCode());
+					}
+					return cookie;
+				});
+	}
+
+	// Time runs from sending, so waiting for a Tomcat worker counts against the request
+	private static CompletableFuture<String> timed(ConcurrentLinkedQueue<Long> latencies, AtomicInteger failures,
+			Function<Void, CompletableFuture<String>> request) {
+		long sent = System.nanoTime();
+		return request.apply(null).handle((cookie, error) -> {
+			latencies.add(System.nanoTime() - sent);
+			if (error != null) {
+				if (failures.incrementAndGet() == 1) {
+					System.out.println("First failure: " + error);
+				}
+				return null;
+			}
+			return cookie;
+		});
+	}
+
+	private static CompletableFuture<String> delay(ScheduledExecutorService timer, String cookie) {
+		CompletableFuture<String> done = new CompletableFuture<>();
+		timer.schedule(() -> done.complete(cookie), THINK_TIME_MS, TimeUnit.MILLISECONDS);
+		return done;
+	}
+
+	// The dashboard's queries complete after the init responses; wait until they stop coming in
+	private static void reportDashboardCards(MeterRegistry registry) throws InterruptedException {
+		long count = -1;
+		for (int quiet = 0; quiet < 10; ) {
+			Thread.sleep(100);
+			long current = registry.find("feedback.dashboard.card").timers().stream().mapToLong(Timer::count).sum();
+			quiet = current == count ? quiet + 1 : 0;
+			count = current;
+		}
+		for (Timer timer : registry.find("feedback.dashboard.card").timers()) {
+			System.out.printf("  card %s (%s): %d, mean %.1f ms, max %.1f ms%n", timer.getId().getTag("card"),
+					timer.getId().getTag("outcome"), timer.count(), timer.mean(TimeUnit.MILLISECONDS),
+					timer.max(TimeUnit.MILLISECONDS));
+		}
+	}
+
+	private static void report(String flow, ConcurrentLinkedQueue<Long> latencies) {
+		long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+		Arrays.sort(sorted);
+		if (sorted.length == 0) {
+			return;
+		}
+		System.out.printf("%s: %d requests, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n", flow, sorted.length,
+				sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6,
+				sorted[sorted.length - 1] / 1e6);
+	}
+}
@@ -0,0 +1,98 @@
+package com.feedback.benchmark;
+
+import com.feedback.model.ActionItem;
+import com.feedback.model.ActionItemStatus;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.service.ActionItemService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Many threads flipping the status of a handful of action items at once.
+ * Every successful transition bumps the version by exactly one, so the final
+ * version must equal the number of transitions the callers saw succeed;
+ * anything less would be a lost update.
+ *
+ * Run with: mvn test -Dbenchmark=true -Dtest=StatusUpdateContentionBenchmark
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StatusUpdateContentionBenchmark {
+
+	private static final int ITEMS = 4;
+	private static final int THREADS = 32;
+	private static final int UPDATES_PER_THREAD = 200;
+
+	@Autowired
+	private ActionItemService actionItemService;
+
+	@Autowired
+	private ActionItemRepository actionItemRepository;
+
+	@Test
+	void concurrentStatusUpdatesLoseNothing() throws Exception {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < ITEMS; i++) {
+			ActionItem item = new ActionItem();
+			item.setTitle("Contention item " + i);
+			ids.add(actionItemService.saveActionItem(item).getId());
+		}
+
+		AtomicLongArray applied = new AtomicLongArray(ITEMS);
+		long[] latenciesNanos = new long[THREADS * UPDATES_PER_THREAD];
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+
+		long start = System.nanoTime();
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			futures.add(pool.submit(() -> {
+				for (int n = 0; n < UPDATES_PER_THREAD; n++) {
+					int index = ThreadLocalRandom.current().nextInt(ITEMS);
+					ActionItemStatus target = n % 2 == 0 ? ActionItemStatus.IN_PROGRESS : ActionItemStatus.OPEN;
+					long callStart = System.nanoTime();
+					if (actionItemService.updateActionItemStatus(ids.get(index), target)) {
+						applied.incrementAndGet(index);
+					}
+					latenciesNanos[thread * UPDATES_PER_THREAD + n] = System.nanoTime() - callStart;
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		pool.shutdown();
+		pool.awaitTermination(10, TimeUnit.SECONDS);
+
+		long totalApplied = 0;
+		for (int i = 0; i < ITEMS; i++) {
+			long version = actionItemRepository.findStatusVersionById(ids.get(i)).orElseThrow().getVersion();
+			assertEquals(applied.get(i), version, "Lost update on item " + ids.get(i));
+			totalApplied += applied.get(i);
+		}
+
+		Arrays.sort(latenciesNanos);
+		int calls = latenciesNanos.length;
+		System.out.printf("Status update contention: %d threads, %d items, %d calls in %d ms (%.0f calls/s)%n",
+				THREADS, ITEMS, calls, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+				calls / (elapsedNanos / 1_000_000_000.0));
+		System.out.printf("  applied transitions: %d, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", totalApplied,
+				latenciesNanos[calls / 2] / 1e6, latenciesNanos[(int) (calls * 0.99)] / 1e6,
+				latenciesNanos[calls - 1] / 1e6);
+	}
+}
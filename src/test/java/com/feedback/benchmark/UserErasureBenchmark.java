@@ -0,0 +1,138 @@
+package com.feedback.benchmark;
+
+import com.feedback.archive.ArchiveReader;
+import com.feedback.archive.SegmentArchiver;
+import com.feedback.datagen.DataGenSpec;
+import com.feedback.datagen.SyntheticDataGenerator;
+import com.feedback.service.ErasureReport;
+import com.feedback.service.FeedbackArchiver;
+import com.feedback.service.UserEraser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Erasing the busiest user, then one of the quietest, from four years of feedback spread
+ * over all three tiers: hot rows, the archive table and segment files. Prints each step's
+ * rows and time, and how many segments were rewritten out of how many exist; the quiet
+ * user's erasure should touch few segments and take a fraction of the busy one's time.
+ * Afterwards nothing in any tier may still point at either user.
+ *
+ * Run with: mvn test -Dbenchmark=true -Dtest=UserErasureBenchmark [-Derasure.feedback=200000]
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "feedback.archive.batch-pause-ms=0",
+		"feedback.segments.batch-pause-ms=0", "feedback.segments.records-per-segment=2000"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UserErasureBenchmark {
+
+	private static final long FEEDBACK = Long.getLong("erasure.feedback", 60_000);
+	private static final int USERS = 2_000;
+	private static final int HISTORY_DAYS = 4 * 365;
+	private static final long SEED = 49;
+
+	@Autowired
+	private SyntheticDataGenerator dataGenerator;
+
+	@Autowired
+	private FeedbackArchiver feedbackArchiver;
+
+	@Autowired
+	private SegmentArchiver segmentArchiver;
+
+	@Autowired
+	private ArchiveReader archiveReader;
+
+	@Autowired
+	private UserEraser userEraser;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private static Path segments;
+
+	@DynamicPropertySource
+	static void segmentDirectory(DynamicPropertyRegistry registry) throws IOException {
+		segments = Files.createTempDirectory("erasure-benchmark");
+		registry.add("feedback.segments.dir", segments::toString);
+	}
+
+	@Test
+	void erasureCostFollowsTheUsersOwnData() {
+		dataGenerator.generate(new DataGenSpec(SEED, 10, USERS, FEEDBACK, FEEDBACK / 5, HISTORY_DAYS,
+				LocalDate.now(), "datagen", 1000));
+		int archived = feedbackArchiver.archive();
+		int segmented = segmentArchiver.archive();
+		System.out.printf("User erasure: %d feedback, %d archived, %d in %d segments%n",
+				FEEDBACK, archived, segmented, archiveReader.segmentCount());
+
+		List<Map<String, Object>> byReferences = jdbcTemplate.queryForList(
+				"SELECT user_id, COUNT(*) AS refs FROM (" +
+				"SELECT sender_id AS user_id FROM feedback UNION ALL SELECT recipient_id FROM feedback " +
+				"UNION ALL SELECT sender_id FROM feedback_archive UNION ALL SELECT recipient_id FROM feedback_archive" +
+				") AS refs WHERE user_id IS NOT NULL GROUP BY user_id ORDER BY refs DESC, user_id");
+		long heavy = ((Number) byReferences.get(0).get("user_id")).longValue();
+		long light = ((Number) byReferences.get(byReferences.size() - 1).get("user_id")).longValue();
+
+		erase("busiest", heavy);
+		erase("quietest", light);
+	}
+
+	private void erase(String label, long userId) {
+		Set<String> before = segmentFiles();
+		Map<String, long[]> steps = new LinkedHashMap<>();
+		long[] last = {System.nanoTime()};
+		ErasureReport report = userEraser.erase(userId, (step, rows) -> {
+			long now = System.nanoTime();
+			long[] totals = steps.computeIfAbsent(step, name -> new long[2]);
+			totals[0] = rows;
+			totals[1] += now - last[0];
+			last[0] = now;
+		});
+		Set<String> after = segmentFiles();
+		long rewritten = after.stream().filter(name -> !before.contains(name)).count();
+
+		System.out.printf("  %s user %d: %d references in %d ms, %d of %d segments rewritten%n",
+				label, userId, report.total(), report.millis(), rewritten, before.size());
+		steps.forEach((step, totals) -> System.out.printf("    %-18s %8d rows %8d ms%n",
+				step, totals[0], TimeUnit.NANOSECONDS.toMillis(totals[1])));
+
+		assertEquals(0, count("SELECT COUNT(*) FROM feedback WHERE sender_id = ? OR recipient_id = ?", userId));
+		assertEquals(0, count("SELECT COUNT(*) FROM feedback_archive WHERE sender_id = ? OR recipient_id = ?", userId));
+		assertEquals(0, count("SELECT COUNT(*) FROM action_item WHERE assigned_to_id = ? OR created_by_id = ?", userId));
+		assertTrue(archiveReader.findReceived(userId, null, null).isEmpty(), "received in segments");
+		assertTrue(archiveReader.findSent(userId, null, null).isEmpty(), "sent in segments");
+	}
+
+	private long count(String sql, long userId) {
+		return jdbcTemplate.queryForObject(sql, Long.class, userId, userId);
+	}
+
+	private static Set<String> segmentFiles() {
+		try (Stream<Path> files = Files.list(segments)) {
+			return files.map(path -> path.getFileName().toString())
+					.filter(name -> name.endsWith(".fseg"))
+					.collect(Collectors.toSet());
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+}
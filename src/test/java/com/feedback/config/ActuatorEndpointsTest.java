@@ -0,0 +1,60 @@
+package com.feedback.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Tests turn metrics export off unless asked, which would leave no Prometheus endpoint
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"management.server.port=0", "vaadin.launch-browser=false"})
+class ActuatorEndpointsTest {
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	private int serverPort;
+
+	@LocalManagementPort
+	private int managementPort;
+
+	@Test
+	void scrapesAreServedOnTheManagementPortWithoutLogin() throws Exception {
+		assertNotEquals(serverPort, managementPort);
+
+		HttpResponse<String> prometheus = get(managementPort, "/actuator/prometheus");
+		assertEquals(200, prometheus.statusCode());
+		assertTrue(prometheus.body().contains("jvm_memory_used_bytes"));
+		assertEquals(200, get(managementPort, "/actuator/health").statusCode());
+	}
+
+	@Test
+	void appPortDoesNotServeMetrics() throws Exception {
+		HttpResponse<String> prometheus = get(serverPort, "/actuator/prometheus");
+		assertNotEquals(200, prometheus.statusCode());
+		assertFalse(prometheus.body().contains("jvm_memory_used_bytes"));
+	}
+
+	@Test
+	void appPortDoesNotServeHealthEither() throws Exception {
+		HttpResponse<String> health = get(serverPort, "/actuator/health");
+		assertFalse(health.body().contains("\"status\""));
+	}
+
+	private HttpResponse<String> get(int port, String path) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,22 @@
+package com.feedback.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogMaskingTest {
+
+	@Test
+	void emailKeepsOnlyTheFirstLetterAndTheDomain() {
+		assertEquals("j***@example.com", LogMasking.email("jane.doe@example.com"));
+		assertEquals("a***@b.org", LogMasking.email("a@b.org"));
+	}
+
+	@Test
+	void malformedOrMissingEmailIsStillMasked() {
+		assertEquals("j***", LogMasking.email("jane.doe"));
+		assertEquals("@***", LogMasking.email("@example.com"));
+		assertEquals("null", LogMasking.email(null));
+		assertEquals(" ", LogMasking.email(" "));
+	}
+}
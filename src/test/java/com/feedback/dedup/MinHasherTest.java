@@ -0,0 +1,52 @@
+package com.feedback.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHasherTest {
+
+	static final String ORIGINAL = "Thanks for running the sprint retro so smoothly. The new board layout made it "
+			+ "much easier to see which action items were still open, and everyone got a chance to speak.";
+	static final String REWORDED = "Thanks for running the sprint retro so smoothly! The new board layout made it "
+			+ "much easier to see which action items were still open, and everybody got a chance to speak.";
+	static final String UNRELATED = "Your analysis of the database outage was thorough, but the incident report "
+			+ "went out two days late and the customer success team had to chase it twice.";
+
+	@Test
+	void normalizeKeepsLowerCaseWordsWithSingleSpaces() {
+		assertEquals("great job anna 2nd time", MinHasher.normalize("  Great   JOB, Anna!! (2nd time)…"));
+		assertEquals("", MinHasher.normalize("?! -- ..."));
+	}
+
+	@Test
+	void textWithoutLettersOrDigitsHasNoSignature() {
+		assertNull(MinHasher.signature(null));
+		assertNull(MinHasher.signature(""));
+		assertNull(MinHasher.signature(" -- !? "));
+		// Shorter than one shingle still hashes as a whole
+		assertNotNull(MinHasher.signature("ok"));
+	}
+
+	@Test
+	void caseAndPunctuationDoNotChangeTheSignature() {
+		short[] signature = MinHasher.signature(ORIGINAL);
+		assertEquals(MinHasher.HASHES, signature.length);
+		assertArrayEquals(signature, MinHasher.signature(ORIGINAL.toUpperCase().replace(",", " ;")));
+		assertEquals(1.0, MinHasher.similarity(signature, MinHasher.signature(ORIGINAL)));
+	}
+
+	@Test
+	void nearDuplicatesScoreHighAndDistinctTextsLow() {
+		short[] original = MinHasher.signature(ORIGINAL);
+
+		double reworded = MinHasher.similarity(original, MinHasher.signature(REWORDED));
+		double unrelated = MinHasher.similarity(original, MinHasher.signature(UNRELATED));
+		assertTrue(reworded >= 0.8, "reworded text scored " + reworded);
+		assertTrue(unrelated <= 0.2, "unrelated text scored " + unrelated);
+	}
+}
@@ -0,0 +1,154 @@
+package com.feedback.dedup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.feedback.dedup.MinHasherTest.ORIGINAL;
+import static com.feedback.dedup.MinHasherTest.REWORDED;
+import static com.feedback.dedup.MinHasherTest.UNRELATED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearDuplicateIndexTest {
+
+	private static final Long SENDER = 10L;
+	private static final Long OTHER_SENDER = 11L;
+	private static final String[] WORDS = {"team", "release", "demo", "customer", "review", "design", "support",
+			"deadline", "meeting", "feedback", "quality", "planning", "testing", "mentoring", "budget", "roadmap",
+			"incident", "onboarding", "clear", "late", "great", "helpful", "thorough", "quick", "again", "always"};
+
+	@Test
+	void findsTheSendersEarlierNearDuplicate() {
+		NearDuplicateIndex index = index(100);
+		index.add(1, SENDER, MinHasher.signature(ORIGINAL));
+		index.add(2, SENDER, MinHasher.signature(UNRELATED));
+
+		assertEquals(1L, index.findOriginal(MinHasher.signature(REWORDED), SENDER, Long.MAX_VALUE));
+		assertTrue(index.isNearDuplicate(REWORDED, SENDER));
+		assertFalse(index.isNearDuplicate(text(new SplittableRandom(1), 30), SENDER));
+		// Only feedback older than the one being checked counts
+		assertNull(index.findOriginal(MinHasher.signature(REWORDED), SENDER, 1));
+		assertFalse(index.isNearDuplicate(null, SENDER));
+		assertFalse(index.isNearDuplicate(ORIGINAL, null));
+	}
+
+	@Test
+	void otherSendersTextIsNotADuplicate() {
+		NearDuplicateIndex index = index(100);
+		index.add(1, SENDER, MinHasher.signature(ORIGINAL));
+
+		assertFalse(index.isNearDuplicate(ORIGINAL, OTHER_SENDER));
+		index.add(2, OTHER_SENDER, MinHasher.signature(ORIGINAL));
+		assertEquals(2L, index.findOriginal(MinHasher.signature(REWORDED), OTHER_SENDER, Long.MAX_VALUE));
+		assertEquals(1L, index.findOriginal(MinHasher.signature(REWORDED), SENDER, Long.MAX_VALUE));
+	}
+
+	@Test
+	void addingTheSameFeedbackTwiceKeepsOneEntry() {
+		NearDuplicateIndex index = index(100);
+		short[] signature = MinHasher.signature(ORIGINAL);
+		index.add(1, SENDER, signature);
+		index.add(1, SENDER, signature);
+		index.add(2, SENDER, null);
+
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void fullIndexEvictsTheOldestEntries() {
+		NearDuplicateIndex index = index(4);
+		SplittableRandom random = new SplittableRandom(7);
+		String[] texts = new String[6];
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = text(random, 30);
+			index.add(i + 1, SENDER, MinHasher.signature(texts[i]));
+		}
+
+		assertEquals(4, index.size());
+		assertEquals(2, index.evictions());
+		assertFalse(index.isNearDuplicate(texts[0], SENDER));
+		assertFalse(index.isNearDuplicate(texts[1], SENDER));
+		for (int i = 2; i < texts.length; i++) {
+			assertEquals(i + 1L, index.findOriginal(MinHasher.signature(texts[i]), SENDER, Long.MAX_VALUE));
+		}
+	}
+
+	@Test
+	void removeDropsOnlyThatSendersFingerprints() {
+		NearDuplicateIndex index = index(8);
+		index.add(1, SENDER, MinHasher.signature(ORIGINAL));
+		index.add(2, OTHER_SENDER, MinHasher.signature(ORIGINAL));
+		index.add(3, SENDER, MinHasher.signature(UNRELATED));
+
+		assertEquals(2, index.remove(SENDER));
+		assertEquals(1, index.size());
+		assertFalse(index.isNearDuplicate(ORIGINAL, SENDER));
+		assertFalse(index.isNearDuplicate(UNRELATED, SENDER));
+		assertTrue(index.isNearDuplicate(ORIGINAL, OTHER_SENDER));
+		assertEquals(0, index.remove(SENDER));
+
+		// Freed slots are filled again, in ring order, without counting as evictions
+		SplittableRandom random = new SplittableRandom(3);
+		for (int id = 4; id <= 9; id++) {
+			index.add(id, SENDER, MinHasher.signature(text(random, 30)));
+		}
+		assertEquals(7, index.size());
+		assertEquals(0, index.evictions());
+		assertTrue(index.isNearDuplicate(ORIGINAL, OTHER_SENDER));
+	}
+
+	@Test
+	void lookupsStayFastInAFullIndex() {
+		int capacity = 20_000;
+		NearDuplicateIndex index = index(capacity);
+		SplittableRandom random = new SplittableRandom(42);
+		short[][] probes = new short[2_000][];
+		long[] probeSenders = new long[probes.length];
+		for (int id = 1; id <= capacity; id++) {
+			short[] signature = MinHasher.signature(text(random, 20));
+			long sender = id % 500;
+			index.add(id, sender, signature);
+			if (id % (capacity / probes.length) == 0) {
+				int probe = id / (capacity / probes.length) - 1;
+				probes[probe] = signature;
+				probeSenders[probe] = sender;
+			}
+		}
+
+		// Warm up with misses (a sender with no entries), then time lookups that all hit
+		for (short[] probe : probes) {
+			assertNull(index.findOriginal(probe, 1_000L, Long.MAX_VALUE));
+		}
+		int rounds = 10;
+		int found = 0;
+		long started = System.nanoTime();
+		for (int round = 0; round < rounds; round++) {
+			for (int i = 0; i < probes.length; i++) {
+				if (index.findOriginal(probes[i], probeSenders[i], Long.MAX_VALUE) != null) {
+					found++;
+				}
+			}
+		}
+		long nanosPerLookup = (System.nanoTime() - started) / ((long) rounds * probes.length);
+
+		assertEquals(rounds * probes.length, found);
+		assertTrue(nanosPerLookup < TimeUnit.MICROSECONDS.toNanos(50), "lookup took " + nanosPerLookup + " ns");
+	}
+
+	private static NearDuplicateIndex index(int capacity) {
+		return new NearDuplicateIndex(new SimpleMeterRegistry(), capacity, 0.8);
+	}
+
+	private static String text(SplittableRandom random, int words) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,22 @@
+package com.feedback.loadtest;
+
+/**
+ * The steps of a simulated user's visit, in the order they happen.
+ */
+enum JourneyStep {
+	LOGIN("login"),
+	DASHBOARD("dashboard"),
+	SUBMIT_FEEDBACK("submit feedback"),
+	WALL("wall of appreciation"),
+	ACTION_ITEMS("action items");
+
+	private final String label;
+
+	JourneyStep(String label) {
+		this.label = label;
+	}
+
+	String label() {
+		return label;
+	}
+}
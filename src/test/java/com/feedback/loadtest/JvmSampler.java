@@ -0,0 +1,64 @@
+package com.feedback.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples heap use while the load runs and diffs GC counters over the run.
+ * The harness runs the server in the same JVM, so these are the server's numbers
+ * (plus the comparatively small footprint of the simulated clients).
+ */
+final class JvmSampler {
+
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+	private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "load-jvm-sampler");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private long startGcCount;
+	private long startGcMillis;
+	private long heapSamples;
+	private long heapSumBytes;
+	private long heapPeakBytes;
+
+	void start() {
+		startGcCount = gcCount();
+		startGcMillis = gcMillis();
+		sampler.scheduleAtFixedRate(this::sample, 0, 250, TimeUnit.MILLISECONDS);
+	}
+
+	private synchronized void sample() {
+		long used = memory.getHeapMemoryUsage().getUsed();
+		heapSamples++;
+		heapSumBytes += used;
+		heapPeakBytes = Math.max(heapPeakBytes, used);
+	}
+
+	synchronized String stop(long elapsedNanos) {
+		sampler.shutdownNow();
+		long gcs = gcCount() - startGcCount;
+		long gcMillis = gcMillis() - startGcMillis;
+		long max = memory.getHeapMemoryUsage().getMax();
+		return String.format("heap: avg %d MB, peak %d MB of %s; GC: %d collections, %d ms (%.2f%% of wall time) [%s]%n",
+				heapSamples == 0 ? 0 : heapSumBytes / heapSamples / (1024 * 1024), heapPeakBytes / (1024 * 1024),
+				max < 0 ? "unbounded" : max / (1024 * 1024) + " MB", gcs, gcMillis,
+				100.0 * gcMillis / TimeUnit.NANOSECONDS.toMillis(Math.max(elapsedNanos, 1_000_000)),
+				String.join(", ", collectors.stream().map(GarbageCollectorMXBean::getName).toList()));
+	}
+
+	private long gcCount() {
+		return collectors.stream().mapToLong(gc -> Math.max(0, gc.getCollectionCount())).sum();
+	}
+
+	private long gcMillis() {
+		return collectors.stream().mapToLong(gc -> Math.max(0, gc.getCollectionTime())).sum();
+	}
+}
@@ -0,0 +1,28 @@
+package com.feedback.loadtest;
+
+/**
+ * Load-test knobs, read from system properties so they can be set on the mvn command line.
+ *
+ * @param users concurrent virtual users, each on its own thread ({@code -Dload.users}, default 50)
+ * @param iterations journeys per user after logging in ({@code -Dload.iterations}, default 5)
+ * @param thinkTimeMillis mean pause between steps ({@code -Dload.think-ms}, default 1000)
+ * @param rampUpMillis time over which users start ({@code -Dload.ramp-up-ms}, default 10000)
+ * @param verbose print each failed step ({@code -Dload.verbose})
+ */
+record LoadTestSettings(int users, int iterations, int thinkTimeMillis, int rampUpMillis, boolean verbose) {
+
+	static LoadTestSettings fromSystemProperties() {
+		return new LoadTestSettings(
+				Integer.getInteger("load.users", 50),
+				Integer.getInteger("load.iterations", 5),
+				Integer.getInteger("load.think-ms", 1000),
+				Integer.getInteger("load.ramp-up-ms", 10000),
+				Boolean.getBoolean("load.verbose"));
+	}
+
+	@Override
+	public String toString() {
+		return users + " users x " + iterations + " journeys, think " + thinkTimeMillis + " ms, ramp-up "
+				+ rampUpMillis + " ms";
+	}
+}
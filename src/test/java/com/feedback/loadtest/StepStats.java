@@ -0,0 +1,68 @@
+package com.feedback.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latencies and failures per journey step, shared by all virtual users.
+ */
+final class StepStats {
+
+	private final Map<JourneyStep, ConcurrentLinkedQueue<Long>> latenciesNanos = new EnumMap<>(JourneyStep.class);
+	private final Map<JourneyStep, AtomicInteger> errors = new EnumMap<>(JourneyStep.class);
+
+	StepStats() {
+		for (JourneyStep step : JourneyStep.values()) {
+			latenciesNanos.put(step, new ConcurrentLinkedQueue<>());
+			errors.put(step, new AtomicInteger());
+		}
+	}
+
+	void recordSuccess(JourneyStep step, long nanos) {
+		latenciesNanos.get(step).add(nanos);
+	}
+
+	void recordError(JourneyStep step) {
+		errors.get(step).incrementAndGet();
+	}
+
+	int totalRequests() {
+		int total = 0;
+		for (JourneyStep step : JourneyStep.values()) {
+			total += latenciesNanos.get(step).size() + errors.get(step).get();
+		}
+		return total;
+	}
+
+	int totalErrors() {
+		return errors.values().stream().mapToInt(AtomicInteger::get).sum();
+	}
+
+	String report(long elapsedNanos) {
+		double seconds = elapsedNanos / 1_000_000_000.0;
+		StringBuilder out = new StringBuilder(String.format("%-22s %8s %8s %7s %9s %9s %9s %9s%n",
+				"step", "ok", "errors", "err %", "req/s", "p50 ms", "p95 ms", "p99 ms"));
+		for (JourneyStep step : JourneyStep.values()) {
+			long[] sorted = latenciesNanos.get(step).stream().mapToLong(Long::longValue).sorted().toArray();
+			int failed = errors.get(step).get();
+			int attempts = sorted.length + failed;
+			out.append(String.format("%-22s %8d %8d %6.2f%% %9.1f %9.1f %9.1f %9.1f%n", step.label(),
+					sorted.length, failed, attempts == 0 ? 0.0 : 100.0 * failed / attempts, attempts / seconds,
+					percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99)));
+		}
+		out.append(String.format("total: %d requests in %d ms (%.1f req/s), %d errors%n", totalRequests(),
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos), totalRequests() / seconds, totalErrors()));
+		return out.toString();
+	}
+
+	private static double percentile(long[] sortedNanos, double p) {
+		if (sortedNanos.length == 0) {
+			return Double.NaN;
+		}
+		int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+		return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+	}
+}
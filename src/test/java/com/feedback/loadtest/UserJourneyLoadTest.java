@@ -0,0 +1,97 @@
+package com.feedback.loadtest;
+
+import com.feedback.datagen.DataGenResult;
+import com.feedback.datagen.DataGenSpec;
+import com.feedback.datagen.SyntheticDataGenerator;
+import com.feedback.model.User;
+import com.feedback.repository.UserRepository;
+import com.github.mvysny.kaributesting.v10.Routes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How many concurrent users one node handles: each virtual user logs in through the
+ * login view and then loops through dashboard, feedback form, wall and action items
+ * on the real views, against the database of the active profile (H2 by default, MySQL
+ * with -Dspring.profiles.active=prod). Everything runs in one JVM on one box.
+ *
+ * Prints throughput, error rate and p50/p95/p99 per step, plus heap and GC over the run.
+ *
+ * Run with: mvn test -Dloadtest=true -Dtest=UserJourneyLoadTest
+ *   [-Dload.users=50] [-Dload.iterations=5] [-Dload.think-ms=1000] [-Dload.ramp-up-ms=10000]
+ * Raise the heap for large user counts, e.g. -DargLine=-Xmx4g
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class UserJourneyLoadTest {
+
+	private static final long SEED = 39;
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private Environment environment;
+
+	@Autowired
+	private SyntheticDataGenerator dataGenerator;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private String password;
+
+	@Test
+	void userJourneys() throws Exception {
+		LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+		List<User> accounts = seed(Math.max(2, Math.min(settings.users(), 500)));
+		Routes routes = new Routes().autoDiscoverViews("com.feedback.ui");
+		StepStats stats = new StepStats();
+		JvmSampler jvm = new JvmSampler();
+
+		System.out.printf("Load test: %s, profiles %s%n", settings, Arrays.toString(environment.getActiveProfiles()));
+		ExecutorService users = Executors.newFixedThreadPool(settings.users());
+		List<Future<?>> sessions = new ArrayList<>();
+		long rampStepNanos = settings.users() <= 1 ? 0
+				: TimeUnit.MILLISECONDS.toNanos(settings.rampUpMillis()) / (settings.users() - 1);
+
+		jvm.start();
+		long start = System.nanoTime();
+		for (int u = 0; u < settings.users(); u++) {
+			long startAt = start + u * rampStepNanos;
+			User account = accounts.get(u % accounts.size());
+			sessions.add(users.submit(() -> {
+				TimeUnit.NANOSECONDS.sleep(Math.max(0, startAt - System.nanoTime()));
+				new VirtualUser(context, routes, account, password, accounts, settings, stats).run();
+				return null;
+			}));
+		}
+		for (Future<?> session : sessions) {
+			session.get();
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		users.shutdown();
+
+		System.out.print(stats.report(elapsedNanos));
+		System.out.print(jvm.stop(elapsedNanos));
+	}
+
+	// Generated users share one password; a few are inactive and can't log in
+	private List<User> seed(int accountCount) {
+		DataGenResult data = dataGenerator.generate(DataGenSpec.small(SEED, accountCount));
+		password = data.password();
+		return userRepository.findAllById(data.userIds()).stream().filter(User::isActive).toList();
+	}
+}
@@ -0,0 +1,187 @@
+package com.feedback.loadtest;
+
+import com.feedback.model.User;
+import com.feedback.ui.Skeleton;
+import com.feedback.ui.views.actionitems.ActionItemView;
+import com.feedback.ui.views.appreciation.WallOfAppreciationView;
+import com.feedback.ui.views.dashboard.DashboardView;
+import com.feedback.ui.views.feedback.FeedbackFormView;
+import com.feedback.ui.views.login.LoginView;
+import com.github.mvysny.fakeservlet.FakeRequest;
+import com.github.mvysny.kaributesting.v10.MockVaadin;
+import com.github.mvysny.kaributesting.v10.Routes;
+import com.github.mvysny.kaributesting.v10.spring.MockSpringServlet;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.textfield.EmailField;
+import com.vaadin.flow.component.textfield.PasswordField;
+import com.vaadin.flow.component.textfield.TextArea;
+import com.vaadin.flow.server.VaadinServletRequest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.mvysny.kaributesting.v10.LocatorJ._click;
+import static com.github.mvysny.kaributesting.v10.LocatorJ._find;
+import static com.github.mvysny.kaributesting.v10.LocatorJ._get;
+import static com.github.mvysny.kaributesting.v10.LocatorJ._setValue;
+
+/**
+ * One simulated user, driving the real Vaadin views browserlessly on its own thread:
+ * log in through LoginView, then repeatedly open the dashboard, submit feedback through
+ * FeedbackFormView, browse the wall and the action items, with think time in between.
+ *
+ * Steps that load in the background count as done once their skeletons are replaced,
+ * which is when a user would see the data.
+ */
+final class VirtualUser implements Runnable {
+
+	private static final long LOAD_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+	private final ApplicationContext context;
+	private final Routes routes;
+	private final User account;
+	private final String password;
+	private final List<User> recipients;
+	private final LoadTestSettings settings;
+	private final StepStats stats;
+
+	VirtualUser(ApplicationContext context, Routes routes, User account, String password, List<User> recipients,
+			LoadTestSettings settings, StepStats stats) {
+		this.context = context;
+		this.routes = routes;
+		this.account = account;
+		this.password = password;
+		this.recipients = recipients;
+		this.settings = settings;
+		this.stats = stats;
+	}
+
+	@Override
+	public void run() {
+		MockVaadin.setup(UI::new, new MockSpringServlet(routes, context, UI::new));
+		try {
+			if (!step(JourneyStep.LOGIN, this::login)) {
+				return;
+			}
+			for (int i = 0; i < settings.iterations(); i++) {
+				thinkTime();
+				step(JourneyStep.DASHBOARD, () -> open("", DashboardView.class));
+				thinkTime();
+				step(JourneyStep.SUBMIT_FEEDBACK, this::submitFeedback);
+				thinkTime();
+				step(JourneyStep.WALL, () -> open("wall-of-appreciation", WallOfAppreciationView.class));
+				thinkTime();
+				step(JourneyStep.ACTION_ITEMS, () -> open("action-items", ActionItemView.class));
+			}
+		} finally {
+			MockVaadin.tearDown();
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private boolean step(JourneyStep step, Action action) {
+		long start = System.nanoTime();
+		try {
+			action.run();
+			stats.recordSuccess(step, System.nanoTime() - start);
+			return true;
+		} catch (Exception | AssertionError e) {
+			stats.recordError(step);
+			if (settings.verbose()) {
+				System.err.println(step.label() + " failed for " + account.getEmail() + ": " + e);
+			}
+			return false;
+		}
+	}
+
+	private void login() throws InterruptedException {
+		UI.getCurrent().navigate("login");
+		expectView(LoginView.class);
+		_setValue(_get(EmailField.class), account.getEmail());
+		_setValue(_get(PasswordField.class), password);
+		_click(_get(Button.class, spec -> spec.withText("Login")));
+
+		// In a browser the next request would carry the session's security context and the
+		// servlet container would expose it as the principal; do the same on the mock request
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()) {
+			throw new IllegalStateException("login rejected");
+		}
+		FakeRequest request = (FakeRequest) VaadinServletRequest.getCurrent().getRequest();
+		request.setUserPrincipalInt(authentication);
+		request.setUserInRole((principal, role) -> authentication.getAuthorities().stream()
+				.anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role)));
+		open("", DashboardView.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void submitFeedback() throws InterruptedException {
+		open("feedback-form", FeedbackFormView.class);
+		User recipient = recipients.get(ThreadLocalRandom.current().nextInt(recipients.size()));
+		if (recipient.getId().equals(account.getId())) {
+			recipient = recipients.get((recipients.indexOf(recipient) + 1) % recipients.size());
+		}
+		_setValue((ComboBox<User>) _get(ComboBox.class, spec -> spec.withLabel("Recipient")), recipient);
+		_setValue(_get(TextArea.class, spec -> spec.withLabel("Feedback")),
+				"Load test feedback from " + account.getFirstName() + " at " + System.currentTimeMillis());
+		_click(_get(Button.class, spec -> spec.withText("Submit Feedback")));
+		// A successful submit navigates back to the dashboard
+		awaitLoaded(DashboardView.class);
+	}
+
+	private void open(String location, Class<? extends Component> view) throws InterruptedException {
+		UI.getCurrent().navigate(location);
+		awaitLoaded(view);
+	}
+
+	// Runs queued UI.access() tasks the way a push/poll round trip would, until the view's
+	// skeleton placeholders are gone
+	private void awaitLoaded(Class<? extends Component> view) throws InterruptedException {
+		expectView(view);
+		long deadline = System.nanoTime() + LOAD_TIMEOUT_NANOS;
+		while (true) {
+			MockVaadin.clientRoundtrip();
+			if (_find(Skeleton.class).isEmpty()) {
+				return;
+			}
+			if (System.nanoTime() > deadline) {
+				throw new IllegalStateException(view.getSimpleName() + " did not finish loading");
+			}
+			Thread.sleep(2);
+		}
+	}
+
+	private static void expectView(Class<? extends Component> view) {
+		List<HasElement> chain = UI.getCurrent().getInternals().getActiveRouterTargetsChain();
+		if (chain.isEmpty() || !view.isInstance(chain.get(0))) {
+			throw new IllegalStateException("expected " + view.getSimpleName() + " but got " + chain);
+		}
+	}
+
+	private void thinkTime() {
+		int thinkMillis = settings.thinkTimeMillis();
+		if (thinkMillis <= 0) {
+			return;
+		}
+		// +/- 50% so users drift apart instead of moving in lockstep
+		long pause = thinkMillis / 2 + ThreadLocalRandom.current().nextLong(thinkMillis + 1);
+		try {
+			Thread.sleep(pause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@FunctionalInterface
+	private interface Action {
+		void run() throws Exception;
+	}
+}
@@ -0,0 +1,97 @@
+package com.feedback.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The stored codes are part of the schema: changing one rewrites the meaning of
+ * existing rows, so they are pinned here together with the transition rules.
+ */
+class StatusCodesTest {
+
+	@Test
+	void feedbackStatusCodesAreStable() {
+		assertEquals(0, FeedbackStatus.OPEN.getCode());
+		assertEquals(1, FeedbackStatus.ACKNOWLEDGED.getCode());
+		assertEquals(2, FeedbackStatus.IN_PROGRESS.getCode());
+		assertEquals(3, FeedbackStatus.COMPLETED.getCode());
+		for (FeedbackStatus status : FeedbackStatus.values()) {
+			assertEquals(status, FeedbackStatus.fromCode(status.getCode()));
+		}
+	}
+
+	@Test
+	void actionItemStatusCodesAreStable() {
+		assertEquals(0, ActionItemStatus.OPEN.getCode());
+		assertEquals(1, ActionItemStatus.IN_PROGRESS.getCode());
+		assertEquals(2, ActionItemStatus.COMPLETED.getCode());
+		assertEquals(3, ActionItemStatus.CANCELLED.getCode());
+		for (ActionItemStatus status : ActionItemStatus.values()) {
+			assertEquals(status, ActionItemStatus.fromCode(status.getCode()));
+		}
+	}
+
+	@Test
+	void priorityCodesAreStableAndOrdered() {
+		assertEquals(0, Priority.LOW.getCode());
+		assertEquals(1, Priority.MEDIUM.getCode());
+		assertEquals(2, Priority.HIGH.getCode());
+		for (Priority priority : Priority.values()) {
+			assertEquals(priority, Priority.fromCode(priority.getCode()));
+		}
+		assertTrue(Priority.LOW.compareTo(Priority.HIGH) < 0);
+	}
+
+	@Test
+	void unknownCodesAreRejected() {
+		for (short code : new short[] {-1, 4, Short.MAX_VALUE}) {
+			assertThrows(IllegalArgumentException.class, () -> FeedbackStatus.fromCode(code));
+			assertThrows(IllegalArgumentException.class, () -> ActionItemStatus.fromCode(code));
+		}
+		assertThrows(IllegalArgumentException.class, () -> Priority.fromCode((short) 3));
+		assertThrows(IllegalArgumentException.class, () -> Priority.fromCode((short) -1));
+	}
+
+	@Test
+	void feedbackStatusTransitions() {
+		assertEquals(EnumSet.allOf(FeedbackStatus.class), FeedbackStatus.OPEN.allowedTransitions());
+		assertEquals(EnumSet.of(FeedbackStatus.ACKNOWLEDGED, FeedbackStatus.IN_PROGRESS, FeedbackStatus.COMPLETED),
+				FeedbackStatus.ACKNOWLEDGED.allowedTransitions());
+		assertEquals(EnumSet.of(FeedbackStatus.ACKNOWLEDGED, FeedbackStatus.IN_PROGRESS, FeedbackStatus.COMPLETED),
+				FeedbackStatus.IN_PROGRESS.allowedTransitions());
+		assertEquals(EnumSet.of(FeedbackStatus.IN_PROGRESS, FeedbackStatus.COMPLETED),
+				FeedbackStatus.COMPLETED.allowedTransitions());
+
+		assertFalse(FeedbackStatus.ACKNOWLEDGED.canTransitionTo(FeedbackStatus.OPEN));
+		assertFalse(FeedbackStatus.COMPLETED.canTransitionTo(FeedbackStatus.OPEN));
+		assertFalse(FeedbackStatus.COMPLETED.canTransitionTo(FeedbackStatus.ACKNOWLEDGED));
+		assertFalse(FeedbackStatus.OPEN.canTransitionTo(null));
+		for (FeedbackStatus status : FeedbackStatus.values()) {
+			assertTrue(status.canTransitionTo(status));
+		}
+	}
+
+	@Test
+	void actionItemStatusTransitions() {
+		assertEquals(EnumSet.allOf(ActionItemStatus.class), ActionItemStatus.OPEN.allowedTransitions());
+		assertEquals(EnumSet.allOf(ActionItemStatus.class), ActionItemStatus.IN_PROGRESS.allowedTransitions());
+		assertEquals(EnumSet.of(ActionItemStatus.COMPLETED, ActionItemStatus.IN_PROGRESS),
+				ActionItemStatus.COMPLETED.allowedTransitions());
+		assertEquals(EnumSet.of(ActionItemStatus.CANCELLED, ActionItemStatus.OPEN),
+				ActionItemStatus.CANCELLED.allowedTransitions());
+
+		assertFalse(ActionItemStatus.COMPLETED.canTransitionTo(ActionItemStatus.CANCELLED));
+		assertFalse(ActionItemStatus.CANCELLED.canTransitionTo(ActionItemStatus.COMPLETED));
+		assertFalse(ActionItemStatus.OPEN.canTransitionTo(null));
+		assertTrue(ActionItemStatus.COMPLETED.isClosed());
+		assertTrue(ActionItemStatus.CANCELLED.isClosed());
+		assertFalse(ActionItemStatus.OPEN.isClosed());
+		assertFalse(ActionItemStatus.IN_PROGRESS.isClosed());
+	}
+}
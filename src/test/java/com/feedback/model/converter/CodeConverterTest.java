@@ -0,0 +1,52 @@
+package com.feedback.model.converter;
+
+import com.feedback.model.ActionItemStatus;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.Priority;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CodeConverterTest {
+
+	@Test
+	void feedbackStatusRoundTrips() {
+		FeedbackStatusConverter converter = new FeedbackStatusConverter();
+		for (FeedbackStatus status : FeedbackStatus.values()) {
+			Short code = converter.convertToDatabaseColumn(status);
+			assertEquals(status.getCode(), code);
+			assertEquals(status, converter.convertToEntityAttribute(code));
+		}
+		assertNull(converter.convertToDatabaseColumn(null));
+		assertNull(converter.convertToEntityAttribute(null));
+		assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute((short) 9));
+	}
+
+	@Test
+	void actionItemStatusRoundTrips() {
+		ActionItemStatusConverter converter = new ActionItemStatusConverter();
+		for (ActionItemStatus status : ActionItemStatus.values()) {
+			Short code = converter.convertToDatabaseColumn(status);
+			assertEquals(status.getCode(), code);
+			assertEquals(status, converter.convertToEntityAttribute(code));
+		}
+		assertNull(converter.convertToDatabaseColumn(null));
+		assertNull(converter.convertToEntityAttribute(null));
+		assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute((short) -1));
+	}
+
+	@Test
+	void priorityRoundTrips() {
+		PriorityConverter converter = new PriorityConverter();
+		for (Priority priority : Priority.values()) {
+			Short code = converter.convertToDatabaseColumn(priority);
+			assertEquals(priority.getCode(), code);
+			assertEquals(priority, converter.convertToEntityAttribute(code));
+		}
+		assertNull(converter.convertToDatabaseColumn(null));
+		assertNull(converter.convertToEntityAttribute(null));
+		assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute((short) 3));
+	}
+}
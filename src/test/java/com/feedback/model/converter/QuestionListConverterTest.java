@@ -0,0 +1,58 @@
+package com.feedback.model.converter;
+
+import com.feedback.model.QuestionType;
+import com.feedback.model.TemplateQuestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QuestionListConverterTest {
+
+	private final QuestionListConverter converter = new QuestionListConverter();
+
+	@Test
+	void legacyPlainStringsReadAsFreeText() {
+		List<TemplateQuestion> questions = converter.convertToEntityAttribute(
+				"[\"What went well?\",\"What could be \\\"better\\\"?\"]");
+
+		assertEquals(List.of(TemplateQuestion.text("What went well?"), TemplateQuestion.text("What could be \"better\"?")),
+				questions);
+		// Written back in the same form, so untouched versions keep their stored value
+		assertEquals("[\"What went well?\",\"What could be \\\"better\\\"?\"]", converter.convertToDatabaseColumn(questions));
+	}
+
+	@Test
+	void typedQuestionsRoundTripAsObjects() {
+		List<TemplateQuestion> questions = List.of(
+				new TemplateQuestion("Communication", QuestionType.RATING),
+				TemplateQuestion.text("Anything else?"),
+				new TemplateQuestion("Would you recommend them?", QuestionType.NPS),
+				new TemplateQuestion("Met the deadline", QuestionType.YES_NO));
+
+		String column = converter.convertToDatabaseColumn(questions);
+
+		assertEquals("[{\"text\":\"Communication\",\"type\":\"RATING\"},\"Anything else?\","
+				+ "{\"text\":\"Would you recommend them?\",\"type\":\"NPS\"},"
+				+ "{\"text\":\"Met the deadline\",\"type\":\"YES_NO\"}]", column);
+		assertEquals(questions, converter.convertToEntityAttribute(column));
+	}
+
+	@Test
+	void emptyAndMissingListsAreEmpty() {
+		assertEquals("[]", converter.convertToDatabaseColumn(null));
+		assertEquals("[]", converter.convertToDatabaseColumn(List.of()));
+		assertEquals(List.of(), converter.convertToEntityAttribute(null));
+		assertEquals(List.of(), converter.convertToEntityAttribute(""));
+		assertEquals(List.of(), converter.convertToEntityAttribute("[]"));
+	}
+
+	@Test
+	void corruptColumnIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute("[\"unterminated"));
+		assertThrows(IllegalArgumentException.class,
+				() -> converter.convertToEntityAttribute("[{\"text\":\"Q\",\"type\":\"STARS\"}]"));
+	}
+}
@@ -0,0 +1,158 @@
+package com.feedback.policy;
+
+import com.feedback.model.PrivacyLevel;
+import com.feedback.model.User;
+import com.feedback.policy.ContentPolicy.Action;
+import com.feedback.policy.ContentPolicy.Violation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentPolicyTest {
+
+	private static final ContentPolicy POLICY = new ContentPolicy(new ClassPathResource("policy/content-policy.txt"));
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void longerTermWinsOverTheSuffixInsideIt() {
+		assertEquals(List.of(new Violation(Action.BLOCK, "profanity", "Bullshit")), check("Bullshit, all of it."));
+		assertEquals(List.of(new Violation(Action.BLOCK, "profanity", "shit"),
+				new Violation(Action.BLOCK, "profanity", "bullshit")), check("What shit. Utter bullshit"));
+		assertEquals(List.of(new Violation(Action.BLOCK, "profanity", "shitty")), check("a shitty week"));
+	}
+
+	@Test
+	void prefixTermsMatchTheWholeWord() {
+		assertEquals(List.of(new Violation(Action.WARN, "abuse", "idiotic")), check("That was idiotic."));
+		assertEquals(List.of(new Violation(Action.BLOCK, "profanity", "Fucking"),
+				new Violation(Action.WARN, "abuse", "morons")), check("Fucking morons"));
+		// The prefix still has to start a word, though a hyphen starts one
+		assertEquals(List.of(), check("a semiidiotic plan, nonidiots"));
+		assertEquals(List.of(new Violation(Action.WARN, "abuse", "idiotproof")), check("semi-idiotproof"));
+	}
+
+	@Test
+	void termsOnlyMatchWholeWords() {
+		assertEquals(List.of(), check("Scrapped the class, then the classic crapshoot, shitake"));
+		assertEquals(List.of(new Violation(Action.WARN, "profanity", "crap")), check("(crap)"));
+		assertEquals(List.of(new Violation(Action.WARN, "abuse", "shut up")), check("Please shut up."));
+		assertEquals(List.of(), check("shut-up"));
+	}
+
+	@Test
+	void repeatedMatchesAreReportedOnce() {
+		assertEquals(List.of(new Violation(Action.WARN, "profanity", "Damn")), check("Damn. damn. DAMN."));
+	}
+
+	@Test
+	void phoneNumbersAreOnlyLookedForInAnonymousFeedback() {
+		assertEquals(List.of(new Violation(Action.WARN, "phone number", "06 1234 5678")),
+				anonymous("Call me on 06 1234 5678"));
+		// The match starts at the first digit and ends at the last
+		assertEquals(List.of(new Violation(Action.WARN, "phone number", "31 (0)20-555 0199")),
+				anonymous("Reach me at +31 (0)20-555 0199."));
+		assertEquals(List.of(), check("Call me on 06 1234 5678"));
+		// Too short to be a phone number, or too far apart to be one
+		assertEquals(List.of(), anonymous("Ticket 4821 from 2024-03-15, 12 345"));
+		assertEquals(List.of(), anonymous("Scores 12 34 - - 56 78 90"));
+	}
+
+	@Test
+	void emailAddressesMayEndASentence() {
+		assertEquals(List.of(new Violation(Action.WARN, "email address", "jan.de-vries@example.co.uk")),
+				anonymous("Mail jan.de-vries@example.co.uk."));
+		assertEquals(List.of(new Violation(Action.WARN, "email address", "a_b+c@mail.example.org")),
+				anonymous("Ask a_b+c@mail.example.org. Thanks"));
+		assertEquals(List.of(new Violation(Action.WARN, "email address", "me@x.io")), anonymous("(me@x.io)"));
+		assertEquals(List.of(), anonymous("Meet @ 10, user@localhost, x@y.c"));
+	}
+
+	@Test
+	void anonymousFeedbackMustNotNameTheSender() {
+		User sender = new User("jdoe", "Jane", "Doe", "jane.doe@example.com", "secret");
+
+		ContentPolicy.Verdict verdict = POLICY.check("Great sprint - Jane Doe", PrivacyLevel.ANONYMOUS, sender);
+		assertEquals(List.of(new Violation(Action.WARN, "your name", "Jane Doe")), verdict.violations());
+		assertTrue(verdict.hasPersonalData());
+		assertFalse(verdict.isBlocked());
+		assertTrue(POLICY.check("Great sprint - Jane Doe", PrivacyLevel.PRIVATE, sender).isClean());
+	}
+
+	@Test
+	void reloadSwapsInAChangedTermList() throws IOException {
+		Path file = directory.resolve("content-policy.txt");
+		Files.writeString(file, "# Test terms\nblock profanity shit\n");
+		ContentPolicy policy = new ContentPolicy(new FileSystemResource(file));
+		assertEquals(1, policy.termCount());
+		assertTrue(policy.check("shit happens", PrivacyLevel.PRIVATE, null).isBlocked());
+
+		// An unchanged modification time is not reloaded
+		FileTime loaded = Files.getLastModifiedTime(file);
+		Files.writeString(file, "warn profanity shit\nwarn abuse meh\n");
+		Files.setLastModifiedTime(file, loaded);
+		policy.reloadIfChanged();
+		assertEquals(1, policy.termCount());
+
+		Files.setLastModifiedTime(file, FileTime.fromMillis(loaded.toMillis() + 10_000));
+		policy.reloadIfChanged();
+		assertEquals(2, policy.termCount());
+		ContentPolicy.Verdict verdict = policy.check("shit, meh", PrivacyLevel.PRIVATE, null);
+		assertFalse(verdict.isBlocked());
+		assertEquals("profanity \"shit\", abuse \"meh\"", verdict.describe(Action.WARN));
+
+		// A broken list keeps the last good one in use
+		Files.writeString(file, "warn profanity shit\nmeh\n");
+		Files.setLastModifiedTime(file, FileTime.fromMillis(loaded.toMillis() + 20_000));
+		policy.reloadIfChanged();
+		assertEquals(2, policy.termCount());
+		assertThrows(IllegalArgumentException.class, policy::reload);
+		assertEquals(2, policy.termCount());
+	}
+
+	@Test
+	void checksAThousandCharactersInMicroseconds() {
+		StringBuilder text = new StringBuilder();
+		String[] words = {"thanks", "for", "the", "demo", "stupid", "bug", "class", "assessment", "mail",
+				"me@example.com", "or", "call", "0612345678", "retro", "shitake"};
+		for (int i = 0; text.length() < 1000; i++) {
+			text.append(words[i % words.length]).append(' ');
+		}
+		String content = text.substring(0, 1000);
+
+		int checks = 20_000;
+		for (int i = 0; i < checks; i++) {
+			POLICY.check(content, PrivacyLevel.ANONYMOUS, null);
+		}
+		long started = System.nanoTime();
+		for (int i = 0; i < checks; i++) {
+			POLICY.check(content, PrivacyLevel.ANONYMOUS, null);
+		}
+		long nanosPerCheck = (System.nanoTime() - started) / checks;
+
+		assertEquals(3, POLICY.check(content, PrivacyLevel.ANONYMOUS, null).violations().size());
+		assertTrue(nanosPerCheck < TimeUnit.MICROSECONDS.toNanos(100), "check took " + nanosPerCheck + " ns");
+	}
+
+	private static List<Violation> check(String content) {
+		return POLICY.check(content, PrivacyLevel.PRIVATE, null).violations();
+	}
+
+	private static List<Violation> anonymous(String content) {
+		return POLICY.check(content, PrivacyLevel.ANONYMOUS, null).violations();
+	}
+}
@@ -0,0 +1,78 @@
+package com.feedback.policy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TermAutomatonTest {
+
+	@Test
+	void reportsEveryTermEndingAtACharacter() {
+		List<String> terms = List.of("he", "she", "his", "hers");
+		TermAutomaton automaton = new TermAutomaton(terms);
+
+		// "she" and "he" both end at the first 'e'; "hers" overlaps them
+		assertEquals(List.of("she@4", "he@4", "hers@6"), matches(automaton, terms, "ushers"));
+		assertEquals(List.of("his@4", "she@6", "he@6"), matches(automaton, terms, "ahishe"));
+	}
+
+	@Test
+	void suffixTermIsFoundInsideTheLongerTerm() {
+		List<String> terms = List.of("shit", "bullshit", "shitty");
+		TermAutomaton automaton = new TermAutomaton(terms);
+
+		assertEquals(List.of("bullshit@8", "shit@8"), matches(automaton, terms, "bullshit"));
+		assertEquals(List.of("shit@4", "shitty@6"), matches(automaton, terms, "shitty"));
+		assertEquals(List.of("shit@8", "bullshit@18", "shit@18"), matches(automaton, terms, "its shit, bullshit"));
+	}
+
+	@Test
+	void charactersOutsideEveryTermGoBackToTheRoot() {
+		List<String> terms = List.of("kys", "shut up");
+		TermAutomaton automaton = new TermAutomaton(terms);
+
+		assertEquals(List.of(), matches(automaton, terms, "k!ys shut_up"));
+		assertEquals(List.of("shut up@11"), matches(automaton, terms, "ok, shut up"));
+		assertEquals(List.of("kys@3", "kys@6"), matches(automaton, terms, "kyskys"));
+	}
+
+	@Test
+	void duplicateTermsReportTheFirst() {
+		List<String> terms = List.of("crap", "damn", "crap");
+		TermAutomaton automaton = new TermAutomaton(terms);
+
+		assertEquals(List.of("0@4"), indexes(automaton, "crap"));
+		assertEquals(1 + "crap".length() + "damn".length(), automaton.stateCount());
+	}
+
+	@Test
+	void emptyDictionaryMatchesNothing() {
+		TermAutomaton automaton = new TermAutomaton(List.of());
+
+		assertEquals(1, automaton.stateCount());
+		assertEquals(List.of(), indexes(automaton, "anything at all"));
+	}
+
+	// "<term>@<end>" for every output, in the order a scan sees them
+	private static List<String> matches(TermAutomaton automaton, List<String> terms, String text) {
+		return indexes(automaton, text).stream()
+				.map(match -> terms.get(Integer.parseInt(match.substring(0, match.indexOf('@'))))
+						+ match.substring(match.indexOf('@')))
+				.toList();
+	}
+
+	private static List<String> indexes(TermAutomaton automaton, String text) {
+		List<String> found = new ArrayList<>();
+		int state = 0;
+		for (int i = 0; i < text.length(); i++) {
+			state = automaton.next(state, text.charAt(i));
+			for (int output = automaton.firstOutput(state); output >= 0; output = automaton.nextOutput(output)) {
+				found.add(automaton.termAt(output) + "@" + (i + 1));
+			}
+		}
+		return found;
+	}
+}
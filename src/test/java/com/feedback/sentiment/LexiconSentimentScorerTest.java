@@ -0,0 +1,106 @@
+package com.feedback.sentiment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LexiconSentimentScorerTest {
+
+	// good 2 -> 2 / sqrt(4 + 15) = 0.459
+	private static final LexiconSentimentScorer SMALL = scorer("""
+			# weights as in the shipped lexicon
+			good 2
+			late -1
+			great job 3
+			""");
+	private static final LexiconSentimentScorer SHIPPED = new LexiconSentimentScorer(
+			new ClassPathResource("sentiment/lexicon.txt"));
+
+	@Test
+	void polarityFollowsTheWords() {
+		assertEquals(46, SMALL.score("Good"));
+		assertEquals(-25, SMALL.score("late"));
+		assertTrue(SHIPPED.score("Great work on the release, really helpful and thorough.") > 50);
+		assertTrue(SHIPPED.score("Rude in meetings and the report was terrible.") < -50);
+	}
+
+	@Test
+	void unknownOrEmptyTextIsNeutral() {
+		assertEquals(0, SMALL.score("The meeting is on Tuesday"));
+		assertEquals(0, SMALL.score(""));
+		assertEquals(0, SMALL.score("   "));
+		assertEquals(0, SMALL.score(null));
+	}
+
+	@Test
+	void negationFlipsAndDampens() {
+		// 2 * -0.75 = -1.5
+		assertEquals(-36, SMALL.score("not good"));
+		assertEquals(-36, SMALL.score("It wasn't really that good"));
+		assertEquals(-36, SMALL.score("Isn’t good"));
+		assertTrue(SHIPPED.score("He never missed a deadline") > 0);
+	}
+
+	@Test
+	void negationIsLimitedToAWindowAndTheSentence() {
+		// "good" is five words after "not"
+		assertEquals(46, SMALL.score("not one of them was good"));
+		assertEquals(46, SMALL.score("Not today. Good."));
+		// Used up by the first match
+		assertEquals(13, SMALL.score("not good good"));
+	}
+
+	@Test
+	void modifiersScaleTheNextWord() {
+		// 2 * 1.5 = 3 and 2 * 0.5 = 1
+		assertEquals(61, SMALL.score("very good"));
+		assertEquals(25, SMALL.score("slightly good"));
+		assertEquals(46, SMALL.score("very much good"));
+	}
+
+	@Test
+	void whatFollowsButWeighsMore() {
+		// 2 * 0.5 - 1 * 1.5 = -0.5
+		assertEquals(-13, SMALL.score("good but late"));
+		// -1 * 0.5 + 2 * 1.5 = 2.5
+		assertEquals(54, SMALL.score("late but good"));
+	}
+
+	@Test
+	void phrasesWinOverTheirWords() {
+		assertEquals(61, SMALL.score("Great job!"));
+		assertEquals(0, SMALL.score("great"));
+	}
+
+	@Test
+	void scoresAreClampedToTheScale() {
+		String praise = "Excellent. ".repeat(200);
+		String complaint = "Terrible, rude. ".repeat(200);
+
+		assertEquals(SentimentScorer.MAX, SHIPPED.score(praise));
+		assertEquals(SentimentScorer.MIN, SHIPPED.score(complaint));
+		assertEquals(SentimentScorer.MAX, SMALL.score("very good ".repeat(10_000)));
+	}
+
+	@Test
+	void tokensAreLowerCaseWordsWithSentenceEnds() {
+		assertEquals(List.of("didn't", "miss", "it", ".", "ok", "."),
+				LexiconSentimentScorer.tokenize("Didn’t MISS it!!! ok;"));
+	}
+
+	@Test
+	void lexiconLineWithoutWeightIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> scorer("good 2\nhelpful\n"));
+	}
+
+	private static LexiconSentimentScorer scorer(String lexicon) {
+		return new LexiconSentimentScorer(new ByteArrayResource(lexicon.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,91 @@
+package com.feedback.sentiment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SentimentQueueTest {
+
+	private final SentimentWriter writer = mock(SentimentWriter.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final BlockingQueue<Map<Long, String>> batches = new LinkedBlockingQueue<>();
+	private final CountDownLatch writing = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+	// One worker, three queue slots, batches of up to 10 gathered for 20 ms
+	private final SentimentQueue queue = new SentimentQueue(writer, meterRegistry, 1, 3, 10, 20, false);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		queue.stop();
+	}
+
+	@Test
+	void sameFeedbackQueuedTwiceIsScoredOnceWithItsLatestContent() throws Exception {
+		holdFirstBatch();
+		assertTrue(queue.submit(5L, "first draft"));
+		assertTrue(queue.submit(6L, "other"));
+		assertTrue(queue.submit(5L, "edited"));
+
+		release.countDown();
+
+		assertEquals(Map.of(5L, "edited", 6L, "other"), batches.poll(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void fullQueueDropsAndCounts() throws Exception {
+		holdFirstBatch();
+		assertTrue(queue.submit(2L, "b"));
+		assertTrue(queue.submit(3L, "c"));
+		assertTrue(queue.submit(4L, "d"));
+
+		assertFalse(queue.submit(5L, "e"));
+		assertFalse(queue.submit(6L, "f"));
+		assertEquals(3, queue.pending());
+		assertEquals(2.0, meterRegistry.get("feedback.sentiment.dropped").counter().count());
+
+		release.countDown();
+		assertEquals(Map.of(2L, "b", 3L, "c", 4L, "d"), batches.poll(5, TimeUnit.SECONDS));
+		assertEquals(0, queue.pending());
+		assertEquals(2.0, meterRegistry.get("feedback.sentiment.dropped").counter().count());
+	}
+
+	@Test
+	void nothingIsQueuedWithoutAnIdOrAfterStop() {
+		assertFalse(queue.submit(null, "no id"));
+		queue.stop();
+		assertFalse(queue.submit(1L, "late"));
+		assertEquals(0.0, meterRegistry.get("feedback.sentiment.dropped").counter().count());
+	}
+
+	// The worker takes feedback 1 and blocks writing it, so later submissions stay queued
+	private void holdFirstBatch() throws InterruptedException {
+		doAnswer(invocation -> {
+			Map<Long, String> contents = invocation.getArgument(1);
+			if (contents.containsKey(1L)) {
+				writing.countDown();
+				release.await(5, TimeUnit.SECONDS);
+			} else {
+				batches.add(new LinkedHashMap<>(contents));
+			}
+			return null;
+		}).when(writer).write(any(), any(), anyBoolean());
+		assertTrue(queue.submit(1L, "a"));
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+	}
+}
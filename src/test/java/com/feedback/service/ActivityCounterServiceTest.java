@@ -0,0 +1,111 @@
+package com.feedback.service;
+
+import com.feedback.archive.ArchiveReader;
+import com.feedback.model.ActionItemStatus;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.UserCount;
+import com.feedback.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityCounterServiceTest {
+
+	private final FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+	private final ArchivedFeedbackRepository archivedFeedbackRepository = mock(ArchivedFeedbackRepository.class);
+	private final ArchiveReader archiveReader = mock(ArchiveReader.class);
+	private final ActionItemRepository actionItemRepository = mock(ActionItemRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final ActivityCounterService counters = new ActivityCounterService(feedbackRepository,
+			archivedFeedbackRepository, archiveReader, actionItemRepository, userRepository);
+
+	@Test
+	void reconcileReplacesCountsAndSubtractsPendingReceipts() {
+		counters.adjustUnreadFeedback(1L, 10);
+		counters.adjustUnreadFeedback(2L, 3);
+		when(feedbackRepository.countUnreadByRecipient()).thenReturn(List.of(count(1L, 4)));
+		when(actionItemRepository.countByAssigneeAndStatusNot(ActivityCounterService.NOT_OPEN))
+				.thenReturn(List.of(count(1L, 2)));
+
+		counters.reconcile(() -> Map.of(1L, 1));
+		assertEquals(3, counters.unreadFeedback(1L));
+		assertEquals(0, counters.unreadFeedback(2L));
+		assertEquals(2, counters.openActionItems(1L));
+	}
+
+	@Test
+	void adjustmentsWhileCountingAreKept() {
+		// A feedback and an action item arrive after the counts were read but before they are applied
+		when(feedbackRepository.countUnreadByRecipient()).thenAnswer(invocation -> {
+			counters.adjustUnreadFeedback(1L, 1);
+			return List.of(count(1L, 4));
+		});
+		when(actionItemRepository.countByAssigneeAndStatusNot(ActivityCounterService.NOT_OPEN)).thenAnswer(invocation -> {
+			counters.actionItemChanged(null, null, 2L, ActionItemStatus.OPEN);
+			return List.of();
+		});
+
+		counters.reconcile(Map::of);
+		assertEquals(5, counters.unreadFeedback(1L));
+		assertEquals(1, counters.openActionItems(2L));
+
+		// Once the reconcile is over, adjustments are no longer journaled twice
+		when(feedbackRepository.countUnreadByRecipient()).thenReturn(List.of(count(1L, 5)));
+		when(actionItemRepository.countByAssigneeAndStatusNot(ActivityCounterService.NOT_OPEN))
+				.thenReturn(List.of(count(2L, 1)));
+		counters.reconcile(Map::of);
+		assertEquals(5, counters.unreadFeedback(1L));
+		assertEquals(1, counters.openActionItems(2L));
+	}
+
+	@Test
+	void failedReconcileKeepsCountersAndStopsJournaling() {
+		counters.adjustUnreadFeedback(1L, 2);
+		when(feedbackRepository.countUnreadByRecipient()).thenThrow(new IllegalStateException("down"));
+		assertThrows(IllegalStateException.class, () -> counters.reconcile(Map::of));
+		counters.adjustUnreadFeedback(1L, 1);
+		assertEquals(3, counters.unreadFeedback(1L));
+	}
+
+	@Test
+	void wallPostCountsLeaveOutNearDuplicates() {
+		LocalDateTime lastVisit = LocalDateTime.of(2025, 6, 1, 12, 0);
+		when(feedbackRepository.countByPrivacyLevelAndDuplicateOfIdIsNull(PrivacyLevel.PUBLIC)).thenReturn(5L);
+		when(archivedFeedbackRepository.countByPrivacyLevelAndDuplicateOfIdIsNull(PrivacyLevel.PUBLIC)).thenReturn(2L);
+		when(archiveReader.publicPostCount()).thenReturn(1L);
+		when(userRepository.findLastWallVisitById(10L)).thenReturn(Optional.of(lastVisit));
+		when(feedbackRepository.countByPrivacyLevelAndDuplicateOfIdIsNullAndCreatedAtAfter(PrivacyLevel.PUBLIC,
+				lastVisit)).thenReturn(2L);
+		when(archiveReader.publicPostCountAfter(lastVisit)).thenReturn(1L);
+
+		counters.reconcile(Map::of);
+		assertEquals(8, counters.newWallPosts(9L));
+		assertEquals(3, counters.newWallPosts(10L));
+
+		counters.publicPostAdded();
+		assertEquals(4, counters.newWallPosts(10L));
+	}
+
+	private static UserCount count(Long userId, long total) {
+		return new UserCount() {
+			public Long getUserId() {
+				return userId;
+			}
+
+			public long getTotal() {
+				return total;
+			}
+		};
+	}
+}
@@ -0,0 +1,101 @@
+package com.feedback.service;
+
+import com.feedback.model.User;
+import com.feedback.repository.UserRepository;
+import com.vaadin.flow.server.VaadinSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * getCurrentUser() for a session signed in through Spring Security's form login, where
+ * the security context holds the authentication but the Vaadin session has no user id.
+ */
+class AuthenticationServiceTest {
+
+	private static final String EMAIL = "jane.doe@example.com";
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final VaadinSession session = mock(VaadinSession.class);
+	private final AuthenticationService service = new AuthenticationService(userRepository,
+			mock(PasswordEncoder.class), new SimpleMeterRegistry());
+	private User user;
+
+	@BeforeEach
+	void signIn() {
+		user = new User("jdoe", "Jane", "Doe", EMAIL, "hash");
+		user.setId(42L);
+		when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> Optional.of(user));
+		VaadinSession.setCurrent(session);
+	}
+
+	@AfterEach
+	void signOut() {
+		VaadinSession.setCurrent(null);
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void formLoginSessionIsBoundToTheUser() {
+		authenticate(new UsernamePasswordAuthenticationToken(EMAIL, null,
+				AuthorityUtils.createAuthorityList("ROLE_EMPLOYEE")));
+
+		assertEquals(user, service.getCurrentUser());
+		verify(session).setAttribute(AuthenticationService.CURRENT_USER_ID_SESSION_ATTRIBUTE, 42L);
+	}
+
+	@Test
+	void inactiveUserIsNotBound() {
+		user.setActive(false);
+		authenticate(new UsernamePasswordAuthenticationToken(EMAIL, null,
+				AuthorityUtils.createAuthorityList("ROLE_EMPLOYEE")));
+
+		assertNull(service.getCurrentUser());
+		verify(session, never()).setAttribute(anyString(), any());
+	}
+
+	@Test
+	void unauthenticatedOrAnonymousContextIsIgnored() {
+		authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, "password"));
+		assertNull(service.getCurrentUser());
+
+		authenticate(new AnonymousAuthenticationToken("key", "anonymousUser",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+		assertNull(service.getCurrentUser());
+
+		SecurityContextHolder.clearContext();
+		assertNull(service.getCurrentUser());
+		verify(session, never()).setAttribute(anyString(), any());
+	}
+
+	@Test
+	void unknownEmailIsNotBound() {
+		authenticate(new UsernamePasswordAuthenticationToken("someone@example.com", null,
+				AuthorityUtils.createAuthorityList("ROLE_EMPLOYEE")));
+
+		assertNull(service.getCurrentUser());
+		verify(session, never()).setAttribute(anyString(), any());
+	}
+
+	private static void authenticate(Authentication authentication) {
+		SecurityContextHolder.getContext().setAuthentication(authentication);
+	}
+}
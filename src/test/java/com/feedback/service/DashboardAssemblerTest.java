@@ -0,0 +1,80 @@
+package com.feedback.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardAssemblerTest {
+
+	private static final Long USER = 7L;
+
+	private final FeedbackService feedbackService = mock(FeedbackService.class);
+	private final ActionItemService actionItemService = mock(ActionItemService.class);
+	private final DashboardAssembler assembler = new DashboardAssembler(feedbackService, actionItemService,
+			new SimpleMeterRegistry(), 2, 10, 1000, false);
+
+	@AfterEach
+	void tearDown() {
+		assembler.shutdown();
+	}
+
+	@Test
+	void countersAreReadInlineAndQueriesOnThePool() {
+		AtomicReference<Thread> unreadThread = new AtomicReference<>();
+		AtomicReference<Thread> activeThread = new AtomicReference<>();
+		AtomicReference<Thread> visibleThread = new AtomicReference<>();
+		when(feedbackService.countUnreadFeedback(USER)).thenAnswer(call -> {
+			unreadThread.set(Thread.currentThread());
+			return 3L;
+		});
+		when(actionItemService.countActiveActionItems(USER)).thenAnswer(call -> {
+			activeThread.set(Thread.currentThread());
+			return 2L;
+		});
+		when(feedbackService.countVisibleFeedbackForUser(USER)).thenAnswer(call -> {
+			visibleThread.set(Thread.currentThread());
+			return 10L;
+		});
+		when(feedbackService.countVisibleFeedbackByStatus(USER)).thenReturn(Map.of());
+		when(feedbackService.findRecentVisibleFeedback(USER, DashboardAssembler.RECENT_FEEDBACK_LIMIT))
+				.thenReturn(List.of());
+
+		DashboardSnapshot snapshot = assembler.assemble(USER);
+
+		assertEquals(3L, snapshot.unreadFeedback().value());
+		assertEquals(2L, snapshot.activeActionItems().value());
+		assertEquals(10L, snapshot.visibleFeedback().value());
+		assertSame(Thread.currentThread(), unreadThread.get());
+		assertSame(Thread.currentThread(), activeThread.get());
+		assertNotSame(Thread.currentThread(), visibleThread.get());
+	}
+
+	@Test
+	void failingCardIsUnavailableAndTheRestRender() {
+		when(feedbackService.countUnreadFeedback(USER)).thenThrow(new IllegalStateException("boom"));
+		when(feedbackService.findRecentVisibleFeedback(USER, DashboardAssembler.RECENT_FEEDBACK_LIMIT))
+				.thenThrow(new IllegalStateException("boom"));
+		when(actionItemService.countActiveActionItems(USER)).thenReturn(1L);
+		when(feedbackService.countVisibleFeedbackForUser(USER)).thenReturn(4L);
+		when(feedbackService.countVisibleFeedbackByStatus(USER)).thenReturn(Map.of());
+
+		DashboardSnapshot snapshot = assembler.assemble(USER);
+
+		assertFalse(snapshot.unreadFeedback().available());
+		assertFalse(snapshot.recentFeedback().available());
+		assertTrue(snapshot.activeActionItems().available());
+		assertEquals(4L, snapshot.visibleFeedback().value());
+	}
+}
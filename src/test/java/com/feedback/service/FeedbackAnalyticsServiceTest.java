@@ -0,0 +1,166 @@
+package com.feedback.service;
+
+import com.feedback.archive.ArchiveReader;
+import com.feedback.archive.ArchiveRecord;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class FeedbackAnalyticsServiceTest {
+
+	private static final LocalDateTime SINCE = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+	private final FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+	private final ArchivedFeedbackRepository archivedFeedbackRepository = mock(ArchivedFeedbackRepository.class);
+	private final ArchiveReader archiveReader = mock(ArchiveReader.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final FeedbackArchiver feedbackArchiver = mock(FeedbackArchiver.class);
+	private final FeedbackAnalyticsService service = new FeedbackAnalyticsService(feedbackRepository,
+			archivedFeedbackRepository, archiveReader, userRepository, feedbackArchiver);
+
+	@Test
+	void rangeInsideTheHorizonReadsTheHotTierOnly() {
+		when(feedbackRepository.countByMonth(SINCE)).thenReturn(List.of(month(2025, 3, 4), month(2025, 4, 2)));
+		when(feedbackRepository.countByCategory(SINCE)).thenReturn(List.of(name("General", 5), name(null, 1)));
+		when(feedbackRepository.countByStatus(SINCE)).thenReturn(List.of(status(FeedbackStatus.OPEN, 6)));
+
+		FeedbackAnalyticsService.Volume volume = service.volume(SINCE);
+		assertEquals(Map.of(YearMonth.of(2025, 3), 4L, YearMonth.of(2025, 4), 2L), volume.byMonth());
+		assertEquals(Map.of("General", 5L), volume.byCategory());
+		assertEquals(Map.of(FeedbackStatus.OPEN, 6L), service.byStatus(SINCE));
+		verifyNoInteractions(archivedFeedbackRepository, archiveReader, userRepository);
+	}
+
+	@Test
+	void allTimeAddsUpEveryTier() {
+		when(feedbackArchiver.reachesArchive(null)).thenReturn(true);
+		when(feedbackRepository.countByMonth(null)).thenReturn(List.of(month(2025, 3, 4)));
+		when(archivedFeedbackRepository.countByMonth(null)).thenReturn(List.of(month(2024, 2, 3)));
+		when(feedbackRepository.countByCategory(null)).thenReturn(List.of(name("General", 4)));
+		when(archivedFeedbackRepository.countByCategory(null)).thenReturn(List.of(name("General", 3)));
+		when(feedbackRepository.countByStatus(null)).thenReturn(List.of(status(FeedbackStatus.OPEN, 4)));
+		when(archivedFeedbackRepository.countByStatus(null)).thenReturn(List.of(status(FeedbackStatus.COMPLETED, 3)));
+		List<ArchiveRecord> segments = List.of(
+				record(1L, 10L, 20L, LocalDateTime.of(2021, 5, 3, 9, 0), "General"),
+				record(2L, 10L, 21L, LocalDateTime.of(2021, 5, 9, 9, 0), "Recognition"),
+				record(3L, null, 22L, LocalDateTime.of(2021, 6, 1, 9, 0), null));
+		segmentsHold(segments);
+
+		FeedbackAnalyticsService.Volume volume = service.volume(null);
+		assertEquals(Map.of(YearMonth.of(2025, 3), 4L, YearMonth.of(2024, 2), 3L, YearMonth.of(2021, 5), 2L,
+				YearMonth.of(2021, 6), 1L), volume.byMonth());
+		assertEquals(Map.of("General", 8L, "Recognition", 1L), volume.byCategory());
+		assertEquals(Map.of(FeedbackStatus.OPEN, 4L, FeedbackStatus.COMPLETED, 6L), service.byStatus(null));
+	}
+
+	@Test
+	void segmentRecordsAreGroupedByTheUsersCurrentDepartment() {
+		when(feedbackArchiver.reachesArchive(null)).thenReturn(true);
+		when(feedbackRepository.countByRecipientDepartment(null)).thenReturn(List.of(name("Sales", 2)));
+		when(feedbackRepository.countBySenderDepartment(null)).thenReturn(List.of(name("Engineering", 2)));
+		when(archivedFeedbackRepository.countByRecipientDepartment(null)).thenReturn(List.of(name("Sales", 1)));
+		when(archivedFeedbackRepository.countBySenderDepartment(null)).thenReturn(List.of());
+		when(userRepository.findDepartmentNames()).thenReturn(List.of(
+				department(10L, "Engineering"), department(20L, "Sales"), department(21L, "Support")));
+		segmentsHold(List.of(
+				record(1L, 10L, 20L, LocalDateTime.of(2021, 5, 3, 9, 0), "General"),
+				record(2L, 10L, 21L, LocalDateTime.of(2021, 5, 9, 9, 0), "General"),
+				// Anonymous, to someone without a department
+				record(3L, null, 22L, LocalDateTime.of(2021, 6, 1, 9, 0), "General")));
+
+		FeedbackAnalyticsService.Departments departments = service.byDepartment(null);
+		assertEquals(Map.of("Sales", 4L, "Support", 1L), departments.received());
+		assertEquals(Map.of("Engineering", 4L), departments.sent());
+	}
+
+	// countBetween over the given records, the way ArchiveReader groups them
+	private void segmentsHold(List<ArchiveRecord> records) {
+		when(archiveReader.recordCount()).thenReturn((long) records.size());
+		when(archiveReader.countBetween(isNull(), isNull(), any())).thenAnswer(invocation -> {
+			Function<ArchiveRecord, Object> key = invocation.getArgument(2);
+			Map<Object, Long> counts = new HashMap<>();
+			for (ArchiveRecord record : records) {
+				Object k = key.apply(record);
+				if (k != null) {
+					counts.merge(k, 1L, Long::sum);
+				}
+			}
+			return counts;
+		});
+	}
+
+	private static ArchiveRecord record(long id, Long senderId, Long recipientId, LocalDateTime createdAt,
+	                                    String category) {
+		return new ArchiveRecord(id, senderId, recipientId, "Feedback " + id, createdAt, PrivacyLevel.PRIVATE,
+				category, true, FeedbackStatus.COMPLETED, null, null, null, List.of());
+	}
+
+	private static FeedbackRepository.MonthCount month(int year, int month, long total) {
+		return new FeedbackRepository.MonthCount() {
+			public int getYear() {
+				return year;
+			}
+
+			public int getMonth() {
+				return month;
+			}
+
+			public long getTotal() {
+				return total;
+			}
+		};
+	}
+
+	private static FeedbackRepository.NameCount name(String name, long total) {
+		return new FeedbackRepository.NameCount() {
+			public String getName() {
+				return name;
+			}
+
+			public long getTotal() {
+				return total;
+			}
+		};
+	}
+
+	private static FeedbackRepository.StatusCount status(FeedbackStatus status, long total) {
+		return new FeedbackRepository.StatusCount() {
+			public FeedbackStatus getStatus() {
+				return status;
+			}
+
+			public long getTotal() {
+				return total;
+			}
+		};
+	}
+
+	private static UserRepository.DepartmentName department(Long id, String name) {
+		return new UserRepository.DepartmentName() {
+			public Long getId() {
+				return id;
+			}
+
+			public String getName() {
+				return name;
+			}
+		};
+	}
+}
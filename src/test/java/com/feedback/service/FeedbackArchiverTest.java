@@ -0,0 +1,192 @@
+package com.feedback.service;
+
+import com.feedback.archive.SegmentArchiver;
+import com.feedback.model.ActionItem;
+import com.feedback.model.ArchivedFeedback;
+import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackAnswer;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.model.User;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackAnswerRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Archiving against the real schema: which rows leave the hot table, that they keep
+ * their ids and answers, and that the readers put the tiers back together.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "feedback.archive.batch-size=2",
+		"feedback.archive.batch-pause-ms=0", "feedback.segments.batch-pause-ms=0"})
+class FeedbackArchiverTest {
+
+	@Autowired
+	private FeedbackArchiver feedbackArchiver;
+
+	@Autowired
+	private SegmentArchiver segmentArchiver;
+
+	@Autowired
+	private FeedbackService feedbackService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private FeedbackRepository feedbackRepository;
+
+	@Autowired
+	private ArchivedFeedbackRepository archivedFeedbackRepository;
+
+	@Autowired
+	private FeedbackAnswerRepository feedbackAnswerRepository;
+
+	@Autowired
+	private ActionItemRepository actionItemRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void segmentDirectory(DynamicPropertyRegistry registry) throws IOException {
+		String segments = Files.createTempDirectory("archiver-test").toString();
+		registry.add("feedback.segments.dir", () -> segments);
+	}
+
+	@Test
+	void onlyReadFeedbackWithoutActionItemsPastTheHorizonMoves() {
+		User sender = user("hwalsh", "Hana", "Walsh");
+		User recipient = user("dcole", "Dev", "Cole");
+		// More than one batch of two
+		List<Feedback> old = List.of(
+				feedback(sender, recipient, "Old one", 400, true),
+				feedback(sender, recipient, "Old two", 500, true),
+				feedback(sender, recipient, "Old three", 600, true));
+		Feedback unread = feedback(sender, recipient, "Never opened", 400, false);
+		Feedback withItem = feedback(sender, recipient, "Has an action item", 400, true);
+		actionItem(withItem, recipient, sender);
+		Feedback recent = feedback(sender, recipient, "Last month", 30, true);
+
+		assertTrue(feedbackArchiver.archive() >= old.size());
+
+		for (Feedback feedback : old) {
+			assertFalse(feedbackRepository.existsById(feedback.getId()));
+			assertTrue(archivedFeedbackRepository.existsById(feedback.getId()));
+		}
+		for (Feedback feedback : List.of(unread, withItem, recent)) {
+			assertTrue(feedbackRepository.existsById(feedback.getId()));
+			assertFalse(archivedFeedbackRepository.existsById(feedback.getId()));
+		}
+	}
+
+	@Test
+	void idsAndAnswersSurviveTheMove() {
+		User sender = user("nbaptiste", "Nia", "Baptiste");
+		User recipient = user("ofischer", "Omar", "Fischer");
+		Feedback feedback = feedback(sender, recipient, "Quarterly review", 400, true);
+		answer(feedback, 0, null, (short) 4);
+		answer(feedback, 1, "Keep the demos coming", null);
+
+		feedbackArchiver.archive();
+
+		ArchivedFeedback archived = archivedFeedbackRepository.findById(feedback.getId()).orElseThrow();
+		assertEquals("Quarterly review", archived.getContent());
+		assertEquals(sender.getId(), archived.getSender().getId());
+		assertEquals(recipient.getId(), archived.getRecipient().getId());
+		assertEquals(7L, archived.getTemplateVersionId());
+		assertEquals(FeedbackStatus.COMPLETED, archived.getStatus());
+		List<FeedbackAnswer> answers = feedbackAnswerRepository.findByFeedbackIdOrderByQuestionIndex(feedback.getId());
+		assertEquals(2, answers.size());
+		assertEquals((short) 4, answers.get(0).getRating());
+		assertEquals("Keep the demos coming", answers.get(1).getText());
+	}
+
+	@Test
+	void readersMergeTheTiersWithoutDuplicates() {
+		User sender = user("ewright", "Ella", "Wright");
+		User recipient = user("fnakamura", "Finn", "Nakamura");
+		Feedback recent = feedback(sender, recipient, "Recent", 10, true);
+		Feedback archived = feedback(sender, recipient, "Last year", 400, true);
+		Feedback segmented = feedback(sender, recipient, "Years ago", 1200, true);
+		feedbackArchiver.archive();
+		Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM feedback_archive WHERE id = ?",
+				segmented.getId());
+		segmentArchiver.archive();
+		// A segment run that failed before its deletes committed leaves the row in both places
+		new SimpleJdbcInsert(jdbcTemplate).withTableName("feedback_archive").execute(row);
+
+		List<Feedback> received = feedbackService.findFeedbackReceivedByUser(recipient.getId(), null);
+		assertEquals(List.of(recent.getId(), archived.getId(), segmented.getId()), ids(received));
+		assertTrue(received.stream().filter(feedback -> !feedback.getId().equals(recent.getId()))
+				.allMatch(Feedback::isArchived));
+
+		// Inside the last 500 days: the hot row and the archive table, not the segment
+		List<Feedback> lastYears = feedbackService.findFeedbackReceivedByUser(recipient.getId(),
+				LocalDateTime.now().minusDays(500));
+		assertEquals(List.of(recent.getId(), archived.getId()), ids(lastYears));
+
+		List<Long> all = ids(feedbackService.findAllFeedback(null));
+		assertEquals(all.stream().distinct().count(), all.size());
+		assertTrue(all.containsAll(List.of(recent.getId(), archived.getId(), segmented.getId())));
+	}
+
+	private static List<Long> ids(List<Feedback> feedback) {
+		return feedback.stream().map(Feedback::getId).sorted().toList();
+	}
+
+	private User user(String username, String firstName, String lastName) {
+		return userRepository.save(new User(username, firstName, lastName, username + "@company.com", "hash"));
+	}
+
+	// Creation time is set on insert, so it is moved back afterwards
+	private Feedback feedback(User sender, User recipient, String content, int daysAgo, boolean read) {
+		Feedback feedback = new Feedback();
+		feedback.setSender(sender);
+		feedback.setRecipient(recipient);
+		feedback.setContent(content);
+		feedback.setPrivacyLevel(PrivacyLevel.PRIVATE);
+		feedback.setCategory("General");
+		feedback.setStatus(FeedbackStatus.COMPLETED);
+		feedback.setTemplateVersionId(7L);
+		feedback.setRead(read);
+		Feedback saved = feedbackRepository.save(feedback);
+		jdbcTemplate.update("UPDATE feedback SET created_at = ? WHERE id = ?",
+				LocalDateTime.now().minusDays(daysAgo), saved.getId());
+		return saved;
+	}
+
+	private void answer(Feedback feedback, int questionIndex, String text, Short rating) {
+		FeedbackAnswer answer = new FeedbackAnswer(7L, questionIndex, text, rating);
+		answer.setFeedbackId(feedback.getId());
+		answer.setAnsweredAt(LocalDateTime.now().minusDays(400));
+		feedbackAnswerRepository.save(answer);
+	}
+
+	private void actionItem(Feedback feedback, User assignee, User creator) {
+		ActionItem item = new ActionItem();
+		item.setFeedback(feedback);
+		item.setAssignedTo(assignee);
+		item.setCreatedBy(creator);
+		item.setTitle("Follow up");
+		actionItemRepository.save(item);
+	}
+}
@@ -0,0 +1,167 @@
+package com.feedback.service;
+
+import com.feedback.archive.ArchiveReader;
+import com.feedback.dedup.NearDuplicateIndex;
+import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackTemplateVersion;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.model.User;
+import com.feedback.policy.ContentPolicy;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackAnswerRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.UserRepository;
+import com.feedback.sentiment.SentimentQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counter updates from saving and deleting feedback wait for the surrounding transaction
+ * to commit. The transaction is simulated with Spring's synchronization registry.
+ */
+class FeedbackServiceTransactionTest {
+
+	private static final Long VERSION_ID = 9L;
+
+	private final FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+	private final ActivityCounterService counters = mock(ActivityCounterService.class);
+	private final TemplateVersionCache templateVersionCache = mock(TemplateVersionCache.class);
+	private final NearDuplicateIndex nearDuplicateIndex = mock(NearDuplicateIndex.class);
+	private final FeedbackService service = new FeedbackService(feedbackRepository, mock(FeedbackAnswerRepository.class),
+			mock(ReadReceiptBuffer.class), counters, templateVersionCache, mock(RatingAnalyticsService.class),
+			mock(ArchivedFeedbackRepository.class), mock(FeedbackArchiver.class), mock(ArchiveReader.class),
+			mock(UserRepository.class), mock(SentimentQueue.class), nearDuplicateIndex,
+			new ContentPolicy(new ClassPathResource("policy/content-policy.txt")));
+
+	@BeforeEach
+	void beginTransaction() {
+		TransactionSynchronizationManager.initSynchronization();
+	}
+
+	@AfterEach
+	void endTransaction() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void deleteIsTransactional() throws Exception {
+		assertNotNull(FeedbackService.class.getMethod("deleteFeedback", Long.class).getAnnotation(Transactional.class));
+	}
+
+	@Test
+	void deleteAdjustsCountersOnlyAfterCommit() {
+		Feedback feedback = feedback(5L, PrivacyLevel.PUBLIC);
+		when(feedbackRepository.findById(5L)).thenReturn(Optional.of(feedback));
+
+		service.deleteFeedback(5L);
+		verify(counters, never()).adjustUnreadFeedback(anyLong(), anyLong());
+		verify(counters, never()).publicPostRemoved();
+
+		commit();
+		verify(counters).adjustUnreadFeedback(2L, -1);
+		verify(counters).publicPostRemoved();
+	}
+
+	@Test
+	void rolledBackDeleteLeavesCountersAlone() {
+		when(feedbackRepository.findById(5L)).thenReturn(Optional.of(feedback(5L, PrivacyLevel.PUBLIC)));
+
+		service.deleteFeedback(5L);
+		TransactionSynchronizationManager.clearSynchronization();
+
+		verify(counters, never()).adjustUnreadFeedback(anyLong(), anyLong());
+		verify(counters, never()).publicPostRemoved();
+	}
+
+	@Test
+	void savingWithAnswersAdjustsCountersOnlyAfterCommit() {
+		when(templateVersionCache.get(VERSION_ID)).thenReturn(Optional.of(
+				new FeedbackTemplateVersion(1L, 1, "Review", null, null, List.of())));
+		when(feedbackRepository.save(any(Feedback.class))).thenAnswer(call -> {
+			Feedback saved = call.getArgument(0);
+			saved.setId(6L);
+			return saved;
+		});
+		Feedback feedback = feedback(null, PrivacyLevel.PUBLIC);
+		feedback.setTemplateVersionId(VERSION_ID);
+
+		service.saveFeedback(feedback, List.of());
+		verify(counters, never()).adjustUnreadFeedback(anyLong(), anyLong());
+		verify(counters, never()).publicPostAdded();
+
+		commit();
+		verify(counters).adjustUnreadFeedback(2L, 1);
+		verify(counters).publicPostAdded();
+	}
+
+	@Test
+	void nearDuplicatePublicPostIsNotCountedAsAWallPost() {
+		when(nearDuplicateIndex.findOriginal(any(), eq(1L), anyLong())).thenReturn(3L);
+		when(feedbackRepository.save(any(Feedback.class))).thenAnswer(call -> {
+			Feedback saved = call.getArgument(0);
+			saved.setId(7L);
+			return saved;
+		});
+
+		Feedback saved = service.saveFeedback(feedback(null, PrivacyLevel.PUBLIC));
+		commit();
+		verify(counters).adjustUnreadFeedback(2L, 1);
+		verify(counters, never()).publicPostAdded();
+
+		TransactionSynchronizationManager.initSynchronization();
+		when(feedbackRepository.findById(7L)).thenReturn(Optional.of(saved));
+		service.deleteFeedback(7L);
+		commit();
+		verify(counters, never()).publicPostRemoved();
+	}
+
+	@Test
+	void withoutTransactionCountersMoveRightAway() {
+		TransactionSynchronizationManager.clearSynchronization();
+		when(feedbackRepository.findById(5L)).thenReturn(Optional.of(feedback(5L, PrivacyLevel.PRIVATE)));
+
+		service.deleteFeedback(5L);
+
+		verify(counters).adjustUnreadFeedback(2L, -1);
+		verify(counters, never()).publicPostRemoved();
+	}
+
+	private static void commit() {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+	}
+
+	private static Feedback feedback(Long id, PrivacyLevel privacyLevel) {
+		User sender = new User("sam", "Sam", "Sender", "sam@company.com", "x");
+		sender.setId(1L);
+		User recipient = new User("rita", "Rita", "Recipient", "rita@company.com", "x");
+		recipient.setId(2L);
+		Feedback feedback = new Feedback();
+		feedback.setId(id);
+		feedback.setSender(sender);
+		feedback.setRecipient(recipient);
+		feedback.setContent("Thanks for the review");
+		feedback.setPrivacyLevel(privacyLevel);
+		return feedback;
+	}
+}
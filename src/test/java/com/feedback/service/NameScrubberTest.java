@@ -0,0 +1,65 @@
+package com.feedback.service;
+
+import com.feedback.model.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class NameScrubberTest {
+
+	private static final User ANN = new User("alee", "Ann", "Lee", "ann.lee@company.com", "hash");
+
+	@Test
+	void wholeWordsOnly() {
+		NameScrubber scrubber = NameScrubber.forAllNames(ANN);
+
+		assertEquals("thanks [removed]!", scrubber.scrub("thanks Ann!"));
+		assertEquals("The annual review", scrubber.scrub("The annual review"));
+		assertEquals("Joanne and Leeds", scrubber.scrub("Joanne and Leeds"));
+		assertEquals("([removed]) [removed]'s idea", scrubber.scrub("(Ann) Ann's idea"));
+	}
+
+	@Test
+	void caseIsIgnored() {
+		NameScrubber scrubber = NameScrubber.forAllNames(ANN);
+
+		assertEquals("[removed], [removed] and [removed]", scrubber.scrub("ANN, ann and aLeE"));
+		assertEquals("Mail [removed] today", scrubber.scrub("Mail Ann.Lee@Company.com today"));
+	}
+
+	@Test
+	void longestTermIsReplacedFirst() {
+		NameScrubber scrubber = NameScrubber.forAllNames(ANN);
+
+		// One replacement for the full name, not one per word
+		assertEquals("Kudos to [removed] for the demo", scrubber.scrub("Kudos to Ann Lee for the demo"));
+		// The email as a whole, not its "ann" and "lee" parts
+		assertEquals("Write to [removed]", scrubber.scrub("Write to ann.lee@company.com"));
+	}
+
+	@Test
+	void uniqueNamesLeaveBareFirstAndLastNamesAlone() {
+		NameScrubber scrubber = NameScrubber.forUniqueNames(ANN);
+
+		assertEquals("Ann said [removed] helped", scrubber.scrub("Ann said Ann Lee helped"));
+		assertEquals("Ask [removed] or Lee", scrubber.scrub("Ask alee or Lee"));
+	}
+
+	@Test
+	void shortOrMissingTermsAreSkipped() {
+		User bo = new User("bo", "Bo", null, null, "hash");
+		NameScrubber scrubber = NameScrubber.forAllNames(bo);
+
+		String text = "Bo did well";
+		assertSame(text, scrubber.scrub(text));
+		assertNull(scrubber.scrub(null));
+	}
+
+	@Test
+	void unchangedTextIsTheSameInstance() {
+		String text = "Nothing to see here";
+		assertSame(text, NameScrubber.forAllNames(ANN).scrub(text));
+	}
+}
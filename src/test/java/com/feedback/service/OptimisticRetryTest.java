@@ -0,0 +1,110 @@
+package com.feedback.service;
+
+import com.feedback.model.ActionItemStatus;
+import com.feedback.repository.ActionItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OptimisticRetryTest {
+
+	@Test
+	void conflictsAreRetriedUntilApplied() {
+		Deque<OptimisticRetry.Outcome> outcomes = new ArrayDeque<>(List.of(
+				OptimisticRetry.Outcome.CONFLICT, OptimisticRetry.Outcome.CONFLICT, OptimisticRetry.Outcome.APPLIED));
+		AtomicInteger attempts = new AtomicInteger();
+		assertTrue(OptimisticRetry.run("test", () -> {
+			attempts.incrementAndGet();
+			return outcomes.poll();
+		}));
+		assertEquals(3, attempts.get());
+	}
+
+	@Test
+	void unchangedStopsWithoutRetrying() {
+		AtomicInteger attempts = new AtomicInteger();
+		assertFalse(OptimisticRetry.run("test", () -> {
+			attempts.incrementAndGet();
+			return OptimisticRetry.Outcome.UNCHANGED;
+		}));
+		assertEquals(1, attempts.get());
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() {
+		AtomicInteger attempts = new AtomicInteger();
+		assertThrows(OptimisticLockingFailureException.class, () -> OptimisticRetry.run("test", () -> {
+			attempts.incrementAndGet();
+			return OptimisticRetry.Outcome.CONFLICT;
+		}));
+		assertEquals(OptimisticRetry.MAX_ATTEMPTS, attempts.get());
+	}
+
+	@Test
+	void updatedRowCountMapsToOutcome() {
+		assertEquals(OptimisticRetry.Outcome.APPLIED, OptimisticRetry.Outcome.ofUpdatedRows(1));
+		assertEquals(OptimisticRetry.Outcome.CONFLICT, OptimisticRetry.Outcome.ofUpdatedRows(0));
+	}
+
+	@Test
+	void statusUpdateRetriesOnStaleVersion() {
+		ActionItemRepository repository = mock(ActionItemRepository.class);
+		ActivityCounterService counters = mock(ActivityCounterService.class);
+		when(repository.findStatusVersionById(7L))
+				.thenReturn(Optional.of(statusVersion(ActionItemStatus.OPEN, 1L)))
+				.thenReturn(Optional.of(statusVersion(ActionItemStatus.OPEN, 2L)));
+		when(repository.updateStatusIfVersion(eq(7L), eq(ActionItemStatus.IN_PROGRESS), any(), eq(1L))).thenReturn(0);
+		when(repository.updateStatusIfVersion(eq(7L), eq(ActionItemStatus.IN_PROGRESS), any(), eq(2L))).thenReturn(1);
+
+		ActionItemService service = new ActionItemService(repository, counters);
+		assertTrue(service.updateActionItemStatus(7L, ActionItemStatus.IN_PROGRESS));
+		verify(repository, times(2)).updateStatusIfVersion(eq(7L), eq(ActionItemStatus.IN_PROGRESS), any(), anyLong());
+		verify(counters, times(1)).actionItemChanged(3L, ActionItemStatus.OPEN, 3L, ActionItemStatus.IN_PROGRESS);
+	}
+
+	@Test
+	void statusUpdateRejectsDisallowedTransition() {
+		ActionItemRepository repository = mock(ActionItemRepository.class);
+		ActivityCounterService counters = mock(ActivityCounterService.class);
+		when(repository.findStatusVersionById(7L)).thenReturn(Optional.of(statusVersion(ActionItemStatus.COMPLETED, 4L)));
+
+		ActionItemService service = new ActionItemService(repository, counters);
+		assertThrows(IllegalStateException.class, () -> service.updateActionItemStatus(7L, ActionItemStatus.CANCELLED));
+		verify(repository, never()).updateStatusIfVersion(any(), any(), any(), any());
+		assertFalse(service.updateActionItemStatus(7L, ActionItemStatus.COMPLETED));
+	}
+
+	private static ActionItemRepository.StatusVersion statusVersion(ActionItemStatus status, Long version) {
+		return new ActionItemRepository.StatusVersion() {
+			public ActionItemStatus getStatus() {
+				return status;
+			}
+
+			public Long getVersion() {
+				return version;
+			}
+
+			public Long getAssigneeId() {
+				return 3L;
+			}
+		};
+	}
+}
@@ -0,0 +1,232 @@
+package com.feedback.service;
+
+import com.feedback.model.FeedbackTemplateVersion;
+import com.feedback.model.QuestionType;
+import com.feedback.model.TemplateQuestion;
+import com.feedback.repository.FeedbackAnswerRepository;
+import com.feedback.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RatingAnalyticsServiceTest {
+
+	private static final Long VERSION = 7L;
+	private static final RatingPeriod PERIOD = new RatingPeriod(YearMonth.of(2025, 1), YearMonth.of(2025, 4));
+
+	private final FeedbackAnswerRepository answerRepository = mock(FeedbackAnswerRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final TemplateVersionCache templateVersionCache = mock(TemplateVersionCache.class);
+	private final RatingAnalyticsService service = new RatingAnalyticsService(answerRepository, userRepository,
+			templateVersionCache);
+
+	private final List<FeedbackAnswerRepository.RatingBucket> buckets = new ArrayList<>();
+	private final List<Collection<Long>> managerFilters = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		FeedbackTemplateVersion version = new FeedbackTemplateVersion(1L, 1, "Review", null, null, List.of(
+				new TemplateQuestion("Communication", QuestionType.RATING),
+				TemplateQuestion.text("Anything else?"),
+				new TemplateQuestion("Would you recommend them?", QuestionType.NPS)));
+		ReflectionTestUtils.setField(version, "id", VERSION);
+		when(templateVersionCache.get(VERSION)).thenReturn(Optional.of(version));
+
+		// Filters the buckets the way the query does
+		when(answerRepository.findRatingBuckets(any(), any(), any(), any(), anyBoolean(), any())).thenAnswer(call -> {
+			Long departmentId = call.getArgument(3);
+			boolean anyManager = call.getArgument(4);
+			Collection<Long> managerIds = call.getArgument(5);
+			if (!anyManager) {
+				managerFilters.add(List.copyOf(managerIds));
+			}
+			return buckets.stream()
+					.filter(bucket -> departmentId == null || departmentId.equals(bucket.getDepartmentId()))
+					.filter(bucket -> anyManager || managerIds.contains(bucket.getManagerId()))
+					.toList();
+		});
+	}
+
+	@Test
+	void histogramsAddUpTheBucketsOfNumericQuestions() {
+		bucket(0, 1L, 10L, 1, 5, 2);
+		bucket(0, 1L, 10L, 1, 3, 1);
+		bucket(0, 2L, 11L, 2, 4, 3);
+		// Out of range for a 1-5 rating
+		bucket(0, 2L, 11L, 2, 9, 4);
+		bucket(1, 1L, 10L, 1, 1, 5);
+		bucket(2, 1L, 10L, 1, 9, 1);
+
+		RatingReport report = service.findReport(VERSION, RatingScope.all(), PERIOD).orElseThrow();
+
+		assertEquals(List.of(0, 2), report.questions().stream().map(RatingReport.QuestionRatings::questionIndex).toList());
+		RatingReport.QuestionRatings communication = report.questions().get(0);
+		RatingHistogram histogram = communication.histogram();
+		assertEquals(2, histogram.count(5));
+		assertEquals(1, histogram.count(3));
+		assertEquals(3, histogram.count(4));
+		assertEquals(0, histogram.count(9));
+		assertEquals(6, histogram.total());
+		assertEquals(25.0 / 6, histogram.mean());
+		assertEquals(3, histogram.maxCount());
+		assertEquals(3, communication.byDepartment().get(1L).total());
+		assertEquals(3, communication.byDepartment().get(2L).total());
+		assertEquals(1, report.questions().get(1).histogram().count(9));
+
+		RatingReport department = service.findReport(VERSION, RatingScope.department(2L), PERIOD).orElseThrow();
+		assertEquals(3, department.questions().get(0).histogram().total());
+		assertEquals(0, department.questions().get(1).histogram().total());
+	}
+
+	@Test
+	void movingAverageCoversTheTrailingThreeMonths() {
+		bucket(0, 1L, 10L, 1, 5, 2);
+		bucket(0, 1L, 10L, 3, 2, 2);
+		bucket(0, 1L, 10L, 4, 4, 1);
+
+		List<RatingReport.MonthlyRating> trend = service.findReport(VERSION, RatingScope.all(), PERIOD)
+				.orElseThrow().questions().get(0).trend();
+
+		assertEquals(PERIOD.months(), trend.stream().map(RatingReport.MonthlyRating::month).toList());
+		assertEquals(new RatingReport.MonthlyRating(YearMonth.of(2025, 1), 2, 5.0, 5.0), trend.get(0));
+		// A month without answers has no average but still carries the window
+		assertEquals(new RatingReport.MonthlyRating(YearMonth.of(2025, 2), 0, null, 5.0), trend.get(1));
+		// (5 + 5 + 2 + 2) / 4
+		assertEquals(3.5, trend.get(2).movingAverage());
+		// January has left the window: (2 + 2 + 4) / 3
+		assertEquals(8.0 / 3, trend.get(3).movingAverage());
+	}
+
+	@Test
+	void answersRollUpToEveryManagerAboveWithinTheScopedChain() {
+		// 12 -> 11 -> 10 and 13 -> 10
+		links(Map.of(11L, 10L, 12L, 11L, 13L, 10L));
+		bucket(0, 1L, 12L, 1, 5, 1);
+		bucket(0, 1L, 13L, 1, 1, 1);
+
+		Map<Long, RatingHistogram> all = service.findReport(VERSION, RatingScope.all(), PERIOD)
+				.orElseThrow().questions().get(0).byManagerChain();
+		assertEquals(Map.of(10L, 2L, 11L, 1L, 12L, 1L, 13L, 1L), totals(all));
+		assertEquals(3.0, all.get(10L).mean());
+
+		RatingReport chain = service.findReport(VERSION, RatingScope.managerChain(11L), PERIOD).orElseThrow();
+		assertEquals(Map.of(11L, 1L, 12L, 1L), totals(chain.questions().get(0).byManagerChain()));
+		assertEquals(1, chain.questions().get(0).histogram().total());
+		assertEquals(List.of(List.of(11L, 12L)), managerFilters.stream().map(ids -> ids.stream().sorted().toList()).toList());
+	}
+
+	@Test
+	void largeChainIsQueriedInParts() {
+		Map<Long, Long> links = new HashMap<>();
+		for (long user = 2; user <= 1201; user++) {
+			links.put(user, 1L);
+		}
+		links(links);
+		bucket(0, 1L, 2L, 1, 5, 1);
+		bucket(0, 1L, 700L, 1, 4, 1);
+		bucket(0, 1L, 1201L, 1, 3, 1);
+		bucket(0, 1L, 5000L, 1, 1, 1);
+
+		RatingReport report = service.findReport(VERSION, RatingScope.managerChain(1L), PERIOD).orElseThrow();
+
+		assertEquals(3, managerFilters.size());
+		assertTrue(managerFilters.stream().allMatch(ids -> ids.size() <= RatingAnalyticsService.MAX_MANAGERS_PER_QUERY));
+		assertEquals(1201, managerFilters.stream().mapToInt(Collection::size).sum());
+		assertEquals(3, report.questions().get(0).histogram().total());
+		assertEquals(3, report.questions().get(0).byManagerChain().get(1L).total());
+	}
+
+	@Test
+	void reportingLinesAreLoadedOnceUntilEvicted() {
+		links(Map.of(11L, 10L));
+
+		service.findReport(VERSION, RatingScope.all(), PERIOD);
+		service.findReport(VERSION, RatingScope.managerChain(10L), PERIOD);
+		service.findReport(VERSION, RatingScope.department(1L), PERIOD);
+		verify(userRepository, times(1)).findManagerLinks();
+
+		// Cached reports are dropped with the lines
+		service.evictAll();
+		service.findReport(VERSION, RatingScope.all(), PERIOD);
+		verify(userRepository, times(2)).findManagerLinks();
+		verify(answerRepository, times(4)).findRatingBuckets(any(), any(), any(), any(), anyBoolean(), any());
+	}
+
+	@Test
+	void unknownVersionHasNoReport() {
+		assertTrue(service.findReport(99L, RatingScope.all(), PERIOD).isEmpty());
+	}
+
+	private void links(Map<Long, Long> managers) {
+		when(userRepository.findManagerLinks()).thenReturn(managers.entrySet().stream()
+				.map(link -> link(link.getKey(), link.getValue()))
+				.toList());
+	}
+
+	private static UserRepository.ManagerLink link(Long id, Long managerId) {
+		return new UserRepository.ManagerLink() {
+			public Long getId() {
+				return id;
+			}
+
+			public Long getManagerId() {
+				return managerId;
+			}
+		};
+	}
+
+	private static Map<Long, Long> totals(Map<Long, RatingHistogram> histograms) {
+		Map<Long, Long> totals = new HashMap<>();
+		histograms.forEach((id, histogram) -> totals.put(id, histogram.total()));
+		return totals;
+	}
+
+	private void bucket(int questionIndex, Long departmentId, Long managerId, int month, int value, long total) {
+		buckets.add(new FeedbackAnswerRepository.RatingBucket() {
+			public int getQuestionIndex() {
+				return questionIndex;
+			}
+
+			public Long getDepartmentId() {
+				return departmentId;
+			}
+
+			public Long getManagerId() {
+				return managerId;
+			}
+
+			public int getYear() {
+				return 2025;
+			}
+
+			public int getMonth() {
+				return month;
+			}
+
+			public short getValue() {
+				return (short) value;
+			}
+
+			public long getTotal() {
+				return total;
+			}
+		});
+	}
+}
@@ -0,0 +1,128 @@
+package com.feedback.service;
+
+import com.feedback.archive.ArchiveReader;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.UserCount;
+import com.feedback.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadReceiptBufferTest {
+
+	private static final Long RECIPIENT = 5L;
+
+	private final FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+	private final ActivityCounterService counters = new ActivityCounterService(feedbackRepository,
+			mock(ArchivedFeedbackRepository.class), mock(ArchiveReader.class), mock(ActionItemRepository.class),
+			mock(UserRepository.class));
+	private final ReadReceiptBuffer buffer = new ReadReceiptBuffer(feedbackRepository, counters, 100);
+
+	@Test
+	void markAllAsReadKeepsFeedbackThatArrivesAfterTheUpdate() {
+		counters.adjustUnreadFeedback(RECIPIENT, 3);
+		// The UPDATE marks the three rows; a fourth is committed before the counter is adjusted
+		when(feedbackRepository.markAllAsRead(RECIPIENT)).thenAnswer(invocation -> {
+			counters.adjustUnreadFeedback(RECIPIENT, 1);
+			return 3;
+		});
+
+		assertEquals(3, buffer.markAllAsRead(RECIPIENT));
+		assertEquals(1, counters.unreadFeedback(RECIPIENT));
+	}
+
+	@Test
+	void markAllAsReadAccountsForDroppedReceipts() {
+		counters.adjustUnreadFeedback(RECIPIENT, 4);
+		buffer.record(RECIPIENT, 11L);
+		buffer.record(RECIPIENT, 12L);
+		assertEquals(2, counters.unreadFeedback(RECIPIENT));
+		when(feedbackRepository.markAllAsRead(RECIPIENT)).thenReturn(4);
+
+		buffer.markAllAsRead(RECIPIENT);
+		assertEquals(0, counters.unreadFeedback(RECIPIENT));
+		assertEquals(0, buffer.pendingCounts().size());
+	}
+
+	@Test
+	void flushGivesBackReceiptsForRowsAlreadyRead() {
+		counters.adjustUnreadFeedback(RECIPIENT, 2);
+		buffer.record(RECIPIENT, 11L);
+		buffer.record(RECIPIENT, 12L);
+		when(feedbackRepository.markAsReadForRecipient(eq(RECIPIENT), anyList())).thenReturn(1);
+
+		buffer.flush(RECIPIENT);
+		assertEquals(1, counters.unreadFeedback(RECIPIENT));
+	}
+
+	@Test
+	void flushDuringReconcileIsCountedOnce() throws Exception {
+		AtomicLong dbUnread = new AtomicLong(3);
+		when(feedbackRepository.markAsReadForRecipient(eq(RECIPIENT), anyList())).thenAnswer(invocation -> {
+			dbUnread.decrementAndGet();
+			return 1;
+		});
+		when(feedbackRepository.countUnreadByRecipient()).thenAnswer(invocation -> List.of(count(RECIPIENT, dbUnread.get())));
+		counters.reconcile(buffer::pendingCounts);
+		buffer.record(RECIPIENT, 11L);
+		assertEquals(2, counters.unreadFeedback(RECIPIENT));
+
+		// The receipt was in the snapshot; a flush before the count would also take it off the DB count
+		Thread flusher = new Thread(() -> buffer.flush(RECIPIENT));
+		when(feedbackRepository.countUnreadByRecipient()).thenAnswer(invocation -> {
+			flusher.start();
+			flusher.join(200);
+			return List.of(count(RECIPIENT, dbUnread.get()));
+		});
+		counters.reconcile(buffer::pendingCounts);
+		flusher.join(5000);
+
+		assertFalse(flusher.isAlive());
+		assertEquals(2, dbUnread.get());
+		assertEquals(2, counters.unreadFeedback(RECIPIENT));
+	}
+
+	@Test
+	void receiptBufferedRightAfterTheSnapshotIsJournaled() throws Exception {
+		when(feedbackRepository.countUnreadByRecipient()).thenReturn(List.of(count(RECIPIENT, 3)));
+		Thread reader = new Thread(() -> buffer.record(RECIPIENT, 11L));
+
+		counters.reconcile(() -> {
+			Map<Long, Integer> snapshot = buffer.pendingCounts();
+			reader.start();
+			try {
+				reader.join(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return snapshot;
+		});
+		reader.join(5000);
+
+		assertFalse(reader.isAlive());
+		assertEquals(2, counters.unreadFeedback(RECIPIENT));
+	}
+
+	private static UserCount count(Long userId, long total) {
+		return new UserCount() {
+			public Long getUserId() {
+				return userId;
+			}
+
+			public long getTotal() {
+				return total;
+			}
+		};
+	}
+}
@@ -0,0 +1,101 @@
+package com.feedback.service;
+
+import com.feedback.model.PrivacyLevel;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetentionPolicyTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 15, 12, 0);
+
+	@Test
+	void parsesLevelsAndCategoriesLeniently() {
+		RetentionPolicy policy = RetentionPolicy.parse(" private = 30 ,, ANONYMOUS=60, Department/Recognition =90 ");
+
+		assertEquals(30, policy.daysFor(PrivacyLevel.PRIVATE, null));
+		assertEquals(60, policy.daysFor(PrivacyLevel.ANONYMOUS, "General"));
+		assertEquals(90, policy.daysFor(PrivacyLevel.DEPARTMENT, "Recognition"));
+		assertEquals(0, policy.daysFor(PrivacyLevel.DEPARTMENT, "General"));
+		assertEquals(0, policy.daysFor(PrivacyLevel.PUBLIC, null));
+	}
+
+	@Test
+	void emptySpecKeepsEverything() {
+		for (String spec : new String[] {null, "", "  ", ","}) {
+			RetentionPolicy policy = RetentionPolicy.parse(spec);
+			assertEquals(List.of(), policy.rules(NOW));
+			assertFalse(policy.isExpired(PrivacyLevel.PRIVATE, null, NOW.minusYears(50), NOW));
+		}
+	}
+
+	@Test
+	void rejectsMalformedEntries() {
+		assertThrows(IllegalArgumentException.class, () -> RetentionPolicy.parse("PRIVATE"));
+		assertThrows(IllegalArgumentException.class, () -> RetentionPolicy.parse("SECRET=30"));
+		assertThrows(IllegalArgumentException.class, () -> RetentionPolicy.parse("PRIVATE=thirty"));
+		assertThrows(IllegalArgumentException.class, () -> RetentionPolicy.parse("PRIVATE=30,PUBLIC=1=2"));
+	}
+
+	@Test
+	void categoryEntryOverridesItsLevelOnly() {
+		RetentionPolicy policy = RetentionPolicy.parse("DEPARTMENT=30,DEPARTMENT/Recognition=365,PRIVATE=10");
+
+		assertEquals(365, policy.daysFor(PrivacyLevel.DEPARTMENT, "Recognition"));
+		assertEquals(30, policy.daysFor(PrivacyLevel.DEPARTMENT, "Growth"));
+		assertEquals(30, policy.daysFor(PrivacyLevel.DEPARTMENT, null));
+		// Categories are matched exactly, and only within their own level
+		assertEquals(30, policy.daysFor(PrivacyLevel.DEPARTMENT, "recognition"));
+		assertEquals(10, policy.daysFor(PrivacyLevel.PRIVATE, "Recognition"));
+	}
+
+	@Test
+	void zeroDaysKeepsForeverEvenUnderALevelLimit() {
+		RetentionPolicy policy = RetentionPolicy.parse("PRIVATE=30,PRIVATE/Legal=0");
+
+		assertEquals(0, policy.daysFor(PrivacyLevel.PRIVATE, "Legal"));
+		assertFalse(policy.isExpired(PrivacyLevel.PRIVATE, "Legal", NOW.minusYears(10), NOW));
+		assertTrue(policy.isExpired(PrivacyLevel.PRIVATE, "Other", NOW.minusDays(31), NOW));
+	}
+
+	@Test
+	void levelRuleExceptsEveryCategoryWithItsOwnEntry() {
+		RetentionPolicy policy = RetentionPolicy.parse(
+				"DEPARTMENT=30,DEPARTMENT/Recognition=365,DEPARTMENT/Legal=0,ANONYMOUS/Harassment=3650");
+
+		assertEquals(List.of(
+				new RetentionPolicy.Rule(PrivacyLevel.DEPARTMENT, null, Set.of("Recognition", "Legal"), NOW.minusDays(30)),
+				new RetentionPolicy.Rule(PrivacyLevel.DEPARTMENT, "Recognition", Set.of(), NOW.minusDays(365)),
+				new RetentionPolicy.Rule(PrivacyLevel.ANONYMOUS, "Harassment", Set.of(), NOW.minusDays(3650))),
+				sorted(policy.rules(NOW)));
+	}
+
+	@Test
+	void cutoffIsExclusive() {
+		RetentionPolicy policy = RetentionPolicy.parse("PRIVATE=7");
+		LocalDateTime cutoff = NOW.minusDays(7);
+
+		assertEquals(List.of(new RetentionPolicy.Rule(PrivacyLevel.PRIVATE, null, Set.of(), cutoff)), policy.rules(NOW));
+		assertFalse(policy.isExpired(PrivacyLevel.PRIVATE, null, cutoff, NOW));
+		assertTrue(policy.isExpired(PrivacyLevel.PRIVATE, null, cutoff.minusNanos(1_000_000), NOW));
+		assertFalse(policy.isExpired(PrivacyLevel.PRIVATE, null, null, NOW));
+		// Days are calendar days, so a cutoff across a month end lands on the same time of day
+		assertEquals(LocalDateTime.of(2024, 2, 29, 12, 0),
+				RetentionPolicy.parse("PRIVATE=1").rules(LocalDateTime.of(2024, 3, 1, 12, 0)).get(0).cutoff());
+	}
+
+	// Levels come out in enum order, but categories within a level in map order
+	private static List<RetentionPolicy.Rule> sorted(List<RetentionPolicy.Rule> rules) {
+		return rules.stream()
+				.sorted((a, b) -> a.level() != b.level() ? a.level().compareTo(b.level())
+						: a.category() == null ? -1 : b.category() == null ? 1 : a.category().compareTo(b.category()))
+				.toList();
+	}
+}
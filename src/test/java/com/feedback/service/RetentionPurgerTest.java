@@ -0,0 +1,171 @@
+package com.feedback.service;
+
+import com.feedback.archive.SegmentArchiver;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackAnswerRepository;
+import com.feedback.repository.FeedbackRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The purger against in-memory tables: the repositories' expiry queries and deletes are
+ * answered from maps, so the test can see which rows are left and how each chunk was sized.
+ */
+class RetentionPurgerTest {
+
+	private static final int CHUNK_SIZE = 3;
+	private static final LocalDateTime NOW = LocalDateTime.now();
+
+	private record Row(long id, PrivacyLevel level, String category, LocalDateTime createdAt) {
+	}
+
+	private final Map<Long, Row> hot = new TreeMap<>();
+	private final Map<Long, Row> archived = new TreeMap<>();
+	// Feedback id to the number of rows hanging off it
+	private final Map<Long, Integer> actionItems = new TreeMap<>();
+	private final Map<Long, Integer> answers = new TreeMap<>();
+	private final List<Integer> hotChunks = new ArrayList<>();
+	private final List<Integer> archiveChunks = new ArrayList<>();
+	private final List<Integer> answerChunks = new ArrayList<>();
+	private final List<Integer> pageSizes = new ArrayList<>();
+
+	private final FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+	private final ArchivedFeedbackRepository archivedFeedbackRepository = mock(ArchivedFeedbackRepository.class);
+	private final ActionItemRepository actionItemRepository = mock(ActionItemRepository.class);
+	private final FeedbackAnswerRepository feedbackAnswerRepository = mock(FeedbackAnswerRepository.class);
+	private final SegmentArchiver segmentArchiver = mock(SegmentArchiver.class);
+	private final ActivityCounterReconciler reconciler = mock(ActivityCounterReconciler.class);
+
+	@BeforeEach
+	void fakeTables() {
+		when(feedbackRepository.findExpiredIds(any(), any(), anyCollection(), any(), any()))
+				.thenAnswer(invocation -> expired(hot, invocation.getArgument(0), invocation.getArgument(1),
+						invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4)));
+		when(archivedFeedbackRepository.findExpiredIds(any(), any(), anyCollection(), any(), any()))
+				.thenAnswer(invocation -> expired(archived, invocation.getArgument(0), invocation.getArgument(1),
+						invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4)));
+		when(feedbackRepository.deleteByIdIn(anyCollection())).thenAnswer(invocation ->
+				delete(hot, invocation.getArgument(0), hotChunks));
+		when(archivedFeedbackRepository.deleteByIdIn(anyCollection())).thenAnswer(invocation ->
+				delete(archived, invocation.getArgument(0), archiveChunks));
+		when(actionItemRepository.deleteByFeedbackIdIn(anyCollection())).thenAnswer(invocation ->
+				delete(actionItems, invocation.getArgument(0), new ArrayList<>()));
+		when(feedbackAnswerRepository.deleteByFeedbackIdIn(anyCollection())).thenAnswer(invocation ->
+				delete(answers, invocation.getArgument(0), answerChunks));
+		when(segmentArchiver.purge(any(), any())).thenReturn(List.of());
+	}
+
+	@Test
+	void actionItemsAndAnswersGoWithTheirFeedback() {
+		for (long id = 1; id <= 5; id++) {
+			hot.put(id, new Row(id, PrivacyLevel.PRIVATE, "General", NOW.minusDays(40 + id)));
+			actionItems.put(id, 2);
+			answers.put(id, 3);
+		}
+		hot.put(6L, new Row(6, PrivacyLevel.PRIVATE, "General", NOW.minusDays(10)));
+		actionItems.put(6L, 1);
+		answers.put(6L, 1);
+		// Public feedback has no retention; Recognition is kept longer than its level
+		hot.put(7L, new Row(7, PrivacyLevel.PUBLIC, "General", NOW.minusYears(5)));
+		answers.put(7L, 1);
+		hot.put(8L, new Row(8, PrivacyLevel.PRIVATE, "Recognition", NOW.minusDays(100)));
+		answers.put(8L, 1);
+		for (long id = 20; id < 24; id++) {
+			archived.put(id, new Row(id, PrivacyLevel.PRIVATE, null, NOW.minusDays(400)));
+			answers.put(id, 2);
+		}
+
+		assertEquals(9, purger("PRIVATE=30,PRIVATE/Recognition=365").purge());
+
+		assertEquals(List.of(6L, 7L, 8L), List.copyOf(hot.keySet()));
+		assertEquals(List.of(), List.copyOf(archived.keySet()));
+		assertEquals(List.of(6L), List.copyOf(actionItems.keySet()));
+		assertEquals(List.of(6L, 7L, 8L), List.copyOf(answers.keySet()));
+		verify(reconciler).reconcile();
+	}
+
+	@Test
+	void noChunkIsLargerThanTheChunkSize() {
+		for (long id = 1; id <= 10; id++) {
+			hot.put(id, new Row(id, PrivacyLevel.ANONYMOUS, null, NOW.minusDays(100 + id)));
+			actionItems.put(id, 1);
+		}
+		for (long id = 100; id < 106; id++) {
+			archived.put(id, new Row(id, PrivacyLevel.ANONYMOUS, null, NOW.minusDays(100)));
+		}
+		List<Long> fromSegments = List.of(200L, 201L, 202L, 203L, 204L, 205L, 206L);
+		when(segmentArchiver.purge(any(), any())).thenReturn(fromSegments);
+
+		assertEquals(23, purger("ANONYMOUS=30").purge());
+
+		assertEquals(List.of(3, 3, 3, 1), hotChunks);
+		// A full last chunk needs one more query to find there is nothing left
+		assertEquals(List.of(3, 3), archiveChunks);
+		assertTrue(pageSizes.stream().allMatch(size -> size == CHUNK_SIZE), "page sizes " + pageSizes);
+		assertEquals(3, pageSizes.size() - hotChunks.size());
+		// Answer deletes: one per hot and archive chunk, then the segment ids in chunks
+		assertEquals(List.of(3, 3, 3, 3, 3, 1, 3, 3, 1), answerChunks);
+		assertTrue(hot.isEmpty());
+		assertTrue(actionItems.isEmpty());
+	}
+
+	@Test
+	void nothingToDoWithoutAPolicy() {
+		hot.put(1L, new Row(1, PrivacyLevel.PRIVATE, null, NOW.minusYears(20)));
+
+		assertEquals(0, purger("").purge());
+		assertEquals(1, hot.size());
+	}
+
+	private RetentionPurger purger(String policy) {
+		return new RetentionPurger(feedbackRepository, archivedFeedbackRepository, actionItemRepository,
+				feedbackAnswerRepository, segmentArchiver, reconciler, mock(PlatformTransactionManager.class),
+				new SimpleMeterRegistry(), policy, CHUNK_SIZE, 0, 0);
+	}
+
+	// What the EXPIRED clause of the repositories selects, oldest first
+	private List<Long> expired(Map<Long, Row> table, PrivacyLevel level, String category, Collection<String> except,
+							   LocalDateTime cutoff, Pageable page) {
+		pageSizes.add(page.getPageSize());
+		return table.values().stream()
+				.filter(row -> row.level() == level && row.createdAt().isBefore(cutoff))
+				.filter(row -> category != null ? category.equals(row.category())
+						: row.category() == null || !except.contains(row.category()))
+				.sorted(Comparator.comparing(Row::createdAt))
+				.limit(page.getPageSize())
+				.map(Row::id)
+				.toList();
+	}
+
+	private static int delete(Map<Long, ?> table, Collection<Long> ids, List<Integer> chunks) {
+		chunks.add(ids.size());
+		int deleted = 0;
+		for (Long id : ids) {
+			if (table.remove(id) != null) {
+				deleted++;
+			}
+		}
+		return deleted;
+	}
+}
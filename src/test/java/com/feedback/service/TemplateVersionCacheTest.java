@@ -0,0 +1,155 @@
+package com.feedback.service;
+
+import com.feedback.model.FeedbackTemplate;
+import com.feedback.model.FeedbackTemplateVersion;
+import com.feedback.model.TemplateQuestion;
+import com.feedback.repository.FeedbackTemplateRepository;
+import com.feedback.repository.FeedbackTemplateVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TemplateVersionCacheTest {
+
+	private final FeedbackTemplateVersionRepository versionRepository = mock(FeedbackTemplateVersionRepository.class);
+	private final FeedbackTemplateRepository templateRepository = mock(FeedbackTemplateRepository.class);
+	private final TemplateVersionCache cache = new TemplateVersionCache(versionRepository);
+
+	@AfterEach
+	void endTransaction() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void loadListsPublishedVersionsByName() {
+		when(versionRepository.findPublishedVersions()).thenReturn(List.of(
+				version(11L, 1L, "peer review"), version(21L, 2L, "Onboarding"), version(31L, 3L, "Exit interview")));
+
+		cache.load();
+
+		assertEquals(List.of(31L, 21L, 11L), publishedIds());
+		assertEquals("peer review", cache.get(11L).orElseThrow().getName());
+	}
+
+	@Test
+	void newVersionReplacesTheTemplatesPublishedOne() {
+		FeedbackTemplateVersion first = version(11L, 1L, "Review");
+		FeedbackTemplateVersion second = version(12L, 1L, "Review");
+		cache.publish(2L, version(21L, 2L, "Onboarding"), true);
+		cache.publish(1L, first, true);
+
+		cache.publish(1L, second, true);
+
+		assertEquals(List.of(21L, 12L), publishedIds());
+		// Feedback written from the old version still resolves it
+		assertSame(first, cache.get(11L).orElseThrow());
+	}
+
+	@Test
+	void inactiveOrDeletedTemplatesAreNotOffered() {
+		FeedbackTemplateVersion review = version(11L, 1L, "Review");
+		cache.publish(1L, review, true);
+		cache.publish(2L, version(21L, 2L, "Onboarding"), true);
+
+		cache.publish(1L, review, false);
+		assertEquals(List.of(21L), publishedIds());
+		assertSame(review, cache.get(11L).orElseThrow());
+
+		cache.unpublish(2L);
+		assertTrue(cache.publishedVersions().isEmpty());
+	}
+
+	@Test
+	void laterCallWins() {
+		FeedbackTemplateVersion review = version(11L, 1L, "Review");
+
+		cache.publish(1L, review, true);
+		cache.unpublish(1L);
+		assertTrue(cache.publishedVersions().isEmpty());
+
+		cache.publish(1L, review, true);
+		assertEquals(List.of(11L), publishedIds());
+	}
+
+	@Test
+	void historicalVersionsAreLoadedOnce() {
+		FeedbackTemplateVersion old = version(5L, 1L, "Review");
+		when(versionRepository.findById(5L)).thenReturn(Optional.of(old));
+
+		assertSame(old, cache.get(5L).orElseThrow());
+		assertSame(old, cache.get(5L).orElseThrow());
+		assertTrue(cache.get(6L).isEmpty());
+		assertTrue(cache.get(null).isEmpty());
+		verify(versionRepository, times(1)).findById(5L);
+	}
+
+	@Test
+	void savedTemplateIsPublishedOnlyAfterCommit() {
+		FeedbackTemplateService service = new FeedbackTemplateService(templateRepository, versionRepository, cache);
+		when(templateRepository.save(any(FeedbackTemplate.class))).thenAnswer(call -> {
+			FeedbackTemplate saved = call.getArgument(0);
+			saved.setId(1L);
+			return saved;
+		});
+		when(versionRepository.save(any(FeedbackTemplateVersion.class))).thenAnswer(call -> {
+			FeedbackTemplateVersion saved = call.getArgument(0);
+			ReflectionTestUtils.setField(saved, "id", 11L);
+			return saved;
+		});
+		FeedbackTemplate template = new FeedbackTemplate();
+		template.setName("Review");
+		template.setQuestions(List.of(TemplateQuestion.parse("[rating] Communication")));
+
+		TransactionSynchronizationManager.initSynchronization();
+		service.saveTemplate(template);
+		assertTrue(cache.publishedVersions().isEmpty());
+
+		commit();
+		assertEquals(List.of(11L), publishedIds());
+
+		TransactionSynchronizationManager.initSynchronization();
+		service.deleteTemplate(1L);
+		assertEquals(List.of(11L), publishedIds());
+
+		// Rolled back: the template is still offered
+		TransactionSynchronizationManager.clearSynchronization();
+		assertEquals(List.of(11L), publishedIds());
+
+		TransactionSynchronizationManager.initSynchronization();
+		service.deleteTemplate(1L);
+		commit();
+		assertTrue(cache.publishedVersions().isEmpty());
+	}
+
+	private List<Long> publishedIds() {
+		return cache.publishedVersions().stream().map(FeedbackTemplateVersion::getId).toList();
+	}
+
+	private static void commit() {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+	}
+
+	private static FeedbackTemplateVersion version(Long id, Long templateId, String name) {
+		FeedbackTemplateVersion version = new FeedbackTemplateVersion(templateId, 1, name, null, null, List.of());
+		ReflectionTestUtils.setField(version, "id", id);
+		return version;
+	}
+}
@@ -0,0 +1,153 @@
+package com.feedback.service;
+
+import com.feedback.model.User;
+import com.feedback.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserDirectoryTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final UserDirectory directory = new UserDirectory(userRepository);
+
+	@BeforeEach
+	void setUp() {
+		directory.put(user(1L, "Ann", "Lee", "alee", "ann.lee@company.com"));
+		directory.put(user(2L, "Annabel", "Stone", "astone", "a.stone@company.com"));
+		directory.put(user(3L, "Mary Ann", "Lewis", "mlewis", "mary.lewis@company.com"));
+		directory.put(user(4L, "Lee", "Annand", "lannand", "lee@partner.org"));
+	}
+
+	@Test
+	void everyTermMustPrefixSomeToken() {
+		assertEquals(List.of(1L, 2L, 4L, 3L), search("ann"));
+		assertEquals(List.of(1L, 4L, 3L), search("ann le"));
+		assertEquals(List.of(1L, 4L, 3L), search("le ann"));
+		assertEquals(List.of(4L), search("lee annand"));
+		assertEquals(List.of(), search("ann zzz"));
+	}
+
+	@Test
+	void usernameEmailAndItsLocalPartAreSearchable() {
+		assertEquals(List.of(2L), search("astone"));
+		assertEquals(List.of(3L), search("mary.lewis@comp"));
+		assertEquals(List.of(2L), search("a.st"));
+		assertEquals(List.of(4L), search("lee@"));
+	}
+
+	@Test
+	void filterAndNamesAreCaseFolded() {
+		directory.put(user(5L, "ÉLODIE", "MARTIN", "EMARTIN", "E.Martin@Company.com"));
+
+		assertEquals(List.of(5L), search("élodie"));
+		assertEquals(List.of(5L), search("  MaRt  "));
+		assertEquals(List.of(5L), search("e.martin@COMPANY"));
+	}
+
+	@Test
+	void emptyFilterListsEveryoneByNameWithPaging() {
+		assertEquals(List.of(1L, 2L, 4L, 3L), directory.search("", null, 0, 10));
+		assertEquals(List.of(4L, 3L), directory.search(null, null, 2, 10));
+		assertEquals(List.of(2L), directory.search(" ", 1L, 0, 1));
+	}
+
+	@Test
+	void currentUserIsExcluded() {
+		assertEquals(List.of(4L, 3L), directory.search("ann le", 1L, 0, 10));
+	}
+
+	@Test
+	void deactivatedUsersAreNotFound() {
+		User ann = user(1L, "Ann", "Lee", "alee", "ann.lee@company.com");
+		ann.setActive(false);
+		directory.put(ann);
+
+		assertEquals(List.of(4L, 3L), search("ann le"));
+		assertEquals(List.of(2L, 4L, 3L), directory.search("", null, 0, 10));
+
+		ann.setActive(true);
+		directory.put(ann);
+		assertEquals(List.of(1L, 4L, 3L), search("ann le"));
+	}
+
+	@Test
+	void renamedUserIsOnlyFoundUnderTheNewName() {
+		directory.put(user(1L, "Ann", "Walker", "awalker", "ann.walker@company.com"));
+
+		assertEquals(List.of(4L, 3L), search("ann le"));
+		assertEquals(List.of(1L), search("walk"));
+		assertEquals(List.of(), search("alee"));
+	}
+
+	@Test
+	void erasedUserIsRemovedFromEveryToken() {
+		directory.remove(1L);
+
+		assertEquals(List.of(), search("alee"));
+		assertEquals(List.of(), search("ann.lee"));
+		assertEquals(List.of(4L, 3L), search("ann le"));
+		assertEquals(List.of(2L, 4L, 3L), directory.search("", null, 0, 10));
+		directory.remove(1L);
+	}
+
+	@Test
+	void reloadReplacesTheIndexWithTheTable() {
+		when(userRepository.findDirectoryRows()).thenReturn(List.of(
+				row(2L, "Annabel", "Grey", "astone", "a.stone@company.com", true),
+				row(3L, "Mary Ann", "Lewis", "mlewis", "mary.lewis@company.com", false),
+				row(6L, "Annika", "Berg", "aberg", "annika.berg@company.com", true)));
+
+		directory.load();
+
+		assertEquals(List.of(2L, 6L), search("ann"));
+		assertEquals(List.of(2L), search("grey"));
+		assertEquals(List.of(), search("alee"));
+		assertEquals(List.of(), search("lannand"));
+		assertEquals(List.of(2L, 6L), directory.search("", null, 0, 10));
+	}
+
+	private List<Long> search(String filter) {
+		return directory.search(filter, null, 0, 10);
+	}
+
+	private static User user(Long id, String firstName, String lastName, String username, String email) {
+		User user = new User(username, firstName, lastName, email, "hash");
+		user.setId(id);
+		return user;
+	}
+
+	private static UserRepository.DirectoryRow row(Long id, String firstName, String lastName, String username,
+	                                               String email, boolean active) {
+		return new UserRepository.DirectoryRow() {
+			public Long getId() {
+				return id;
+			}
+
+			public String getFirstName() {
+				return firstName;
+			}
+
+			public String getLastName() {
+				return lastName;
+			}
+
+			public String getUsername() {
+				return username;
+			}
+
+			public String getEmail() {
+				return email;
+			}
+
+			public boolean isActive() {
+				return active;
+			}
+		};
+	}
+}
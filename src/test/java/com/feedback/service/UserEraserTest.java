@@ -0,0 +1,190 @@
+package com.feedback.service;
+
+import com.feedback.model.ActionItem;
+import com.feedback.model.Feedback;
+import com.feedback.model.FeedbackStatus;
+import com.feedback.model.PrivacyLevel;
+import com.feedback.model.User;
+import com.feedback.repository.ActionItemRepository;
+import com.feedback.repository.ArchivedFeedbackRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Erasure against the real schema: references in the feedback table, the archive table
+ * and action items all end up on the tombstone user, and an erasure that stopped
+ * halfway finishes when it is run again.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "feedback.erasure.batch-size=2"})
+class UserEraserTest {
+
+	@Autowired
+	private UserEraser userEraser;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private FeedbackRepository feedbackRepository;
+
+	@Autowired
+	private ArchivedFeedbackRepository archivedFeedbackRepository;
+
+	@Autowired
+	private ActionItemRepository actionItemRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@DynamicPropertySource
+	static void segmentDirectory(DynamicPropertyRegistry registry) throws IOException {
+		String segments = Files.createTempDirectory("eraser-test").toString();
+		registry.add("feedback.segments.dir", () -> segments);
+	}
+
+	@Test
+	void everyTierEndsUpOnTheTombstone() {
+		User erased = user("rpike", "Rosalind", "Pike");
+		User colleague = user("tmorgan", "Tess", "Morgan");
+		User other = user("jokafor", "Jide", "Okafor");
+		Feedback own = feedback(erased, colleague, "Rosalind ran a great retro");
+		Feedback received = feedback(colleague, erased, "Thanks for the review");
+		feedback(other, erased, "Pairing went well");
+		Feedback old = feedback(colleague, erased, "Old note for Rosalind");
+		archive(old);
+		Feedback between = feedback(colleague, other, "Ask Rosalind Pike about the rollout");
+		actionItem(between, erased, colleague, "Walk rpike through the runbook");
+
+		ErasureReport report = userEraser.erase(erased.getId(), (step, rows) -> {
+		});
+		Long tombstone = userEraser.tombstone().getId();
+
+		assertEquals(3, report.feedback());
+		assertEquals(1, report.archivedFeedback());
+		assertEquals(1, report.actionItems());
+		assertNoReferences(erased.getId());
+		assertEquals(List.of(tombstone, colleague.getId()), participants("feedback", own.getId()));
+		assertEquals(List.of(colleague.getId(), tombstone), participants("feedback", received.getId()));
+		assertEquals(List.of(colleague.getId(), tombstone), participants("feedback_archive", old.getId()));
+		assertEquals(tombstone, jdbcTemplate.queryForObject(
+				"SELECT assigned_to_id FROM action_item WHERE feedback_id = ?", Long.class, between.getId()));
+		assertTrue(userRepository.findById(erased.getId()).isEmpty());
+		// Text involving them loses every name; other people's only the full name and username
+		assertEquals("[removed] ran a great retro", content("feedback", own.getId()));
+		assertEquals("Old note for [removed]", content("feedback_archive", old.getId()));
+		assertEquals("Ask [removed] about the rollout", content("feedback", between.getId()));
+		assertEquals("Walk [removed] through the runbook", jdbcTemplate.queryForObject(
+				"SELECT title FROM action_item WHERE feedback_id = ?", String.class, between.getId()));
+	}
+
+	@Test
+	void tombstoneCannotBeErased() {
+		Long tombstone = userEraser.tombstone().getId();
+
+		assertThrows(IllegalArgumentException.class, () -> userEraser.erase(tombstone, (step, rows) -> {
+		}));
+		assertTrue(userRepository.findById(tombstone).isPresent());
+	}
+
+	@Test
+	void interruptedErasureFinishesWhenRunAgain() {
+		User erased = user("kvance", "Kit", "Vance");
+		User colleague = user("lbrandt", "Lena", "Brandt");
+		for (int i = 0; i < 5; i++) {
+			feedback(colleague, erased, "Note " + i);
+		}
+		Feedback between = feedback(colleague, colleague, "Self review");
+		actionItem(between, erased, colleague, "Follow up");
+
+		// Stops after the first batch of two feedback rows has committed
+		RuntimeException stop = new IllegalStateException("stopped");
+		assertThrows(IllegalStateException.class, () -> userEraser.erase(erased.getId(), (step, rows) -> {
+			throw stop;
+		}));
+		assertEquals(3, count("SELECT COUNT(*) FROM feedback WHERE recipient_id = ?", erased.getId()));
+
+		ErasureReport rerun = userEraser.erase(erased.getId(), (step, rows) -> {
+		});
+		assertEquals(3, rerun.feedback());
+		assertEquals(1, rerun.actionItems());
+		assertNoReferences(erased.getId());
+
+		// Nothing left to do once the user is gone
+		ErasureReport again = userEraser.erase(erased.getId(), (step, rows) -> {
+		});
+		assertEquals(0, again.total());
+		assertEquals(0, again.scrubbed());
+	}
+
+	private void assertNoReferences(Long userId) {
+		assertEquals(0, count("SELECT COUNT(*) FROM feedback WHERE sender_id = ? OR recipient_id = ?", userId));
+		assertEquals(0, count("SELECT COUNT(*) FROM feedback_archive WHERE sender_id = ? OR recipient_id = ?", userId));
+		assertEquals(0, count("SELECT COUNT(*) FROM action_item WHERE assigned_to_id = ? OR created_by_id = ?", userId));
+	}
+
+	private long count(String sql, Long userId) {
+		Object[] args = sql.chars().filter(c -> c == '?').mapToObj(c -> userId).toArray();
+		return jdbcTemplate.queryForObject(sql, Long.class, args);
+	}
+
+	private List<Long> participants(String table, Long id) {
+		return jdbcTemplate.queryForObject("SELECT sender_id, recipient_id FROM " + table + " WHERE id = ?",
+				(row, rowNum) -> List.of(row.getLong(1), row.getLong(2)), id);
+	}
+
+	private String content(String table, Long id) {
+		return jdbcTemplate.queryForObject("SELECT content FROM " + table + " WHERE id = ?", String.class, id);
+	}
+
+	private User user(String username, String firstName, String lastName) {
+		return userRepository.save(new User(username, firstName, lastName, username + "@company.com", "hash"));
+	}
+
+	private Feedback feedback(User sender, User recipient, String content) {
+		Feedback feedback = new Feedback();
+		feedback.setSender(sender);
+		feedback.setRecipient(recipient);
+		feedback.setContent(content);
+		feedback.setPrivacyLevel(PrivacyLevel.PRIVATE);
+		feedback.setCategory("General");
+		feedback.setStatus(FeedbackStatus.OPEN);
+		feedback.setRead(true);
+		return feedbackRepository.save(feedback);
+	}
+
+	private void actionItem(Feedback feedback, User assignee, User creator, String title) {
+		ActionItem item = new ActionItem();
+		item.setFeedback(feedback);
+		item.setAssignedTo(assignee);
+		item.setCreatedBy(creator);
+		item.setTitle(title);
+		actionItemRepository.save(item);
+	}
+
+	// Moved the way FeedbackArchiver moves a batch
+	private void archive(Feedback feedback) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			archivedFeedbackRepository.copyFromHot(List.of(feedback.getId()), feedback.getCreatedAt());
+			feedbackRepository.deleteByIdIn(List.of(feedback.getId()));
+		});
+	}
+}
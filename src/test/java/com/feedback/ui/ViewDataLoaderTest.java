@@ -0,0 +1,127 @@
+package com.feedback.ui;
+
+import com.github.mvysny.kaributesting.v10.MockVaadin;
+import com.github.mvysny.kaributesting.v10.Routes;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.shared.Registration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ViewDataLoaderTest {
+
+	// One view loading thread and one queue slot, same for the background pool
+	private final ViewDataLoader loader = new ViewDataLoader(1, 1, 1, 1, false);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final Div view = new Div();
+
+	@BeforeEach
+	void setUp() {
+		MockVaadin.setup(new Routes());
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		loader.shutdown();
+		SecurityContextHolder.clearContext();
+		MockVaadin.tearDown();
+	}
+
+	@Test
+	void fullPoolRejectsInsteadOfRunningOnTheRequestThread() {
+		AtomicReference<Thread> ranOn = new AtomicReference<>();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		loader.load(view, this::blocked, result -> { }, error -> { });
+		loader.load(view, this::blocked, result -> { }, error -> { });
+
+		loader.load(view, () -> {
+			ranOn.set(Thread.currentThread());
+			return "ran";
+		}, result -> { }, failure::set);
+		MockVaadin.clientRoundtrip();
+
+		assertInstanceOf(RejectedExecutionException.class, failure.get());
+		assertTrue(failure.get().getMessage().contains("busy"));
+		assertNull(ranOn.get());
+	}
+
+	@Test
+	void queryRunsWithTheCallersSecurityContext() throws Exception {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("ana@company.com", null, List.of()));
+		CompletableFuture<String> seen = new CompletableFuture<>();
+
+		loader.load(view, () -> {
+			seen.complete(SecurityContextHolder.getContext().getAuthentication().getName());
+			return null;
+		}, result -> { }, error -> { });
+
+		assertEquals("ana@company.com", seen.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void backgroundWorkRunsOnItsOwnPoolAndSurvivesCancel() throws Exception {
+		// Fill the view loading pool; the background pool is unaffected
+		loader.load(view, this::blocked, result -> { }, error -> { });
+		loader.load(view, this::blocked, result -> { }, error -> { });
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch finish = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(1);
+		AtomicReference<String> delivered = new AtomicReference<>();
+
+		Registration registration = loader.runInBackground(view, () -> {
+			started.countDown();
+			await(finish);
+			finished.countDown();
+			return "erased";
+		}, delivered::set, error -> { });
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		registration.remove();
+		finish.countDown();
+
+		assertTrue(finished.await(5, TimeUnit.SECONDS));
+		MockVaadin.clientRoundtrip();
+		assertNull(delivered.get());
+	}
+
+	@Test
+	void cancelledLoadIsNotApplied() throws Exception {
+		AtomicReference<String> delivered = new AtomicReference<>();
+		Registration registration = loader.load(view, this::blocked, delivered::set, error -> { });
+
+		registration.remove();
+		release.countDown();
+		Thread.sleep(50);
+		MockVaadin.clientRoundtrip();
+
+		assertNull(delivered.get());
+	}
+
+	private String blocked() {
+		await(release);
+		return "done";
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}